@@ -13,12 +13,66 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+
+    private final StudioSearchCache studioSearchCache = new StudioSearchCache();
+
+    private final StudioDetailCache studioDetailCache = new StudioDetailCache();
+
+    private final RoomTimelineCache roomTimelineCache = new RoomTimelineCache();
+
+    private final PendingReservationEvents pendingReservationEvents = new PendingReservationEvents();
+
+    private final PriceScheduleCache priceScheduleCache = new PriceScheduleCache();
+
+    private final ReservationOutbox reservationOutbox = new ReservationOutbox();
+
+    private final ReservationArchive reservationArchive = new ReservationArchive();
+
+    private final DelayedTask delayedTask = new DelayedTask();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public AvailabilityIndex getAvailabilityIndex() {
+        return availabilityIndex;
+    }
+
+    public StudioSearchCache getStudioSearchCache() {
+        return studioSearchCache;
+    }
+
+    public StudioDetailCache getStudioDetailCache() {
+        return studioDetailCache;
+    }
+
+    public RoomTimelineCache getRoomTimelineCache() {
+        return roomTimelineCache;
+    }
+
+    public PendingReservationEvents getPendingReservationEvents() {
+        return pendingReservationEvents;
+    }
+
+    public PriceScheduleCache getPriceScheduleCache() {
+        return priceScheduleCache;
+    }
+
+    public ReservationOutbox getReservationOutbox() {
+        return reservationOutbox;
+    }
+
+    public ReservationArchive getReservationArchive() {
+        return reservationArchive;
+    }
+
+    public DelayedTask getDelayedTask() {
+        return delayedTask;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +87,303 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class AvailabilityIndex {
+
+        private boolean enabled = true;
+
+        private int horizonDays = 90;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getHorizonDays() {
+            return horizonDays;
+        }
+
+        public void setHorizonDays(int horizonDays) {
+            this.horizonDays = horizonDays;
+        }
+    }
+
+    public static class StudioSearchCache {
+
+        private boolean enabled = true;
+
+        private long maxEntries = 1000;
+
+        // Limita o atraso das alterações de estúdio e sala feitas em outras instâncias, que não passam pelo outbox
+        private long timeToLiveSeconds = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    public static class StudioDetailCache {
+
+        private boolean enabled = true;
+
+        private long maxEntries = 500;
+
+        // Limita o atraso das alterações de estúdio, sala e imagem feitas em outras instâncias
+        private long timeToLiveSeconds = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    public static class RoomTimelineCache {
+
+        private boolean enabled = true;
+
+        private int maxRooms = 1000;
+
+        // Rede de segurança: a atualização é feita pelos eventos de reserva
+        private long timeToLiveSeconds = 600;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxRooms() {
+            return maxRooms;
+        }
+
+        public void setMaxRooms(int maxRooms) {
+            this.maxRooms = maxRooms;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    public static class PendingReservationEvents {
+
+        // Conexões SSE abertas na instância
+        private int maxSubscribers = 2000;
+
+        // Eventos do estúdio reenviados do outbox na retomada pelo Last-Event-ID; acima disso, a conexão recebe resync
+        private int replaySize = 256;
+
+        // Eventos aguardando envio por conexão; a conexão lenta que enche a fila é encerrada
+        private int subscriberQueueSize = 64;
+
+        private long timeoutSeconds = 1800;
+
+        private long heartbeatSeconds = 25;
+
+        public int getMaxSubscribers() {
+            return maxSubscribers;
+        }
+
+        public void setMaxSubscribers(int maxSubscribers) {
+            this.maxSubscribers = maxSubscribers;
+        }
+
+        public int getReplaySize() {
+            return replaySize;
+        }
+
+        public void setReplaySize(int replaySize) {
+            this.replaySize = replaySize;
+        }
+
+        public int getSubscriberQueueSize() {
+            return subscriberQueueSize;
+        }
+
+        public void setSubscriberQueueSize(int subscriberQueueSize) {
+            this.subscriberQueueSize = subscriberQueueSize;
+        }
+
+        public long getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public void setTimeoutSeconds(long timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        public long getHeartbeatSeconds() {
+            return heartbeatSeconds;
+        }
+
+        public void setHeartbeatSeconds(long heartbeatSeconds) {
+            this.heartbeatSeconds = heartbeatSeconds;
+        }
+    }
+
+    public static class PriceScheduleCache {
+
+        private boolean enabled = true;
+
+        private long maxEntries = 2000;
+
+        // Limita o atraso das alterações de sala e preço especial feitas em outras instâncias
+        private long timeToLiveSeconds = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    public static class ReservationOutbox {
+
+        private long pollIntervalMs = 1000;
+
+        // Eventos sequenciados e entregues por rodada
+        private int batchSize = 500;
+
+        // Tentativas de entrega de um evento antes de ele ser descartado
+        private int maxDispatchAttempts = 5;
+
+        // Eventos entregues continuam disponíveis para replay por este período
+        private int retentionDays = 7;
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxDispatchAttempts() {
+            return maxDispatchAttempts;
+        }
+
+        public void setMaxDispatchAttempts(int maxDispatchAttempts) {
+            this.maxDispatchAttempts = maxDispatchAttempts;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+    }
+
+    public static class ReservationArchive {
+
+        private boolean enabled = true;
+
+        // Reservas concluídas ou canceladas que terminaram há mais dias que isso vão para a partição de arquivo
+        private int afterDays = 180;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getAfterDays() {
+            return afterDays;
+        }
+
+        public void setAfterDays(int afterDays) {
+            this.afterDays = afterDays;
+        }
+    }
+    public static class DelayedTask {
+
+        // Intervalo da varredura, pela instância líder, das tarefas vencidas de instâncias paradas
+        private long recoveryIntervalMs = 60000;
+
+        public long getRecoveryIntervalMs() {
+            return recoveryIntervalMs;
+        }
+
+        public void setRecoveryIntervalMs(long recoveryIntervalMs) {
+            this.recoveryIntervalMs = recoveryIntervalMs;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
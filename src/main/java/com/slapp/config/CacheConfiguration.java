@@ -22,8 +22,11 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> studioSearchCacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> studioDetailCacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> priceScheduleCacheConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
 
         jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
@@ -35,6 +38,39 @@ public class CacheConfiguration {
                 .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
                 .build()
         );
+
+        ApplicationProperties.StudioSearchCache studioSearchCache = applicationProperties.getStudioSearchCache();
+        studioSearchCacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                Object.class,
+                Object.class,
+                ResourcePoolsBuilder.heap(studioSearchCache.getMaxEntries())
+            )
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(studioSearchCache.getTimeToLiveSeconds())))
+                .build()
+        );
+
+        ApplicationProperties.StudioDetailCache studioDetailCache = applicationProperties.getStudioDetailCache();
+        studioDetailCacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                Object.class,
+                Object.class,
+                ResourcePoolsBuilder.heap(studioDetailCache.getMaxEntries())
+            )
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(studioDetailCache.getTimeToLiveSeconds())))
+                .build()
+        );
+
+        ApplicationProperties.PriceScheduleCache priceScheduleCache = applicationProperties.getPriceScheduleCache();
+        priceScheduleCacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                Object.class,
+                Object.class,
+                ResourcePoolsBuilder.heap(priceScheduleCache.getMaxEntries())
+            )
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(priceScheduleCache.getTimeToLiveSeconds())))
+                .build()
+        );
     }
 
     @Bean
@@ -61,15 +97,26 @@ public class CacheConfiguration {
             createCache(cm, com.slapp.domain.Availability.class.getName());
             createCache(cm, com.slapp.domain.CancellationPolicy.class.getName());
             // jhipster-needle-ehcache-add-entry
+            createCache(cm, com.slapp.service.search.StudioSearchCache.CACHE_NAME, studioSearchCacheConfiguration);
+            createCache(cm, com.slapp.service.detail.StudioDetailCache.CACHE_NAME, studioDetailCacheConfiguration);
+            createCache(cm, com.slapp.service.pricing.PricingService.CACHE_NAME, priceScheduleCacheConfiguration);
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration);
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
         }
     }
 
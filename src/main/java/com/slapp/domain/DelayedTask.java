@@ -0,0 +1,103 @@
+package com.slapp.domain;
+
+import com.slapp.domain.enumeration.DelayedTaskType;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Tarefa a executar em um instante exato (cópia durável da roda de tempo em memória).
+ * Há no máximo uma tarefa por tipo e alvo.
+ */
+@Entity
+@Table(name = "delayed_task", uniqueConstraints = @UniqueConstraint(columnNames = { "task_type", "target_id" }))
+public class DelayedTask implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "task_type", nullable = false)
+    private DelayedTaskType taskType;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "due_at", nullable = false)
+    private Instant dueAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public DelayedTaskType getTaskType() {
+        return this.taskType;
+    }
+
+    public void setTaskType(DelayedTaskType taskType) {
+        this.taskType = taskType;
+    }
+
+    public Long getTargetId() {
+        return this.targetId;
+    }
+
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+
+    public Instant getDueAt() {
+        return this.dueAt;
+    }
+
+    public void setDueAt(Instant dueAt) {
+        this.dueAt = dueAt;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DelayedTask)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((DelayedTask) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DelayedTask{" +
+            "id=" + getId() +
+            ", taskType='" + getTaskType() + "'" +
+            ", targetId=" + getTargetId() +
+            ", dueAt='" + getDueAt() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            "}";
+    }
+}
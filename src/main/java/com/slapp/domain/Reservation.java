@@ -70,6 +70,10 @@ public class Reservation implements Serializable {
     @Column(name = "instruments")
     private String instruments;
 
+    // Mantido pelo banco: a reserva encerrada foi movida para a partição de arquivo (reservation_archive)
+    @Column(name = "archived", insertable = false, updatable = false)
+    private Boolean archived;
+
     @ManyToOne(optional = false)
     @NotNull
     @JsonIgnoreProperties(value = { "user" }, allowSetters = true)
@@ -238,6 +242,10 @@ public class Reservation implements Serializable {
         this.instruments = instruments;
     }
 
+    public Boolean getArchived() {
+        return this.archived;
+    }
+
     public UserProfile getCustomer() {
         return this.customer;
     }
@@ -0,0 +1,155 @@
+package com.slapp.domain;
+
+import com.slapp.domain.enumeration.ReservationEventType;
+import com.slapp.domain.enumeration.ReservationStatus;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Evento do outbox de reservas, gravado na mesma transação da alteração da reserva.
+ * <p>
+ * A posição é atribuída depois do commit pelo relay, em ordem crescente sem lacunas; eventos ainda
+ * sem posição não foram entregues.
+ */
+@Entity
+@Table(name = "reservation_event")
+public class ReservationEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "stream_position", unique = true)
+    private Long position;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private ReservationEventType eventType;
+
+    @Column(name = "reservation_id", nullable = false)
+    private Long reservationId;
+
+    @Column(name = "room_id")
+    private Long roomId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private ReservationStatus status;
+
+    @Column(name = "start_date_time")
+    private Instant startDateTime;
+
+    @Column(name = "end_date_time")
+    private Instant endDateTime;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPosition() {
+        return this.position;
+    }
+
+    public void setPosition(Long position) {
+        this.position = position;
+    }
+
+    public ReservationEventType getEventType() {
+        return this.eventType;
+    }
+
+    public void setEventType(ReservationEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getReservationId() {
+        return this.reservationId;
+    }
+
+    public void setReservationId(Long reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public Long getRoomId() {
+        return this.roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public ReservationStatus getStatus() {
+        return this.status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public Instant getStartDateTime() {
+        return this.startDateTime;
+    }
+
+    public void setStartDateTime(Instant startDateTime) {
+        this.startDateTime = startDateTime;
+    }
+
+    public Instant getEndDateTime() {
+        return this.endDateTime;
+    }
+
+    public void setEndDateTime(Instant endDateTime) {
+        this.endDateTime = endDateTime;
+    }
+
+    public Instant getOccurredAt() {
+        return this.occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReservationEvent)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((ReservationEvent) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReservationEvent{" +
+            "id=" + getId() +
+            ", position=" + getPosition() +
+            ", eventType='" + getEventType() + "'" +
+            ", reservationId=" + getReservationId() +
+            ", roomId=" + getRoomId() +
+            ", status='" + getStatus() + "'" +
+            ", startDateTime='" + getStartDateTime() + "'" +
+            ", endDateTime='" + getEndDateTime() + "'" +
+            ", occurredAt='" + getOccurredAt() + "'" +
+            "}";
+    }
+}
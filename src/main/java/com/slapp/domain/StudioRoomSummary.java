@@ -0,0 +1,116 @@
+package com.slapp.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Resumo desnormalizado das salas ativas de um estúdio (modelo de leitura da busca).
+ * Mantido por {@link com.slapp.service.impl.RoomServiceImpl} a cada escrita em {@link Room}.
+ */
+@Entity
+@Table(name = "studio_room_summary")
+public class StudioRoomSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "studio_id")
+    private Long studioId;
+
+    @Column(name = "min_hourly_rate", precision = 21, scale = 2)
+    private BigDecimal minHourlyRate;
+
+    @Column(name = "max_hourly_rate", precision = 21, scale = 2)
+    private BigDecimal maxHourlyRate;
+
+    @Column(name = "active_room_count", nullable = false)
+    private Integer activeRoomCount;
+
+    /**
+     * Bits de {@link com.slapp.domain.enumeration.RoomType#getMask()} das salas ativas.
+     */
+    @Column(name = "room_type_mask", nullable = false)
+    private Integer roomTypeMask;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public Long getStudioId() {
+        return this.studioId;
+    }
+
+    public void setStudioId(Long studioId) {
+        this.studioId = studioId;
+    }
+
+    public BigDecimal getMinHourlyRate() {
+        return this.minHourlyRate;
+    }
+
+    public void setMinHourlyRate(BigDecimal minHourlyRate) {
+        this.minHourlyRate = minHourlyRate;
+    }
+
+    public BigDecimal getMaxHourlyRate() {
+        return this.maxHourlyRate;
+    }
+
+    public void setMaxHourlyRate(BigDecimal maxHourlyRate) {
+        this.maxHourlyRate = maxHourlyRate;
+    }
+
+    public Integer getActiveRoomCount() {
+        return this.activeRoomCount;
+    }
+
+    public void setActiveRoomCount(Integer activeRoomCount) {
+        this.activeRoomCount = activeRoomCount;
+    }
+
+    public Integer getRoomTypeMask() {
+        return this.roomTypeMask;
+    }
+
+    public void setRoomTypeMask(Integer roomTypeMask) {
+        this.roomTypeMask = roomTypeMask;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StudioRoomSummary)) {
+            return false;
+        }
+        return getStudioId() != null && getStudioId().equals(((StudioRoomSummary) o).getStudioId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StudioRoomSummary{" +
+            "studioId=" + getStudioId() +
+            ", minHourlyRate=" + getMinHourlyRate() +
+            ", maxHourlyRate=" + getMaxHourlyRate() +
+            ", activeRoomCount=" + getActiveRoomCount() +
+            ", roomTypeMask=" + getRoomTypeMask() +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,11 @@
+package com.slapp.domain.enumeration;
+
+/**
+ * Tipos de tarefa do {@link com.slapp.service.scheduler.DelayedTaskScheduler}.
+ */
+public enum DelayedTaskType {
+    /**
+     * Confirmação automática de uma reserva pendente ao fim da janela de confirmação do estúdio.
+     */
+    CONFIRM_RESERVATION,
+}
@@ -0,0 +1,13 @@
+package com.slapp.domain.enumeration;
+
+/**
+ * Tipos de evento do outbox de reservas ({@link com.slapp.domain.ReservationEvent}).
+ */
+public enum ReservationEventType {
+    CREATED,
+    UPDATED,
+    APPROVED,
+    REJECTED,
+    AUTO_CONFIRMED,
+    DELETED,
+}
@@ -1,5 +1,7 @@
 package com.slapp.domain.enumeration;
 
+import java.util.List;
+
 /**
  * The ReservationStatus enumeration.
  */
@@ -9,5 +11,14 @@ public enum ReservationStatus {
     IN_PROGRESS,
     COMPLETED,
     CANCELLED,
-    NO_SHOW,
+    NO_SHOW;
+
+    /**
+     * Status que ocupam a sala (bloqueiam novas reservas no mesmo horário).
+     */
+    public static final List<ReservationStatus> ACTIVE_STATUSES = List.of(PENDING, CONFIRMED, IN_PROGRESS);
+
+    public boolean isActive() {
+        return ACTIVE_STATUSES.contains(this);
+    }
 }
@@ -7,22 +7,54 @@ import java.util.List;
  * The RoomType enumeration.
  */
 public enum RoomType {
-    RECORDING("Gravação"),
-    REHEARSAL("Ensaio"),
-    LIVE("Live/Show"),
-    MIXING("Mixagem"),
-    MASTERING("Masterização");
+    RECORDING("Gravação", 1),
+    REHEARSAL("Ensaio", 1 << 1),
+    LIVE("Live/Show", 1 << 2),
+    MIXING("Mixagem", 1 << 3),
+    MASTERING("Masterização", 1 << 4);
 
     private final String displayName;
 
-    RoomType(String displayName) {
+    private final int mask;
+
+    RoomType(String displayName, int mask) {
         this.displayName = displayName;
+        this.mask = mask;
     }
 
     public String getDisplayName() {
         return displayName;
     }
 
+    /**
+     * Bit do tipo em studio_room_summary.room_type_mask. Os bits são gravados e repetidos no CASE de
+     * {@code StudioRoomSummaryRepository.refreshByStudioId} e no backfill do changelog 20261018000001:
+     * não dependem da ordem das constantes, e um novo tipo recebe o próximo bit livre.
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Máscara correspondente ao filtro de tipo de sala da busca.
+     * Retorna -1 (todos os bits) quando não há filtro, e 0 para valores inválidos (nenhum estúdio corresponde).
+     */
+    public static int maskOf(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return -1;
+        }
+
+        if ("BOTH".equals(value)) {
+            return RECORDING.getMask() | REHEARSAL.getMask() | LIVE.getMask() | MIXING.getMask();
+        }
+
+        try {
+            return valueOf(value).getMask();
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
     // Método utilitário para validação
     public static boolean isValid(String value) {
         if (value == null || value.trim().isEmpty()) {
@@ -1,7 +1,11 @@
 package com.slapp.repository;
 
 import com.slapp.domain.Availability;
+import com.slapp.repository.projections.AvailabilityIntervalProjection;
+import java.time.Instant;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +13,18 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AvailabilityRepository extends JpaRepository<Availability, Long> {}
+public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
+    /**
+     * Bloqueios e liberações da sala que intersectam a janela informada
+     */
+    @Query(
+        "SELECT a.startDateTime as startDateTime, a.endDateTime as endDateTime, a.available as available " +
+        "FROM Availability a " +
+        "WHERE a.room.id = :roomId AND a.startDateTime < :to AND a.endDateTime > :from"
+    )
+    List<AvailabilityIntervalProjection> findIntervalsByRoomBetween(
+        @Param("roomId") Long roomId,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+}
@@ -0,0 +1,110 @@
+package com.slapp.repository;
+
+import com.slapp.domain.DelayedTask;
+import com.slapp.domain.enumeration.DelayedTaskType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the DelayedTask entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface DelayedTaskRepository extends JpaRepository<DelayedTask, Long> {
+    /**
+     * Grava a tarefa do alvo, substituindo o instante de uma tarefa já existente do mesmo tipo.
+     * <p>
+     * O espaço declarado evita que o INSERT nativo invalide todo o cache de segundo nível.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "delayed_task"))
+    @Query(
+        value = """
+        INSERT INTO delayed_task (task_type, target_id, due_at, created_at)
+        VALUES (:taskType, :targetId, CAST(:dueAt AS timestamp), CAST(:now AS timestamp))
+        ON CONFLICT (task_type, target_id) DO UPDATE SET due_at = EXCLUDED.due_at
+        """,
+        nativeQuery = true
+    )
+    void upsert(@Param("taskType") String taskType, @Param("targetId") Long targetId, @Param("dueAt") Instant dueAt, @Param("now") Instant now);
+
+    /**
+     * Agenda, em uma única instrução, a confirmação das reservas pendentes informadas (já gravadas na
+     * transação), com o prazo contado a partir da criação de cada reserva.
+     *
+     * @return a quantidade de tarefas gravadas.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "delayed_task"))
+    @Query(
+        value = """
+        INSERT INTO delayed_task (task_type, target_id, due_at, created_at)
+        SELECT 'CONFIRM_RESERVATION', r.id, COALESCE(r.created_at, CAST(:now AS timestamp)) + :delaySeconds * INTERVAL '1 second', CAST(:now AS timestamp)
+        FROM reservation r
+        WHERE r.archived = false AND r.id IN (:ids) AND r.status = 'PENDING'
+        ON CONFLICT (task_type, target_id) DO UPDATE SET due_at = EXCLUDED.due_at
+        """,
+        nativeQuery = true
+    )
+    int scheduleReservationConfirmations(
+        @Param("ids") Collection<Long> ids,
+        @Param("delaySeconds") long delaySeconds,
+        @Param("now") Instant now
+    );
+
+    /**
+     * Remove a tarefa executada; uma tarefa reagendada para {@code dueBefore} ou depois é mantida.
+     */
+    @Modifying
+    @Query("DELETE FROM DelayedTask t WHERE t.taskType = :taskType AND t.targetId = :targetId AND t.dueAt < :dueBefore")
+    int deleteTask(@Param("taskType") DelayedTaskType taskType, @Param("targetId") Long targetId, @Param("dueBefore") Instant dueBefore);
+
+    /**
+     * Adia a tarefa que falhou para {@code dueAt}; uma tarefa reagendada para {@code dueBefore} ou depois
+     * é mantida.
+     */
+    @Modifying
+    @Query(
+        "UPDATE DelayedTask t SET t.dueAt = :dueAt WHERE t.taskType = :taskType AND t.targetId = :targetId AND t.dueAt < :dueBefore"
+    )
+    int postponeTask(
+        @Param("taskType") DelayedTaskType taskType,
+        @Param("targetId") Long targetId,
+        @Param("dueBefore") Instant dueBefore,
+        @Param("dueAt") Instant dueAt
+    );
+
+    List<DelayedTask> findAllByOrderByDueAtAsc();
+
+    /**
+     * Tarefas vencidas antes de {@code dueBefore}, as mais antigas primeiro.
+     */
+    List<DelayedTask> findByDueAtBeforeOrderByDueAtAsc(Instant dueBefore, Pageable pageable);
+
+    /**
+     * Agenda a confirmação das reservas pendentes que ainda não têm tarefa (criadas antes do agendador ou
+     * perdidas em uma falha), com o prazo contado a partir da criação da reserva.
+     *
+     * @return a quantidade de tarefas criadas.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "delayed_task"))
+    @Query(
+        value = """
+        INSERT INTO delayed_task (task_type, target_id, due_at, created_at)
+        SELECT 'CONFIRM_RESERVATION', r.id, COALESCE(r.created_at, CAST(:now AS timestamp)) + :delaySeconds * INTERVAL '1 second', CAST(:now AS timestamp)
+        FROM reservation r
+        WHERE r.archived = false AND r.status = 'PENDING'
+        ON CONFLICT (task_type, target_id) DO NOTHING
+        """,
+        nativeQuery = true
+    )
+    int scheduleMissingReservationConfirmations(@Param("delaySeconds") long delaySeconds, @Param("now") Instant now);
+}
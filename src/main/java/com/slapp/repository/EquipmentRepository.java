@@ -1,7 +1,10 @@
 package com.slapp.repository;
 
 import com.slapp.domain.Equipment;
+import com.slapp.repository.projections.RoomStudioProjection;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,10 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface EquipmentRepository extends JpaRepository<Equipment, Long>, JpaSpecificationExecutor<Equipment> {}
+public interface EquipmentRepository extends JpaRepository<Equipment, Long>, JpaSpecificationExecutor<Equipment> {
+    /**
+     * Sala e estúdio do equipamento, sem carregar a entidade.
+     */
+    @Query("SELECT e.room.id AS roomId, e.room.studio.id AS studioId FROM Equipment e WHERE e.id = :id")
+    Optional<RoomStudioProjection> findRoomStudioById(@Param("id") Long id);
+}
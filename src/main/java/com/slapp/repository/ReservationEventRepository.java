@@ -0,0 +1,109 @@
+package com.slapp.repository;
+
+import com.slapp.domain.ReservationEvent;
+import com.slapp.domain.enumeration.ReservationEventType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the ReservationEvent entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ReservationEventRepository extends JpaRepository<ReservationEvent, Long> {
+    /**
+     * Grava, em uma única instrução, o evento de cada reserva informada com o estado já gravado na
+     * transação (o flush automático envia antes as alterações pendentes da sessão).
+     * <p>
+     * O espaço declarado evita que o INSERT nativo invalide todo o cache de segundo nível.
+     *
+     * @return a quantidade de eventos gravados.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reservation_event"))
+    @Query(
+        value = """
+        INSERT INTO reservation_event (event_type, reservation_id, room_id, status, start_date_time, end_date_time, occurred_at)
+        SELECT :eventType, r.id, r.room_id, r.status, r.start_date_time, r.end_date_time, CAST(:now AS timestamp)
+        FROM reservation r
+        WHERE r.id IN (:ids)
+        ORDER BY r.id
+        """,
+        nativeQuery = true
+    )
+    int append(@Param("eventType") String eventType, @Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Atribui posições, em ordem de id, aos eventos já confirmados que ainda não têm posição, continuando
+     * a maior posição atribuída. Deve haver um único sequenciador no cluster; a constraint única da
+     * posição rejeita a rodada de um sequenciador concorrente.
+     *
+     * @return a quantidade de eventos sequenciados.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reservation_event"))
+    @Query(
+        value = """
+        UPDATE reservation_event e
+        SET stream_position = pending.stream_position
+        FROM (
+            SELECT id, (SELECT COALESCE(MAX(stream_position), 0) FROM reservation_event) + ROW_NUMBER() OVER (ORDER BY id) AS stream_position
+            FROM reservation_event
+            WHERE stream_position IS NULL
+            ORDER BY id
+            LIMIT :limit
+        ) pending
+        WHERE e.id = pending.id
+        """,
+        nativeQuery = true
+    )
+    int assignPositions(@Param("limit") int limit);
+
+    /**
+     * Eventos com posição maior que {@code position}, em ordem de posição.
+     */
+    @Query("SELECT e FROM ReservationEvent e WHERE e.position > :position ORDER BY e.position")
+    List<ReservationEvent> findSequencedAfter(@Param("position") long position, Pageable pageable);
+
+    @Query("SELECT MAX(e.position) FROM ReservationEvent e")
+    Optional<Long> findMaxPosition();
+
+    @Query("SELECT MIN(e.position) FROM ReservationEvent e")
+    Optional<Long> findMinPosition();
+
+    /**
+     * Eventos dos tipos informados das salas do estúdio, com posição em ({@code after}, {@code upTo}], em ordem de posição.
+     */
+    @Query(
+        "SELECT e FROM ReservationEvent e " +
+        "WHERE e.position > :after AND e.position <= :upTo AND e.eventType IN (:types) " +
+        "AND e.roomId IN (SELECT r.id FROM Room r WHERE r.studio.id = :studioId) " +
+        "ORDER BY e.position"
+    )
+    List<ReservationEvent> findStudioEventsBetween(
+        @Param("studioId") Long studioId,
+        @Param("after") long after,
+        @Param("upTo") long upTo,
+        @Param("types") Collection<ReservationEventType> types,
+        Pageable pageable
+    );
+
+    /**
+     * Remove os eventos já sequenciados que ocorreram antes de {@code cutoff}. O evento de maior posição
+     * é mantido: o sequenciador continua a partir dele, e as posições nunca são reutilizadas.
+     */
+    @Modifying
+    @Query(
+        "DELETE FROM ReservationEvent e WHERE e.position IS NOT NULL AND e.occurredAt < :cutoff " +
+        "AND e.position < (SELECT MAX(last.position) FROM ReservationEvent last)"
+    )
+    int deleteSequencedBefore(@Param("cutoff") Instant cutoff);
+}
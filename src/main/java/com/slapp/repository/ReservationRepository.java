@@ -2,9 +2,18 @@ package com.slapp.repository;
 
 import com.slapp.domain.Reservation;
 import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.projections.ReservationHistoryProjection;
+import com.slapp.repository.projections.ReservationIntervalProjection;
+import com.slapp.repository.projections.ReservationSlotProjection;
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,50 +24,227 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation> {
+    /**
+     * Reservas ativas da sala cujo intervalo [início, fim) intersecta o intervalo informado.
+     * Usa a coluna gerada booked_range (tsrange) e o índice GiST sobre (room_id, booked_range).
+     * <p>
+     * Reservas ativas nunca são arquivadas: as consultas de reservas ativas filtram {@code archived = false}
+     * e leem apenas a partição reservation_live.
+     */
     @Query(
-        "SELECT r FROM Reservation r WHERE r.room.id = :roomId " +
-        "AND r.status IN (:activeStatuses) " +
-        "AND ((r.startDateTime <= :endDateTime AND r.endDateTime >= :startDateTime))"
+        value = """
+        SELECT r.* FROM reservation r
+        WHERE r.archived = false
+        AND r.room_id = :roomId
+        AND r.status IN (:statuses)
+        AND r.booked_range && tsrange(CAST(:startDateTime AS timestamp), CAST(:endDateTime AS timestamp), '[)')
+        ORDER BY r.start_date_time
+        """,
+        nativeQuery = true
     )
-    List<Reservation> findConflictingReservations(
+    List<Reservation> findOverlappingByRoom(
         @Param("roomId") Long roomId,
         @Param("startDateTime") Instant startDateTime,
         @Param("endDateTime") Instant endDateTime,
-        @Param("activeStatuses") List<ReservationStatus> activeStatuses
+        @Param("statuses") Collection<String> statuses
+    );
+
+    default List<Reservation> findConflictingReservations(
+        Long roomId,
+        Instant startDateTime,
+        Instant endDateTime,
+        List<ReservationStatus> activeStatuses
+    ) {
+        return findOverlappingByRoom(roomId, startDateTime, endDateTime, activeStatuses.stream().map(Enum::name).toList());
+    }
+
+    default List<Reservation> findReservationsByRoomAndDate(
+        Long roomId,
+        Instant startOfDay,
+        Instant endOfDay,
+        List<ReservationStatus> activeStatuses
+    ) {
+        return findOverlappingByRoom(roomId, startOfDay, endOfDay, activeStatuses.stream().map(Enum::name).toList());
+    }
+
+    /**
+     * Intervalos das reservas ativas (de todas as salas) que intersectam a janela informada
+     */
+    @Query(
+        "SELECT r.id as id, r.room.id as roomId, r.startDateTime as startDateTime, r.endDateTime as endDateTime " +
+        "FROM Reservation r " +
+        "WHERE r.archived = false AND r.status IN (:statuses) AND r.startDateTime < :to AND r.endDateTime > :from"
+    )
+    List<ReservationSlotProjection> findSlotsBetween(
+        @Param("from") Instant from,
+        @Param("to") Instant to,
+        @Param("statuses") Collection<ReservationStatus> statuses
     );
 
+    /**
+     * Intervalos e status das reservas ativas da sala que intersectam a janela informada
+     */
     @Query(
-        "SELECT r FROM Reservation r WHERE r.room.id = :roomId " +
-        "AND r.status IN (:activeStatuses) " +
-        "AND r.startDateTime < :endOfDay " +
-        "AND r.endDateTime > :startOfDay"
+        "SELECT r.id as id, r.startDateTime as startDateTime, r.endDateTime as endDateTime, r.status as status " +
+        "FROM Reservation r " +
+        "WHERE r.archived = false AND r.room.id = :roomId AND r.status IN (:statuses) " +
+        "AND r.startDateTime < :to AND r.endDateTime > :from"
     )
-    List<Reservation> findReservationsByRoomAndDate(
+    List<ReservationIntervalProjection> findIntervalsByRoomBetween(
         @Param("roomId") Long roomId,
-        @Param("startOfDay") Instant startOfDay,
-        @Param("endOfDay") Instant endOfDay,
-        @Param("activeStatuses") List<ReservationStatus> activeStatuses
+        @Param("from") Instant from,
+        @Param("to") Instant to,
+        @Param("statuses") Collection<ReservationStatus> statuses
     );
 
+    /**
+     * Intervalos e status das reservas ativas da sala que terminam depois de {@code from}.
+     * Não faz flush da sessão: lê apenas o que já está gravado, sem alterações pendentes da transação.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(
+        "SELECT r.id as id, r.startDateTime as startDateTime, r.endDateTime as endDateTime, r.status as status " +
+        "FROM Reservation r " +
+        "WHERE r.archived = false AND r.room.id = :roomId AND r.status IN (:statuses) AND r.endDateTime > :from"
+    )
+    List<ReservationIntervalProjection> findIntervalsByRoomEndingAfter(
+        @Param("roomId") Long roomId,
+        @Param("from") Instant from,
+        @Param("statuses") Collection<ReservationStatus> statuses
+    );
+
+    @Query(
+        "SELECT r.id as id, r.room.id as roomId, r.startDateTime as startDateTime, r.endDateTime as endDateTime " +
+        "FROM Reservation r WHERE r.id = :id"
+    )
+    Optional<ReservationSlotProjection> findSlotById(@Param("id") Long id);
+
+    @Query(
+        "SELECT r.id as id, r.room.id as roomId, r.startDateTime as startDateTime, r.endDateTime as endDateTime " +
+        "FROM Reservation r WHERE r.id IN (:ids)"
+    )
+    List<ReservationSlotProjection> findSlotsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query(
         "SELECT r FROM Reservation r " +
         "JOIN FETCH r.room rm " +
         "JOIN FETCH rm.studio s " +
         "JOIN FETCH r.customer c " +
         "LEFT JOIN FETCH c.user u " +
-        "WHERE s.id = :studioId AND r.status = 'PENDING' " +
+        "WHERE s.id = :studioId AND r.archived = false AND r.status = 'PENDING' " +
         "ORDER BY r.createdAt ASC"
     )
     List<Reservation> findPendingReservationsByStudio(@Param("studioId") Long studioId);
 
-    @Query("SELECT r FROM Reservation r " + "WHERE r.status = 'PENDING' AND r.createdAt <= :cutoffTime " + "ORDER BY r.createdAt ASC")
-    List<Reservation> findExpiredPendingReservations(@Param("cutoffTime") Instant cutoffTime);
+    /**
+     * Confirma, em uma única instrução, até {@code chunkSize} reservas pendentes criadas até {@code cutoffTime}
+     * (as mais antigas primeiro) e retorna os ids confirmados.
+     * Linhas bloqueadas por outra transação são puladas (SKIP LOCKED) e ficam para o próximo lote.
+     * Não passa pelo contexto de persistência: o chamador deve remover os ids do cache de segundo nível.
+     */
+    @Query(
+        value = """
+        UPDATE reservation
+        SET status = 'CONFIRMED', updated_at = CAST(:now AS timestamp)
+        WHERE archived = false AND id IN (
+            SELECT id FROM reservation
+            WHERE archived = false AND status = 'PENDING' AND created_at <= CAST(:cutoffTime AS timestamp)
+            ORDER BY created_at
+            LIMIT :chunkSize
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING id
+        """,
+        nativeQuery = true
+    )
+    List<Long> confirmExpiredPendingReservations(
+        @Param("cutoffTime") Instant cutoffTime,
+        @Param("now") Instant now,
+        @Param("chunkSize") int chunkSize
+    );
 
-    @Query("SELECT r FROM Reservation r WHERE r.room.id = :roomId ORDER BY r.startDateTime ASC")
-    List<Reservation> findAllByRoomId(@Param("roomId") Long roomId);
+    /**
+     * Confirma a reserva se ela ainda estiver pendente.
+     *
+     * @return o id da reserva, quando confirmada.
+     */
+    @Query(
+        value = """
+        UPDATE reservation
+        SET status = 'CONFIRMED', updated_at = CAST(:now AS timestamp)
+        WHERE archived = false AND id = :id AND status = 'PENDING'
+        RETURNING id
+        """,
+        nativeQuery = true
+    )
+    Optional<Long> confirmPendingReservation(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Histórico de reservas da sala (de qualquer status) com início em [from, to), ordenado por (início, id).
+     * O alias da reserva é {@code r}.
+     */
+    String ROOM_HISTORY_SELECT =
+        "SELECT r.id as id, r.startDateTime as startDateTime, r.endDateTime as endDateTime, r.status as status, " +
+        "r.totalPrice as totalPrice, r.artistName as artistName, r.customer.id as customerId, " +
+        "r.createdAt as createdAt, r.cancelledAt as cancelledAt " +
+        "FROM Reservation r " +
+        "WHERE r.room.id = :roomId AND r.startDateTime >= :from AND r.startDateTime < :to ";
+
+    String ROOM_HISTORY_ORDER = "ORDER BY r.startDateTime, r.id";
+
+    /**
+     * Primeira página do histórico de reservas da sala.
+     */
+    @Query(ROOM_HISTORY_SELECT + ROOM_HISTORY_ORDER)
+    List<ReservationHistoryProjection> findHistoryByRoom(
+        @Param("roomId") Long roomId,
+        @Param("from") Instant from,
+        @Param("to") Instant to,
+        Pageable pageable
+    );
+
+    /**
+     * Página do histórico de reservas da sala após a reserva (afterStart, afterId), pelo índice
+     * (room_id, start_date_time, end_date_time).
+     */
+    @Query(
+        ROOM_HISTORY_SELECT +
+        "AND r.startDateTime >= :afterStart " +
+        "AND (r.startDateTime > :afterStart OR r.id > :afterId) " +
+        ROOM_HISTORY_ORDER
+    )
+    List<ReservationHistoryProjection> findHistoryByRoomAfter(
+        @Param("roomId") Long roomId,
+        @Param("from") Instant from,
+        @Param("to") Instant to,
+        @Param("afterStart") Instant afterStart,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Linhas buscadas por ida ao banco na exportação do histórico.
+     */
+    int HISTORY_EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Histórico de reservas da sala, para exportação. Deve ser consumido dentro de uma transação; o fetch
+     * size limitado faz o driver usar um cursor no servidor.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + HISTORY_EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        }
+    )
+    @Query(ROOM_HISTORY_SELECT + ROOM_HISTORY_ORDER)
+    Stream<ReservationHistoryProjection> streamHistoryByRoom(@Param("roomId") Long roomId, @Param("from") Instant from, @Param("to") Instant to);
 
     /**
      * Conta o total de reservas confirmadas de um proprietário no mês atual
+     * <p>
+     * Nas consultas do mês, o intervalo [monthStart, monthEnd) sobre start_date_time restringe a leitura da
+     * partição de arquivo às partições do mês.
      */
     @Query(
         "SELECT COUNT(r) FROM Reservation r " +
@@ -112,4 +298,70 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
         @Param("monthStart") Instant monthStart,
         @Param("monthEnd") Instant monthEnd
     );
+
+    /**
+     * Bloqueia até {@code chunkSize} reservas encerradas (concluídas ou canceladas) que terminaram antes de
+     * {@code endedBefore} e ainda estão em reservation_live, e retorna seus ids. Linhas bloqueadas por outra
+     * transação são puladas (SKIP LOCKED). Reservas com avaliação não são arquivadas: a chave estrangeira
+     * de review referencia reservation_live.
+     */
+    @Query(
+        value = """
+        SELECT r.id FROM reservation r
+        WHERE r.archived = false
+        AND r.status IN ('COMPLETED', 'CANCELLED')
+        AND r.end_date_time < CAST(:endedBefore AS timestamp)
+        AND NOT EXISTS (SELECT 1 FROM review rv WHERE rv.reservation_id = r.id)
+        ORDER BY r.id
+        LIMIT :chunkSize
+        FOR UPDATE OF r SKIP LOCKED
+        """,
+        nativeQuery = true
+    )
+    List<Long> lockClosedReservationsToArchive(@Param("endedBefore") Instant endedBefore, @Param("chunkSize") int chunkSize);
+
+    /**
+     * Cria as partições de arquivo que ainda não existem: as dos meses de início das reservas encerradas
+     * antes de {@code endedBefore} ainda não arquivadas, a do mês de {@code endedBefore} e as dos
+     * {@code monthsAhead} meses seguintes, que o horizonte de arquivamento alcança nas próximas execuções.
+     *
+     * @return a quantidade de partições criadas.
+     */
+    @Query(
+        value = """
+        SELECT COUNT(*) FILTER (WHERE partitions.created) FROM (
+            SELECT create_reservation_archive_partition(months.month) AS created
+            FROM (
+                SELECT DISTINCT date_trunc('month', r.start_date_time) AS month
+                FROM reservation r
+                WHERE r.archived = false
+                AND r.status IN ('COMPLETED', 'CANCELLED')
+                AND r.end_date_time < CAST(:endedBefore AS timestamp)
+                UNION
+                SELECT date_trunc('month', CAST(:endedBefore AS timestamp)) + ahead.n * INTERVAL '1 month'
+                FROM generate_series(0, :monthsAhead) AS ahead(n)
+                ORDER BY month
+            ) months
+        ) partitions
+        """,
+        nativeQuery = true
+    )
+    long createArchivePartitions(@Param("endedBefore") Instant endedBefore, @Param("monthsAhead") int monthsAhead);
+
+    /**
+     * Move as reservas informadas para a partição de arquivo e retorna os ids movidos. Não passa pelo
+     * contexto de persistência: o chamador deve remover os ids do cache de segundo nível.
+     */
+    @Query(
+        value = """
+        UPDATE reservation
+        SET archived = true
+        WHERE archived = false AND id IN (:ids)
+        RETURNING id
+        """,
+        nativeQuery = true
+    )
+    List<Long> archiveReservations(@Param("ids") Collection<Long> ids);
+
+    boolean existsByIdAndArchivedTrue(Long id);
 }
@@ -2,7 +2,9 @@ package com.slapp.repository;
 
 import com.slapp.domain.RoomImage;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -12,4 +14,10 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface RoomImageRepository extends JpaRepository<RoomImage, Long> {
     List<RoomImage> findByRoomIdOrderByDisplayOrderAsc(Long roomId);
+
+    /**
+     * Estúdio da sala a que a imagem pertence.
+     */
+    @Query("SELECT ri.room.studio.id FROM RoomImage ri WHERE ri.id = :id")
+    Optional<Long> findStudioIdById(@Param("id") Long id);
 }
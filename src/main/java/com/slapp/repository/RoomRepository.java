@@ -1,7 +1,10 @@
 package com.slapp.repository;
 
 import com.slapp.domain.Room;
+import java.math.BigDecimal;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,16 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room> {}
+public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room> {
+    /**
+     * Busca o ID do studio de uma sala sem carregar a entidade
+     */
+    @Query("SELECT r.studio.id FROM Room r WHERE r.id = :id")
+    Optional<Long> findStudioIdById(@Param("id") Long id);
+
+    /**
+     * Busca o valor por hora de uma sala sem carregar a entidade
+     */
+    @Query("SELECT r.hourlyRate FROM Room r WHERE r.id = :id")
+    Optional<BigDecimal> findHourlyRateById(@Param("id") Long id);
+}
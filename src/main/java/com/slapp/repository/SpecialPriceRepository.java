@@ -1,7 +1,10 @@
 package com.slapp.repository;
 
 import com.slapp.domain.SpecialPrice;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,16 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface SpecialPriceRepository extends JpaRepository<SpecialPrice, Long> {}
+public interface SpecialPriceRepository extends JpaRepository<SpecialPrice, Long> {
+    /**
+     * Preços especiais ativos de uma sala, em ordem de id (ordem de precedência na tabela de preços)
+     */
+    @Query("SELECT sp FROM SpecialPrice sp WHERE sp.room.id = :roomId AND sp.active = true ORDER BY sp.id")
+    List<SpecialPrice> findActiveByRoomId(@Param("roomId") Long roomId);
+
+    /**
+     * Busca o ID da sala de um preço especial sem carregar a entidade
+     */
+    @Query("SELECT sp.room.id FROM SpecialPrice sp WHERE sp.id = :id")
+    Optional<Long> findRoomIdById(@Param("id") Long id);
+}
@@ -1,18 +1,14 @@
 package com.slapp.repository;
 
 import com.slapp.domain.Studio;
-import com.slapp.domain.Studio;
-import com.slapp.repository.projections.RoomImageProjection;
-import com.slapp.repository.projections.RoomProjection;
-import com.slapp.repository.projections.StudioBasicProjection;
-import com.slapp.repository.projections.StudioDetailProjection;
-import com.slapp.repository.projections.StudioListProjection;
+import com.slapp.repository.projections.StudioSuggestSourceProjection;
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,512 +18,145 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface StudioRepository extends JpaRepository<Studio, Long>, JpaSpecificationExecutor<Studio> {
-    // Query sem filtros de disponibilidade
-    @Query(
-        value = """
-        SELECT DISTINCT
-            s.id,
-            s.name,
-            s.description,
-            s.address,
-            s.city,
-            s.state,
-            s.image,
-            (SELECT MIN(r2.hourly_rate)
-            FROM room r2
-            WHERE r2.studio_id = s.id AND r2.active = true) as minPrice,
-            (SELECT MAX(r2.hourly_rate)
-            FROM room r2
-            WHERE r2.studio_id = s.id AND r2.active = true) as maxPrice,
-            (SELECT COUNT(*)
-            FROM room r2
-            WHERE r2.studio_id = s.id AND r2.active = true) as roomCount
-        FROM studio s
-        INNER JOIN room r ON r.studio_id = s.id AND r.active = true
-        WHERE s.active = true
-        AND (:name IS NULL OR :name = '' OR UPPER(s.name) LIKE UPPER(CONCAT('%', :name, '%')))
-        AND (:city IS NULL OR :city = '' OR UPPER(s.city) LIKE UPPER(CONCAT('%', :city, '%')))
-        AND (:roomType IS NULL OR :roomType = '' OR
-                (:roomType = 'RECORDING' AND r.room_type = 'RECORDING') OR
-                (:roomType = 'REHEARSAL' AND r.room_type = 'REHEARSAL') OR
-                (:roomType = 'LIVE' AND r.room_type = 'LIVE') OR
-                (:roomType = 'MIXING' AND r.room_type = 'MIXING') OR
-                (:roomType = 'BOTH' AND r.room_type IN ('RECORDING', 'REHEARSAL', 'LIVE', 'MIXING')))
-        AND (:minPrice IS NULL OR r.hourly_rate >= :minPrice)
-        AND (:maxPrice IS NULL OR r.hourly_rate <= :maxPrice)
-        """,
-        countQuery = """
-        SELECT COUNT(DISTINCT s.id)
-        FROM studio s
-        INNER JOIN room r ON r.studio_id = s.id AND r.active = true
-        WHERE s.active = true
-        AND (:name IS NULL OR :name = '' OR UPPER(s.name) LIKE UPPER(CONCAT('%', :name, '%')))
-        AND (:city IS NULL OR :city = '' OR UPPER(s.city) LIKE UPPER(CONCAT('%', :city, '%')))
-        AND (:roomType IS NULL OR :roomType = '' OR
-            (r.room_type = :roomType))
-        AND (:minPrice IS NULL OR r.hourly_rate >= :minPrice)
-        AND (:maxPrice IS NULL OR r.hourly_rate <= :maxPrice)
-        """,
-        nativeQuery = true
-    )
-    Page<StudioListProjection> getStudioRoomPaginationBasic(
-        @Param("name") String name,
-        @Param("city") String city,
-        @Param("roomType") String roomType,
-        @Param("minPrice") BigDecimal minPrice,
-        @Param("maxPrice") BigDecimal maxPrice,
-        Pageable pageable
-    );
-
-    // Query com filtros de disponibilidade
-    @Query(
-        value = """
-        SELECT DISTINCT
-            s.id,
-            s.name,
-            s.description,
-            s.address,
-            s.city,
-            s.state,
-            s.image,
-            (SELECT MIN(r2.hourly_rate)
-            FROM room r2
-            WHERE r2.studio_id = s.id AND r2.active = true) as minPrice,
-            (SELECT MAX(r2.hourly_rate)
-            FROM room r2
-            WHERE r2.studio_id = s.id AND r2.active = true) as maxPrice,
-            (SELECT COUNT(*)
-            FROM room r2
-            WHERE r2.studio_id = s.id AND r2.active = true) as roomCount
-        FROM studio s
-        INNER JOIN room r ON r.studio_id = s.id AND r.active = true
-        WHERE s.active = true
-        AND (:name IS NULL OR :name = '' OR UPPER(s.name) LIKE UPPER(CONCAT('%', :name, '%')))
-        AND (:city IS NULL OR :city = '' OR UPPER(s.city) LIKE UPPER(CONCAT('%', :city, '%')))
-        AND (:roomType IS NULL OR :roomType = '' OR
-                (:roomType = 'RECORDING' AND r.room_type = 'RECORDING') OR
-                (:roomType = 'REHEARSAL' AND r.room_type = 'REHEARSAL') OR
-                (:roomType = 'LIVE' AND r.room_type = 'LIVE') OR
-                (:roomType = 'MIXING' AND r.room_type = 'MIXING') OR
-                (:roomType = 'BOTH' AND r.room_type IN ('RECORDING', 'REHEARSAL', 'LIVE', 'MIXING')))
-        AND (:minPrice IS NULL OR r.hourly_rate >= :minPrice)
-        AND (:maxPrice IS NULL OR r.hourly_rate <= :maxPrice)
-        AND NOT EXISTS (
-            SELECT 1 FROM reservation res
-            WHERE res.room_id = r.id
-            AND res.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')
-            AND (
-                (res.start_date_time <= :availabilityStartDateTime AND res.end_date_time > :availabilityStartDateTime)
-                OR (res.start_date_time < :availabilityEndDateTime AND res.end_date_time >= :availabilityEndDateTime)
-                OR (res.start_date_time >= :availabilityStartDateTime AND res.end_date_time <= :availabilityEndDateTime)
-            )
-        )
-        """,
-        countQuery = """
-        SELECT COUNT(DISTINCT s.id)
-        FROM studio s
-        INNER JOIN room r ON r.studio_id = s.id AND r.active = true
-        WHERE s.active = true
-        AND (:name IS NULL OR :name = '' OR UPPER(s.name) LIKE UPPER(CONCAT('%', :name, '%')))
-        AND (:city IS NULL OR :city = '' OR UPPER(s.city) LIKE UPPER(CONCAT('%', :city, '%')))
-        AND (:roomType IS NULL OR :roomType = '' OR
-            (r.room_type = :roomType))
-        AND (:minPrice IS NULL OR r.hourly_rate >= :minPrice)
-        AND (:maxPrice IS NULL OR r.hourly_rate <= :maxPrice)
-        AND NOT EXISTS (
-            SELECT 1 FROM reservation res
-            WHERE res.room_id = r.id
-            AND res.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')
-            AND (
-                (res.start_date_time <= :availabilityStartDateTime AND res.end_date_time > :availabilityStartDateTime)
-                OR (res.start_date_time < :availabilityEndDateTime AND res.end_date_time >= :availabilityEndDateTime)
-                OR (res.start_date_time >= :availabilityStartDateTime AND res.end_date_time <= :availabilityEndDateTime)
-            )
-        )
-        """,
-        nativeQuery = true
-    )
-    Page<StudioListProjection> getStudioRoomPaginationWithAvailability(
-        @Param("name") String name,
-        @Param("city") String city,
-        @Param("roomType") String roomType,
-        @Param("minPrice") BigDecimal minPrice,
-        @Param("maxPrice") BigDecimal maxPrice,
-        @Param("availabilityStartDateTime") Instant availabilityStartDateTime,
-        @Param("availabilityEndDateTime") Instant availabilityEndDateTime,
-        Pageable pageable
-    );
-
-    // Query básica para favoritos (sem filtros de disponibilidade)
-    @Query(
-        value = """
-        SELECT DISTINCT
-            s.id,
-            s.name,
-            s.description,
-            s.address,
-            s.city,
-            s.state,
-            s.image,
-            MIN(r.hourly_rate) as min_price,
-            MAX(r.hourly_rate) as max_price,
-            AVG(CAST(rv.rating AS DECIMAL(3,2))) as average_rating,
-            COUNT(rv.id) as review_count
-        FROM studio s
-        INNER JOIN room r ON s.id = r.studio_id
-        INNER JOIN favorite f ON s.id = f.studio_id
-        INNER JOIN user_profile up ON f.user_id = up.user_id
-        INNER JOIN jhi_user u ON up.user_id = u.id
-        LEFT JOIN review rv ON s.id = rv.studio_id
-        WHERE s.active = true
-        AND u.login = :#{authentication.name}
-        AND (:name IS NULL OR :name = '' OR UPPER(s.name) LIKE UPPER(CONCAT('%', :name, '%')))
-        AND (:city IS NULL OR :city = '' OR UPPER(s.city) LIKE UPPER(CONCAT('%', :city, '%')))
-        AND (:roomType IS NULL OR :roomType = '' OR r.room_type = :roomType)
-        AND (:minPrice IS NULL OR r.hourly_rate >= :minPrice)
-        AND (:maxPrice IS NULL OR r.hourly_rate <= :maxPrice)
-        GROUP BY s.id, s.name, s.description, s.address, s.city, s.state, s.image
-        ORDER BY s.name
-        """,
-        nativeQuery = true
-    )
-    Page<StudioListProjection> getStudioRoomPaginationFavoritesBasic(
-        @Param("name") String name,
-        @Param("city") String city,
-        @Param("roomType") String roomType,
-        @Param("minPrice") BigDecimal minPrice,
-        @Param("maxPrice") BigDecimal maxPrice,
-        Pageable pageable
-    );
-
-    // Query com favoritos e disponibilidade
-    @Query(
-        value = """
-        SELECT DISTINCT
-            s.id,
-            s.name,
-            s.description,
-            s.address,
-            s.city,
-            s.state,
-            s.image,
-            MIN(r.hourly_rate) as min_price,
-            MAX(r.hourly_rate) as max_price,
-            AVG(CAST(rv.rating AS DECIMAL(3,2))) as average_rating,
-            COUNT(rv.id) as review_count
-        FROM studio s
-        INNER JOIN room r ON s.id = r.studio_id
-        INNER JOIN favorite f ON s.id = f.studio_id
-        INNER JOIN user_profile up ON f.user_id = up.user_id
-        INNER JOIN jhi_user u ON up.user_id = u.id
-        LEFT JOIN review rv ON s.id = rv.studio_id
-        WHERE s.active = true
-        AND u.login = :#{authentication.name}
-        AND (:name IS NULL OR :name = '' OR UPPER(s.name) LIKE UPPER(CONCAT('%', :name, '%')))
-        AND (:city IS NULL OR :city = '' OR UPPER(s.city) LIKE UPPER(CONCAT('%', :city, '%')))
-        AND (:roomType IS NULL OR :roomType = '' OR r.room_type = :roomType)
-        AND (:minPrice IS NULL OR r.hourly_rate >= :minPrice)
-        AND (:maxPrice IS NULL OR r.hourly_rate <= :maxPrice)
-        AND r.id NOT IN (
-            SELECT res.room_id
-            FROM reservation res
-            WHERE res.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')
-            AND (
-                (res.start_date_time <= :availabilityStartDateTime AND res.end_date_time > :availabilityStartDateTime)
-                OR (res.start_date_time < :availabilityEndDateTime AND res.end_date_time >= :availabilityEndDateTime)
-                OR (res.start_date_time >= :availabilityStartDateTime AND res.end_date_time <= :availabilityEndDateTime)
-            )
-        )
-        GROUP BY s.id, s.name, s.description, s.address, s.city, s.state, s.image
-        ORDER BY s.name
-        """,
-        nativeQuery = true
-    )
-    Page<StudioListProjection> getStudioRoomPaginationFavoritesWithAvailability(
-        @Param("name") String name,
-        @Param("city") String city,
-        @Param("roomType") String roomType,
-        @Param("minPrice") BigDecimal minPrice,
-        @Param("maxPrice") BigDecimal maxPrice,
-        @Param("availabilityStartDateTime") Instant availabilityStartDateTime,
-        @Param("availabilityEndDateTime") Instant availabilityEndDateTime,
-        Pageable pageable
-    );
-
-    // Método de conveniência que escolhe a query apropriada
-    default Page<StudioListProjection> getStudioRoomPagination(
-        String name,
-        String city,
-        String roomType,
-        BigDecimal minPrice,
-        BigDecimal maxPrice,
-        Instant availabilityStartDateTime,
-        Instant availabilityEndDateTime,
-        Boolean onlyFavorites,
-        Pageable pageable
-    ) {
-        org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(StudioRepository.class);
-        LOG.debug(
-            "StudioRepository.getStudioRoomPagination: availabilityStart={}, availabilityEnd={}, onlyFavorites={}",
-            availabilityStartDateTime,
-            availabilityEndDateTime,
-            onlyFavorites
-        );
+public interface StudioRepository extends JpaRepository<Studio, Long>, JpaSpecificationExecutor<Studio>, StudioSearchRepository {
+    @Query("SELECT s.city FROM Studio s WHERE s.id = :id")
+    Optional<String> findCityById(@Param("id") Long id);
 
-        // Se onlyFavorites é true, usar query específica de favoritos
-        if (onlyFavorites != null && onlyFavorites) {
-            LOG.debug("Using favorite studios filter - this requires authenticated user");
-            if (availabilityStartDateTime != null && availabilityEndDateTime != null) {
-                return getStudioRoomPaginationFavoritesWithAvailability(
-                    name,
-                    city,
-                    roomType,
-                    minPrice,
-                    maxPrice,
-                    availabilityStartDateTime,
-                    availabilityEndDateTime,
-                    pageable
-                );
-            } else {
-                return getStudioRoomPaginationFavoritesBasic(name, city, roomType, minPrice, maxPrice, pageable);
-            }
-        }
-
-        if (availabilityStartDateTime != null && availabilityEndDateTime != null) {
-            LOG.debug("Using getStudioRoomPaginationWithAvailability");
-            return getStudioRoomPaginationWithAvailability(
-                name,
-                city,
-                roomType,
-                minPrice,
-                maxPrice,
-                availabilityStartDateTime,
-                availabilityEndDateTime,
-                pageable
-            );
-        } else {
-            LOG.debug("Using getStudioRoomPaginationBasic");
-            return getStudioRoomPaginationBasic(name, city, roomType, minPrice, maxPrice, pageable);
-        }
-    }
+    /**
+     * Limites das faixas de preço/hora das facetas ({@link #searchStudioFacets}): a faixa 0 fica abaixo do
+     * primeiro limite e a faixa N a partir do N-ésimo.
+     */
+    List<BigDecimal> FACET_PRICE_BUCKET_BOUNDS = List.of(new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("200"));
 
-    // Keyset sem filtros de disponibilidade
+    /**
+     * Recalcula o documento de busca textual de um estúdio (função studio_search_document do banco).
+     * Deve ser chamado a cada escrita no estúdio, nas suas salas ou nos equipamentos das salas.
+     */
+    @Modifying(flushAutomatically = true)
     @Query(
         value = """
-        SELECT DISTINCT
-            s.id,
-            s.name,
-            s.description,
-            s.address,
-            s.city,
-            s.state,
-            s.image,
-            (SELECT MIN(r2.hourly_rate)
-             FROM room r2
-             WHERE r2.studio_id = s.id AND r2.active = true) as minPrice,
-            (SELECT MAX(r2.hourly_rate)
-             FROM room r2
-             WHERE r2.studio_id = s.id AND r2.active = true) as maxPrice,
-            (SELECT COUNT(*)
-             FROM room r2
-             WHERE r2.studio_id = s.id AND r2.active = true) as roomCount
+        INSERT INTO studio_search_document (studio_id, document, updated_at)
+        SELECT s.id, studio_search_document(s.id), now()
         FROM studio s
-        INNER JOIN room r ON r.studio_id = s.id AND r.active = true
-        WHERE s.active = true
-          AND (:name IS NULL OR :name = '' OR UPPER(s.name) LIKE UPPER(CONCAT('%', :name, '%')))
-          AND (:city IS NULL OR :city = '' OR UPPER(s.city) LIKE UPPER(CONCAT('%', :city, '%')))
-          AND (:roomType IS NULL OR :roomType = '' OR
-                (:roomType = 'RECORDING' AND r.room_type = 'RECORDING') OR
-                (:roomType = 'REHEARSAL' AND r.room_type = 'REHEARSAL') OR
-                (:roomType = 'LIVE' AND r.room_type = 'LIVE') OR
-                (:roomType = 'MIXING' AND r.room_type = 'MIXING') OR
-                (:roomType = 'BOTH' AND r.room_type IN ('RECORDING', 'REHEARSAL', 'LIVE', 'MIXING')))
-          AND (:minPrice IS NULL OR r.hourly_rate >= :minPrice)
-          AND (:maxPrice IS NULL OR r.hourly_rate <= :maxPrice)
-          AND (:lastId IS NULL OR s.id > :lastId)
-        ORDER BY s.id
-        LIMIT :pageSize
+        WHERE s.id = :studioId
+        ON CONFLICT (studio_id) DO UPDATE SET
+            document = EXCLUDED.document,
+            updated_at = EXCLUDED.updated_at
         """,
         nativeQuery = true
     )
-    List<StudioListProjection> getStudiosKeysetBasic(
-        @Param("name") String name,
-        @Param("city") String city,
-        @Param("roomType") String roomType,
-        @Param("minPrice") BigDecimal minPrice,
-        @Param("maxPrice") BigDecimal maxPrice,
-        @Param("lastId") Long lastId,
-        @Param("pageSize") int pageSize
-    );
+    void refreshSearchDocument(@Param("studioId") Long studioId);
 
-    // Keyset com filtros de disponibilidade
-    @Query(
-        value = """
-        SELECT DISTINCT
-            s.id,
-            s.name,
-            s.description,
-            s.address,
-            s.city,
-            s.state,
-            s.image,
-            (SELECT MIN(r2.hourly_rate)
-             FROM room r2
-             WHERE r2.studio_id = s.id AND r2.active = true) as minPrice,
-            (SELECT MAX(r2.hourly_rate)
-             FROM room r2
-             WHERE r2.studio_id = s.id AND r2.active = true) as maxPrice,
-            (SELECT COUNT(*)
-             FROM room r2
-             WHERE r2.studio_id = s.id AND r2.active = true) as roomCount
+    /**
+     * Documento JSON do detalhe de um Studio (dados básicos, owner, rooms ativas por nome e suas imagens
+     * ativas por {@code displayOrder}), montado pelo banco; é a fonte de {@link #findStudioDetailJsonById}
+     * e {@link #streamActiveStudioDetailJson}. As colunas timestamp guardam UTC e recebem o sufixo Z,
+     * como a serialização de {@code Instant}. O alias do estúdio é {@code s}.
+     */
+    String STUDIO_DETAIL_JSON_SELECT = """
+        SELECT CAST(json_build_object(
+            'id', s.id,
+            'name', s.name,
+            'description', s.description,
+            'address', s.address,
+            'city', s.city,
+            'state', s.state,
+            'zipCode', s.zip_code,
+            'latitude', s.latitude,
+            'longitude', s.longitude,
+            'phone', s.phone,
+            'email', s.email,
+            'website', s.website,
+            'image', s.image,
+            'active', s.active,
+            'createdAt', (to_json(s.created_at) #>> '{}') || 'Z',
+            'updatedAt', (to_json(s.updated_at) #>> '{}') || 'Z',
+            'owner', CASE WHEN s.owner_id IS NULL THEN NULL ELSE json_build_object('id', s.owner_id) END,
+            'rooms', COALESCE((
+                SELECT json_agg(json_build_object(
+                    'id', r.id,
+                    'name', r.name,
+                    'description', r.description,
+                    'hourlyRate', r.hourly_rate,
+                    'capacity', r.capacity,
+                    'soundproofed', r.soundproofed,
+                    'airConditioning', r.air_conditioning,
+                    'roomType', r.room_type,
+                    'active', r.active,
+                    'createdAt', (to_json(r.created_at) #>> '{}') || 'Z',
+                    'updatedAt', (to_json(r.updated_at) #>> '{}') || 'Z',
+                    'roomImages', COALESCE((
+                        SELECT json_agg(json_build_object(
+                            'id', ri.id,
+                            'url', ri.url,
+                            'altText', ri.alt_text,
+                            'displayOrder', ri.display_order,
+                            'active', ri.active,
+                            'roomId', ri.room_id
+                        ) ORDER BY ri.display_order)
+                        FROM room_image ri
+                        WHERE ri.room_id = r.id AND ri.active = true
+                    ), CAST('[]' AS json))
+                ) ORDER BY r.name)
+                FROM room r
+                WHERE r.studio_id = s.id AND r.active = true
+            ), CAST('[]' AS json))
+        ) AS text)
         FROM studio s
-        INNER JOIN room r ON r.studio_id = s.id AND r.active = true
-        WHERE s.active = true
-          AND (:name IS NULL OR :name = '' OR UPPER(s.name) LIKE UPPER(CONCAT('%', :name, '%')))
-          AND (:city IS NULL OR :city = '' OR UPPER(s.city) LIKE UPPER(CONCAT('%', :city, '%')))
-          AND (:roomType IS NULL OR :roomType = '' OR
-                (:roomType = 'RECORDING' AND r.room_type = 'RECORDING') OR
-                (:roomType = 'REHEARSAL' AND r.room_type = 'REHEARSAL') OR
-                (:roomType = 'LIVE' AND r.room_type = 'LIVE') OR
-                (:roomType = 'MIXING' AND r.room_type = 'MIXING') OR
-                (:roomType = 'BOTH' AND r.room_type IN ('RECORDING', 'REHEARSAL', 'LIVE', 'MIXING')))
-          AND (:minPrice IS NULL OR r.hourly_rate >= :minPrice)
-          AND (:maxPrice IS NULL OR r.hourly_rate <= :maxPrice)
-          AND NOT EXISTS (
-            SELECT 1 FROM reservation res
-            WHERE res.room_id = r.id
-            AND res.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')
-            AND (
-                (res.start_date_time <= :availabilityStartDateTime AND res.end_date_time > :availabilityStartDateTime)
-                OR (res.start_date_time < :availabilityEndDateTime AND res.end_date_time >= :availabilityEndDateTime)
-                OR (res.start_date_time >= :availabilityStartDateTime AND res.end_date_time <= :availabilityEndDateTime)
-            )
-        )
-          AND (:lastId IS NULL OR s.id > :lastId)
-        ORDER BY s.id
-        LIMIT :pageSize
-        """,
-        nativeQuery = true
-    )
-    List<StudioListProjection> getStudiosKeysetWithAvailability(
-        @Param("name") String name,
-        @Param("city") String city,
-        @Param("roomType") String roomType,
-        @Param("minPrice") BigDecimal minPrice,
-        @Param("maxPrice") BigDecimal maxPrice,
-        @Param("availabilityStartDateTime") Instant availabilityStartDateTime,
-        @Param("availabilityEndDateTime") Instant availabilityEndDateTime,
-        @Param("lastId") Long lastId,
-        @Param("pageSize") int pageSize
-    );
-
-    // Método de conveniência para keyset
-    default List<StudioListProjection> getStudiosKeyset(
-        String name,
-        String city,
-        String roomType,
-        BigDecimal minPrice,
-        BigDecimal maxPrice,
-        Instant availabilityStartDateTime,
-        Instant availabilityEndDateTime,
-        Long lastId,
-        int pageSize
-    ) {
-        if (availabilityStartDateTime != null && availabilityEndDateTime != null) {
-            return getStudiosKeysetWithAvailability(
-                name,
-                city,
-                roomType,
-                minPrice,
-                maxPrice,
-                availabilityStartDateTime,
-                availabilityEndDateTime,
-                lastId,
-                pageSize
-            );
-        } else {
-            return getStudiosKeysetBasic(name, city, roomType, minPrice, maxPrice, lastId, pageSize);
-        }
-    }
+        """;
 
     /**
-     * Busca os detalhes completos do Studio com Rooms e suas imagens
-     *
-     * @param id ID do Studio
-     * @return StudioDetailProjection com todos os dados relacionados
+     * Detalhe completo do Studio em JSON, em uma única consulta.
      */
-    // @Query("SELECT s AS studio, " +
-    //         "r AS room, " +
-    //         "ri AS roomImages " +
-    //         "FROM Studio s " +
-    //         "LEFT JOIN s.room r " +
-    //         "LEFT JOIN r.roomImages ri " +
-    //         "WHERE s.id = :id AND s.active = true")
-    // Optional<StudioDetailProjection> findStudioDetailById(@Param("id") Long id);
+    @Query(value = STUDIO_DETAIL_JSON_SELECT + "WHERE s.id = :id AND s.active = true", nativeQuery = true)
+    Optional<String> findStudioDetailJsonById(@Param("id") Long id);
 
     /**
-     * Busca os dados básicos do Studio
+     * Linhas buscadas por ida ao banco na exportação do catálogo.
      */
-    @Query(
-        "SELECT s.id as id, " +
-        "s.name as name, " +
-        "s.description as description, " +
-        "s.address as address, " +
-        "s.city as city, " +
-        "s.state as state, " +
-        "s.zipCode as zipCode, " +
-        "s.latitude as latitude, " +
-        "s.longitude as longitude, " +
-        "s.phone as phone, " +
-        "s.email as email, " +
-        "s.website as website, " +
-        "s.image as image, " +
-        "s.active as active, " +
-        "s.createdAt as createdAt, " +
-        "s.updatedAt as updatedAt, " +
-        "s.owner.id as ownerId " +
-        "FROM Studio s " +
-        "WHERE s.id = :id AND s.active = true"
-    )
-    Optional<StudioBasicProjection> findStudioBasicDetailById(@Param("id") Long id);
+    int EXPORT_FETCH_SIZE = 500;
 
     /**
-     * Busca as rooms do Studio
+     * Catálogo de estúdios ativos em JSON (um documento por estúdio, ordenados por id), para exportação.
+     * Deve ser consumido dentro de uma transação; o fetch size limitado faz o driver usar um cursor
+     * no servidor, mantendo em memória apenas um lote de linhas.
      */
-    @Query(
-        "SELECT r.id as id, " +
-        "r.name as name, " +
-        "r.description as description, " +
-        "r.hourlyRate as hourlyRate, " +
-        "r.capacity as capacity, " +
-        "r.soundproofed as soundproofed, " +
-        "r.airConditioning as airConditioning, " +
-        "r.roomType as roomType, " +
-        "r.active as active, " +
-        "r.createdAt as createdAt, " +
-        "r.updatedAt as updatedAt " +
-        "FROM Room r " +
-        "WHERE r.studio.id = :studioId AND r.active = true " +
-        "ORDER BY r.name"
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        }
     )
-    List<RoomProjection> findRoomsByStudioId(@Param("studioId") Long studioId);
+    @Query(value = STUDIO_DETAIL_JSON_SELECT + "WHERE s.active = true ORDER BY s.id", nativeQuery = true)
+    Stream<String> streamActiveStudioDetailJson();
 
     /**
-     * Busca as imagens das rooms
+     * Fontes do índice de sugestões: nome, cidade e estado dos estúdios ativos (todos, ou apenas
+     * {@code studioId}) com a popularidade, isto é, favoritos mais reservas efetivadas desde {@code since}.
      */
     @Query(
-        "SELECT ri.id as id, " +
-        "ri.url as url, " +
-        "ri.altText as altText, " +
-        "ri.displayOrder as displayOrder, " +
-        "ri.active as active, " +
-        "ri.room.id as roomId " +
-        "FROM RoomImage ri " +
-        "WHERE ri.room.id IN :roomIds AND ri.active = true " +
-        "ORDER BY ri.room.id, ri.displayOrder ASC"
+        value = """
+        SELECT
+            s.id AS id,
+            s.name AS name,
+            s.city AS city,
+            s.state AS state,
+            (SELECT COUNT(*) FROM favorite f WHERE f.studio_id = s.id)
+            + (
+                SELECT COUNT(*)
+                FROM reservation res
+                INNER JOIN room r ON r.id = res.room_id
+                WHERE r.studio_id = s.id
+                AND res.status IN ('CONFIRMED', 'IN_PROGRESS', 'COMPLETED')
+                AND res.start_date_time >= CAST(:since AS timestamp)
+            ) AS popularity
+        FROM studio s
+        WHERE s.active = true
+        AND (CAST(:studioId AS bigint) IS NULL OR s.id = :studioId)
+        """,
+        nativeQuery = true
     )
-    List<RoomImageProjection> findImagesByRoomIds(@Param("roomIds") List<Long> roomIds);
+    List<StudioSuggestSourceProjection> findSuggestSources(@Param("studioId") Long studioId, @Param("since") Instant since);
 
     /**
      * Busca studios ativos por cidade
@@ -554,12 +183,9 @@ public interface StudioRepository extends JpaRepository<Studio, Long>, JpaSpecif
             res.status
         FROM reservation res
         INNER JOIN room r ON r.id = res.room_id
-        WHERE res.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')
-        AND (
-            (res.start_date_time <= :availabilityStartDateTime AND res.end_date_time > :availabilityStartDateTime)
-            OR (res.start_date_time < :availabilityEndDateTime AND res.end_date_time >= :availabilityEndDateTime)
-            OR (res.start_date_time >= :availabilityStartDateTime AND res.end_date_time <= :availabilityEndDateTime)
-        )
+        WHERE res.archived = false
+        AND res.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')
+        AND res.booked_range && tsrange(CAST(:availabilityStartDateTime AS timestamp), CAST(:availabilityEndDateTime AS timestamp), '[)')
         """,
         nativeQuery = true
     )
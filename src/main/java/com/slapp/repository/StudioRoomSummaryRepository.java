@@ -0,0 +1,53 @@
+package com.slapp.repository;
+
+import com.slapp.domain.StudioRoomSummary;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the StudioRoomSummary entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface StudioRoomSummaryRepository extends JpaRepository<StudioRoomSummary, Long> {
+    /**
+     * Recalcula o resumo de salas de um estúdio a partir da tabela room.
+     * Sempre grava uma linha (com contagem 0 quando o estúdio não possui salas ativas).
+     * Os bits de room_type_mask seguem {@link com.slapp.domain.enumeration.RoomType#getMask()}.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        value = """
+        INSERT INTO studio_room_summary (studio_id, min_hourly_rate, max_hourly_rate, active_room_count, room_type_mask, updated_at)
+        SELECT
+            s.id,
+            MIN(r.hourly_rate),
+            MAX(r.hourly_rate),
+            COUNT(r.id),
+            COALESCE(BIT_OR(
+                CASE r.room_type
+                    WHEN 'RECORDING' THEN 1
+                    WHEN 'REHEARSAL' THEN 2
+                    WHEN 'LIVE' THEN 4
+                    WHEN 'MIXING' THEN 8
+                    WHEN 'MASTERING' THEN 16
+                    ELSE 0
+                END
+            ), 0),
+            now()
+        FROM studio s
+        LEFT JOIN room r ON r.studio_id = s.id AND r.active = true
+        WHERE s.id = :studioId
+        GROUP BY s.id
+        ON CONFLICT (studio_id) DO UPDATE SET
+            min_hourly_rate = EXCLUDED.min_hourly_rate,
+            max_hourly_rate = EXCLUDED.max_hourly_rate,
+            active_room_count = EXCLUDED.active_room_count,
+            room_type_mask = EXCLUDED.room_type_mask,
+            updated_at = EXCLUDED.updated_at
+        """,
+        nativeQuery = true
+    )
+    void refreshByStudioId(@Param("studioId") Long studioId);
+}
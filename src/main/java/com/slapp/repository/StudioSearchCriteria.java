@@ -0,0 +1,161 @@
+package com.slapp.repository;
+
+import com.slapp.domain.enumeration.RoomType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filtros da busca de estúdios, já normalizados para o {@link StudioSearchSql}.
+ * <p>
+ * Campos nulos (ou vazios) não geram predicado. {@code roomTypes} nulo significa sem filtro de tipo;
+ * um conjunto vazio vem de um tipo inválido e não retorna nenhum estúdio.
+ *
+ * @param busyRoomIds salas ocupadas segundo o RoomAvailabilityIndex, excluídas sem consultar reservation.
+ * @param favoritesLogin restringe aos favoritos do usuário.
+ * @param tsQuery consulta textual na sintaxe de to_tsquery ('simple'); ordena por relevância.
+ */
+public record StudioSearchCriteria(
+    String name,
+    String city,
+    Set<RoomType> roomTypes,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    Instant availabilityStart,
+    Instant availabilityEnd,
+    Collection<Long> busyRoomIds,
+    String favoritesLogin,
+    String tsQuery
+) {
+    /**
+     * Tipos de sala correspondentes ao filtro da busca ("BOTH" inclui gravação, ensaio, live e mixagem),
+     * com as mesmas regras de {@link RoomType#maskOf(String)}.
+     */
+    public static Set<RoomType> roomTypesOf(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        if ("BOTH".equals(value)) {
+            return EnumSet.of(RoomType.RECORDING, RoomType.REHEARSAL, RoomType.LIVE, RoomType.MIXING);
+        }
+        try {
+            return EnumSet.of(RoomType.valueOf(value));
+        } catch (IllegalArgumentException e) {
+            return EnumSet.noneOf(RoomType.class);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    boolean hasName() {
+        return name != null && !name.isEmpty();
+    }
+
+    boolean hasCity() {
+        return city != null && !city.isEmpty();
+    }
+
+    boolean hasAvailabilityWindow() {
+        return availabilityStart != null && availabilityEnd != null;
+    }
+
+    boolean hasBusyRooms() {
+        return busyRoomIds != null && !busyRoomIds.isEmpty();
+    }
+
+    boolean hasTextQuery() {
+        return tsQuery != null && !tsQuery.isEmpty();
+    }
+
+    int roomTypeMask() {
+        int mask = 0;
+        for (RoomType roomType : roomTypes) {
+            mask |= roomType.getMask();
+        }
+        return mask;
+    }
+
+    List<String> roomTypeNames() {
+        return roomTypes.stream().map(RoomType::name).toList();
+    }
+
+    public static class Builder {
+
+        private String name;
+        private String city;
+        private Set<RoomType> roomTypes;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private Instant availabilityStart;
+        private Instant availabilityEnd;
+        private Collection<Long> busyRoomIds;
+        private String favoritesLogin;
+        private String tsQuery;
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder city(String city) {
+            this.city = city;
+            return this;
+        }
+
+        public Builder roomType(String roomType) {
+            this.roomTypes = roomTypesOf(roomType);
+            return this;
+        }
+
+        public Builder minPrice(BigDecimal minPrice) {
+            this.minPrice = minPrice;
+            return this;
+        }
+
+        public Builder maxPrice(BigDecimal maxPrice) {
+            this.maxPrice = maxPrice;
+            return this;
+        }
+
+        public Builder availability(Instant start, Instant end) {
+            this.availabilityStart = start;
+            this.availabilityEnd = end;
+            return this;
+        }
+
+        public Builder busyRoomIds(Collection<Long> busyRoomIds) {
+            this.busyRoomIds = busyRoomIds;
+            return this;
+        }
+
+        public Builder favoritesLogin(String favoritesLogin) {
+            this.favoritesLogin = favoritesLogin;
+            return this;
+        }
+
+        public Builder tsQuery(String tsQuery) {
+            this.tsQuery = tsQuery;
+            return this;
+        }
+
+        public StudioSearchCriteria build() {
+            return new StudioSearchCriteria(
+                name,
+                city,
+                roomTypes,
+                minPrice,
+                maxPrice,
+                availabilityStart,
+                availabilityEnd,
+                busyRoomIds,
+                favoritesLogin,
+                tsQuery
+            );
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.slapp.repository;
+
+import com.slapp.repository.projections.StudioFacetRowProjection;
+import com.slapp.repository.projections.StudioListProjection;
+import com.slapp.repository.projections.StudioNearbyProjection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Busca de estúdios com SQL montado a partir dos filtros presentes (fragmento do {@link StudioRepository}).
+ * <p>
+ * Ordenação pelas propriedades de {@link StudioListProjection} (id, name, city, state, minPrice, maxPrice,
+ * roomCount), sempre desempatada por id. Com {@link StudioSearchCriteria#tsQuery()} a ordenação é por
+ * relevância e a da requisição é ignorada.
+ */
+public interface StudioSearchRepository {
+    /**
+     * Página com total (consulta de contagem separada, evitada quando a página já revela o total).
+     */
+    Page<StudioListProjection> searchStudioPage(StudioSearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Página sem total: busca pageSize + 1 linhas para saber se há próxima página.
+     */
+    Slice<StudioListProjection> searchStudioSlice(StudioSearchCriteria criteria, Pageable pageable);
+
+    long countStudios(StudioSearchCriteria criteria);
+
+    /**
+     * Keyset (seek) ordenado por {@code sortProperty} e id.
+     *
+     * @param lastKey valor de {@code sortProperty} do último item recebido (ignorado na ordenação por id).
+     * @param lastId id do último item recebido; nulo na primeira página.
+     */
+    List<StudioListProjection> searchStudiosAfter(
+        StudioSearchCriteria criteria,
+        String sortProperty,
+        Object lastKey,
+        Long lastId,
+        int limit
+    );
+
+    /**
+     * Contagens das facetas da busca (cidade, tipo de sala, faixa de preço e disponibilidade) em uma única query.
+     * Cada faceta ignora o próprio filtro e aplica os demais; um estúdio conta quando ao menos uma sala atende
+     * a todos os filtros considerados, como na busca. A busca textual não se aplica às facetas.
+     */
+    List<StudioFacetRowProjection> searchStudioFacets(StudioSearchCriteria criteria);
+
+    /**
+     * Estúdios a até {@code radius} metros do ponto, do mais próximo para o mais distante. Paginação keyset
+     * por (distância, id): {@code lastDistance} e {@code lastId} são os do último item recebido, nulos na
+     * primeira página.
+     */
+    List<StudioNearbyProjection> searchStudiosNearby(
+        StudioSearchCriteria criteria,
+        double latitude,
+        double longitude,
+        double radius,
+        Double lastDistance,
+        Long lastId,
+        int limit
+    );
+}
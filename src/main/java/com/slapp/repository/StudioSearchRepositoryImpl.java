@@ -0,0 +1,379 @@
+package com.slapp.repository;
+
+import com.slapp.repository.StudioSearchSql.Mode;
+import com.slapp.repository.StudioSearchSql.Shape;
+import com.slapp.repository.projections.StudioFacetRowProjection;
+import com.slapp.repository.projections.StudioListProjection;
+import com.slapp.repository.projections.StudioNearbyProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Implementação de {@link StudioSearchRepository} com queries nativas montadas por {@link StudioSearchSql}.
+ */
+class StudioSearchRepositoryImpl implements StudioSearchRepository {
+
+    private final EntityManager entityManager;
+
+    StudioSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<StudioListProjection> searchStudioPage(StudioSearchCriteria criteria, Pageable pageable) {
+        if (matchesNothing(criteria)) {
+            return Page.empty(pageable);
+        }
+        List<StudioListProjection> content = rows(criteria, pageable, pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> countStudios(criteria));
+    }
+
+    @Override
+    public Slice<StudioListProjection> searchStudioSlice(StudioSearchCriteria criteria, Pageable pageable) {
+        if (matchesNothing(criteria)) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        List<StudioListProjection> rows = rows(criteria, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public long countStudios(StudioSearchCriteria criteria) {
+        if (matchesNothing(criteria)) {
+            return 0;
+        }
+        Shape shape = Shape.of(Mode.COUNT, criteria, List.of(), null);
+        Query query = StudioSearchSql.bind(entityManager.createNativeQuery(StudioSearchSql.sqlFor(shape)), criteria);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    @Override
+    public List<StudioListProjection> searchStudiosAfter(
+        StudioSearchCriteria criteria,
+        String sortProperty,
+        Object lastKey,
+        Long lastId,
+        int limit
+    ) {
+        if (matchesNothing(criteria)) {
+            return List.of();
+        }
+        String column = StudioSearchSql.SORT_COLUMNS.get(sortProperty);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort for studio keyset search: " + sortProperty);
+        }
+        List<String> orderBy = "s.id".equals(column) ? List.of("s.id ASC") : List.of(column + " ASC", "s.id ASC");
+        Mode mode = lastId != null ? Mode.SEEK : Mode.ROWS;
+        Shape shape = Shape.of(mode, criteria, orderBy, mode == Mode.SEEK ? column : null);
+        Query query = StudioSearchSql.bind(entityManager.createNativeQuery(StudioSearchSql.sqlFor(shape), Tuple.class), criteria);
+        if (mode == Mode.SEEK) {
+            query.setParameter("lastId", lastId);
+            if (!"s.id".equals(column)) {
+                query.setParameter("lastKey", lastKey);
+            }
+        } else {
+            query.setParameter("offset", 0L);
+        }
+        query.setParameter("limit", limit);
+        return map(query);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<StudioFacetRowProjection> searchStudioFacets(StudioSearchCriteria criteria) {
+        Shape shape = Shape.of(Mode.FACETS, criteria, List.of(), null);
+        Query query = StudioSearchSql.bind(entityManager.createNativeQuery(StudioSearchSql.sqlFor(shape), Tuple.class), criteria);
+        List<Tuple> tuples = query.getResultList();
+        return tuples.stream().<StudioFacetRowProjection>map(StudioFacetRow::of).toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<StudioNearbyProjection> searchStudiosNearby(
+        StudioSearchCriteria criteria,
+        double latitude,
+        double longitude,
+        double radius,
+        Double lastDistance,
+        Long lastId,
+        int limit
+    ) {
+        if (matchesNothing(criteria)) {
+            return List.of();
+        }
+        boolean seek = lastDistance != null && lastId != null;
+        Shape shape = Shape.of(Mode.NEARBY, criteria, List.of(), seek ? "distance" : null);
+        Query query = StudioSearchSql.bind(entityManager.createNativeQuery(StudioSearchSql.sqlFor(shape), Tuple.class), criteria);
+        query.setParameter("latitude", latitude);
+        query.setParameter("longitude", longitude);
+        query.setParameter("radius", radius);
+        if (seek) {
+            query.setParameter("lastDistance", lastDistance);
+            query.setParameter("lastId", lastId);
+        }
+        query.setParameter("limit", limit);
+        List<Tuple> tuples = query.getResultList();
+        return tuples.stream().<StudioNearbyProjection>map(StudioNearbyRow::of).toList();
+    }
+
+    private List<StudioListProjection> rows(StudioSearchCriteria criteria, Pageable pageable, int limit) {
+        // A busca textual ordena por relevância: a ordenação da requisição não entra na forma
+        List<String> orderBy = criteria.hasTextQuery()
+            ? List.of()
+            : StudioSearchSql.orderBy(pageable.getSort(), criteria.favoritesLogin() != null ? "s.name" : null);
+        Shape shape = Shape.of(Mode.ROWS, criteria, orderBy, null);
+        Query query = StudioSearchSql.bind(entityManager.createNativeQuery(StudioSearchSql.sqlFor(shape), Tuple.class), criteria);
+        query.setParameter("limit", limit);
+        query.setParameter("offset", pageable.getOffset());
+        return map(query);
+    }
+
+    // Tipo de sala inválido: nenhum estúdio corresponde, sem ir ao banco
+    private static boolean matchesNothing(StudioSearchCriteria criteria) {
+        return criteria.roomTypes() != null && criteria.roomTypes().isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<StudioListProjection> map(Query query) {
+        List<Tuple> tuples = query.getResultList();
+        return tuples.stream().<StudioListProjection>map(StudioListRow::of).toList();
+    }
+
+    private record StudioListRow(
+        Long id,
+        String name,
+        String description,
+        String address,
+        String city,
+        String state,
+        String image,
+        Long roomCount,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+    )
+        implements StudioListProjection, Serializable {
+        static StudioListRow of(Tuple tuple) {
+            return new StudioListRow(
+                ((Number) tuple.get(0)).longValue(),
+                (String) tuple.get(1),
+                (String) tuple.get(2),
+                (String) tuple.get(3),
+                (String) tuple.get(4),
+                (String) tuple.get(5),
+                (String) tuple.get(6),
+                ((Number) tuple.get(9)).longValue(),
+                (BigDecimal) tuple.get(7),
+                (BigDecimal) tuple.get(8)
+            );
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public String getAddress() {
+            return address;
+        }
+
+        @Override
+        public String getCity() {
+            return city;
+        }
+
+        @Override
+        public String getState() {
+            return state;
+        }
+
+        @Override
+        public String getImage() {
+            return image;
+        }
+
+        @Override
+        public Long getRoomCount() {
+            return roomCount;
+        }
+
+        @Override
+        public BigDecimal getMinPrice() {
+            return minPrice;
+        }
+
+        @Override
+        public BigDecimal getMaxPrice() {
+            return maxPrice;
+        }
+    }
+
+    private record StudioFacetRow(
+        Integer grp,
+        String city,
+        String roomType,
+        Integer priceBucket,
+        Long cityCount,
+        Long roomTypeCount,
+        Long priceCount,
+        Long totalCount,
+        Long anyTimeCount
+    )
+        implements StudioFacetRowProjection {
+        static StudioFacetRow of(Tuple tuple) {
+            return new StudioFacetRow(
+                ((Number) tuple.get(0)).intValue(),
+                (String) tuple.get(1),
+                (String) tuple.get(2),
+                tuple.get(3) != null ? ((Number) tuple.get(3)).intValue() : null,
+                ((Number) tuple.get(4)).longValue(),
+                ((Number) tuple.get(5)).longValue(),
+                ((Number) tuple.get(6)).longValue(),
+                ((Number) tuple.get(7)).longValue(),
+                ((Number) tuple.get(8)).longValue()
+            );
+        }
+
+        @Override
+        public Integer getGrp() {
+            return grp;
+        }
+
+        @Override
+        public String getCity() {
+            return city;
+        }
+
+        @Override
+        public String getRoomType() {
+            return roomType;
+        }
+
+        @Override
+        public Integer getPriceBucket() {
+            return priceBucket;
+        }
+
+        @Override
+        public Long getCityCount() {
+            return cityCount;
+        }
+
+        @Override
+        public Long getRoomTypeCount() {
+            return roomTypeCount;
+        }
+
+        @Override
+        public Long getPriceCount() {
+            return priceCount;
+        }
+
+        @Override
+        public Long getTotalCount() {
+            return totalCount;
+        }
+
+        @Override
+        public Long getAnyTimeCount() {
+            return anyTimeCount;
+        }
+    }
+
+    private record StudioNearbyRow(StudioListRow studio, Double latitude, Double longitude, Double distance)
+        implements StudioNearbyProjection, Serializable {
+        static StudioNearbyRow of(Tuple tuple) {
+            return new StudioNearbyRow(
+                StudioListRow.of(tuple),
+                tuple.get(10) != null ? ((Number) tuple.get(10)).doubleValue() : null,
+                tuple.get(11) != null ? ((Number) tuple.get(11)).doubleValue() : null,
+                ((Number) tuple.get(12)).doubleValue()
+            );
+        }
+
+        @Override
+        public Long getId() {
+            return studio.id();
+        }
+
+        @Override
+        public String getName() {
+            return studio.name();
+        }
+
+        @Override
+        public String getDescription() {
+            return studio.description();
+        }
+
+        @Override
+        public String getAddress() {
+            return studio.address();
+        }
+
+        @Override
+        public String getCity() {
+            return studio.city();
+        }
+
+        @Override
+        public String getState() {
+            return studio.state();
+        }
+
+        @Override
+        public String getImage() {
+            return studio.image();
+        }
+
+        @Override
+        public Long getRoomCount() {
+            return studio.roomCount();
+        }
+
+        @Override
+        public BigDecimal getMinPrice() {
+            return studio.minPrice();
+        }
+
+        @Override
+        public BigDecimal getMaxPrice() {
+            return studio.maxPrice();
+        }
+
+        @Override
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        @Override
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        @Override
+        public Double getDistance() {
+            return distance;
+        }
+    }
+}
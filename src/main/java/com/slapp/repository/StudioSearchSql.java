@@ -0,0 +1,417 @@
+package com.slapp.repository;
+
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Monta o SQL da busca de estúdios com apenas os predicados dos filtros informados, em vez dos
+ * {@code :param IS NULL OR ...} das queries fixas: o planejador vê cada combinação de filtros como
+ * uma query própria e pode escolher o índice adequado a ela.
+ * <p>
+ * A listagem, a contagem, as facetas e a busca por proximidade usam os mesmos predicados, emitidos por
+ * filtro (de estúdio, do resumo de salas e de sala).
+ * <p>
+ * O texto depende só da forma da busca ({@link Shape}: filtros presentes, ordenação e modo), nunca dos
+ * valores, e fica em cache por forma; os valores são sempre parâmetros ligados por {@link #bind}.
+ */
+final class StudioSearchSql {
+
+    /**
+     * Colunas de ordenação aceitas, pelo nome da propriedade de {@link com.slapp.repository.projections.StudioListProjection}.
+     */
+    static final Map<String, String> SORT_COLUMNS = Map.of(
+        "id",
+        "s.id",
+        "name",
+        "s.name",
+        "city",
+        "s.city",
+        "state",
+        "s.state",
+        "minPrice",
+        "srs.min_hourly_rate",
+        "maxPrice",
+        "srs.max_hourly_rate",
+        "roomCount",
+        "srs.active_room_count"
+    );
+
+    private static final String SELECT_COLUMNS = """
+        SELECT
+            s.id,
+            s.name,
+            s.description,
+            s.address,
+            s.city,
+            s.state,
+            s.image,
+            srs.min_hourly_rate as minPrice,
+            srs.max_hourly_rate as maxPrice,
+            srs.active_room_count as roomCount
+        """;
+
+    private static final String RANK_ORDER = "ts_rank_cd(ssd.document, to_tsquery('simple', :tsQuery)) DESC, s.id";
+
+    private static final String CITY_PREDICATE = "UPPER(s.city) LIKE UPPER(CONCAT('%', :city, '%'))";
+
+    private static final String FAVORITES_PREDICATE = """
+        EXISTS (
+            SELECT 1 FROM favorite f
+            INNER JOIN jhi_user u ON u.id = f.user_id
+            WHERE f.studio_id = s.id AND u.login = :favoritesLogin
+        )""";
+
+    private static final String ROOM_AVAILABLE_PREDICATE = """
+        NOT EXISTS (
+            SELECT 1 FROM reservation res
+            WHERE res.archived = false
+            AND res.room_id = r.id
+            AND res.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')
+            AND res.booked_range && tsrange(
+                CAST(:availabilityStartDateTime AS timestamp), CAST(:availabilityEndDateTime AS timestamp), '[)'
+            )
+        )""";
+
+    private static final String DISTANCE = "earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(s.latitude, s.longitude))";
+
+    private static final Map<Shape, String> SQL_BY_SHAPE = new ConcurrentHashMap<>();
+
+    enum Mode {
+        /** Página por offset: LIMIT/OFFSET. */
+        ROWS,
+        /** Apenas o total. */
+        COUNT,
+        /** Keyset: linhas depois da chave de ordenação do último item, com LIMIT. */
+        SEEK,
+        /** Contagens das facetas, uma linha por conjunto de agrupamento. */
+        FACETS,
+        /** Proximidade: raio em torno de um ponto, ordenado por distância; keyset por (distância, id) quando há seekColumn. */
+        NEARBY,
+    }
+
+    enum RoomTypeFilter {
+        NONE,
+        SINGLE,
+        MANY,
+        /** Tipo inválido: nenhuma sala corresponde. */
+        NOTHING,
+    }
+
+    /**
+     * Forma da busca: tudo o que muda o texto do SQL.
+     *
+     * @param orderBy colunas com direção ("s.name ASC"); vazia em COUNT e na busca textual.
+     * @param seekColumn coluna de ordenação do keyset (SEEK), comparada junto com s.id.
+     */
+    record Shape(
+        Mode mode,
+        boolean name,
+        boolean city,
+        RoomTypeFilter roomTypes,
+        boolean minPrice,
+        boolean maxPrice,
+        boolean availability,
+        boolean busyRooms,
+        boolean favorites,
+        boolean text,
+        List<String> orderBy,
+        String seekColumn
+    ) {
+        static Shape of(Mode mode, StudioSearchCriteria criteria, List<String> orderBy, String seekColumn) {
+            RoomTypeFilter roomTypes;
+            if (criteria.roomTypes() == null) {
+                roomTypes = RoomTypeFilter.NONE;
+            } else if (criteria.roomTypes().isEmpty()) {
+                roomTypes = RoomTypeFilter.NOTHING;
+            } else {
+                roomTypes = criteria.roomTypes().size() == 1 ? RoomTypeFilter.SINGLE : RoomTypeFilter.MANY;
+            }
+            return new Shape(
+                mode,
+                criteria.hasName(),
+                criteria.hasCity(),
+                roomTypes,
+                criteria.minPrice() != null,
+                criteria.maxPrice() != null,
+                criteria.hasAvailabilityWindow(),
+                criteria.hasBusyRooms(),
+                criteria.favoritesLogin() != null,
+                criteria.hasTextQuery(),
+                List.copyOf(orderBy),
+                seekColumn
+            );
+        }
+
+        boolean filtersRooms() {
+            return roomTypes != RoomTypeFilter.NONE || minPrice || maxPrice || availability || busyRooms;
+        }
+    }
+
+    private StudioSearchSql() {}
+
+    /**
+     * Colunas do ORDER BY para a ordenação da requisição, sempre terminando em s.id para que as páginas
+     * sejam estáveis. Propriedades desconhecidas são ignoradas; sem ordenação, usa {@code defaultOrder}.
+     */
+    static List<String> orderBy(Sort sort, String defaultOrder) {
+        List<String> columns = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column != null) {
+                columns.add(column + (order.isAscending() ? " ASC" : " DESC"));
+            }
+        }
+        if (columns.isEmpty() && defaultOrder != null) {
+            columns.add(defaultOrder + " ASC");
+        }
+        if (columns.stream().noneMatch(column -> column.startsWith("s.id "))) {
+            columns.add("s.id ASC");
+        }
+        return columns;
+    }
+
+    static String sqlFor(Shape shape) {
+        return SQL_BY_SHAPE.computeIfAbsent(shape, StudioSearchSql::render);
+    }
+
+    /**
+     * Liga os valores dos filtros presentes; deve receber os mesmos critérios usados no {@link Shape}.
+     */
+    static Query bind(Query query, StudioSearchCriteria criteria) {
+        if (criteria.hasTextQuery()) {
+            query.setParameter("tsQuery", criteria.tsQuery());
+        }
+        if (criteria.hasName()) {
+            query.setParameter("name", criteria.name());
+        }
+        if (criteria.hasCity()) {
+            query.setParameter("city", criteria.city());
+        }
+        if (criteria.roomTypes() != null && !criteria.roomTypes().isEmpty()) {
+            query.setParameter("roomTypeMask", criteria.roomTypeMask());
+            if (criteria.roomTypes().size() == 1) {
+                query.setParameter("roomType", criteria.roomTypeNames().get(0));
+            } else {
+                query.setParameter("roomTypes", criteria.roomTypeNames());
+            }
+        }
+        if (criteria.minPrice() != null) {
+            query.setParameter("minPrice", criteria.minPrice());
+        }
+        if (criteria.maxPrice() != null) {
+            query.setParameter("maxPrice", criteria.maxPrice());
+        }
+        if (criteria.favoritesLogin() != null) {
+            query.setParameter("favoritesLogin", criteria.favoritesLogin());
+        }
+        if (criteria.hasBusyRooms()) {
+            // Um único parâmetro bigint[], em vez de um por sala: o texto do SQL não muda com a quantidade
+            query.setParameter("busyRoomIds", criteria.busyRoomIds().toArray(Long[]::new));
+        }
+        if (criteria.hasAvailabilityWindow()) {
+            query.setParameter("availabilityStartDateTime", criteria.availabilityStart());
+            query.setParameter("availabilityEndDateTime", criteria.availabilityEnd());
+        }
+        return query;
+    }
+
+    private static String render(Shape shape) {
+        return switch (shape.mode()) {
+            case FACETS -> renderFacets(shape);
+            case NEARBY -> renderNearby(shape);
+            default -> renderSearch(shape);
+        };
+    }
+
+    private static String renderSearch(Shape shape) {
+        StringBuilder sql = new StringBuilder(1024);
+        sql.append(shape.mode() == Mode.COUNT ? "SELECT COUNT(*)\n" : SELECT_COLUMNS);
+        if (shape.text()) {
+            sql.append("FROM studio_search_document ssd\n");
+            sql.append("INNER JOIN studio s ON s.id = ssd.studio_id\n");
+        } else {
+            sql.append("FROM studio s\n");
+        }
+        sql.append("INNER JOIN studio_room_summary srs ON srs.studio_id = s.id AND srs.active_room_count > 0\n");
+        sql.append("WHERE s.active = true\n");
+        studioPredicates(shape, true).forEach(predicate -> sql.append("AND ").append(predicate).append('\n'));
+        summaryPredicates(shape).forEach(predicate -> sql.append("AND ").append(predicate).append('\n'));
+        appendRoomExists(sql, shape);
+        if (shape.mode() == Mode.SEEK) {
+            if ("s.id".equals(shape.seekColumn())) {
+                sql.append("AND s.id > :lastId\n");
+            } else {
+                sql.append("AND (").append(shape.seekColumn()).append(", s.id) > (:lastKey, :lastId)\n");
+            }
+        }
+        if (shape.mode() != Mode.COUNT) {
+            sql.append("ORDER BY ").append(shape.text() ? RANK_ORDER : String.join(", ", shape.orderBy())).append('\n');
+            sql.append(shape.mode() == Mode.ROWS ? "LIMIT :limit OFFSET :offset" : "LIMIT :limit");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Facetas de cidade, tipo de sala e faixa de preço: cada sala ativa recebe um flag por filtro, e cada
+     * faceta conta os estúdios com ao menos uma sala que atende aos demais filtros. Os limites das faixas
+     * são {@link StudioRepository#FACET_PRICE_BUCKET_BOUNDS}.
+     */
+    private static String renderFacets(Shape shape) {
+        String bounds = StudioRepository.FACET_PRICE_BUCKET_BOUNDS.stream()
+            .map(BigDecimal::toPlainString)
+            .collect(Collectors.joining(", "));
+        StringBuilder sql = new StringBuilder(2048);
+        sql.append("WITH room_flags AS (\n");
+        sql.append("    SELECT\n");
+        sql.append("        s.id AS studio_id,\n");
+        sql.append("        s.city AS city,\n");
+        sql.append("        r.room_type AS room_type,\n");
+        sql.append("        width_bucket(r.hourly_rate, CAST(ARRAY[").append(bounds).append("] AS numeric[])) AS price_bucket,\n");
+        sql.append("        ").append(and(shape.city() ? List.of(CITY_PREDICATE) : List.of())).append(" AS city_ok,\n");
+        sql.append("        ").append(and(roomTypePredicates(shape))).append(" AS type_ok,\n");
+        sql.append("        ").append(and(roomPricePredicates(shape))).append(" AS price_ok,\n");
+        sql.append("        ").append(and(roomAvailabilityPredicates(shape))).append(" AS available\n");
+        sql.append("    FROM studio s\n");
+        sql.append("    INNER JOIN room r ON r.studio_id = s.id AND r.active = true\n");
+        sql.append("    WHERE s.active = true\n");
+        studioPredicates(shape, false).forEach(predicate -> sql.append("    AND ").append(predicate).append('\n'));
+        sql.append(")\n");
+        sql.append("""
+            SELECT
+                GROUPING(city, room_type, price_bucket) AS grp,
+                city,
+                room_type AS roomType,
+                price_bucket AS priceBucket,
+                COUNT(DISTINCT studio_id) FILTER (WHERE type_ok AND price_ok AND available) AS cityCount,
+                COUNT(DISTINCT studio_id) FILTER (WHERE city_ok AND price_ok AND available) AS roomTypeCount,
+                COUNT(DISTINCT studio_id) FILTER (WHERE city_ok AND type_ok AND available) AS priceCount,
+                COUNT(DISTINCT studio_id) FILTER (WHERE city_ok AND type_ok AND price_ok AND available) AS totalCount,
+                COUNT(DISTINCT studio_id) FILTER (WHERE city_ok AND type_ok AND price_ok) AS anyTimeCount
+            FROM room_flags
+            GROUP BY GROUPING SETS ((city), (room_type), (price_bucket), ())
+            """);
+        return sql.toString();
+    }
+
+    /**
+     * Estúdios dentro de {@code :radius} metros do ponto, do mais próximo para o mais distante. O earth_box usa
+     * o índice GiST ix_studio__earth_position; o earth_distance refina o raio.
+     */
+    private static String renderNearby(Shape shape) {
+        StringBuilder sql = new StringBuilder(2048);
+        sql.append("SELECT * FROM (\n");
+        sql.append(SELECT_COLUMNS.stripTrailing()).append(",\n");
+        sql.append("    s.latitude,\n");
+        sql.append("    s.longitude,\n");
+        sql.append("    ").append(DISTANCE).append(" AS distance\n");
+        sql.append("FROM studio s\n");
+        sql.append("INNER JOIN studio_room_summary srs ON srs.studio_id = s.id AND srs.active_room_count > 0\n");
+        sql.append("WHERE s.active = true\n");
+        sql.append("AND s.latitude IS NOT NULL AND s.longitude IS NOT NULL\n");
+        sql.append("AND earth_box(ll_to_earth(:latitude, :longitude), :radius) @> ll_to_earth(s.latitude, s.longitude)\n");
+        studioPredicates(shape, true).forEach(predicate -> sql.append("AND ").append(predicate).append('\n'));
+        summaryPredicates(shape).forEach(predicate -> sql.append("AND ").append(predicate).append('\n'));
+        appendRoomExists(sql, shape);
+        sql.append(") nearby\n");
+        sql.append("WHERE nearby.distance <= :radius\n");
+        if (shape.seekColumn() != null) {
+            sql.append("AND (nearby.distance, nearby.id) > (:lastDistance, :lastId)\n");
+        }
+        sql.append("ORDER BY nearby.distance, nearby.id\n");
+        sql.append("LIMIT :limit");
+        return sql.toString();
+    }
+
+    // Sem filtro por sala, active_room_count > 0 já garante uma sala ativa
+    private static void appendRoomExists(StringBuilder sql, Shape shape) {
+        if (!shape.filtersRooms()) {
+            return;
+        }
+        sql.append("AND EXISTS (\n");
+        sql.append("    SELECT 1 FROM room r\n");
+        sql.append("    WHERE r.studio_id = s.id AND r.active = true\n");
+        Stream.of(roomTypePredicates(shape), roomPricePredicates(shape), roomAvailabilityPredicates(shape))
+            .flatMap(List::stream)
+            .forEach(predicate -> sql.append("    AND ").append(predicate.replace("\n", "\n    ")).append('\n'));
+        sql.append(")\n");
+    }
+
+    /**
+     * Predicados do estúdio (alias s): busca textual, nome, cidade (quando {@code withCity}) e favoritos.
+     */
+    private static List<String> studioPredicates(Shape shape, boolean withCity) {
+        List<String> predicates = new ArrayList<>();
+        if (shape.text()) {
+            predicates.add("ssd.document @@ to_tsquery('simple', :tsQuery)");
+        }
+        if (shape.name()) {
+            predicates.add("UPPER(s.name) LIKE UPPER(CONCAT('%', :name, '%'))");
+        }
+        if (shape.city() && withCity) {
+            predicates.add(CITY_PREDICATE);
+        }
+        if (shape.favorites()) {
+            predicates.add(FAVORITES_PREDICATE);
+        }
+        return predicates;
+    }
+
+    /**
+     * Pré-filtro pelo resumo de salas (alias srs), que descarta estúdios sem consultar room.
+     */
+    private static List<String> summaryPredicates(Shape shape) {
+        List<String> predicates = new ArrayList<>();
+        if (shape.roomTypes() != RoomTypeFilter.NONE) {
+            predicates.add(shape.roomTypes() == RoomTypeFilter.NOTHING ? "false" : "(srs.room_type_mask & :roomTypeMask) <> 0");
+        }
+        if (shape.minPrice()) {
+            predicates.add("srs.max_hourly_rate >= :minPrice");
+        }
+        if (shape.maxPrice()) {
+            predicates.add("srs.min_hourly_rate <= :maxPrice");
+        }
+        return predicates;
+    }
+
+    private static List<String> roomTypePredicates(Shape shape) {
+        return switch (shape.roomTypes()) {
+            case SINGLE -> List.of("r.room_type = :roomType");
+            case MANY -> List.of("r.room_type IN (:roomTypes)");
+            case NOTHING -> List.of("false");
+            case NONE -> List.of();
+        };
+    }
+
+    private static List<String> roomPricePredicates(Shape shape) {
+        List<String> predicates = new ArrayList<>();
+        if (shape.minPrice()) {
+            predicates.add("r.hourly_rate >= :minPrice");
+        }
+        if (shape.maxPrice()) {
+            predicates.add("r.hourly_rate <= :maxPrice");
+        }
+        return predicates;
+    }
+
+    private static List<String> roomAvailabilityPredicates(Shape shape) {
+        List<String> predicates = new ArrayList<>();
+        if (shape.busyRooms()) {
+            predicates.add("r.id <> ALL (:busyRoomIds)");
+        }
+        if (shape.availability()) {
+            predicates.add(ROOM_AVAILABLE_PREDICATE);
+        }
+        return predicates;
+    }
+
+    private static String and(List<String> predicates) {
+        return predicates.isEmpty() ? "true" : "(" + String.join(" AND ", predicates) + ")";
+    }
+}
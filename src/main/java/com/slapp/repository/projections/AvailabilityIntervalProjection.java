@@ -0,0 +1,12 @@
+package com.slapp.repository.projections;
+
+import java.time.Instant;
+
+/**
+ * Intervalo de uma disponibilidade especial (bloqueio ou liberação), para o calendário da sala
+ */
+public interface AvailabilityIntervalProjection {
+    Instant getStartDateTime();
+    Instant getEndDateTime();
+    Boolean getAvailable();
+}
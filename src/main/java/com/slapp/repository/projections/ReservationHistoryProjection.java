@@ -0,0 +1,20 @@
+package com.slapp.repository.projections;
+
+import com.slapp.domain.enumeration.ReservationStatus;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Linha do histórico de reservas de uma sala, sem o grafo de cliente, sala e estúdio
+ */
+public interface ReservationHistoryProjection {
+    Long getId();
+    Instant getStartDateTime();
+    Instant getEndDateTime();
+    ReservationStatus getStatus();
+    BigDecimal getTotalPrice();
+    String getArtistName();
+    Long getCustomerId();
+    Instant getCreatedAt();
+    Instant getCancelledAt();
+}
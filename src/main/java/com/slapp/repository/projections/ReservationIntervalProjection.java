@@ -0,0 +1,14 @@
+package com.slapp.repository.projections;
+
+import com.slapp.domain.enumeration.ReservationStatus;
+import java.time.Instant;
+
+/**
+ * Intervalo e status de uma reserva, para o calendário e a linha do tempo da sala
+ */
+public interface ReservationIntervalProjection {
+    Long getId();
+    Instant getStartDateTime();
+    Instant getEndDateTime();
+    ReservationStatus getStatus();
+}
@@ -0,0 +1,13 @@
+package com.slapp.repository.projections;
+
+import java.time.Instant;
+
+/**
+ * Projection mínima de Reservation para índices de ocupação em memória
+ */
+public interface ReservationSlotProjection {
+    Long getId();
+    Long getRoomId();
+    Instant getStartDateTime();
+    Instant getEndDateTime();
+}
@@ -0,0 +1,9 @@
+package com.slapp.repository.projections;
+
+/**
+ * Sala e estúdio a que uma entidade filha de Room pertence
+ */
+public interface RoomStudioProjection {
+    Long getRoomId();
+    Long getStudioId();
+}
@@ -0,0 +1,17 @@
+package com.slapp.repository.projections;
+
+/**
+ * Linha da query de facetas (GROUPING SETS). {@link #getGrp()} identifica o conjunto de agrupamento:
+ * bits de GROUPING(city, room_type, price_bucket), em que 1 indica coluna agregada.
+ */
+public interface StudioFacetRowProjection {
+    Integer getGrp();
+    String getCity();
+    String getRoomType();
+    Integer getPriceBucket();
+    Long getCityCount();
+    Long getRoomTypeCount();
+    Long getPriceCount();
+    Long getTotalCount();
+    Long getAnyTimeCount();
+}
@@ -0,0 +1,10 @@
+package com.slapp.repository.projections;
+
+/**
+ * Estúdio da busca por proximidade, com a distância (em metros) até o ponto de referência.
+ */
+public interface StudioNearbyProjection extends StudioListProjection {
+    Double getLatitude();
+    Double getLongitude();
+    Double getDistance();
+}
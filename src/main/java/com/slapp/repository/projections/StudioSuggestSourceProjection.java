@@ -0,0 +1,12 @@
+package com.slapp.repository.projections;
+
+/**
+ * Projection mínima de Studio para o índice de sugestões (typeahead) em memória
+ */
+public interface StudioSuggestSourceProjection {
+    Long getId();
+    String getName();
+    String getCity();
+    String getState();
+    Long getPopularity();
+}
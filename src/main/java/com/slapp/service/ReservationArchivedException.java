@@ -0,0 +1,10 @@
+package com.slapp.service;
+
+public class ReservationArchivedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReservationArchivedException() {
+        super("Archived reservations cannot be reviewed!");
+    }
+}
@@ -0,0 +1,10 @@
+package com.slapp.service;
+
+public class ReservationConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReservationConflictException() {
+        super("The room is already booked for this time slot!");
+    }
+}
@@ -0,0 +1,10 @@
+package com.slapp.service;
+
+public class ReservationPriceMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReservationPriceMismatchException() {
+        super("The price does not match the room's price schedule!");
+    }
+}
@@ -1,6 +1,13 @@
 package com.slapp.service;
 
+import com.slapp.repository.projections.ReservationHistoryProjection;
+import com.slapp.service.dto.KeysetPageDTO;
+import com.slapp.service.dto.ReservationBatchDTO;
+import com.slapp.service.dto.ReservationBatchResultDTO;
 import com.slapp.service.dto.ReservationDTO;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,13 +16,23 @@ import java.util.Optional;
  */
 public interface ReservationService {
     /**
-     * Save a reservation.
+     * Save a reservation. Its total price must match the price schedule of the room.
      *
      * @param reservationDTO the entity to save.
      * @return the persisted entity.
      */
     ReservationDTO save(ReservationDTO reservationDTO);
 
+    /**
+     * Save a batch of reservations, each one optionally repeated by the recurrence rule of the batch.
+     * Occurrences that overlap an active reservation of their room, or an earlier occurrence of the batch,
+     * are not saved. Each occurrence is priced by the price schedule of its room.
+     *
+     * @param batch the reservations and the recurrence rule.
+     * @return the result of each occurrence, in the order of the expanded batch.
+     */
+    List<ReservationBatchResultDTO> saveBatch(ReservationBatchDTO batch);
+
     /**
      * Updates a reservation.
      *
@@ -89,10 +106,56 @@ public interface ReservationService {
     int autoConfirmExpiredPendingReservations();
 
     /**
-     * Get all reservations for a room (for debugging).
+     * Auto-confirm the reservation if it is still pending.
+     *
+     * @param id the id of the reservation.
+     * @return {@code true} if the reservation was confirmed.
+     */
+    boolean autoConfirmReservation(Long id);
+
+    /**
+     * Schedule the auto-confirmation of the pending reservations that have no confirmation task yet.
+     *
+     * @return the number of confirmation tasks created.
+     */
+    int scheduleMissingAutoConfirmations();
+
+    /**
+     * Move the completed and cancelled reservations that ended before {@code endedBefore} to the archive partition.
+     * The monthly archive partitions they need, and those of the next months, are created first.
+     *
+     * @param endedBefore the archive horizon.
+     * @return the number of reservations archived.
+     */
+    int archiveClosedReservations(Instant endedBefore);
+
+    /**
+     * Get a page of the reservation history of a room, ordered by start and id, with keyset pagination.
+     *
+     * @param roomId the room id.
+     * @param from the lower bound (inclusive) of the reservation start, or {@code null} for no bound.
+     * @param to the upper bound (exclusive) of the reservation start, or {@code null} for no bound.
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param pageSize the maximum number of reservations of the page.
+     * @return the page and the cursor of the next one.
+     * @throws InvalidCursorException if the cursor does not belong to this room and window.
+     */
+    KeysetPageDTO<ReservationHistoryProjection> findReservationHistoryByRoom(
+        Long roomId,
+        Instant from,
+        Instant to,
+        String cursor,
+        int pageSize
+    );
+
+    /**
+     * Write the reservation history of a room as NDJSON, one reservation per line, reading from the database
+     * through a cursor.
      *
      * @param roomId the room id.
-     * @return the list of all reservations.
+     * @param from the lower bound (inclusive) of the reservation start, or {@code null} for no bound.
+     * @param to the upper bound (exclusive) of the reservation start, or {@code null} for no bound.
+     * @return the number of reservations exported.
      */
-    List<ReservationDTO> findAllReservationsByRoom(Long roomId);
+    long exportReservationHistoryByRoom(Long roomId, Instant from, Instant to, OutputStream outputStream) throws IOException;
 }
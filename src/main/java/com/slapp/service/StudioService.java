@@ -1,17 +1,23 @@
 package com.slapp.service;
 
-import com.slapp.repository.projections.StudioDetailProjection;
 import com.slapp.repository.projections.StudioListProjection;
+import com.slapp.repository.projections.StudioNearbyProjection;
+import com.slapp.service.detail.StudioDetailDocument;
+import com.slapp.service.dto.KeysetPageDTO;
 import com.slapp.service.dto.StudioDTO;
+import com.slapp.service.dto.StudioFacetsDTO;
 import com.slapp.service.dto.StudioFilterDTO;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import com.slapp.service.dto.StudioSuggestionDTO;
+import com.slapp.service.search.StudioSearchSort;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 /**
  * Service Interface for managing {@link com.slapp.domain.Studio}.
@@ -58,17 +64,69 @@ public interface StudioService {
 
     Page<StudioListProjection> getStudioRoomPagination(Pageable pageable, StudioFilterDTO filters);
 
-    Optional<StudioDetailProjection> getStudioDetail(Long id);
+    /**
+     * Busca de estúdios sem o total (modo Slice): indica apenas se há próxima página.
+     */
+    Slice<StudioListProjection> getStudioRoomSlice(Pageable pageable, StudioFilterDTO filters);
+
+    /**
+     * Total da busca de estúdios (sem favoritos), guardado no cache da busca até que
+     * uma alteração de estúdio, sala ou reserva possa mudá-lo.
+     */
+    long countStudioRooms(StudioFilterDTO filters);
+
+    /**
+     * Contagens das facetas da busca (cidade, tipo de sala, faixa de preço e disponibilidade) em uma única query.
+     */
+    StudioFacetsDTO getStudioFacets(StudioFilterDTO filters);
+
+    /**
+     * Detalhe do estúdio já serializado em JSON, montado em uma única consulta e guardado em cache
+     * até que o estúdio, suas salas ou as imagens das salas sejam alterados.
+     */
+    Optional<StudioDetailDocument> getStudioDetailDocument(Long id);
+
+    /**
+     * Sugestões do typeahead (nomes de estúdios, cidades e estados) para o prefixo digitado,
+     * servidas pelo índice em memória, sem acesso ao banco.
+     */
+    List<StudioSuggestionDTO> suggestStudios(String query, int limit);
 
-    public List<StudioListProjection> findStudiosKeyset(
-        String name,
-        String city,
-        String roomType,
-        BigDecimal minPrice,
-        BigDecimal maxPrice,
-        LocalDateTime availabilityStartDateTime,
-        LocalDateTime availabilityEndDateTime,
+    /**
+     * Escreve o catálogo de estúdios ativos (com salas, preços e imagens) em NDJSON, um estúdio por linha,
+     * lendo do banco por cursor: a memória usada não depende do tamanho do catálogo.
+     *
+     * @return a quantidade de estúdios exportados.
+     */
+    long exportActiveStudios(OutputStream outputStream) throws IOException;
+
+    /**
+     * Busca de estúdios com paginação keyset na ordenação informada.
+     *
+     * @param cursor cursor opaco devolvido pela página anterior, ou {@code null} na primeira página.
+     * @param lastId id do último item recebido; aceito apenas na ordenação por id e sem {@code cursor}.
+     * @throws com.slapp.service.InvalidCursorException se o cursor não pertencer a esta busca.
+     */
+    KeysetPageDTO<StudioListProjection> findStudiosKeyset(
+        StudioFilterDTO filters,
+        StudioSearchSort sort,
+        String cursor,
         Long lastId,
         int pageSize
     );
+
+    /**
+     * Estúdios ativos mais próximos do ponto informado, dentro do raio, ordenados por distância.
+     * Aplica os filtros de tipo de sala e preço de {@code filters}.
+     *
+     * @param cursor cursor opaco devolvido pela página anterior, ou {@code null} na primeira página.
+     */
+    KeysetPageDTO<StudioNearbyProjection> findStudiosNearby(
+        double latitude,
+        double longitude,
+        double radiusKm,
+        StudioFilterDTO filters,
+        String cursor,
+        int pageSize
+    );
 }
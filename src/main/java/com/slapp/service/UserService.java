@@ -12,6 +12,7 @@ import com.slapp.security.AuthoritiesConstants;
 import com.slapp.security.SecurityUtils;
 import com.slapp.service.dto.AdminUserDTO;
 import com.slapp.service.dto.UserDTO;
+import com.slapp.service.scheduler.ClusterJobCoordinator;
 import com.slapp.web.rest.vm.ManagedUserVM;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -47,18 +48,22 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final ClusterJobCoordinator jobCoordinator;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
         UserProfileRepository userProfileRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        ClusterJobCoordinator jobCoordinator
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.userProfileRepository = userProfileRepository;
         this.cacheManager = cacheManager;
+        this.jobCoordinator = jobCoordinator;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -362,17 +367,19 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired every day, at 01:00 (am).
+     * This is scheduled to get fired every day, at 01:00 (am), on a single instance of the cluster.
      */
     @Scheduled(cron = "0 0 1 * * ?")
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                LOG.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        jobCoordinator.runExclusively("remove-not-activated-users", () ->
+            userRepository
+                .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
+                .forEach(user -> {
+                    LOG.debug("Deleting not activated user {}", user.getLogin());
+                    userRepository.delete(user);
+                    this.clearUserCaches(user);
+                })
+        );
     }
 
     /**
@@ -0,0 +1,327 @@
+package com.slapp.service.availability;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.domain.enumeration.ReservationEventType;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.ReservationRepository;
+import com.slapp.repository.projections.ReservationSlotProjection;
+import com.slapp.service.event.ReservationChangedEvent;
+import com.slapp.service.event.ReservationDomainEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Índice em memória da ocupação das salas, usado pela busca de estúdios com filtro de disponibilidade.
+ * <p>
+ * Cada sala com reservas ativas no horizonte possui um bitset de slots de 15 minutos (UTC) a partir
+ * do início do dia atual. Um slot fica marcado quando alguma reserva ativa o intersecta; consultas
+ * com janelas que não caem em limites de slot são, portanto, conservadoras (nunca indicam como livre
+ * uma sala ocupada).
+ * <p>
+ * O índice é reconstruído na inicialização, na virada do dia e a cada {@link #REBUILD_INTERVAL}. É
+ * atualizado pelos {@link ReservationChangedEvent} após o commit das alterações feitas nesta instância e
+ * pelos {@link ReservationDomainEvent} do outbox, que trazem as alterações de todas as instâncias; a
+ * reconstrução periódica corrige eventos perdidos (descartados pelo relay ou anteriores ao seu cursor).
+ */
+@Service
+public class RoomAvailabilityIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+    static final long SLOT_SECONDS = 15 * 60;
+
+    static final Duration REBUILD_INTERVAL = Duration.ofMinutes(15);
+
+    private final ReservationRepository reservationRepository;
+
+    private final ApplicationProperties.AvailabilityIndex properties;
+
+    private volatile State state;
+
+    // Alterações recebidas durante uma reconstrução, reaplicadas sobre o novo estado
+    private List<Change> changesDuringRebuild;
+
+    public RoomAvailabilityIndex(ReservationRepository reservationRepository, ApplicationProperties applicationProperties) {
+        this.reservationRepository = reservationRepository;
+        this.properties = applicationProperties.getAvailabilityIndex();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureCurrent();
+    }
+
+    /**
+     * Reconstrói o índice se ainda não foi construído, se o dia (UTC) mudou ou se foi construído há mais de
+     * {@link #REBUILD_INTERVAL}.
+     */
+    @Scheduled(fixedDelay = 60 * 1000, initialDelay = 60 * 1000)
+    public void ensureCurrent() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        State current = state;
+        long todayStartSlot = slotOf(LocalDate.now(ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant());
+        if (current == null || current.baseSlot != todayStartSlot || current.builtAt.plus(REBUILD_INTERVAL).isBefore(Instant.now())) {
+            rebuild(todayStartSlot);
+        }
+    }
+
+    /**
+     * Indica se a janela [start, end) pode ser respondida pelo índice.
+     */
+    public boolean covers(Instant start, Instant end) {
+        State current = state;
+        if (current == null || start == null || end == null || !end.isAfter(start)) {
+            return false;
+        }
+        return slotOf(start) >= current.baseSlot && slotCeil(end) <= current.baseSlot + current.slotCount;
+    }
+
+    /**
+     * IDs das salas com ao menos uma reserva ativa intersectando [start, end).
+     * Deve ser chamado somente quando {@link #covers(Instant, Instant)} é verdadeiro.
+     *
+     * @return vazio quando há mais de {@code maxRooms} salas ocupadas: a lista deixa de compensar e o
+     * chamador deve consultar o banco.
+     */
+    public Optional<Set<Long>> findBusyRoomIds(Instant start, Instant end, int maxRooms) {
+        State current = state;
+        int from = (int) (slotOf(start) - current.baseSlot);
+        int to = (int) (slotCeil(end) - current.baseSlot);
+        Set<Long> busy = new HashSet<>();
+        for (Map.Entry<Long, RoomSlots> room : current.rooms.entrySet()) {
+            if (room.getValue().intersects(from, to)) {
+                busy.add(room.getKey());
+                if (busy.size() > maxRooms) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(busy);
+    }
+
+    /**
+     * Registra (ou substitui) o intervalo ocupado por uma reserva ativa.
+     */
+    public void put(Long reservationId, Long roomId, Instant start, Instant end) {
+        apply(new Change(reservationId, roomId, start, end));
+    }
+
+    /**
+     * Remove a ocupação de uma reserva (cancelada, rejeitada ou excluída).
+     */
+    public void remove(Long reservationId) {
+        apply(new Change(reservationId, null, null, null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.status() != null && event.status().isActive() && event.roomId() != null) {
+            put(event.reservationId(), event.roomId(), event.startDateTime(), event.endDateTime());
+        } else {
+            remove(event.reservationId());
+        }
+    }
+
+    /**
+     * Alterações de reserva de todas as instâncias, pelo stream do outbox. O evento traz o estado gravado da
+     * reserva, então reaplicar uma alteração já recebida pelo evento local não muda o índice.
+     */
+    @EventListener
+    public void onReservationEvent(ReservationDomainEvent event) {
+        boolean active =
+            event.type() != ReservationEventType.DELETED &&
+            event.status() != null &&
+            event.status().isActive() &&
+            event.roomId() != null &&
+            event.startDateTime() != null &&
+            event.endDateTime() != null;
+        if (active) {
+            put(event.reservationId(), event.roomId(), event.startDateTime(), event.endDateTime());
+        } else {
+            remove(event.reservationId());
+        }
+    }
+
+    private void apply(Change change) {
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+        State current = state;
+        if (current != null) {
+            current.apply(change);
+        }
+    }
+
+    private void rebuild(long baseSlot) {
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                return;
+            }
+            changesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            int slotCount = properties.getHorizonDays() * (int) (24 * 3600 / SLOT_SECONDS);
+            State next = new State(baseSlot, slotCount, Instant.now());
+            Instant from = Instant.ofEpochSecond(baseSlot * SLOT_SECONDS);
+            Instant to = Instant.ofEpochSecond((baseSlot + slotCount) * SLOT_SECONDS);
+            List<ReservationSlotProjection> slots = reservationRepository.findSlotsBetween(from, to, ReservationStatus.ACTIVE_STATUSES);
+            for (ReservationSlotProjection slot : slots) {
+                next.apply(new Change(slot.getId(), slot.getRoomId(), slot.getStartDateTime(), slot.getEndDateTime()));
+            }
+            synchronized (this) {
+                changesDuringRebuild.forEach(next::apply);
+                state = next;
+            }
+            LOG.info("Room availability index built: {} reservations in {} rooms", slots.size(), next.rooms.size());
+        } catch (RuntimeException e) {
+            LOG.warn("Could not build room availability index, studio search will use the database: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+        }
+    }
+
+    private static long slotOf(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), SLOT_SECONDS);
+    }
+
+    private static long slotCeil(Instant instant) {
+        long slot = slotOf(instant);
+        return slot * SLOT_SECONDS == instant.getEpochSecond() && instant.getNano() == 0 ? slot : slot + 1;
+    }
+
+    private record Change(Long reservationId, Long roomId, Instant start, Instant end) {}
+
+    private static final class State {
+
+        private final long baseSlot;
+        private final int slotCount;
+        private final Instant builtAt;
+        private final Map<Long, RoomSlots> rooms = new ConcurrentHashMap<>();
+        private final Map<Long, Long> roomByReservation = new ConcurrentHashMap<>();
+
+        State(long baseSlot, int slotCount, Instant builtAt) {
+            this.baseSlot = baseSlot;
+            this.slotCount = slotCount;
+            this.builtAt = builtAt;
+        }
+
+        void apply(Change change) {
+            Long previousRoomId = change.roomId() == null
+                ? roomByReservation.remove(change.reservationId())
+                : roomByReservation.put(change.reservationId(), change.roomId());
+            if (previousRoomId != null && !previousRoomId.equals(change.roomId())) {
+                RoomSlots previous = rooms.get(previousRoomId);
+                if (previous != null) {
+                    previous.remove(change.reservationId());
+                }
+            }
+            if (change.roomId() == null) {
+                return;
+            }
+            int from = (int) Math.max(0, slotOf(change.start()) - baseSlot);
+            int to = (int) Math.min(slotCount, slotCeil(change.end()) - baseSlot);
+            RoomSlots slots = rooms.computeIfAbsent(change.roomId(), id -> new RoomSlots(slotCount));
+            if (from < to) {
+                slots.put(change.reservationId(), from, to);
+            } else {
+                // Fora do horizonte: não ocupa nenhum slot
+                slots.remove(change.reservationId());
+            }
+        }
+    }
+
+    /**
+     * Bitset de slots de uma sala e os intervalos [from, to) que o compõem.
+     */
+    static final class RoomSlots {
+
+        private final long[] words;
+        private final Map<Long, int[]> intervals = new HashMap<>();
+
+        RoomSlots(int slotCount) {
+            this.words = new long[(slotCount + 63) >>> 6];
+        }
+
+        synchronized void put(Long reservationId, int from, int to) {
+            int[] previous = intervals.put(reservationId, new int[] { from, to });
+            if (previous == null) {
+                setRange(from, to);
+            } else {
+                recompute();
+            }
+        }
+
+        synchronized void remove(Long reservationId) {
+            if (intervals.remove(reservationId) != null) {
+                recompute();
+            }
+        }
+
+        synchronized boolean intersects(int from, int to) {
+            if (from >= to) {
+                return false;
+            }
+            int firstWord = from >>> 6;
+            int lastWord = (to - 1) >>> 6;
+            long firstMask = -1L << (from & 63);
+            long lastMask = -1L >>> (63 - ((to - 1) & 63));
+            if (firstWord == lastWord) {
+                return (words[firstWord] & firstMask & lastMask) != 0;
+            }
+            if ((words[firstWord] & firstMask) != 0 || (words[lastWord] & lastMask) != 0) {
+                return true;
+            }
+            for (int i = firstWord + 1; i < lastWord; i++) {
+                if (words[i] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void recompute() {
+            Arrays.fill(words, 0L);
+            intervals.values().forEach(interval -> setRange(interval[0], interval[1]));
+        }
+
+        private void setRange(int from, int to) {
+            int firstWord = from >>> 6;
+            int lastWord = (to - 1) >>> 6;
+            long firstMask = -1L << (from & 63);
+            long lastMask = -1L >>> (63 - ((to - 1) & 63));
+            if (firstWord == lastWord) {
+                words[firstWord] |= firstMask & lastMask;
+                return;
+            }
+            words[firstWord] |= firstMask;
+            for (int i = firstWord + 1; i < lastWord; i++) {
+                words[i] = -1L;
+            }
+            words[lastWord] |= lastMask;
+        }
+    }
+}
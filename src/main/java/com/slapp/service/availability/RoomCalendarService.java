@@ -0,0 +1,184 @@
+package com.slapp.service.availability;
+
+import com.slapp.domain.StudioOperatingHours;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.AvailabilityRepository;
+import com.slapp.repository.RoomRepository;
+import com.slapp.repository.StudioOperatingHoursRepository;
+import com.slapp.repository.projections.AvailabilityIntervalProjection;
+import com.slapp.service.dto.RoomCalendarDTO;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Monta o calendário de ocupação de uma sala para vários dias de uma vez.
+ * <p>
+ * Os dias e os slots são em UTC, como no calendário de reservas do front-end, e os horários de
+ * funcionamento do estúdio são interpretados no mesmo fuso. A ocupação de cada slot segue a precedência:
+ * reserva ativa, bloqueio, liberação e, por fim, o horário de funcionamento do dia da semana.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RoomCalendarService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RoomCalendarService.class);
+
+    /**
+     * Maior quantidade de dias de uma consulta (8 semanas).
+     */
+    public static final int MAX_DAYS = 56;
+
+    static final int SLOT_MINUTES = 60;
+
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    // Horário usado quando o estúdio não tem horários de funcionamento cadastrados
+    static final LocalTime DEFAULT_OPENING = LocalTime.of(8, 0);
+    static final LocalTime DEFAULT_CLOSING = LocalTime.of(22, 0);
+
+    private final RoomRepository roomRepository;
+
+    private final AvailabilityRepository availabilityRepository;
+
+    private final StudioOperatingHoursRepository studioOperatingHoursRepository;
+
+    private final RoomTimelineCache roomTimelineCache;
+
+    public RoomCalendarService(
+        RoomRepository roomRepository,
+        AvailabilityRepository availabilityRepository,
+        StudioOperatingHoursRepository studioOperatingHoursRepository,
+        RoomTimelineCache roomTimelineCache
+    ) {
+        this.roomRepository = roomRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.studioOperatingHoursRepository = studioOperatingHoursRepository;
+        this.roomTimelineCache = roomTimelineCache;
+    }
+
+    /**
+     * Calendário da sala de {@code from} a {@code to} (inclusive), com no máximo {@link #MAX_DAYS} dias.
+     *
+     * @return vazio quando a sala não existe.
+     */
+    public Optional<RoomCalendarDTO> findCalendar(Long roomId, LocalDate from, LocalDate to) {
+        LOG.debug("Request to get calendar of Room : {} from {} to {}", roomId, from, to);
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("Calendar range must have between 1 and " + MAX_DAYS + " days");
+        }
+        return roomRepository
+            .findStudioIdById(roomId)
+            .map(studioId -> {
+                Instant windowStart = from.atStartOfDay(ZoneOffset.UTC).toInstant();
+                Instant windowEnd = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+                char[] codes = new char[days * SLOTS_PER_DAY];
+
+                fillOperatingHours(codes, from, days, studioOperatingHoursRepository.findByStudioIdOrderByDayOfWeek(studioId));
+                List<AvailabilityIntervalProjection> availabilities = availabilityRepository.findIntervalsByRoomBetween(
+                    roomId,
+                    windowStart,
+                    windowEnd
+                );
+                // Liberações abrem slots fora do horário; bloqueios prevalecem sobre liberações
+                for (AvailabilityIntervalProjection availability : availabilities) {
+                    if (Boolean.TRUE.equals(availability.getAvailable())) {
+                        mark(codes, windowStart, availability.getStartDateTime(), availability.getEndDateTime(), RoomCalendarDTO.FREE);
+                    }
+                }
+                for (AvailabilityIntervalProjection availability : availabilities) {
+                    if (!Boolean.TRUE.equals(availability.getAvailable())) {
+                        mark(codes, windowStart, availability.getStartDateTime(), availability.getEndDateTime(), RoomCalendarDTO.BLOCKED);
+                    }
+                }
+                for (RoomTimelineCache.Slot reservation : roomTimelineCache.findOverlappingOrQuery(roomId, windowStart, windowEnd)) {
+                    mark(codes, windowStart, reservation.start(), reservation.end(), code(reservation.status()));
+                }
+
+                List<RoomCalendarDTO.Day> calendarDays = new ArrayList<>(days);
+                for (int day = 0; day < days; day++) {
+                    String dayCodes = new String(codes, day * SLOTS_PER_DAY, SLOTS_PER_DAY);
+                    calendarDays.add(new RoomCalendarDTO.Day(from.plusDays(day), freeBitset(dayCodes), dayCodes));
+                }
+                return new RoomCalendarDTO(roomId, from, to, SLOT_MINUTES, calendarDays);
+            });
+    }
+
+    private static void fillOperatingHours(char[] codes, LocalDate from, int days, List<StudioOperatingHours> operatingHours) {
+        Map<DayOfWeek, StudioOperatingHours> byDayOfWeek = new EnumMap<>(DayOfWeek.class);
+        operatingHours.forEach(hours -> byDayOfWeek.put(hours.getDayOfWeek(), hours));
+        for (int day = 0; day < days; day++) {
+            int opening = 0;
+            int closing = 0;
+            if (operatingHours.isEmpty()) {
+                opening = minuteOfDay(DEFAULT_OPENING);
+                closing = minuteOfDay(DEFAULT_CLOSING);
+            } else {
+                StudioOperatingHours hours = byDayOfWeek.get(from.plusDays(day).getDayOfWeek());
+                if (hours != null && Boolean.TRUE.equals(hours.getIsOpen())) {
+                    opening = minuteOfDay(hours.getStartTime() != null ? hours.getStartTime() : DEFAULT_OPENING);
+                    closing = minuteOfDay(hours.getEndTime() != null ? hours.getEndTime() : DEFAULT_CLOSING);
+                    // Fechamento à meia-noite: fim do dia
+                    if (closing == 0) {
+                        closing = 24 * 60;
+                    }
+                }
+            }
+            for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                int slotStart = slot * SLOT_MINUTES;
+                boolean open = slotStart >= opening && slotStart + SLOT_MINUTES <= closing;
+                codes[day * SLOTS_PER_DAY + slot] = open ? RoomCalendarDTO.FREE : RoomCalendarDTO.CLOSED;
+            }
+        }
+    }
+
+    /**
+     * Marca os slots que o intervalo [start, end) intersecta, limitados à janela.
+     */
+    private static void mark(char[] codes, Instant windowStart, Instant start, Instant end, char code) {
+        long slotSeconds = SLOT_MINUTES * 60L;
+        long first = Math.floorDiv(Duration.between(windowStart, start).getSeconds(), slotSeconds);
+        long last = -Math.floorDiv(-Duration.between(windowStart, end).getSeconds(), slotSeconds);
+        int from = (int) Math.min(Math.max(first, 0), codes.length);
+        int to = (int) Math.min(Math.max(last, from), codes.length);
+        Arrays.fill(codes, from, to, code);
+    }
+
+    private static String freeBitset(String dayCodes) {
+        byte[] bits = new byte[(SLOTS_PER_DAY + 7) / 8];
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+            if (dayCodes.charAt(slot) == RoomCalendarDTO.FREE) {
+                bits[slot >> 3] |= (byte) (1 << (slot & 7));
+            }
+        }
+        return Base64.getEncoder().encodeToString(bits);
+    }
+
+    private static char code(ReservationStatus status) {
+        return switch (status) {
+            case PENDING -> RoomCalendarDTO.PENDING;
+            case IN_PROGRESS -> RoomCalendarDTO.IN_PROGRESS;
+            default -> RoomCalendarDTO.CONFIRMED;
+        };
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,386 @@
+package com.slapp.service.availability;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.domain.enumeration.ReservationEventType;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.ReservationRepository;
+import com.slapp.repository.projections.ReservationIntervalProjection;
+import com.slapp.service.event.ReservationChangedEvent;
+import com.slapp.service.event.ReservationDomainEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache em memória, por sala, das reservas ativas, usado na pré-checagem de conflito das reservas e
+ * nas leituras de calendário.
+ * <p>
+ * Cada sala tem uma linha do tempo carregada sob demanda (reservas que terminam a partir do dia
+ * anterior) e ordenada pelo início. Como a constraint de exclusão impede reservas ativas sobrepostas
+ * na mesma sala, a ordem pelo início é também a ordem pelo fim: as reservas que intersectam uma janela
+ * são a anterior ao início da janela (se terminar depois dele) e as que começam dentro dela, obtidas
+ * em O(log n + k).
+ * <p>
+ * As linhas do tempo são atualizadas pelos {@link ReservationChangedEvent} desta instância após o commit
+ * e pelo stream do outbox ({@link ReservationDomainEvent}), que traz as alterações de todas as instâncias;
+ * alterações recebidas durante a carga são reaplicadas sobre ela. As salas menos usadas são descartadas além de
+ * {@code maxRooms}, e cada linha do tempo é recarregada após {@code timeToLiveSeconds}. O cache é uma
+ * otimização: a constraint do banco continua sendo a garantia contra reservas sobrepostas, e um conflito
+ * apontado pelo cache é confirmado no banco ({@link #queryOverlapping}) antes de rejeitar uma reserva.
+ */
+@Service
+public class RoomTimelineCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RoomTimelineCache.class);
+
+    // Reservas já encerradas mantidas na linha do tempo, para consultas do dia corrente
+    static final Duration HISTORY = Duration.ofDays(1);
+
+    private final ReservationRepository reservationRepository;
+
+    private final boolean enabled;
+
+    private final int maxRooms;
+
+    private final Duration timeToLive;
+
+    // Em ordem de acesso (LRU), protegido por si mesmo
+    private final LinkedHashMap<Long, RoomTimeline> timelines;
+
+    // Sala de cada reserva em cache, para retirar a reserva da sala anterior quando ela muda de sala
+    private final Map<Long, Long> roomByReservation = new ConcurrentHashMap<>();
+
+    // Linhas do tempo em carga: a carga pode ter lido uma reserva que, enquanto isso, mudou de sala
+    private final Set<RoomTimeline> loading = ConcurrentHashMap.newKeySet();
+
+    public RoomTimelineCache(ReservationRepository reservationRepository, ApplicationProperties applicationProperties) {
+        this.reservationRepository = reservationRepository;
+        ApplicationProperties.RoomTimelineCache properties = applicationProperties.getRoomTimelineCache();
+        this.enabled = properties.isEnabled();
+        this.maxRooms = properties.getMaxRooms();
+        this.timeToLive = Duration.ofSeconds(properties.getTimeToLiveSeconds());
+        this.timelines = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RoomTimeline> eldest) {
+                if (size() <= maxRooms) {
+                    return false;
+                }
+                eldest.getValue().forget(roomByReservation);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Reservas ativas da sala que intersectam [start, end), em ordem de início.
+     *
+     * @return vazio quando o cache está desligado ou não cobre a janela; o chamador deve consultar o banco.
+     */
+    public Optional<List<Slot>> findOverlapping(Long roomId, Instant start, Instant end) {
+        return timeline(roomId, start).map(timeline -> timeline.overlapping(start, end));
+    }
+
+    /**
+     * Reservas ativas da sala que intersectam [start, end), em ordem de início: pelo cache quando ele cobre
+     * a janela, senão por uma consulta de intervalo ao banco.
+     */
+    public List<Slot> findOverlappingOrQuery(Long roomId, Instant start, Instant end) {
+        return findOverlapping(roomId, start, end).orElseGet(() -> queryOverlapping(roomId, start, end));
+    }
+
+    /**
+     * Reservas ativas da sala que intersectam [start, end), em ordem de início, consultadas no banco. Usado
+     * para confirmar um conflito do cache, que pode ter reservas canceladas ou remarcadas em outra instância.
+     */
+    public List<Slot> queryOverlapping(Long roomId, Instant start, Instant end) {
+        return reservationRepository
+            .findIntervalsByRoomBetween(roomId, start, end, ReservationStatus.ACTIVE_STATUSES)
+            .stream()
+            .map(interval -> new Slot(interval.getId(), interval.getStartDateTime(), interval.getEndDateTime(), interval.getStatus()))
+            .sorted(Comparator.comparing(Slot::start))
+            .toList();
+    }
+
+    /**
+     * Descarta a linha do tempo da sala, recarregada no próximo acesso.
+     */
+    public void invalidate(Long roomId) {
+        synchronized (timelines) {
+            RoomTimeline timeline = timelines.remove(roomId);
+            if (timeline != null) {
+                timeline.forget(roomByReservation);
+            }
+        }
+    }
+
+    /**
+     * Primeira reserva ativa da sala, diferente de {@code ignoredReservationId}, que intersecta [start, end).
+     *
+     * @return vazio quando não há conflito ou quando o cache não pode responder.
+     */
+    public Optional<Slot> findConflict(Long roomId, Instant start, Instant end, Long ignoredReservationId) {
+        return findOverlapping(roomId, start, end).flatMap(slots ->
+            slots.stream().filter(slot -> !slot.reservationId().equals(ignoredReservationId)).findFirst()
+        );
+    }
+
+    /**
+     * Intervalos livres da sala dentro de [start, end), em ordem.
+     *
+     * @return vazio quando o cache está desligado ou não cobre a janela.
+     */
+    public Optional<List<Interval>> findFreeIntervals(Long roomId, Instant start, Instant end) {
+        return findOverlapping(roomId, start, end).map(slots -> {
+            List<Interval> free = new ArrayList<>();
+            Instant cursor = start;
+            for (Slot slot : slots) {
+                if (slot.start().isAfter(cursor)) {
+                    free.add(new Interval(cursor, slot.start()));
+                }
+                if (slot.end().isAfter(cursor)) {
+                    cursor = slot.end();
+                }
+            }
+            if (cursor.isBefore(end)) {
+                free.add(new Interval(cursor, end));
+            }
+            return free;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        apply(event.reservationId(), event.roomId(), event.status(), event.startDateTime(), event.endDateTime());
+    }
+
+    /**
+     * Alterações de reserva de todas as instâncias, pelo stream do outbox. O evento traz o estado gravado da
+     * reserva, então reaplicar uma alteração já recebida pelo evento local não muda a linha do tempo.
+     */
+    @EventListener
+    public void onReservationEvent(ReservationDomainEvent event) {
+        ReservationStatus status = event.type() == ReservationEventType.DELETED ? null : event.status();
+        apply(event.reservationId(), event.roomId(), status, event.startDateTime(), event.endDateTime());
+    }
+
+    private void apply(Long reservationId, Long roomId, ReservationStatus status, Instant start, Instant end) {
+        if (!enabled) {
+            return;
+        }
+        Long previousRoomId = roomByReservation.get(reservationId);
+        if (previousRoomId != null && !previousRoomId.equals(roomId)) {
+            cached(previousRoomId).ifPresent(timeline -> timeline.apply(Change.removal(reservationId), roomByReservation));
+        }
+        for (RoomTimeline timeline : loading) {
+            if (!timeline.roomId.equals(roomId)) {
+                timeline.apply(Change.removal(reservationId), roomByReservation);
+            }
+        }
+        if (roomId == null) {
+            return;
+        }
+        Change change = status != null && status.isActive() && start != null && end != null
+            ? new Change(reservationId, new Slot(reservationId, start, end, status))
+            : Change.removal(reservationId);
+        cached(roomId).ifPresent(timeline -> timeline.apply(change, roomByReservation));
+    }
+
+    private Optional<RoomTimeline> cached(Long roomId) {
+        synchronized (timelines) {
+            return Optional.ofNullable(timelines.get(roomId));
+        }
+    }
+
+    /**
+     * Linha do tempo carregada da sala, se o cache estiver ligado e cobrir instantes a partir de {@code from}.
+     */
+    private Optional<RoomTimeline> timeline(Long roomId, Instant from) {
+        if (!enabled || roomId == null) {
+            return Optional.empty();
+        }
+        Instant now = Instant.now();
+        RoomTimeline timeline;
+        boolean load = false;
+        synchronized (timelines) {
+            timeline = timelines.get(roomId);
+            if (timeline == null || timeline.isExpired(now, timeToLive)) {
+                if (timeline != null) {
+                    timeline.forget(roomByReservation);
+                }
+                Instant coveredFrom = now.truncatedTo(ChronoUnit.DAYS).minus(HISTORY);
+                timeline = new RoomTimeline(roomId, coveredFrom, now);
+                timelines.put(roomId, timeline);
+                loading.add(timeline);
+                load = true;
+            }
+        }
+        if (load) {
+            load(roomId, timeline);
+        }
+        if (!timeline.awaitLoaded() || from.isBefore(timeline.coveredFrom)) {
+            return Optional.empty();
+        }
+        return Optional.of(timeline);
+    }
+
+    private void load(Long roomId, RoomTimeline timeline) {
+        try {
+            List<ReservationIntervalProjection> intervals = reservationRepository.findIntervalsByRoomEndingAfter(
+                roomId,
+                timeline.coveredFrom,
+                ReservationStatus.ACTIVE_STATUSES
+            );
+            List<Slot> slots = intervals
+                .stream()
+                .map(interval -> new Slot(interval.getId(), interval.getStartDateTime(), interval.getEndDateTime(), interval.getStatus()))
+                .toList();
+            timeline.load(slots, roomByReservation);
+            LOG.debug("Loaded timeline of room {}: {} active reservations", roomId, slots.size());
+        } catch (RuntimeException e) {
+            LOG.warn("Could not load timeline of room {}, using the database: {}", roomId, e.getMessage());
+            synchronized (timelines) {
+                timelines.remove(roomId, timeline);
+            }
+            timeline.fail();
+        } finally {
+            loading.remove(timeline);
+        }
+    }
+
+    /**
+     * Reserva ativa na linha do tempo de uma sala.
+     */
+    public record Slot(Long reservationId, Instant start, Instant end, ReservationStatus status) {}
+
+    /**
+     * Intervalo [start, end).
+     */
+    public record Interval(Instant start, Instant end) {}
+
+    /**
+     * Inclusão/atualização ({@code slot} preenchido) ou remoção de uma reserva.
+     */
+    private record Change(Long reservationId, Slot slot) {
+        static Change removal(Long reservationId) {
+            return new Change(reservationId, null);
+        }
+    }
+
+    /**
+     * Reservas ativas de uma sala. Leituras percorrem o skip list sem bloqueio; alterações são
+     * serializadas pelo monitor da linha do tempo.
+     */
+    private static final class RoomTimeline {
+
+        private static final Comparator<Slot> BY_START = Comparator.comparing(Slot::start).thenComparing(Slot::reservationId);
+
+        private final Long roomId;
+
+        private final Instant coveredFrom;
+
+        private final Instant loadedAt;
+
+        private final ConcurrentSkipListSet<Slot> byStart = new ConcurrentSkipListSet<>(BY_START);
+
+        private final Map<Long, Slot> byReservation = new ConcurrentHashMap<>();
+
+        private final CompletableFuture<Boolean> loaded = new CompletableFuture<>();
+
+        // Alterações recebidas durante a carga
+        private List<Change> pending = new ArrayList<>();
+
+        RoomTimeline(Long roomId, Instant coveredFrom, Instant loadedAt) {
+            this.roomId = roomId;
+            this.coveredFrom = coveredFrom;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isExpired(Instant now, Duration timeToLive) {
+            return loaded.isDone() && loadedAt.plus(timeToLive).isBefore(now);
+        }
+
+        boolean awaitLoaded() {
+            return loaded.join();
+        }
+
+        void load(List<Slot> slots, Map<Long, Long> roomByReservation) {
+            synchronized (this) {
+                slots.forEach(slot -> put(slot, roomByReservation));
+                pending.forEach(change -> applyLoaded(change, roomByReservation));
+                pending = null;
+            }
+            loaded.complete(true);
+        }
+
+        void fail() {
+            synchronized (this) {
+                pending = null;
+            }
+            loaded.complete(false);
+        }
+
+        void apply(Change change, Map<Long, Long> roomByReservation) {
+            synchronized (this) {
+                if (pending != null) {
+                    pending.add(change);
+                } else if (loaded.isDone()) {
+                    applyLoaded(change, roomByReservation);
+                }
+            }
+        }
+
+        /**
+         * Retira as reservas desta sala do mapa de salas, quando a linha do tempo sai do cache.
+         */
+        void forget(Map<Long, Long> roomByReservation) {
+            synchronized (this) {
+                byReservation.keySet().forEach(reservationId -> roomByReservation.remove(reservationId, roomId));
+            }
+        }
+
+        List<Slot> overlapping(Instant start, Instant end) {
+            List<Slot> slots = new ArrayList<>();
+            Slot previous = byStart.lower(new Slot(Long.MIN_VALUE, start, start, null));
+            if (previous != null && previous.end().isAfter(start)) {
+                slots.add(previous);
+            }
+            slots.addAll(byStart.subSet(new Slot(Long.MIN_VALUE, start, start, null), new Slot(Long.MIN_VALUE, end, end, null)));
+            return slots;
+        }
+
+        private void applyLoaded(Change change, Map<Long, Long> roomByReservation) {
+            Slot current = byReservation.remove(change.reservationId());
+            if (current != null) {
+                byStart.remove(current);
+                roomByReservation.remove(change.reservationId(), roomId);
+            }
+            if (change.slot() != null && change.slot().end().isAfter(coveredFrom)) {
+                put(change.slot(), roomByReservation);
+            }
+        }
+
+        private void put(Slot slot, Map<Long, Long> roomByReservation) {
+            Slot current = byReservation.put(slot.reservationId(), slot);
+            if (current != null) {
+                byStart.remove(current);
+            }
+            byStart.add(slot);
+            roomByReservation.put(slot.reservationId(), roomId);
+        }
+    }
+}
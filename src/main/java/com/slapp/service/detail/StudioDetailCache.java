@@ -0,0 +1,81 @@
+package com.slapp.service.detail;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.service.event.RoomChangedEvent;
+import com.slapp.service.event.RoomImageChangedEvent;
+import com.slapp.service.event.StudioChangedEvent;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache do detalhe serializado de cada estúdio ({@code GET /api/studios/{id}}), na região {@link #CACHE_NAME}.
+ * <p>
+ * A entrada do estúdio é removida, após o commit, por qualquer alteração do estúdio, das suas salas
+ * ou das imagens das salas feita nesta instância. Essas alterações não passam pelo outbox: nas demais
+ * instâncias o detalhe é atualizado pelo TTL curto da região.
+ */
+@Service
+public class StudioDetailCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StudioDetailCache.class);
+
+    public static final String CACHE_NAME = "studioDetail";
+
+    private final CacheManager cacheManager;
+
+    private final boolean enabled;
+
+    public StudioDetailCache(CacheManager cacheManager, ApplicationProperties applicationProperties) {
+        this.cacheManager = cacheManager;
+        this.enabled = applicationProperties.getStudioDetailCache().isEnabled();
+    }
+
+    /**
+     * Retorna o detalhe em cache do estúdio, ou executa a consulta e o guarda.
+     * Estúdios inexistentes ou inativos não são guardados.
+     */
+    public Optional<StudioDetailDocument> get(Long studioId, Supplier<Optional<StudioDetailDocument>> loader) {
+        Cache<Object, Object> cache = cache();
+        if (cache == null) {
+            return loader.get();
+        }
+        if (cache.get(studioId) instanceof StudioDetailDocument cached) {
+            return Optional.of(cached);
+        }
+        Optional<StudioDetailDocument> document = loader.get();
+        document.ifPresent(loaded -> cache.put(studioId, loaded));
+        return document;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudioChanged(StudioChangedEvent event) {
+        evict(event.studioId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        evict(event.studioId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomImageChanged(RoomImageChangedEvent event) {
+        evict(event.studioId());
+    }
+
+    private void evict(Long studioId) {
+        Cache<Object, Object> cache = cache();
+        if (cache != null && studioId != null && cache.remove(studioId)) {
+            LOG.debug("Evicted studio detail : {}", studioId);
+        }
+    }
+
+    private Cache<Object, Object> cache() {
+        return enabled ? cacheManager.getCache(CACHE_NAME) : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.slapp.service.detail;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Detalhe do estúdio já serializado em JSON (UTF-8), com o ETag calculado sobre o conteúdo.
+ * O formato do ETag é o mesmo do {@code ShallowEtagHeaderFilter} do Spring.
+ */
+public record StudioDetailDocument(byte[] body, String etag) implements Serializable {
+    public static StudioDetailDocument of(String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        return new StudioDetailDocument(body, "\"0" + DigestUtils.md5DigestAsHex(body) + "\"");
+    }
+}
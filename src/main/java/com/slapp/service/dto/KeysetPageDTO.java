@@ -0,0 +1,33 @@
+package com.slapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Página de uma busca keyset: os itens e o cursor opaco da próxima página ({@code null} na última).
+ */
+public class KeysetPageDTO<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<T> content;
+
+    private final String nextCursor;
+
+    public KeysetPageDTO(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
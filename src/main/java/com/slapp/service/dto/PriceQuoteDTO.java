@@ -0,0 +1,55 @@
+package com.slapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Preço de uma sala para o intervalo [startDateTime, endDateTime), calculado pela tabela de preços da sala.
+ */
+public class PriceQuoteDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long roomId;
+
+    private final Instant startDateTime;
+
+    private final Instant endDateTime;
+
+    private final BigDecimal totalPrice;
+
+    public PriceQuoteDTO(Long roomId, Instant startDateTime, Instant endDateTime, BigDecimal totalPrice) {
+        this.roomId = roomId;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+        this.totalPrice = totalPrice;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public Instant getStartDateTime() {
+        return startDateTime;
+    }
+
+    public Instant getEndDateTime() {
+        return endDateTime;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PriceQuoteDTO{" +
+            "roomId=" + getRoomId() +
+            ", startDateTime='" + getStartDateTime() + "'" +
+            ", endDateTime='" + getEndDateTime() + "'" +
+            ", totalPrice=" + getTotalPrice() +
+            "}";
+    }
+}
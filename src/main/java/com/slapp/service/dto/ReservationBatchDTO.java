@@ -0,0 +1,47 @@
+package com.slapp.service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Lote de reservas criado em uma única requisição. Com {@code recurrence}, cada reserva do lote é
+ * repetida pela regra; o total de ocorrências é limitado a {@link #MAX_OCCURRENCES}.
+ */
+public class ReservationBatchDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_OCCURRENCES = 100;
+
+    @NotEmpty
+    @Size(max = MAX_OCCURRENCES)
+    @Valid
+    private List<ReservationDTO> reservations;
+
+    @Valid
+    private ReservationRecurrenceDTO recurrence;
+
+    public List<ReservationDTO> getReservations() {
+        return reservations;
+    }
+
+    public void setReservations(List<ReservationDTO> reservations) {
+        this.reservations = reservations;
+    }
+
+    public ReservationRecurrenceDTO getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(ReservationRecurrenceDTO recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationBatchDTO{" + "reservations=" + (reservations != null ? reservations.size() : 0) + ", recurrence=" + recurrence + "}";
+    }
+}
@@ -0,0 +1,87 @@
+package com.slapp.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Resultado de uma ocorrência de um lote de reservas: criada ({@code reservation} preenchida) ou em
+ * conflito com uma reserva ativa da sala ou com outra ocorrência do mesmo lote.
+ */
+public class ReservationBatchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Outcome {
+        CREATED,
+        CONFLICT,
+    }
+
+    // Posição da ocorrência no lote expandido
+    private final int index;
+
+    private final Instant startDateTime;
+
+    private final Instant endDateTime;
+
+    private final Outcome outcome;
+
+    private final ReservationDTO reservation;
+
+    // Reserva existente em conflito (nulo quando o conflito é com outra ocorrência do lote)
+    private final Long conflictingReservationId;
+
+    private ReservationBatchResultDTO(
+        int index,
+        Instant startDateTime,
+        Instant endDateTime,
+        Outcome outcome,
+        ReservationDTO reservation,
+        Long conflictingReservationId
+    ) {
+        this.index = index;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+        this.outcome = outcome;
+        this.reservation = reservation;
+        this.conflictingReservationId = conflictingReservationId;
+    }
+
+    public static ReservationBatchResultDTO created(int index, ReservationDTO reservation) {
+        return new ReservationBatchResultDTO(
+            index,
+            reservation.getStartDateTime(),
+            reservation.getEndDateTime(),
+            Outcome.CREATED,
+            reservation,
+            null
+        );
+    }
+
+    public static ReservationBatchResultDTO conflict(int index, Instant startDateTime, Instant endDateTime, Long conflictingReservationId) {
+        return new ReservationBatchResultDTO(index, startDateTime, endDateTime, Outcome.CONFLICT, null, conflictingReservationId);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Instant getStartDateTime() {
+        return startDateTime;
+    }
+
+    public Instant getEndDateTime() {
+        return endDateTime;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public ReservationDTO getReservation() {
+        return reservation;
+    }
+
+    public Long getConflictingReservationId() {
+        return conflictingReservationId;
+    }
+}
@@ -0,0 +1,81 @@
+package com.slapp.service.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * Regra de repetição de uma reserva: {@code count} ocorrências (a primeira é a própria reserva), a cada
+ * {@code interval} dias ou semanas. A repetição mantém o horário local no fuso {@code zoneId} (UTC por padrão).
+ */
+public class ReservationRecurrenceDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+    }
+
+    @NotNull
+    private Frequency frequency;
+
+    @Min(1)
+    private int interval = 1;
+
+    @Min(1)
+    @Max(ReservationBatchDTO.MAX_OCCURRENCES)
+    private int count;
+
+    private String zoneId;
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    public void setZoneId(String zoneId) {
+        this.zoneId = zoneId;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "ReservationRecurrenceDTO{" +
+            "frequency=" +
+            frequency +
+            ", interval=" +
+            interval +
+            ", count=" +
+            count +
+            ", zoneId='" +
+            zoneId +
+            "'" +
+            "}"
+        );
+    }
+}
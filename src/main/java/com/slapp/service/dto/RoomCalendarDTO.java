@@ -0,0 +1,94 @@
+package com.slapp.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Calendário de ocupação de uma sala em dias UTC, em slots de {@link #getSlotMinutes()} minutos.
+ * <p>
+ * Cada dia traz {@code free}, o bitset (base64, bit {@code i} = slot {@code i}, do bit menos significativo
+ * do primeiro byte em diante) dos slots reserváveis, e {@code codes}, um caractere por slot:
+ * {@link #CLOSED}, {@link #FREE}, {@link #BLOCKED}, {@link #PENDING}, {@link #CONFIRMED} ou {@link #IN_PROGRESS}.
+ */
+public class RoomCalendarDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final char CLOSED = '-';
+    public static final char FREE = 'F';
+    public static final char BLOCKED = 'B';
+    public static final char PENDING = 'P';
+    public static final char CONFIRMED = 'C';
+    public static final char IN_PROGRESS = 'I';
+
+    private final Long roomId;
+
+    private final LocalDate from;
+
+    private final LocalDate to;
+
+    private final int slotMinutes;
+
+    private final List<Day> days;
+
+    public RoomCalendarDTO(Long roomId, LocalDate from, LocalDate to, int slotMinutes, List<Day> days) {
+        this.roomId = roomId;
+        this.from = from;
+        this.to = to;
+        this.slotMinutes = slotMinutes;
+        this.days = days;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public List<Day> getDays() {
+        return days;
+    }
+
+    /**
+     * Ocupação de um dia.
+     */
+    public static class Day implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final LocalDate date;
+
+        private final String free;
+
+        private final String codes;
+
+        public Day(LocalDate date, String free, String codes) {
+            this.date = date;
+            this.free = free;
+            this.codes = codes;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public String getFree() {
+            return free;
+        }
+
+        public String getCodes() {
+            return codes;
+        }
+    }
+}
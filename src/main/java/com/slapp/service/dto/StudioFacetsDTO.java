@@ -0,0 +1,139 @@
+package com.slapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contagens das facetas da busca de estúdios. Cada faceta ignora o próprio filtro e aplica os demais.
+ */
+public class StudioFacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Estúdios que atendem a todos os filtros, exceto a janela de disponibilidade
+    private long total;
+
+    // Estúdios que atendem a todos os filtros, inclusive a janela (nulo sem janela)
+    private Long available;
+
+    private List<FacetCountDTO> cities = new ArrayList<>();
+    private List<FacetCountDTO> roomTypes = new ArrayList<>();
+    private List<PriceBucketDTO> priceBuckets = new ArrayList<>();
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Long getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Long available) {
+        this.available = available;
+    }
+
+    public List<FacetCountDTO> getCities() {
+        return cities;
+    }
+
+    public void setCities(List<FacetCountDTO> cities) {
+        this.cities = cities;
+    }
+
+    public List<FacetCountDTO> getRoomTypes() {
+        return roomTypes;
+    }
+
+    public void setRoomTypes(List<FacetCountDTO> roomTypes) {
+        this.roomTypes = roomTypes;
+    }
+
+    public List<PriceBucketDTO> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public void setPriceBuckets(List<PriceBucketDTO> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+
+    public static class FacetCountDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String value;
+        private long count;
+
+        public FacetCountDTO() {}
+
+        public FacetCountDTO(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+
+    /**
+     * Faixa de preço/hora [minPrice, maxPrice); limites nulos indicam faixa aberta.
+     */
+    public static class PriceBucketDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private long count;
+
+        public PriceBucketDTO() {}
+
+        public PriceBucketDTO(BigDecimal minPrice, BigDecimal maxPrice, long count) {
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.count = count;
+        }
+
+        public BigDecimal getMinPrice() {
+            return minPrice;
+        }
+
+        public void setMinPrice(BigDecimal minPrice) {
+            this.minPrice = minPrice;
+        }
+
+        public BigDecimal getMaxPrice() {
+            return maxPrice;
+        }
+
+        public void setMaxPrice(BigDecimal maxPrice) {
+            this.maxPrice = maxPrice;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
@@ -13,6 +13,8 @@ public class StudioFilterDTO {
     private LocalDateTime availabilityStartDateTime;
     private LocalDateTime availabilityEndDateTime;
     private Boolean onlyFavorites;
+    // Busca textual (nome, cidade, descrições, salas e equipamentos)
+    private String q;
 
     // Construtor completo
     public StudioFilterDTO(
@@ -68,6 +70,10 @@ public class StudioFilterDTO {
         return onlyFavorites;
     }
 
+    public String getQ() {
+        return q;
+    }
+
     // Setters
     public void setName(String name) {
         this.name = name;
@@ -101,6 +107,10 @@ public class StudioFilterDTO {
         this.onlyFavorites = onlyFavorites;
     }
 
+    public void setQ(String q) {
+        this.q = q;
+    }
+
     // Métodos de validação
     public boolean hasNameFilter() {
         return name != null && !name.trim().isEmpty();
@@ -126,6 +136,10 @@ public class StudioFilterDTO {
         return onlyFavorites != null && onlyFavorites;
     }
 
+    public boolean hasQueryFilter() {
+        return q != null && !q.trim().isEmpty();
+    }
+
     // Builder pattern
     public static Builder builder() {
         return new Builder();
@@ -141,6 +155,7 @@ public class StudioFilterDTO {
         private LocalDateTime availabilityStartDateTime;
         private LocalDateTime availabilityEndDateTime;
         private Boolean onlyFavorites;
+        private String q;
 
         public Builder name(String name) {
             this.name = name;
@@ -182,8 +197,13 @@ public class StudioFilterDTO {
             return this;
         }
 
+        public Builder q(String q) {
+            this.q = q;
+            return this;
+        }
+
         public StudioFilterDTO build() {
-            return new StudioFilterDTO(
+            StudioFilterDTO filters = new StudioFilterDTO(
                 name,
                 city,
                 roomType,
@@ -193,6 +213,8 @@ public class StudioFilterDTO {
                 availabilityEndDateTime,
                 onlyFavorites
             );
+            filters.setQ(q);
+            return filters;
         }
     }
 }
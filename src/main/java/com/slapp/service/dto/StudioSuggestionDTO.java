@@ -0,0 +1,51 @@
+package com.slapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Sugestão do typeahead da busca: nome de estúdio (com o id do estúdio), cidade ou estado.
+ */
+public class StudioSuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        NAME,
+        CITY,
+        STATE,
+    }
+
+    private final Type type;
+
+    private final String value;
+
+    private final Long studioId;
+
+    public StudioSuggestionDTO(Type type, String value, Long studioId) {
+        this.type = type;
+        this.value = value;
+        this.studioId = studioId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public Long getStudioId() {
+        return studioId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StudioSuggestionDTO{" +
+            "type=" + getType() +
+            ", value='" + getValue() + "'" +
+            ", studioId=" + getStudioId() +
+            "}";
+    }
+}
@@ -0,0 +1,21 @@
+package com.slapp.service.event;
+
+/**
+ * Publicado quando uma reserva pendente é criada ou decidida (aprovada, rejeitada ou confirmada
+ * automaticamente no fim do prazo).
+ */
+public record PendingReservationEvent(Type type, Long reservationId) {
+    public enum Type {
+        CREATED,
+        APPROVED,
+        REJECTED,
+        AUTO_CONFIRMED;
+
+        /**
+         * Nome do evento no stream SSE.
+         */
+        public String eventName() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+}
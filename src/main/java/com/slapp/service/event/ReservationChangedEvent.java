@@ -0,0 +1,20 @@
+package com.slapp.service.event;
+
+import com.slapp.domain.enumeration.ReservationStatus;
+import java.time.Instant;
+
+/**
+ * Publicado quando uma reserva é criada, alterada (inclusive de status) ou excluída.
+ * O intervalo anterior é informado quando a alteração pode tê-lo movido.
+ *
+ * @param status status após a alteração ({@code null} na exclusão).
+ */
+public record ReservationChangedEvent(
+    Long reservationId,
+    Long roomId,
+    ReservationStatus status,
+    Instant startDateTime,
+    Instant endDateTime,
+    Instant previousStartDateTime,
+    Instant previousEndDateTime
+) {}
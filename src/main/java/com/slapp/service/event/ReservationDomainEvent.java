@@ -0,0 +1,40 @@
+package com.slapp.service.event;
+
+import com.slapp.domain.ReservationEvent;
+import com.slapp.domain.enumeration.ReservationEventType;
+import com.slapp.domain.enumeration.ReservationStatus;
+import java.time.Instant;
+
+/**
+ * Evento do outbox de reservas, entregue em ordem de posição pelo
+ * {@link com.slapp.service.outbox.ReservationEventRelay} a cada instância após o commit.
+ * <p>
+ * A entrega é pelo menos uma vez: um ouvinte pode receber de novo um evento já tratado e deve
+ * ignorar posições que já viu.
+ *
+ * @param position posição no stream, crescente e sem lacunas.
+ * @param status status da reserva gravado com o evento (o último antes da exclusão, em {@code DELETED}).
+ */
+public record ReservationDomainEvent(
+    long position,
+    ReservationEventType type,
+    Long reservationId,
+    Long roomId,
+    ReservationStatus status,
+    Instant startDateTime,
+    Instant endDateTime,
+    Instant occurredAt
+) {
+    public static ReservationDomainEvent of(ReservationEvent event) {
+        return new ReservationDomainEvent(
+            event.getPosition(),
+            event.getEventType(),
+            event.getReservationId(),
+            event.getRoomId(),
+            event.getStatus(),
+            event.getStartDateTime(),
+            event.getEndDateTime(),
+            event.getOccurredAt()
+        );
+    }
+}
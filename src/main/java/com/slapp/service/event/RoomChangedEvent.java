@@ -0,0 +1,6 @@
+package com.slapp.service.event;
+
+/**
+ * Publicado quando uma sala é criada, alterada ou excluída; uma vez para cada estúdio afetado.
+ */
+public record RoomChangedEvent(Long roomId, Long studioId) {}
@@ -0,0 +1,6 @@
+package com.slapp.service.event;
+
+/**
+ * Publicado quando uma imagem de sala é criada, alterada ou excluída; uma vez para cada estúdio afetado.
+ */
+public record RoomImageChangedEvent(Long roomImageId, Long studioId) {}
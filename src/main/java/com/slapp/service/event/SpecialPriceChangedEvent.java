@@ -0,0 +1,6 @@
+package com.slapp.service.event;
+
+/**
+ * Publicado quando um preço especial é criado, alterado ou excluído; uma vez para cada sala afetada.
+ */
+public record SpecialPriceChangedEvent(Long roomId) {}
@@ -0,0 +1,9 @@
+package com.slapp.service.event;
+
+/**
+ * Publicado quando um estúdio é criado, alterado ou excluído.
+ *
+ * @param previousCity cidade antes da alteração ({@code null} na criação).
+ * @param city cidade após a alteração ({@code null} na exclusão).
+ */
+public record StudioChangedEvent(Long studioId, String previousCity, String city) {}
@@ -2,12 +2,16 @@ package com.slapp.service.impl;
 
 import com.slapp.domain.Equipment;
 import com.slapp.repository.EquipmentRepository;
+import com.slapp.repository.StudioRepository;
+import com.slapp.repository.projections.RoomStudioProjection;
 import com.slapp.service.EquipmentService;
 import com.slapp.service.dto.EquipmentDTO;
+import com.slapp.service.event.RoomChangedEvent;
 import com.slapp.service.mapper.EquipmentMapper;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,9 +28,20 @@ public class EquipmentServiceImpl implements EquipmentService {
 
     private final EquipmentMapper equipmentMapper;
 
-    public EquipmentServiceImpl(EquipmentRepository equipmentRepository, EquipmentMapper equipmentMapper) {
+    private final StudioRepository studioRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EquipmentServiceImpl(
+        EquipmentRepository equipmentRepository,
+        EquipmentMapper equipmentMapper,
+        StudioRepository studioRepository,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.equipmentRepository = equipmentRepository;
         this.equipmentMapper = equipmentMapper;
+        this.studioRepository = studioRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -34,20 +49,24 @@ public class EquipmentServiceImpl implements EquipmentService {
         LOG.debug("Request to save Equipment : {}", equipmentDTO);
         Equipment equipment = equipmentMapper.toEntity(equipmentDTO);
         equipment = equipmentRepository.save(equipment);
+        refreshStudio(equipment.getId(), Optional.empty());
         return equipmentMapper.toDto(equipment);
     }
 
     @Override
     public EquipmentDTO update(EquipmentDTO equipmentDTO) {
         LOG.debug("Request to update Equipment : {}", equipmentDTO);
+        Optional<RoomStudioProjection> previous = equipmentRepository.findRoomStudioById(equipmentDTO.getId());
         Equipment equipment = equipmentMapper.toEntity(equipmentDTO);
         equipment = equipmentRepository.save(equipment);
+        refreshStudio(equipment.getId(), previous);
         return equipmentMapper.toDto(equipment);
     }
 
     @Override
     public Optional<EquipmentDTO> partialUpdate(EquipmentDTO equipmentDTO) {
         LOG.debug("Request to partially update Equipment : {}", equipmentDTO);
+        Optional<RoomStudioProjection> previous = equipmentRepository.findRoomStudioById(equipmentDTO.getId());
 
         return equipmentRepository
             .findById(equipmentDTO.getId())
@@ -57,6 +76,10 @@ public class EquipmentServiceImpl implements EquipmentService {
                 return existingEquipment;
             })
             .map(equipmentRepository::save)
+            .map(equipment -> {
+                refreshStudio(equipment.getId(), previous);
+                return equipment;
+            })
             .map(equipmentMapper::toDto);
     }
 
@@ -70,6 +93,25 @@ public class EquipmentServiceImpl implements EquipmentService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Equipment : {}", id);
+        Optional<RoomStudioProjection> previous = equipmentRepository.findRoomStudioById(id);
         equipmentRepository.deleteById(id);
+        previous.ifPresent(this::refreshStudio);
+    }
+
+    /**
+     * Recalcula o documento de busca textual do estúdio atual do equipamento e, se ele mudou de estúdio,
+     * do anterior, publicando a alteração da sala para cada estúdio afetado.
+     */
+    private void refreshStudio(Long equipmentId, Optional<RoomStudioProjection> previous) {
+        Optional<RoomStudioProjection> current = equipmentRepository.findRoomStudioById(equipmentId);
+        current.ifPresent(this::refreshStudio);
+        previous
+            .filter(p -> current.map(c -> !c.getStudioId().equals(p.getStudioId())).orElse(true))
+            .ifPresent(this::refreshStudio);
+    }
+
+    private void refreshStudio(RoomStudioProjection location) {
+        studioRepository.refreshSearchDocument(location.getStudioId());
+        eventPublisher.publishEvent(new RoomChangedEvent(location.getRoomId(), location.getStudioId()));
     }
 }
@@ -1,23 +1,71 @@
 package com.slapp.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.slapp.domain.Reservation;
+import com.slapp.domain.enumeration.DelayedTaskType;
+import com.slapp.domain.enumeration.ReservationEventType;
 import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.DelayedTaskRepository;
+import com.slapp.repository.ReservationEventRepository;
 import com.slapp.repository.ReservationRepository;
+import com.slapp.repository.projections.ReservationHistoryProjection;
+import com.slapp.repository.projections.ReservationSlotProjection;
+import com.slapp.service.ReservationConflictException;
+import com.slapp.service.ReservationPriceMismatchException;
 import com.slapp.service.ReservationService;
+import com.slapp.service.availability.RoomTimelineCache;
+import com.slapp.service.dto.KeysetPageDTO;
+import com.slapp.service.dto.ReservationBatchDTO;
+import com.slapp.service.dto.ReservationBatchResultDTO;
 import com.slapp.service.dto.ReservationDTO;
+import com.slapp.service.dto.ReservationRecurrenceDTO;
+import com.slapp.service.event.PendingReservationEvent;
+import com.slapp.service.event.ReservationChangedEvent;
 import com.slapp.service.mapper.ReservationMapper;
+import com.slapp.service.pricing.PriceSchedule;
+import com.slapp.service.pricing.PricingService;
+import com.slapp.service.scheduler.DelayedTaskScheduler;
+import com.slapp.service.search.ReservationHistoryCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.Period;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link com.slapp.domain.Reservation}.
@@ -28,28 +76,228 @@ public class ReservationServiceImpl implements ReservationService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ReservationServiceImpl.class);
 
+    // SQLState de violação da constraint de exclusão ex_reservation__room_booked_range
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
+    // Prazo, a partir da criação, para a confirmação automática de uma reserva pendente
+    static final Duration AUTO_CONFIRM_DELAY = Duration.ofMinutes(30);
+
+    // Reservas confirmadas por transação na confirmação automática
+    static final int AUTO_CONFIRM_CHUNK_SIZE = 500;
+
+    // Reservas movidas por transação para a partição de arquivo
+    static final int ARCHIVE_CHUNK_SIZE = 500;
+
+    /**
+     * Meses seguintes ao horizonte de arquivamento cujas partições de arquivo são criadas com antecedência.
+     */
+    static final int ARCHIVE_MONTHS_AHEAD = 2;
+
+    // Limites da janela do histórico de uma sala quando a requisição não informa from/to
+    private static final Instant HISTORY_START = Instant.EPOCH;
+    private static final Instant HISTORY_END = Instant.parse("9999-12-31T00:00:00Z");
+
+    public static final String AUTO_CONFIRMED_METER_NAME = "reservation.auto-confirmed";
+
     private final ReservationRepository reservationRepository;
 
     private final ReservationMapper reservationMapper;
 
-    public ReservationServiceImpl(ReservationRepository reservationRepository, ReservationMapper reservationMapper) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter autoConfirmedCounter;
+
+    private final DelayedTaskScheduler delayedTaskScheduler;
+
+    private final DelayedTaskRepository delayedTaskRepository;
+
+    private final RoomTimelineCache roomTimelineCache;
+
+    private final ObjectMapper objectMapper;
+
+    private final PricingService pricingService;
+
+    private final ReservationEventRepository reservationEventRepository;
+
+    public ReservationServiceImpl(
+        ReservationRepository reservationRepository,
+        ReservationMapper reservationMapper,
+        ApplicationEventPublisher eventPublisher,
+        EntityManagerFactory entityManagerFactory,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        DelayedTaskScheduler delayedTaskScheduler,
+        DelayedTaskRepository delayedTaskRepository,
+        RoomTimelineCache roomTimelineCache,
+        ObjectMapper objectMapper,
+        PricingService pricingService,
+        ReservationEventRepository reservationEventRepository
+    ) {
         this.reservationRepository = reservationRepository;
         this.reservationMapper = reservationMapper;
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+        this.delayedTaskScheduler = delayedTaskScheduler;
+        this.delayedTaskRepository = delayedTaskRepository;
+        this.roomTimelineCache = roomTimelineCache;
+        this.objectMapper = objectMapper;
+        this.pricingService = pricingService;
+        this.reservationEventRepository = reservationEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.autoConfirmedCounter = Counter.builder(AUTO_CONFIRMED_METER_NAME)
+            .baseUnit("reservations")
+            .description("Pending reservations confirmed automatically after the confirmation window")
+            .register(meterRegistry);
     }
 
     @Override
     public ReservationDTO save(ReservationDTO reservationDTO) {
         LOG.debug("Request to save Reservation : {}", reservationDTO);
         Reservation reservation = reservationMapper.toEntity(reservationDTO);
-        reservation = reservationRepository.save(reservation);
+        checkPrice(reservation);
+        reservation = saveAndCheckOverlap(reservation);
+        recordEvent(ReservationEventType.CREATED, reservation);
+        scheduleAutoConfirmation(reservation);
+        publishChange(reservation, null, null);
+        if (ReservationStatus.PENDING.equals(reservation.getStatus())) {
+            eventPublisher.publishEvent(new PendingReservationEvent(PendingReservationEvent.Type.CREATED, reservation.getId()));
+        }
         return reservationMapper.toDto(reservation);
     }
 
+    /**
+     * Valida todas as ocorrências com uma consulta de intervalo por sala (ou pelo {@link RoomTimelineCache})
+     * e grava as aceitas em lote: os ids vêm do sequenceGenerator em blocos e os INSERTs são agrupados
+     * pelo {@code hibernate.jdbc.batch_size} em um único flush. As tarefas de confirmação automática das
+     * pendentes são gravadas em uma única instrução.
+     */
+    @Override
+    public List<ReservationBatchResultDTO> saveBatch(ReservationBatchDTO batch) {
+        LOG.debug("Request to save a batch of Reservations : {}", batch);
+        List<Reservation> occurrences = expandOccurrences(batch);
+        if (occurrences.size() > ReservationBatchDTO.MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("A batch must have at most " + ReservationBatchDTO.MAX_OCCURRENCES + " occurrences");
+        }
+        priceOccurrences(occurrences);
+        ReservationBatchResultDTO[] results = new ReservationBatchResultDTO[occurrences.size()];
+        List<Integer> accepted = new ArrayList<>();
+
+        Map<Long, List<Integer>> checkedByRoom = new HashMap<>();
+        for (int index = 0; index < occurrences.size(); index++) {
+            Reservation occurrence = occurrences.get(index);
+            if (needsOverlapCheck(occurrence)) {
+                checkedByRoom.computeIfAbsent(occurrence.getRoom().getId(), roomId -> new ArrayList<>()).add(index);
+            } else {
+                accepted.add(index);
+            }
+        }
+        checkedByRoom.forEach((roomId, indexes) -> {
+            indexes.sort(Comparator.comparing((Integer index) -> occurrences.get(index).getStartDateTime()));
+            Instant from = occurrences.get(indexes.get(0)).getStartDateTime();
+            Instant to = indexes.stream().map(index -> occurrences.get(index).getEndDateTime()).max(Comparator.naturalOrder()).orElseThrow();
+            Optional<List<RoomTimelineCache.Slot>> cached = roomTimelineCache.findOverlapping(roomId, from, to);
+            List<Integer> roomAccepted = new ArrayList<>();
+            boolean conflicts = checkOccurrences(
+                occurrences,
+                indexes,
+                cached.orElseGet(() -> roomTimelineCache.queryOverlapping(roomId, from, to)),
+                results,
+                roomAccepted
+            );
+            if (cached.isPresent() && conflicts) {
+                // O cache pode ter reservas canceladas ou remarcadas em outra instância: os conflitos são refeitos pelo banco
+                roomTimelineCache.invalidate(roomId);
+                roomAccepted.clear();
+                checkOccurrences(occurrences, indexes, roomTimelineCache.queryOverlapping(roomId, from, to), results, roomAccepted);
+            }
+            accepted.addAll(roomAccepted);
+        });
+
+        accepted.sort(Comparator.naturalOrder());
+        List<Reservation> saved = reservationRepository.saveAll(accepted.stream().map(occurrences::get).toList());
+        try {
+            reservationRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                LOG.debug("Reservation batch overlaps an active reservation created concurrently");
+                throw new ReservationConflictException();
+            }
+            throw e;
+        }
+        recordEvents(ReservationEventType.CREATED, saved.stream().map(Reservation::getId).toList());
+        scheduleAutoConfirmations(saved);
+        for (int i = 0; i < saved.size(); i++) {
+            Reservation reservation = saved.get(i);
+            publishChange(reservation, null, null);
+            if (ReservationStatus.PENDING.equals(reservation.getStatus())) {
+                eventPublisher.publishEvent(new PendingReservationEvent(PendingReservationEvent.Type.CREATED, reservation.getId()));
+            }
+            results[accepted.get(i)] = ReservationBatchResultDTO.created(accepted.get(i), reservationMapper.toDto(reservation));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Marca as ocorrências da sala, em ordem de início, que conflitam com as reservas existentes ou com uma
+     * ocorrência anterior aceita; as demais vão para {@code accepted}.
+     *
+     * @return se alguma ocorrência conflita com uma reserva existente.
+     */
+    private static boolean checkOccurrences(
+        List<Reservation> occurrences,
+        List<Integer> indexes,
+        List<RoomTimelineCache.Slot> existing,
+        ReservationBatchResultDTO[] results,
+        List<Integer> accepted
+    ) {
+        // Reservas ativas não se sobrepõem: ordenadas pelo início, também estão ordenadas pelo fim
+        boolean conflicts = false;
+        int cursor = 0;
+        Instant acceptedEnd = Instant.MIN;
+        for (Integer index : indexes) {
+            Reservation occurrence = occurrences.get(index);
+            while (cursor < existing.size() && !existing.get(cursor).end().isAfter(occurrence.getStartDateTime())) {
+                cursor++;
+            }
+            if (cursor < existing.size() && existing.get(cursor).start().isBefore(occurrence.getEndDateTime())) {
+                results[index] = ReservationBatchResultDTO.conflict(
+                    index,
+                    occurrence.getStartDateTime(),
+                    occurrence.getEndDateTime(),
+                    existing.get(cursor).reservationId()
+                );
+                conflicts = true;
+            } else if (occurrence.getStartDateTime().isBefore(acceptedEnd)) {
+                results[index] = ReservationBatchResultDTO.conflict(
+                    index,
+                    occurrence.getStartDateTime(),
+                    occurrence.getEndDateTime(),
+                    null
+                );
+            } else {
+                accepted.add(index);
+                acceptedEnd = occurrence.getEndDateTime();
+            }
+        }
+        return conflicts;
+    }
+
     @Override
     public ReservationDTO update(ReservationDTO reservationDTO) {
         LOG.debug("Request to update Reservation : {}", reservationDTO);
+        Optional<ReservationSlotProjection> previous = reservationRepository.findSlotById(reservationDTO.getId());
         Reservation reservation = reservationMapper.toEntity(reservationDTO);
-        reservation = reservationRepository.save(reservation);
+        reservation = saveAndCheckOverlap(reservation);
+        recordEvent(ReservationEventType.UPDATED, reservation);
+        publishChange(
+            reservation,
+            previous.map(ReservationSlotProjection::getStartDateTime).orElse(null),
+            previous.map(ReservationSlotProjection::getEndDateTime).orElse(null)
+        );
         return reservationMapper.toDto(reservation);
     }
 
@@ -60,11 +308,15 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationRepository
             .findById(reservationDTO.getId())
             .map(existingReservation -> {
+                Instant previousStart = existingReservation.getStartDateTime();
+                Instant previousEnd = existingReservation.getEndDateTime();
                 reservationMapper.partialUpdate(existingReservation, reservationDTO);
 
-                return existingReservation;
+                Reservation reservation = saveAndCheckOverlap(existingReservation);
+                recordEvent(ReservationEventType.UPDATED, reservation);
+                publishChange(reservation, previousStart, previousEnd);
+                return reservation;
             })
-            .map(reservationRepository::save)
             .map(reservationMapper::toDto);
     }
 
@@ -78,7 +330,15 @@ public class ReservationServiceImpl implements ReservationService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Reservation : {}", id);
+        Optional<ReservationSlotProjection> previous = reservationRepository.findSlotById(id);
+        // O evento guarda o último estado da reserva: é gravado antes da remoção
+        previous.ifPresent(slot -> recordEvents(ReservationEventType.DELETED, List.of(id)));
         reservationRepository.deleteById(id);
+        previous.ifPresent(slot ->
+            eventPublisher.publishEvent(
+                new ReservationChangedEvent(id, slot.getRoomId(), null, null, null, slot.getStartDateTime(), slot.getEndDateTime())
+            )
+        );
     }
 
     @Override
@@ -96,12 +356,11 @@ public class ReservationServiceImpl implements ReservationService {
                 ReservationStatus.IN_PROGRESS
             );
 
-            List<Reservation> reservations = reservationRepository.findReservationsByRoomAndDate(
-                roomId,
-                startOfDay,
-                endOfDay,
-                activeStatuses
-            );
+            // Sala em cache: busca apenas as reservas do dia, por id, em uma única consulta
+            Optional<List<RoomTimelineCache.Slot>> cachedSlots = roomTimelineCache.findOverlapping(roomId, startOfDay, endOfDay);
+            List<Reservation> reservations = cachedSlots.isPresent()
+                ? findActiveByIdInOrder(cachedSlots.get().stream().map(RoomTimelineCache.Slot::reservationId).toList())
+                : reservationRepository.findReservationsByRoomAndDate(roomId, startOfDay, endOfDay, activeStatuses);
 
             LOG.debug("Found {} reservations for room {} on date {}", reservations.size(), roomId, date);
 
@@ -112,6 +371,21 @@ public class ReservationServiceImpl implements ReservationService {
         }
     }
 
+    private List<Reservation> findActiveByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Reservation> byId = reservationRepository
+            .findAllById(ids)
+            .stream()
+            .collect(Collectors.toMap(Reservation::getId, Function.identity()));
+        return ids
+            .stream()
+            .map(byId::get)
+            .filter(reservation -> reservation != null && reservation.getStatus() != null && reservation.getStatus().isActive())
+            .toList();
+    }
+
     @Override
     @Transactional
     public Optional<ReservationDTO> approveReservation(Long id) {
@@ -124,6 +398,9 @@ public class ReservationServiceImpl implements ReservationService {
                 reservation.setUpdatedAt(Instant.now());
                 return reservationRepository.save(reservation);
             })
+            .map(reservation -> recordEvent(ReservationEventType.APPROVED, reservation))
+            .map(reservation -> publishChange(reservation, reservation.getStartDateTime(), reservation.getEndDateTime()))
+            .map(reservation -> publishDecision(PendingReservationEvent.Type.APPROVED, reservation))
             .map(reservationMapper::toDto);
     }
 
@@ -141,6 +418,9 @@ public class ReservationServiceImpl implements ReservationService {
                 reservation.setUpdatedAt(Instant.now());
                 return reservationRepository.save(reservation);
             })
+            .map(reservation -> recordEvent(ReservationEventType.REJECTED, reservation))
+            .map(reservation -> publishChange(reservation, reservation.getStartDateTime(), reservation.getEndDateTime()))
+            .map(reservation -> publishDecision(PendingReservationEvent.Type.REJECTED, reservation))
             .map(reservationMapper::toDto);
     }
 
@@ -152,31 +432,401 @@ public class ReservationServiceImpl implements ReservationService {
         return pendingReservations.stream().map(reservationMapper::toDto).collect(Collectors.toList());
     }
 
+    /**
+     * Confirma as reservas pendentes há mais de {@link #AUTO_CONFIRM_DELAY} em lotes de {@link #AUTO_CONFIRM_CHUNK_SIZE},
+     * cada um em sua própria transação, para que os bloqueios durem apenas um UPDATE. A data de corte é
+     * fixada no início, então o laço termina mesmo com novas reservas chegando. As alterações de cada lote
+     * são publicadas depois do seu commit, como na confirmação de uma única reserva.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int autoConfirmExpiredPendingReservations() {
         LOG.debug("Request to auto-confirm expired pending reservations");
-        Instant thirtyMinutesAgo = Instant.now().minusSeconds(30 * 60);
-
-        List<Reservation> expiredPendingReservations = reservationRepository.findExpiredPendingReservations(thirtyMinutesAgo);
+        Instant cutoffTime = Instant.now().minus(AUTO_CONFIRM_DELAY);
 
         int confirmedCount = 0;
-        for (Reservation reservation : expiredPendingReservations) {
-            reservation.setStatus(ReservationStatus.CONFIRMED);
-            reservation.setUpdatedAt(Instant.now());
-            reservationRepository.save(reservation);
-            confirmedCount++;
-            LOG.info("Auto-confirmed reservation {} after 30 minutes", reservation.getId());
-        }
+        List<Long> confirmedIds;
+        do {
+            confirmedIds = transactionTemplate.execute(status -> {
+                List<Long> ids = reservationRepository.confirmExpiredPendingReservations(
+                    cutoffTime,
+                    Instant.now(),
+                    AUTO_CONFIRM_CHUNK_SIZE
+                );
+                recordEvents(ReservationEventType.AUTO_CONFIRMED, ids);
+                return ids;
+            });
+            // O UPDATE nativo não passa pela sessão: remove do cache de segundo nível apenas as reservas alteradas
+            confirmedIds.forEach(id -> entityManagerFactory.getCache().evict(Reservation.class, id));
+            if (!confirmedIds.isEmpty()) {
+                reservationRepository.findSlotsByIdIn(confirmedIds).forEach(this::publishAutoConfirmation);
+            }
+            confirmedCount += confirmedIds.size();
+        } while (confirmedIds.size() == AUTO_CONFIRM_CHUNK_SIZE);
 
+        autoConfirmedCounter.increment(confirmedCount);
         return confirmedCount;
     }
 
+    /**
+     * Tratador da tarefa {@link DelayedTaskType#CONFIRM_RESERVATION}: idempotente, não altera uma
+     * reserva que já deixou de estar pendente.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean autoConfirmReservation(Long id) {
+        LOG.debug("Request to auto-confirm Reservation : {}", id);
+        Optional<Long> confirmedId = transactionTemplate.execute(status -> {
+            Optional<Long> confirmed = reservationRepository.confirmPendingReservation(id, Instant.now());
+            if (confirmed.isPresent()) {
+                recordEvents(ReservationEventType.AUTO_CONFIRMED, List.of(id));
+            }
+            return confirmed;
+        });
+        if (confirmedId.isEmpty()) {
+            return false;
+        }
+        entityManagerFactory.getCache().evict(Reservation.class, id);
+        autoConfirmedCounter.increment();
+        reservationRepository.findSlotById(id).ifPresent(this::publishAutoConfirmation);
+        return true;
+    }
+
+    /**
+     * Publica a confirmação automática da reserva para os ouvintes das alterações e para o stream do estúdio.
+     */
+    private void publishAutoConfirmation(ReservationSlotProjection slot) {
+        eventPublisher.publishEvent(
+            new ReservationChangedEvent(
+                slot.getId(),
+                slot.getRoomId(),
+                ReservationStatus.CONFIRMED,
+                slot.getStartDateTime(),
+                slot.getEndDateTime(),
+                slot.getStartDateTime(),
+                slot.getEndDateTime()
+            )
+        );
+        eventPublisher.publishEvent(new PendingReservationEvent(PendingReservationEvent.Type.AUTO_CONFIRMED, slot.getId()));
+    }
+
+    @Override
+    public int scheduleMissingAutoConfirmations() {
+        LOG.debug("Request to schedule missing auto-confirmations");
+        return delayedTaskRepository.scheduleMissingReservationConfirmations(AUTO_CONFIRM_DELAY.toSeconds(), Instant.now());
+    }
+
+    /**
+     * Cria antes, em uma transação curta, as partições mensais de arquivo que faltam para as reservas a
+     * arquivar e para os próximos {@link #ARCHIVE_MONTHS_AHEAD} meses: o DDL bloqueia reservation_archive e
+     * fica fora dos lotes. Depois move as reservas encerradas em lotes de {@link #ARCHIVE_CHUNK_SIZE}, cada um
+     * em sua própria transação: bloqueia o lote e move as linhas. O UPDATE nativo não passa pela sessão: as
+     * reservas movidas são removidas do cache de segundo nível.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int archiveClosedReservations(Instant endedBefore) {
+        LOG.debug("Request to archive closed reservations that ended before {}", endedBefore);
+        Long createdPartitions = transactionTemplate.execute(status ->
+            reservationRepository.createArchivePartitions(endedBefore, ARCHIVE_MONTHS_AHEAD)
+        );
+        if (createdPartitions != null && createdPartitions > 0) {
+            LOG.info("Created {} reservation archive partitions", createdPartitions);
+        }
+        int archivedCount = 0;
+        List<Long> archivedIds;
+        do {
+            archivedIds = transactionTemplate.execute(status -> {
+                List<Long> ids = reservationRepository.lockClosedReservationsToArchive(endedBefore, ARCHIVE_CHUNK_SIZE);
+                return ids.isEmpty() ? ids : reservationRepository.archiveReservations(ids);
+            });
+            archivedIds.forEach(id -> entityManagerFactory.getCache().evict(Reservation.class, id));
+            archivedCount += archivedIds.size();
+        } while (archivedIds.size() == ARCHIVE_CHUNK_SIZE);
+        return archivedCount;
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<ReservationDTO> findAllReservationsByRoom(Long roomId) {
-        LOG.debug("Request to get all reservations for room: {}", roomId);
-        List<Reservation> reservations = reservationRepository.findAllByRoomId(roomId);
-        return reservations.stream().map(reservationMapper::toDto).collect(Collectors.toList());
+    public KeysetPageDTO<ReservationHistoryProjection> findReservationHistoryByRoom(
+        Long roomId,
+        Instant from,
+        Instant to,
+        String cursor,
+        int pageSize
+    ) {
+        LOG.debug("Request to get reservation history of room {} from {} to {}", roomId, from, to);
+        Instant windowStart = from != null ? from : HISTORY_START;
+        Instant windowEnd = to != null ? to : HISTORY_END;
+        String filterHash = ReservationHistoryCursor.filterHash(roomId, windowStart, windowEnd);
+        // Um item a mais indica se existe próxima página
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+        List<ReservationHistoryProjection> rows;
+        if (cursor == null) {
+            rows = reservationRepository.findHistoryByRoom(roomId, windowStart, windowEnd, limit);
+        } else {
+            ReservationHistoryCursor after = ReservationHistoryCursor.decode(cursor, filterHash);
+            rows = reservationRepository.findHistoryByRoomAfter(
+                roomId,
+                windowStart,
+                windowEnd,
+                after.getStartDateTime(),
+                after.getId(),
+                limit
+            );
+        }
+        if (rows.size() <= pageSize) {
+            return new KeysetPageDTO<>(rows, null);
+        }
+        List<ReservationHistoryProjection> content = rows.subList(0, pageSize);
+        ReservationHistoryProjection last = content.get(pageSize - 1);
+        return new KeysetPageDTO<>(content, ReservationHistoryCursor.encode(filterHash, last.getId(), last.getStartDateTime()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportReservationHistoryByRoom(Long roomId, Instant from, Instant to, OutputStream outputStream) throws IOException {
+        LOG.debug("Request to export reservation history of room {} from {} to {}", roomId, from, to);
+        long count = 0;
+        try (
+            Stream<ReservationHistoryProjection> reservations = reservationRepository.streamHistoryByRoom(
+                roomId,
+                from != null ? from : HISTORY_START,
+                to != null ? to : HISTORY_END
+            );
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+        ) {
+            // A resposta é fechada pelo container
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<ReservationHistoryProjection> iterator = reservations.iterator();
+            while (iterator.hasNext()) {
+                objectMapper.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % ReservationRepository.HISTORY_EXPORT_FETCH_SIZE == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        LOG.debug("Exported {} reservations of room {}", count, roomId);
+        return count;
+    }
+
+    /**
+     * Ocorrências do lote: cada reserva, repetida pela regra de recorrência quando houver, mantendo
+     * o horário local e a duração.
+     */
+    private List<Reservation> expandOccurrences(ReservationBatchDTO batch) {
+        ReservationRecurrenceDTO recurrence = batch.getRecurrence();
+        if (recurrence == null) {
+            return batch.getReservations().stream().map(reservationMapper::toEntity).toList();
+        }
+        ZoneId zone = recurrence.getZoneId() != null ? ZoneId.of(recurrence.getZoneId()) : ZoneOffset.UTC;
+        Period step = recurrence.getFrequency() == ReservationRecurrenceDTO.Frequency.WEEKLY
+            ? Period.ofWeeks(recurrence.getInterval())
+            : Period.ofDays(recurrence.getInterval());
+        List<Reservation> occurrences = new ArrayList<>();
+        for (ReservationDTO reservation : batch.getReservations()) {
+            ZonedDateTime start = reservation.getStartDateTime().atZone(zone);
+            Duration duration = Duration.between(reservation.getStartDateTime(), reservation.getEndDateTime());
+            for (int i = 0; i < recurrence.getCount(); i++) {
+                Instant occurrenceStart = start.plus(step.multipliedBy(i)).toInstant();
+                Reservation occurrence = reservationMapper.toEntity(reservation);
+                occurrence.setStartDateTime(occurrenceStart);
+                occurrence.setEndDateTime(occurrenceStart.plus(duration));
+                occurrences.add(occurrence);
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Confere o preço informado com a tabela de preços da sala; sem preço informado, usa o da tabela.
+     */
+    private void checkPrice(Reservation reservation) {
+        if (reservation.getRoom() == null || reservation.getStartDateTime() == null || reservation.getEndDateTime() == null) {
+            return;
+        }
+        Optional<PriceSchedule> schedule = pricingService.findSchedule(reservation.getRoom().getId());
+        if (schedule.isEmpty()) {
+            return;
+        }
+        BigDecimal quoted = schedule.get().quote(reservation.getStartDateTime(), reservation.getEndDateTime());
+        if (reservation.getTotalPrice() == null) {
+            reservation.setTotalPrice(quoted);
+            return;
+        }
+        BigDecimal totalPrice = reservation.getTotalPrice().setScale(2, RoundingMode.HALF_UP);
+        if (totalPrice.compareTo(quoted) == 0) {
+            return;
+        }
+        // A tabela em cache não vê alterações de preço feitas em outras instâncias: o banco confirma a divergência
+        Optional<BigDecimal> requoted = pricingService
+            .refreshSchedule(reservation.getRoom().getId())
+            .map(refreshed -> refreshed.quote(reservation.getStartDateTime(), reservation.getEndDateTime()));
+        if (requoted.isPresent() && totalPrice.compareTo(requoted.get()) != 0) {
+            LOG.debug("Reservation price {} differs from the quote {}", reservation.getTotalPrice(), requoted.get());
+            throw new ReservationPriceMismatchException();
+        }
+    }
+
+    /**
+     * Calcula o preço de cada ocorrência de um lote pela tabela de preços da sala: ocorrências de uma
+     * recorrência podem cair em horários com preços especiais diferentes dos da reserva modelo.
+     */
+    private void priceOccurrences(List<Reservation> occurrences) {
+        Map<Long, Optional<PriceSchedule>> schedules = new HashMap<>();
+        for (Reservation occurrence : occurrences) {
+            if (occurrence.getRoom() == null || occurrence.getStartDateTime() == null || occurrence.getEndDateTime() == null) {
+                continue;
+            }
+            schedules
+                .computeIfAbsent(occurrence.getRoom().getId(), pricingService::findSchedule)
+                .ifPresent(schedule -> occurrence.setTotalPrice(schedule.quote(occurrence.getStartDateTime(), occurrence.getEndDateTime())));
+        }
+    }
+
+    private static boolean needsOverlapCheck(Reservation reservation) {
+        return (
+            reservation.getStatus() != null &&
+            reservation.getStatus().isActive() &&
+            reservation.getRoom() != null &&
+            reservation.getRoom().getId() != null &&
+            reservation.getStartDateTime() != null &&
+            reservation.getEndDateTime() != null
+        );
+    }
+
+    /**
+     * Agenda em uma única instrução a confirmação automática das reservas pendentes de um lote.
+     */
+    private void scheduleAutoConfirmations(List<Reservation> reservations) {
+        Instant now = Instant.now();
+        Map<Long, Instant> dueAtById = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            if (ReservationStatus.PENDING.equals(reservation.getStatus())) {
+                Instant createdAt = reservation.getCreatedAt() != null ? reservation.getCreatedAt() : now;
+                dueAtById.put(reservation.getId(), createdAt.plus(AUTO_CONFIRM_DELAY));
+            }
+        }
+        if (dueAtById.isEmpty()) {
+            return;
+        }
+        delayedTaskRepository.scheduleReservationConfirmations(dueAtById.keySet(), AUTO_CONFIRM_DELAY.toSeconds(), now);
+        delayedTaskScheduler.enqueueAfterCommit(DelayedTaskType.CONFIRM_RESERVATION, dueAtById);
+    }
+
+    /**
+     * Agenda a confirmação automática de uma reserva criada como pendente para o fim do prazo.
+     */
+    private void scheduleAutoConfirmation(Reservation reservation) {
+        if (ReservationStatus.PENDING.equals(reservation.getStatus())) {
+            Instant createdAt = reservation.getCreatedAt() != null ? reservation.getCreatedAt() : Instant.now();
+            delayedTaskScheduler.schedule(DelayedTaskType.CONFIRM_RESERVATION, reservation.getId(), createdAt.plus(AUTO_CONFIRM_DELAY));
+        }
+    }
+
+    /**
+     * Grava a reserva e força o flush para que a constraint de exclusão do banco
+     * (salas com reservas ativas sobrepostas) seja verificada aqui, e não no commit.
+     * Conflitos apontados pelo {@link RoomTimelineCache} e confirmados no banco são rejeitados antes da escrita.
+     */
+    private Reservation saveAndCheckOverlap(Reservation reservation) {
+        try {
+            // A consulta de confirmação pode fazer o flush da reserva alterada: também é coberta pelo catch
+            if (hasCachedConflict(reservation)) {
+                LOG.debug("Reservation overlaps an active reservation of room {}", reservation.getRoom().getId());
+                throw new ReservationConflictException();
+            }
+            return reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                LOG.debug("Reservation overlaps an active reservation of room {}", reservation.getRoom().getId());
+                throw new ReservationConflictException();
+            }
+            throw e;
+        }
+    }
+
+    private boolean hasCachedConflict(Reservation reservation) {
+        if (
+            reservation.getStatus() == null ||
+            !reservation.getStatus().isActive() ||
+            reservation.getRoom() == null ||
+            reservation.getStartDateTime() == null ||
+            reservation.getEndDateTime() == null
+        ) {
+            return false;
+        }
+        Long roomId = reservation.getRoom().getId();
+        Optional<RoomTimelineCache.Slot> cachedConflict = roomTimelineCache.findConflict(
+            roomId,
+            reservation.getStartDateTime(),
+            reservation.getEndDateTime(),
+            reservation.getId()
+        );
+        if (cachedConflict.isEmpty()) {
+            return false;
+        }
+        // O cache não vê cancelamentos e remarcações feitos em outras instâncias: o banco confirma o conflito
+        boolean confirmed = roomTimelineCache
+            .queryOverlapping(roomId, reservation.getStartDateTime(), reservation.getEndDateTime())
+            .stream()
+            .anyMatch(slot -> !slot.reservationId().equals(reservation.getId()));
+        if (!confirmed) {
+            LOG.debug("Discarding the stale timeline of room {}", roomId);
+            roomTimelineCache.invalidate(roomId);
+        }
+        return confirmed;
+    }
+
+    private static boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Grava no outbox, na transação da alteração, o evento da reserva com o estado gravado.
+     */
+    private Reservation recordEvent(ReservationEventType type, Reservation reservation) {
+        recordEvents(type, List.of(reservation.getId()));
+        return reservation;
+    }
+
+    private void recordEvents(ReservationEventType type, Collection<Long> reservationIds) {
+        if (!reservationIds.isEmpty()) {
+            reservationEventRepository.append(type.name(), reservationIds, Instant.now());
+        }
+    }
+
+    /**
+     * Publica a decisão sobre a reserva pendente para o stream de eventos do estúdio.
+     */
+    private Reservation publishDecision(PendingReservationEvent.Type type, Reservation reservation) {
+        eventPublisher.publishEvent(new PendingReservationEvent(type, reservation.getId()));
+        return reservation;
+    }
+
+    /**
+     * Publica a alteração da reserva; os ouvintes (índice de disponibilidade, cache da busca)
+     * reagem após o commit.
+     */
+    private Reservation publishChange(Reservation reservation, Instant previousStart, Instant previousEnd) {
+        eventPublisher.publishEvent(
+            new ReservationChangedEvent(
+                reservation.getId(),
+                reservation.getRoom() != null ? reservation.getRoom().getId() : null,
+                reservation.getStatus(),
+                reservation.getStartDateTime(),
+                reservation.getEndDateTime(),
+                previousStart,
+                previousEnd
+            )
+        );
+        return reservation;
     }
 }
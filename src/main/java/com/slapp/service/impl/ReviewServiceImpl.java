@@ -1,7 +1,9 @@
 package com.slapp.service.impl;
 
 import com.slapp.domain.Review;
+import com.slapp.repository.ReservationRepository;
 import com.slapp.repository.ReviewRepository;
+import com.slapp.service.ReservationArchivedException;
 import com.slapp.service.ReviewService;
 import com.slapp.service.dto.ReviewDTO;
 import com.slapp.service.mapper.ReviewMapper;
@@ -24,15 +26,18 @@ public class ReviewServiceImpl implements ReviewService {
 
     private final ReviewMapper reviewMapper;
 
-    public ReviewServiceImpl(ReviewRepository reviewRepository, ReviewMapper reviewMapper) {
+    private final ReservationRepository reservationRepository;
+
+    public ReviewServiceImpl(ReviewRepository reviewRepository, ReviewMapper reviewMapper, ReservationRepository reservationRepository) {
         this.reviewRepository = reviewRepository;
         this.reviewMapper = reviewMapper;
+        this.reservationRepository = reservationRepository;
     }
 
     @Override
     public ReviewDTO save(ReviewDTO reviewDTO) {
         LOG.debug("Request to save Review : {}", reviewDTO);
-        Review review = reviewMapper.toEntity(reviewDTO);
+        Review review = checkReservationNotArchived(reviewMapper.toEntity(reviewDTO));
         review = reviewRepository.save(review);
         return reviewMapper.toDto(review);
     }
@@ -40,7 +45,7 @@ public class ReviewServiceImpl implements ReviewService {
     @Override
     public ReviewDTO update(ReviewDTO reviewDTO) {
         LOG.debug("Request to update Review : {}", reviewDTO);
-        Review review = reviewMapper.toEntity(reviewDTO);
+        Review review = checkReservationNotArchived(reviewMapper.toEntity(reviewDTO));
         review = reviewRepository.save(review);
         return reviewMapper.toDto(review);
     }
@@ -54,7 +59,7 @@ public class ReviewServiceImpl implements ReviewService {
             .map(existingReview -> {
                 reviewMapper.partialUpdate(existingReview, reviewDTO);
 
-                return existingReview;
+                return checkReservationNotArchived(existingReview);
             })
             .map(reviewRepository::save)
             .map(reviewMapper::toDto);
@@ -72,4 +77,15 @@ public class ReviewServiceImpl implements ReviewService {
         LOG.debug("Request to delete Review : {}", id);
         reviewRepository.deleteById(id);
     }
+
+    /**
+     * Reservas arquivadas não recebem avaliações: a chave estrangeira de review referencia apenas a partição
+     * reservation_live, e o arquivamento ignora as reservas avaliadas.
+     */
+    private Review checkReservationNotArchived(Review review) {
+        if (review.getReservation() != null && reservationRepository.existsByIdAndArchivedTrue(review.getReservation().getId())) {
+            throw new ReservationArchivedException();
+        }
+        return review;
+    }
 }
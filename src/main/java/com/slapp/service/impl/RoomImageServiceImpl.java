@@ -6,6 +6,7 @@ import com.slapp.repository.RoomImageRepository;
 import com.slapp.repository.RoomRepository;
 import com.slapp.service.RoomImageService;
 import com.slapp.service.dto.RoomImageDTO;
+import com.slapp.service.event.RoomImageChangedEvent;
 import com.slapp.service.mapper.RoomImageMapper;
 import java.util.LinkedList;
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,10 +33,18 @@ public class RoomImageServiceImpl implements RoomImageService {
 
     private final RoomImageMapper roomImageMapper;
 
-    public RoomImageServiceImpl(RoomImageRepository roomImageRepository, RoomRepository roomRepository, RoomImageMapper roomImageMapper) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RoomImageServiceImpl(
+        RoomImageRepository roomImageRepository,
+        RoomRepository roomRepository,
+        RoomImageMapper roomImageMapper,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.roomImageRepository = roomImageRepository;
         this.roomRepository = roomRepository;
         this.roomImageMapper = roomImageMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -61,6 +71,7 @@ public class RoomImageServiceImpl implements RoomImageService {
             }
 
             roomImage = roomImageRepository.save(roomImage);
+            publishChange(roomImage, null);
             return roomImageMapper.toDto(roomImage);
         } catch (Exception e) {
             LOG.error(
@@ -77,6 +88,7 @@ public class RoomImageServiceImpl implements RoomImageService {
     public RoomImageDTO update(RoomImageDTO roomImageDTO) {
         LOG.debug("Request to update RoomImage : {}", roomImageDTO);
         try {
+            Long previousStudioId = roomImageRepository.findStudioIdById(roomImageDTO.getId()).orElse(null);
             RoomImage roomImage = roomImageMapper.toEntity(roomImageDTO);
 
             // Se o room está vindo com apenas o ID, buscar do banco
@@ -87,6 +99,7 @@ public class RoomImageServiceImpl implements RoomImageService {
             }
 
             roomImage = roomImageRepository.save(roomImage);
+            publishChange(roomImage, previousStudioId);
             return roomImageMapper.toDto(roomImage);
         } catch (Exception e) {
             LOG.error(
@@ -102,6 +115,7 @@ public class RoomImageServiceImpl implements RoomImageService {
     @Override
     public Optional<RoomImageDTO> partialUpdate(RoomImageDTO roomImageDTO) {
         LOG.debug("Request to partially update RoomImage : {}", roomImageDTO);
+        Long previousStudioId = roomImageRepository.findStudioIdById(roomImageDTO.getId()).orElse(null);
 
         return roomImageRepository
             .findById(roomImageDTO.getId())
@@ -120,6 +134,10 @@ public class RoomImageServiceImpl implements RoomImageService {
                 return existingRoomImage;
             })
             .map(roomImageRepository::save)
+            .map(roomImage -> {
+                publishChange(roomImage, previousStudioId);
+                return roomImage;
+            })
             .map(roomImageMapper::toDto);
     }
 
@@ -140,7 +158,9 @@ public class RoomImageServiceImpl implements RoomImageService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete RoomImage : {}", id);
+        Optional<Long> studioId = roomImageRepository.findStudioIdById(id);
         roomImageRepository.deleteById(id);
+        studioId.ifPresent(previousStudioId -> eventPublisher.publishEvent(new RoomImageChangedEvent(id, previousStudioId)));
     }
 
     @Override
@@ -152,4 +172,19 @@ public class RoomImageServiceImpl implements RoomImageService {
             .map(roomImageMapper::toDto)
             .collect(Collectors.toList());
     }
+
+    /**
+     * Publica a alteração da imagem para o estúdio atual e, se a imagem mudou de estúdio, para o anterior.
+     */
+    private void publishChange(RoomImage roomImage, Long previousStudioId) {
+        Long studioId = roomImage.getRoom() != null && roomImage.getRoom().getStudio() != null
+            ? roomImage.getRoom().getStudio().getId()
+            : null;
+        if (studioId != null) {
+            eventPublisher.publishEvent(new RoomImageChangedEvent(roomImage.getId(), studioId));
+        }
+        if (previousStudioId != null && !previousStudioId.equals(studioId)) {
+            eventPublisher.publishEvent(new RoomImageChangedEvent(roomImage.getId(), previousStudioId));
+        }
+    }
 }
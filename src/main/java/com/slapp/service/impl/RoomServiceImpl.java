@@ -4,13 +4,17 @@ import com.slapp.domain.Room;
 import com.slapp.domain.Studio;
 import com.slapp.repository.RoomRepository;
 import com.slapp.repository.StudioRepository;
+import com.slapp.repository.StudioRoomSummaryRepository;
 import com.slapp.service.RoomService;
 import com.slapp.service.dto.RoomDTO;
+import com.slapp.service.event.RoomChangedEvent;
 import com.slapp.service.mapper.RoomMapper;
 import jakarta.persistence.EntityManager;
+import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,12 +31,24 @@ public class RoomServiceImpl implements RoomService {
 
     private final StudioRepository studioRepository;
 
+    private final StudioRoomSummaryRepository studioRoomSummaryRepository;
+
     private final RoomMapper roomMapper;
 
-    public RoomServiceImpl(RoomRepository roomRepository, StudioRepository studioRepository, RoomMapper roomMapper) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RoomServiceImpl(
+        RoomRepository roomRepository,
+        StudioRepository studioRepository,
+        StudioRoomSummaryRepository studioRoomSummaryRepository,
+        RoomMapper roomMapper,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.roomRepository = roomRepository;
         this.studioRepository = studioRepository;
+        this.studioRoomSummaryRepository = studioRoomSummaryRepository;
         this.roomMapper = roomMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -63,6 +79,7 @@ public class RoomServiceImpl implements RoomService {
             }
 
             room = roomRepository.save(room);
+            refreshStudioRoomSummary(room.getId(), room.getStudio().getId());
             return roomMapper.toDto(room);
         } catch (Exception e) {
             LOG.error(
@@ -79,6 +96,9 @@ public class RoomServiceImpl implements RoomService {
     public RoomDTO update(RoomDTO roomDTO) {
         LOG.debug("Request to update Room : {}", roomDTO);
         try {
+            // Studio anterior, caso a sala tenha mudado de studio
+            Long previousStudioId = roomDTO.getId() != null ? roomRepository.findStudioIdById(roomDTO.getId()).orElse(null) : null;
+
             Room room = roomMapper.toEntity(roomDTO);
 
             // Se o studio está vindo com apenas o ID, buscar do banco
@@ -91,6 +111,11 @@ public class RoomServiceImpl implements RoomService {
             }
 
             room = roomRepository.save(room);
+            Long studioId = room.getStudio() != null ? room.getStudio().getId() : null;
+            refreshStudioRoomSummary(room.getId(), studioId);
+            if (previousStudioId != null && !Objects.equals(previousStudioId, studioId)) {
+                refreshStudioRoomSummary(room.getId(), previousStudioId);
+            }
             return roomMapper.toDto(room);
         } catch (Exception e) {
             LOG.error(
@@ -124,6 +149,10 @@ public class RoomServiceImpl implements RoomService {
                 return existingRoom;
             })
             .map(roomRepository::save)
+            .map(room -> {
+                refreshStudioRoomSummary(room.getId(), room.getStudio() != null ? room.getStudio().getId() : null);
+                return room;
+            })
             .map(roomMapper::toDto);
     }
 
@@ -137,6 +166,22 @@ public class RoomServiceImpl implements RoomService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Room : {}", id);
+        Optional<Long> studioId = roomRepository.findStudioIdById(id);
         roomRepository.deleteById(id);
+        studioId.ifPresent(previousStudioId -> refreshStudioRoomSummary(id, previousStudioId));
+    }
+
+    /**
+     * Recalcula o resumo de salas (studio_room_summary) e o documento de busca textual
+     * usados pela busca de estúdios, e publica a alteração da sala para o estúdio afetado.
+     */
+    private void refreshStudioRoomSummary(Long roomId, Long studioId) {
+        if (studioId == null) {
+            return;
+        }
+        LOG.debug("Refreshing room summary for Studio : {}", studioId);
+        studioRoomSummaryRepository.refreshByStudioId(studioId);
+        studioRepository.refreshSearchDocument(studioId);
+        eventPublisher.publishEvent(new RoomChangedEvent(roomId, studioId));
     }
 }
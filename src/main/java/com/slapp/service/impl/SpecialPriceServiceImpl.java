@@ -4,6 +4,7 @@ import com.slapp.domain.SpecialPrice;
 import com.slapp.repository.SpecialPriceRepository;
 import com.slapp.service.SpecialPriceService;
 import com.slapp.service.dto.SpecialPriceDTO;
+import com.slapp.service.event.SpecialPriceChangedEvent;
 import com.slapp.service.mapper.SpecialPriceMapper;
 import java.util.LinkedList;
 import java.util.List;
@@ -11,6 +12,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,9 +29,16 @@ public class SpecialPriceServiceImpl implements SpecialPriceService {
 
     private final SpecialPriceMapper specialPriceMapper;
 
-    public SpecialPriceServiceImpl(SpecialPriceRepository specialPriceRepository, SpecialPriceMapper specialPriceMapper) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SpecialPriceServiceImpl(
+        SpecialPriceRepository specialPriceRepository,
+        SpecialPriceMapper specialPriceMapper,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.specialPriceRepository = specialPriceRepository;
         this.specialPriceMapper = specialPriceMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -37,20 +46,24 @@ public class SpecialPriceServiceImpl implements SpecialPriceService {
         LOG.debug("Request to save SpecialPrice : {}", specialPriceDTO);
         SpecialPrice specialPrice = specialPriceMapper.toEntity(specialPriceDTO);
         specialPrice = specialPriceRepository.save(specialPrice);
+        publishChange(specialPrice, Optional.empty());
         return specialPriceMapper.toDto(specialPrice);
     }
 
     @Override
     public SpecialPriceDTO update(SpecialPriceDTO specialPriceDTO) {
         LOG.debug("Request to update SpecialPrice : {}", specialPriceDTO);
+        Optional<Long> previousRoomId = specialPriceRepository.findRoomIdById(specialPriceDTO.getId());
         SpecialPrice specialPrice = specialPriceMapper.toEntity(specialPriceDTO);
         specialPrice = specialPriceRepository.save(specialPrice);
+        publishChange(specialPrice, previousRoomId);
         return specialPriceMapper.toDto(specialPrice);
     }
 
     @Override
     public Optional<SpecialPriceDTO> partialUpdate(SpecialPriceDTO specialPriceDTO) {
         LOG.debug("Request to partially update SpecialPrice : {}", specialPriceDTO);
+        Optional<Long> previousRoomId = specialPriceRepository.findRoomIdById(specialPriceDTO.getId());
 
         return specialPriceRepository
             .findById(specialPriceDTO.getId())
@@ -60,6 +73,10 @@ public class SpecialPriceServiceImpl implements SpecialPriceService {
                 return existingSpecialPrice;
             })
             .map(specialPriceRepository::save)
+            .map(specialPrice -> {
+                publishChange(specialPrice, previousRoomId);
+                return specialPrice;
+            })
             .map(specialPriceMapper::toDto);
     }
 
@@ -80,6 +97,22 @@ public class SpecialPriceServiceImpl implements SpecialPriceService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete SpecialPrice : {}", id);
+        Optional<Long> roomId = specialPriceRepository.findRoomIdById(id);
         specialPriceRepository.deleteById(id);
+        roomId.ifPresent(previousRoomId -> eventPublisher.publishEvent(new SpecialPriceChangedEvent(previousRoomId)));
+    }
+
+    /**
+     * Publica a alteração para a sala atual e, se o preço mudou de sala, para a anterior; a tabela de
+     * preços das salas é recompilada após o commit.
+     */
+    private void publishChange(SpecialPrice specialPrice, Optional<Long> previousRoomId) {
+        Long roomId = specialPrice.getRoom() != null ? specialPrice.getRoom().getId() : null;
+        if (roomId != null) {
+            eventPublisher.publishEvent(new SpecialPriceChangedEvent(roomId));
+        }
+        previousRoomId
+            .filter(previous -> !previous.equals(roomId))
+            .ifPresent(previous -> eventPublisher.publishEvent(new SpecialPriceChangedEvent(previous)));
     }
 }
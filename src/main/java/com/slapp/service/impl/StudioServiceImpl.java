@@ -1,30 +1,51 @@
 package com.slapp.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.slapp.domain.Studio;
 import com.slapp.repository.StudioRepository;
-import com.slapp.repository.projections.RoomImageProjection;
-import com.slapp.repository.projections.RoomProjection;
-import com.slapp.repository.projections.StudioBasicProjection;
-import com.slapp.repository.projections.StudioDetailProjection;
+import com.slapp.repository.StudioSearchCriteria;
+import com.slapp.repository.projections.StudioFacetRowProjection;
 import com.slapp.repository.projections.StudioListProjection;
+import com.slapp.repository.projections.StudioNearbyProjection;
+import com.slapp.security.SecurityUtils;
 import com.slapp.service.StudioService;
+import com.slapp.service.availability.RoomAvailabilityIndex;
+import com.slapp.service.detail.StudioDetailCache;
+import com.slapp.service.detail.StudioDetailDocument;
+import com.slapp.service.dto.KeysetPageDTO;
 import com.slapp.service.dto.StudioDTO;
-import com.slapp.service.dto.StudioDetailDTO;
+import com.slapp.service.dto.StudioFacetsDTO;
 import com.slapp.service.dto.StudioFilterDTO;
+import com.slapp.service.dto.StudioSuggestionDTO;
+import com.slapp.service.event.StudioChangedEvent;
 import com.slapp.service.mapper.StudioMapper;
+import com.slapp.service.search.StudioSearchCache;
+import com.slapp.service.search.StudioSearchCursor;
+import com.slapp.service.search.StudioSearchKey;
+import com.slapp.service.search.StudioSearchSort;
+import com.slapp.service.search.StudioSuggestIndex;
+import com.slapp.service.search.StudioTextQuery;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -36,13 +57,46 @@ public class StudioServiceImpl implements StudioService {
 
     private static final Logger LOG = LoggerFactory.getLogger(StudioServiceImpl.class);
 
+    /**
+     * Maior quantidade de salas ocupadas excluídas pela lista do índice; acima disso a busca usa o anti-join
+     * com reservation.
+     */
+    static final int MAX_BUSY_ROOM_IDS = 5000;
+
     private final StudioRepository studioRepository;
 
     private final StudioMapper studioMapper;
 
-    public StudioServiceImpl(StudioRepository studioRepository, StudioMapper studioMapper) {
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+
+    private final StudioSearchCache studioSearchCache;
+
+    private final StudioDetailCache studioDetailCache;
+
+    private final StudioSuggestIndex studioSuggestIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    public StudioServiceImpl(
+        StudioRepository studioRepository,
+        StudioMapper studioMapper,
+        RoomAvailabilityIndex roomAvailabilityIndex,
+        StudioSearchCache studioSearchCache,
+        StudioDetailCache studioDetailCache,
+        StudioSuggestIndex studioSuggestIndex,
+        ApplicationEventPublisher eventPublisher,
+        ObjectMapper objectMapper
+    ) {
         this.studioRepository = studioRepository;
         this.studioMapper = studioMapper;
+        this.roomAvailabilityIndex = roomAvailabilityIndex;
+        this.studioSearchCache = studioSearchCache;
+        this.studioDetailCache = studioDetailCache;
+        this.studioSuggestIndex = studioSuggestIndex;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -50,14 +104,19 @@ public class StudioServiceImpl implements StudioService {
         LOG.debug("Request to save Studio : {}", studioDTO);
         Studio studio = studioMapper.toEntity(studioDTO);
         studio = studioRepository.save(studio);
+        studioRepository.refreshSearchDocument(studio.getId());
+        eventPublisher.publishEvent(new StudioChangedEvent(studio.getId(), null, studio.getCity()));
         return studioMapper.toDto(studio);
     }
 
     @Override
     public StudioDTO update(StudioDTO studioDTO) {
         LOG.debug("Request to update Studio : {}", studioDTO);
+        String previousCity = studioRepository.findCityById(studioDTO.getId()).orElse(null);
         Studio studio = studioMapper.toEntity(studioDTO);
         studio = studioRepository.save(studio);
+        studioRepository.refreshSearchDocument(studio.getId());
+        eventPublisher.publishEvent(new StudioChangedEvent(studio.getId(), previousCity, studio.getCity()));
         return studioMapper.toDto(studio);
     }
 
@@ -68,11 +127,14 @@ public class StudioServiceImpl implements StudioService {
         return studioRepository
             .findById(studioDTO.getId())
             .map(existingStudio -> {
+                String previousCity = existingStudio.getCity();
                 studioMapper.partialUpdate(existingStudio, studioDTO);
 
-                return existingStudio;
+                Studio studio = studioRepository.save(existingStudio);
+                studioRepository.refreshSearchDocument(studio.getId());
+                eventPublisher.publishEvent(new StudioChangedEvent(studio.getId(), previousCity, studio.getCity()));
+                return studio;
             })
-            .map(studioRepository::save)
             .map(studioMapper::toDto);
     }
 
@@ -86,7 +148,9 @@ public class StudioServiceImpl implements StudioService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Studio : {}", id);
+        String previousCity = studioRepository.findCityById(id).orElse(null);
         studioRepository.deleteById(id);
+        eventPublisher.publishEvent(new StudioChangedEvent(id, previousCity, null));
     }
 
     @Override
@@ -97,175 +161,346 @@ public class StudioServiceImpl implements StudioService {
             filters.getAvailabilityEndDateTime()
         );
 
-        // Frontend já envia em UTC, não precisa converter
-        Instant startInstant = filters.getAvailabilityStartDateTime() != null
-            ? filters.getAvailabilityStartDateTime().atZone(ZoneId.of("UTC")).toInstant()
-            : null;
-        Instant endInstant = filters.getAvailabilityEndDateTime() != null
-            ? filters.getAvailabilityEndDateTime().atZone(ZoneId.of("UTC")).toInstant()
-            : null;
+        AvailabilityWindow window = AvailabilityWindow.of(filters);
+        LOG.debug("Converted to Instants: start={}, end={}", window.start(), window.end());
 
-        LOG.debug("Converted to Instants: start={}, end={}", startInstant, endInstant);
+        String tsQuery = StudioTextQuery.toTsQuery(filters.getQ());
+        if (tsQuery != null) {
+            return searchStudiosRanked(pageable, filters, tsQuery, window);
+        }
 
-        return studioRepository.getStudioRoomPagination(
-            filters.getName(),
-            filters.getCity(),
-            filters.getRoomType(),
-            filters.getMinPrice(),
-            filters.getMaxPrice(),
-            startInstant,
-            endInstant,
-            filters.getOnlyFavorites(),
-            pageable
+        if (filters.hasOnlyFavoritesFilter()) {
+            // Favoritos dependem do usuário autenticado: não passam pelo cache
+            return studioRepository.searchStudioPage(searchCriteria(filters, window, null, currentLogin()), pageable);
+        }
+        String page = pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        return studioSearchCache.get(
+            StudioSearchKey.of("pagination", filters, window.start(), window.end(), page),
+            () -> studioRepository.searchStudioPage(searchCriteria(filters, window, null, null), pageable),
+            Page::getContent
         );
     }
 
-    public List<StudioListProjection> findStudiosKeyset(
-        String name,
-        String city,
-        String roomType,
-        BigDecimal minPrice,
-        BigDecimal maxPrice,
-        LocalDateTime availabilityStartDateTime,
-        LocalDateTime availabilityEndDateTime,
-        Long lastId,
-        int pageSize
+    /**
+     * Busca textual: página ordenada por relevância (a ordenação da requisição é ignorada).
+     */
+    private Page<StudioListProjection> searchStudiosRanked(
+        Pageable pageable,
+        StudioFilterDTO filters,
+        String tsQuery,
+        AvailabilityWindow window
     ) {
-        // Frontend já envia em UTC, não precisa converter
-        Instant startInstant = availabilityStartDateTime != null ? availabilityStartDateTime.atZone(ZoneId.of("UTC")).toInstant() : null;
-        Instant endInstant = availabilityEndDateTime != null ? availabilityEndDateTime.atZone(ZoneId.of("UTC")).toInstant() : null;
-
-        return studioRepository.getStudiosKeyset(name, city, roomType, minPrice, maxPrice, startInstant, endInstant, lastId, pageSize);
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (filters.hasOnlyFavoritesFilter()) {
+            // Favoritos dependem do usuário autenticado: não passam pelo cache
+            return studioRepository.searchStudioPage(searchCriteria(filters, window, tsQuery, currentLogin()), unsorted);
+        }
+        String page = unsorted.getPageNumber() + ":" + unsorted.getPageSize();
+        return studioSearchCache.get(
+            StudioSearchKey.of("ranked", filters, window.start(), window.end(), page),
+            () -> studioRepository.searchStudioPage(searchCriteria(filters, window, tsQuery, null), unsorted),
+            Page::getContent
+        );
     }
 
-    /**
-     * Busca detalhes completos do Studio com Rooms e suas imagens
-     * Implementação otimizada para evitar problema N+1
-     */
-    public Optional<StudioDetailProjection> getStudioDetail(Long id) {
-        // 1. Busca os dados básicos do studio
-        Optional<StudioBasicProjection> studioOpt = studioRepository.findStudioBasicDetailById(id);
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<StudioListProjection> getStudioRoomSlice(Pageable pageable, StudioFilterDTO filters) {
+        AvailabilityWindow window = AvailabilityWindow.of(filters);
 
-        if (studioOpt.isEmpty()) {
-            return Optional.empty();
+        if (filters.hasOnlyFavoritesFilter()) {
+            // Favoritos dependem do usuário autenticado: não passam pelo cache
+            return studioRepository.searchStudioSlice(searchCriteria(filters, window, null, currentLogin()), pageable);
         }
 
-        StudioBasicProjection studioData = studioOpt.get();
+        String page = pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        return studioSearchCache.get(
+            StudioSearchKey.of("slice", filters, window.start(), window.end(), page),
+            () -> studioRepository.searchStudioSlice(searchCriteria(filters, window, null, null), pageable),
+            Slice::getContent
+        );
+    }
 
-        // 2. Busca as rooms do studio
-        List<RoomProjection> rooms = studioRepository.findRoomsByStudioId(id);
+    @Override
+    @Transactional(readOnly = true)
+    public long countStudioRooms(StudioFilterDTO filters) {
+        AvailabilityWindow window = AvailabilityWindow.of(filters);
+        // O total não contém estúdios; a entrada é invalidada pelas regras de cidade e de janela
+        return studioSearchCache.<Long>get(
+            StudioSearchKey.of("count", filters, window.start(), window.end(), null),
+            () -> studioRepository.countStudios(searchCriteria(filters, window, null, null)),
+            count -> List.of()
+        );
+    }
 
-        if (rooms.isEmpty()) {
-            // Se não há rooms, retorna só os dados do studio
-            return Optional.of(createStudioDTO(studioData, rooms));
+    /**
+     * Critérios da busca dinâmica de estúdios. A disponibilidade é resolvida em memória quando a janela está
+     * no horizonte do índice; caso contrário, pelo anti-join com reservation.
+     */
+    private StudioSearchCriteria searchCriteria(StudioFilterDTO filters, AvailabilityWindow window, String tsQuery, String favoritesLogin) {
+        StudioSearchCriteria.Builder criteria = StudioSearchCriteria.builder()
+            .name(filters.getName())
+            .city(filters.getCity())
+            .roomType(filters.getRoomType())
+            .minPrice(filters.getMinPrice())
+            .maxPrice(filters.getMaxPrice())
+            .favoritesLogin(favoritesLogin)
+            .tsQuery(tsQuery);
+        Optional<Set<Long>> busyRoomIds = roomAvailabilityIndex.covers(window.start(), window.end())
+            ? roomAvailabilityIndex.findBusyRoomIds(window.start(), window.end(), MAX_BUSY_ROOM_IDS)
+            : Optional.empty();
+        if (busyRoomIds.isPresent()) {
+            criteria.busyRoomIds(busyRoomIds.get());
+        } else {
+            criteria.availability(window.start(), window.end());
         }
+        return criteria.build();
+    }
 
-        // 3. Busca todas as imagens das rooms de uma vez
-        List<Long> roomIds = rooms.stream().map(RoomProjection::getId).collect(Collectors.toList());
+    private static String currentLogin() {
+        return SecurityUtils.getCurrentUserLogin().orElse("");
+    }
 
-        List<RoomImageProjection> images = studioRepository.findImagesByRoomIds(roomIds);
+    @Override
+    @Transactional(readOnly = true)
+    public StudioFacetsDTO getStudioFacets(StudioFilterDTO filters) {
+        AvailabilityWindow window = AvailabilityWindow.of(filters);
+        if (filters.hasOnlyFavoritesFilter()) {
+            // Favoritos dependem do usuário autenticado: não passam pelo cache
+            return loadStudioFacets(filters, window, SecurityUtils.getCurrentUserLogin().orElse(""));
+        }
+        // A faceta de cidade ignora o filtro de cidade, então qualquer estúdio pode alterá-la: a cidade
+        // fica fora dos filtros da chave (que passa a casar com toda alteração de estúdio ou sala)
+        StudioFilterDTO keyFilters = StudioFilterDTO.builder()
+            .name(filters.getName())
+            .roomType(filters.getRoomType())
+            .minPrice(filters.getMinPrice())
+            .maxPrice(filters.getMaxPrice())
+            .build();
+        return studioSearchCache.get(
+            StudioSearchKey.of("facets", keyFilters, window.start(), window.end(), "city=" + filters.getCity()),
+            () -> loadStudioFacets(filters, window, null),
+            facets -> List.of()
+        );
+    }
 
-        // 4. Agrupa as imagens por room
-        Map<Long, List<RoomImageProjection>> imagesByRoom = images.stream().collect(Collectors.groupingBy(RoomImageProjection::getRoomId));
+    private StudioFacetsDTO loadStudioFacets(StudioFilterDTO filters, AvailabilityWindow window, String favoritesLogin) {
+        List<StudioFacetRowProjection> rows = studioRepository.searchStudioFacets(searchCriteria(filters, window, null, favoritesLogin));
+
+        List<BigDecimal> bounds = StudioRepository.FACET_PRICE_BUCKET_BOUNDS;
+        long[] priceCounts = new long[bounds.size() + 1];
+        StudioFacetsDTO facets = new StudioFacetsDTO();
+        for (StudioFacetRowProjection row : rows) {
+            // Bits de GROUPING(city, room_type, price_bucket): 1 indica coluna agregada
+            switch (row.getGrp()) {
+                case 0b011 -> {
+                    if (row.getCity() != null && row.getCityCount() > 0) {
+                        facets.getCities().add(new StudioFacetsDTO.FacetCountDTO(row.getCity(), row.getCityCount()));
+                    }
+                }
+                case 0b101 -> {
+                    if (row.getRoomType() != null && row.getRoomTypeCount() > 0) {
+                        facets.getRoomTypes().add(new StudioFacetsDTO.FacetCountDTO(row.getRoomType(), row.getRoomTypeCount()));
+                    }
+                }
+                case 0b110 -> {
+                    if (row.getPriceBucket() != null) {
+                        priceCounts[row.getPriceBucket()] = row.getPriceCount();
+                    }
+                }
+                case 0b111 -> {
+                    facets.setTotal(row.getAnyTimeCount());
+                    facets.setAvailable(window.start() != null ? row.getTotalCount() : null);
+                }
+                default -> LOG.warn("Unexpected facet grouping: {}", row.getGrp());
+            }
+        }
 
-        // 5. Associa as imagens às rooms
-        return Optional.of(createStudioDTO(studioData, rooms, imagesByRoom));
+        Comparator<StudioFacetsDTO.FacetCountDTO> byCountDesc = Comparator.comparingLong(StudioFacetsDTO.FacetCountDTO::getCount)
+            .reversed()
+            .thenComparing(StudioFacetsDTO.FacetCountDTO::getValue);
+        facets.getCities().sort(byCountDesc);
+        facets.getRoomTypes().sort(byCountDesc);
+        for (int i = 0; i < priceCounts.length; i++) {
+            facets
+                .getPriceBuckets()
+                .add(
+                    new StudioFacetsDTO.PriceBucketDTO(
+                        i > 0 ? bounds.get(i - 1) : null,
+                        i < bounds.size() ? bounds.get(i) : null,
+                        priceCounts[i]
+                    )
+                );
+        }
+        return facets;
     }
 
-    /**
-     * Cria um DTO completo do Studio com todas as relações
-     */
-    private StudioDetailProjection createStudioDTO(StudioBasicProjection studioData, List<RoomProjection> rooms) {
-        return createStudioDTO(studioData, rooms, Map.of());
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDTO<StudioListProjection> findStudiosKeyset(
+        StudioFilterDTO filters,
+        StudioSearchSort sort,
+        String cursor,
+        Long lastId,
+        int pageSize
+    ) {
+        AvailabilityWindow window = AvailabilityWindow.of(filters);
+        Instant start = window.start();
+        Instant end = window.end();
+        String page = sort + ":" + cursor + ":" + lastId + ":" + pageSize;
+        return studioSearchCache.get(
+            StudioSearchKey.of("keyset", filters, start, end, page),
+            () -> findStudiosKeysetPage(filters, sort, cursor, lastId, pageSize, start, end),
+            KeysetPageDTO::getContent
+        );
     }
 
-    /**
-     * Cria um DTO completo do Studio com todas as relações
-     */
-    private StudioDetailProjection createStudioDTO(
-        StudioBasicProjection studioData,
-        List<RoomProjection> rooms,
-        Map<Long, List<RoomImageProjection>> imagesByRoom
+    private KeysetPageDTO<StudioListProjection> findStudiosKeysetPage(
+        StudioFilterDTO filters,
+        StudioSearchSort sort,
+        String cursor,
+        Long lastId,
+        int pageSize,
+        Instant startInstant,
+        Instant endInstant
     ) {
-        // Cria o DTO do studio
-        StudioDetailDTO studioDTO = new StudioDetailDTO();
-
-        // Mapeia dados básicos do studio
-        studioDTO.setId(studioData.getId());
-        studioDTO.setName(studioData.getName());
-        studioDTO.setDescription(studioData.getDescription());
-        studioDTO.setAddress(studioData.getAddress());
-        studioDTO.setCity(studioData.getCity());
-        studioDTO.setState(studioData.getState());
-        studioDTO.setZipCode(studioData.getZipCode());
-        studioDTO.setLatitude(studioData.getLatitude());
-        studioDTO.setLongitude(studioData.getLongitude());
-        studioDTO.setPhone(studioData.getPhone());
-        studioDTO.setEmail(studioData.getEmail());
-        studioDTO.setWebsite(studioData.getWebsite());
-        studioDTO.setImage(studioData.getImage());
-        studioDTO.setActive(studioData.getActive());
-        studioDTO.setCreatedAt(studioData.getCreatedAt());
-        studioDTO.setUpdatedAt(studioData.getUpdatedAt());
-
-        // Mapeia owner se existir
-        if (studioData.getOwnerId() != null) {
-            StudioDetailDTO.OwnerDTO ownerDTO = new StudioDetailDTO.OwnerDTO();
-            ownerDTO.setId(studioData.getOwnerId());
-            studioDTO.setOwner(ownerDTO);
+        String filterHash = StudioSearchCursor.filterHash(
+            sort,
+            filters.getName(),
+            filters.getCity(),
+            filters.getRoomType(),
+            filters.getMinPrice(),
+            filters.getMaxPrice(),
+            startInstant,
+            endInstant
+        );
+        StudioSearchCursor after = cursor != null ? StudioSearchCursor.decode(cursor, sort, filterHash) : null;
+        // lastId sem cursor: compatibilidade com clientes da ordenação por id
+        Long afterId = after != null ? after.getId() : (sort == StudioSearchSort.ID ? lastId : null);
+
+        StudioSearchCriteria criteria = searchCriteria(filters, new AvailabilityWindow(startInstant, endInstant), null, null);
+        Object lastKey =
+            switch (sort) {
+                case MIN_PRICE -> after != null ? after.getKeyAsDecimal() : null;
+                case NAME -> after != null ? after.getKeyAsString() : null;
+                case ID -> null;
+                default -> throw new IllegalArgumentException("Unsupported sort for studio keyset search: " + sort);
+            };
+        // Um item a mais indica se existe próxima página
+        List<StudioListProjection> rows = studioRepository.searchStudiosAfter(criteria, sort.getParam(), lastKey, afterId, pageSize + 1);
+
+        if (rows.size() <= pageSize) {
+            return new KeysetPageDTO<>(rows, null);
         }
+        List<StudioListProjection> content = rows.subList(0, pageSize);
+        StudioListProjection last = content.get(pageSize - 1);
+        Object key =
+            switch (sort) {
+                case MIN_PRICE -> last.getMinPrice();
+                case NAME -> last.getName();
+                default -> null;
+            };
+        return new KeysetPageDTO<>(content, StudioSearchCursor.encode(sort, filterHash, last.getId(), key));
+    }
 
-        // Mapeia rooms e suas imagens
-        List<StudioDetailDTO.RoomDTO> roomDTOs = rooms
-            .stream()
-            .map(room -> createRoomDTO(room, imagesByRoom.getOrDefault(room.getId(), List.of())))
-            .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDTO<StudioNearbyProjection> findStudiosNearby(
+        double latitude,
+        double longitude,
+        double radiusKm,
+        StudioFilterDTO filters,
+        String cursor,
+        int pageSize
+    ) {
+        LOG.debug("Request to get Studios near ({}, {}) within {} km", latitude, longitude, radiusKm);
+        String filterHash = StudioSearchCursor.filterHash(
+            StudioSearchSort.DISTANCE,
+            latitude,
+            longitude,
+            radiusKm,
+            filters.getRoomType(),
+            filters.getMinPrice(),
+            filters.getMaxPrice()
+        );
+        StudioSearchCursor after = cursor != null ? StudioSearchCursor.decode(cursor, StudioSearchSort.DISTANCE, filterHash) : null;
+
+        StudioSearchCriteria criteria = StudioSearchCriteria.builder()
+            .roomType(filters.getRoomType())
+            .minPrice(filters.getMinPrice())
+            .maxPrice(filters.getMaxPrice())
+            .build();
+        List<StudioNearbyProjection> rows = studioRepository.searchStudiosNearby(
+            criteria,
+            latitude,
+            longitude,
+            radiusKm * 1000,
+            after != null ? after.getKeyAsDouble() : null,
+            after != null ? after.getId() : null,
+            pageSize + 1
+        );
 
-        studioDTO.setRooms(roomDTOs);
+        if (rows.size() <= pageSize) {
+            return new KeysetPageDTO<>(rows, null);
+        }
+        List<StudioNearbyProjection> content = rows.subList(0, pageSize);
+        StudioNearbyProjection last = content.get(pageSize - 1);
+        return new KeysetPageDTO<>(content, StudioSearchCursor.encode(StudioSearchSort.DISTANCE, filterHash, last.getId(), last.getDistance()));
+    }
 
-        return studioDTO;
+    @Override
+    // Sem transação própria: um acerto no cache não abre conexão; a consulta usa a transação do repositório
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<StudioDetailDocument> getStudioDetailDocument(Long id) {
+        return studioDetailCache.get(id, () -> studioRepository.findStudioDetailJsonById(id).map(StudioDetailDocument::of));
     }
 
-    /**
-     * Cria um DTO da Room com suas imagens
-     */
-    private StudioDetailDTO.RoomDTO createRoomDTO(RoomProjection roomData, List<RoomImageProjection> images) {
-        StudioDetailDTO.RoomDTO roomDTO = new StudioDetailDTO.RoomDTO();
-
-        // Mapeia dados da room
-        roomDTO.setId(roomData.getId());
-        roomDTO.setName(roomData.getName());
-        roomDTO.setDescription(roomData.getDescription());
-        roomDTO.setHourlyRate(roomData.getHourlyRate());
-        roomDTO.setCapacity(roomData.getCapacity());
-        roomDTO.setSoundproofed(roomData.getSoundproofed());
-        roomDTO.setAirConditioning(roomData.getAirConditioning());
-        roomDTO.setRoomType(roomData.getRoomType());
-        roomDTO.setActive(roomData.getActive());
-        roomDTO.setCreatedAt(roomData.getCreatedAt());
-        roomDTO.setUpdatedAt(roomData.getUpdatedAt());
-
-        // Mapeia imagens da room
-        List<StudioDetailDTO.RoomImageDTO> imageDTOs = images.stream().map(this::createRoomImageDTO).collect(Collectors.toList());
-
-        roomDTO.setRoomImages(imageDTOs);
-
-        return roomDTO;
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<StudioSuggestionDTO> suggestStudios(String query, int limit) {
+        return studioSuggestIndex.suggest(query, Math.max(1, Math.min(limit, StudioSuggestIndex.MAX_SUGGESTIONS)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportActiveStudios(OutputStream outputStream) throws IOException {
+        LOG.debug("Request to export active Studios");
+        long count = 0;
+        try (
+            Stream<String> studios = studioRepository.streamActiveStudioDetailJson();
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+        ) {
+            // A resposta é fechada pelo container; os documentos já vêm serializados do banco
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<String> iterator = studios.iterator();
+            while (iterator.hasNext()) {
+                generator.writeRawValue(iterator.next());
+                generator.writeRaw('\n');
+                if (++count % StudioRepository.EXPORT_FETCH_SIZE == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        LOG.debug("Exported {} active Studios", count);
+        return count;
     }
 
     /**
-     * Cria um DTO da RoomImage
+     * Janela de disponibilidade da busca em UTC; vazia quando ausente ou invertida.
      */
-    private StudioDetailDTO.RoomImageDTO createRoomImageDTO(RoomImageProjection imageData) {
-        StudioDetailDTO.RoomImageDTO imageDTO = new StudioDetailDTO.RoomImageDTO();
-
-        imageDTO.setId(imageData.getId());
-        imageDTO.setUrl(imageData.getUrl());
-        imageDTO.setAltText(imageData.getAltText());
-        imageDTO.setDisplayOrder(imageData.getDisplayOrder());
-        imageDTO.setActive(imageData.getActive());
-        imageDTO.setRoomId(imageData.getRoomId());
-
-        return imageDTO;
+    private record AvailabilityWindow(Instant start, Instant end) {
+        static final AvailabilityWindow NONE = new AvailabilityWindow(null, null);
+
+        static AvailabilityWindow of(StudioFilterDTO filters) {
+            if (!filters.hasAvailabilityFilter()) {
+                return NONE;
+            }
+            // Frontend já envia em UTC, não precisa converter
+            Instant start = filters.getAvailabilityStartDateTime().atZone(ZoneId.of("UTC")).toInstant();
+            Instant end = filters.getAvailabilityEndDateTime().atZone(ZoneId.of("UTC")).toInstant();
+            // Janela invertida não forma um intervalo válido: ignora o filtro de disponibilidade
+            return end.isBefore(start) ? NONE : new AvailabilityWindow(start, end);
+        }
     }
 }
@@ -0,0 +1,407 @@
+package com.slapp.service.notification;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.domain.Reservation;
+import com.slapp.domain.ReservationEvent;
+import com.slapp.domain.enumeration.ReservationEventType;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.ReservationEventRepository;
+import com.slapp.repository.ReservationRepository;
+import com.slapp.service.dto.ReservationDTO;
+import com.slapp.service.event.PendingReservationEvent;
+import com.slapp.service.event.ReservationDomainEvent;
+import com.slapp.service.mapper.ReservationMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Distribui aos proprietários, por Server-Sent Events, as reservas pendentes criadas e decididas em cada
+ * estúdio, no lugar da consulta periódica da lista de pendentes.
+ * <p>
+ * Os eventos vêm do outbox de reservas ({@link ReservationDomainEvent}), entregue a todas as instâncias:
+ * o proprietário conectado a qualquer instância recebe as reservas gravadas em qualquer outra. O id de
+ * cada evento SSE é a posição do evento no outbox, então uma conexão que volta com {@code Last-Event-ID},
+ * na mesma ou em outra instância, recebe do outbox os eventos do estúdio perdidos, ou um evento
+ * {@value #RESYNC_EVENT} quando são mais de {@code replay-size}, já foram removidos pela retenção ou o id
+ * não é uma posição do stream; nesse caso a lista precisa ser recarregada. O envio não bloqueia o relay:
+ * cada conexão tem uma fila limitada, esvaziada no executor de tarefas, e a conexão lenta que enche a
+ * fila é encerrada (o cliente retoma pelo {@code Last-Event-ID}).
+ */
+@Service
+public class PendingReservationEventHub {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PendingReservationEventHub.class);
+
+    public static final String SUBSCRIBERS_METER_NAME = "reservation.events.subscribers";
+    public static final String DROPPED_METER_NAME = "reservation.events.dropped";
+
+    static final String RESYNC_EVENT = "resync";
+
+    private static final Map<ReservationEventType, PendingReservationEvent.Type> EVENT_TYPES = new EnumMap<>(
+        Map.of(
+            ReservationEventType.CREATED,
+            PendingReservationEvent.Type.CREATED,
+            ReservationEventType.APPROVED,
+            PendingReservationEvent.Type.APPROVED,
+            ReservationEventType.REJECTED,
+            PendingReservationEvent.Type.REJECTED,
+            ReservationEventType.AUTO_CONFIRMED,
+            PendingReservationEvent.Type.AUTO_CONFIRMED
+        )
+    );
+
+    private final ReservationRepository reservationRepository;
+
+    private final ReservationEventRepository reservationEventRepository;
+
+    private final ReservationMapper reservationMapper;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.PendingReservationEvents properties;
+
+    // Maior posição do outbox recebida pelo ouvinte
+    private long position = -1;
+
+    private final Map<Long, StudioChannel> channels = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter droppedCounter;
+
+    public PendingReservationEventHub(
+        ReservationRepository reservationRepository,
+        ReservationEventRepository reservationEventRepository,
+        ReservationMapper reservationMapper,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.reservationEventRepository = reservationEventRepository;
+        this.reservationMapper = reservationMapper;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = applicationProperties.getPendingReservationEvents();
+        Gauge.builder(SUBSCRIBERS_METER_NAME, subscriberCount, AtomicInteger::get)
+            .description("Open pending reservation event streams")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder(DROPPED_METER_NAME)
+            .description("Pending reservation event streams closed because the client did not keep up")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Abre o stream de eventos do estúdio, retomando após {@code lastEventId} quando informado.
+     *
+     * @return vazio quando a instância atingiu o limite de conexões.
+     */
+    public Optional<SseEmitter> subscribe(Long studioId, String lastEventId) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            LOG.debug("Refusing event stream of studio {}: subscriber limit reached", studioId);
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(properties.getTimeoutSeconds()));
+        StudioChannel channel = channels.computeIfAbsent(studioId, id -> new StudioChannel(studioId));
+        Subscriber subscriber = new Subscriber(emitter, channel);
+        emitter.onCompletion(subscriber::unregister);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        try {
+            channel.subscribe(subscriber, lastEventId);
+        } catch (RuntimeException e) {
+            subscriber.unregister();
+            throw e;
+        }
+        return Optional.of(emitter);
+    }
+
+    @EventListener
+    public void onReservationEvent(ReservationDomainEvent event) {
+        // Entrega pelo menos uma vez: posições já vistas são ignoradas
+        if (event.position() <= position) {
+            return;
+        }
+        position = event.position();
+        PendingReservationEvent.Type type = EVENT_TYPES.get(event.type());
+        // Sem conexões, nenhum evento é enfileirado: a retomada lê o outbox
+        if (type == null || channels.isEmpty() || !isPendingDecision(type, event.status())) {
+            return;
+        }
+        try {
+            Optional<Notification> notification = transactionTemplate.execute(status ->
+                reservationRepository
+                    .findById(event.reservationId())
+                    .map(reservation -> toNotification(event.position(), type, reservation))
+            );
+            StudioChannel channel = notification.map(Notification::studioId).map(channels::get).orElse(null);
+            if (channel != null) {
+                channel.publish(notification.get());
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not publish {} of reservation {}: {}", type, event.reservationId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Comentário periódico em cada conexão: mantém proxies abertos e detecta clientes desconectados.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.pending-reservation-events.heartbeat-seconds:25}",
+        initialDelayString = "${application.pending-reservation-events.heartbeat-seconds:25}",
+        timeUnit = TimeUnit.SECONDS
+    )
+    public void sendHeartbeats() {
+        channels.values().forEach(StudioChannel::heartbeat);
+    }
+
+    /**
+     * Criações interessam apenas quando a reserva foi criada pendente; as decisões, sempre.
+     */
+    private static boolean isPendingDecision(PendingReservationEvent.Type type, ReservationStatus status) {
+        return type != PendingReservationEvent.Type.CREATED || ReservationStatus.PENDING.equals(status);
+    }
+
+    private Notification toNotification(long eventPosition, PendingReservationEvent.Type type, Reservation reservation) {
+        Long studioId = reservation.getRoom() != null && reservation.getRoom().getStudio() != null
+            ? reservation.getRoom().getStudio().getId()
+            : null;
+        return new Notification(eventPosition, studioId, type.eventName(), reservationMapper.toDto(reservation));
+    }
+
+    /**
+     * Posição de um {@code Last-Event-ID}, ou -1 quando não é uma posição do stream.
+     */
+    private static long parsePosition(String lastEventId) {
+        try {
+            long parsed = Long.parseLong(lastEventId.trim());
+            return parsed >= 0 ? parsed : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Evento de um estúdio, identificado pela posição no outbox; posição 0 no {@value #RESYNC_EVENT}.
+     */
+    private record Notification(long position, Long studioId, String name, ReservationDTO reservation) {}
+
+    /**
+     * Eventos perdidos até a posição {@code upTo} do outbox.
+     */
+    private record Replay(long upTo, List<Notification> missed) {}
+
+    /**
+     * Conexões abertas de um estúdio; a publicação e a retomada são serializadas pelo monitor do canal.
+     */
+    private final class StudioChannel {
+
+        private final Long studioId;
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+        StudioChannel(Long studioId) {
+            this.studioId = studioId;
+        }
+
+        synchronized void publish(Notification notification) {
+            subscribers.forEach(subscriber -> subscriber.offer(notification));
+        }
+
+        /**
+         * Registra a conexão e enfileira a retomada na mesma seção crítica da publicação. A retomada lê do
+         * outbox os eventos do estúdio até a maior posição já sequenciada, e a conexão ignora as entregas ao
+         * vivo até essa posição: os eventos ainda não entregues a esta instância não se perdem nem se repetem.
+         */
+        synchronized void subscribe(Subscriber subscriber, String lastEventId) {
+            subscribers.add(subscriber);
+            if (lastEventId == null) {
+                return;
+            }
+            long lastPosition = parsePosition(lastEventId);
+            Optional<Replay> replay = lastPosition < 0 ? Optional.empty() : findMissed(lastPosition);
+            if (replay.isEmpty()) {
+                subscriber.offer(new Notification(0, studioId, RESYNC_EVENT, null));
+                return;
+            }
+            subscriber.skipUpTo(Math.max(lastPosition, replay.get().upTo()));
+            replay.get().missed().forEach(subscriber::offer);
+        }
+
+        /**
+         * Eventos do estúdio com posição maior que {@code after}, ou vazio quando não podem ser retomados:
+         * posição de fora do stream, removida pela retenção ou mais de {@code replay-size} eventos.
+         */
+        private Optional<Replay> findMissed(long after) {
+            return transactionTemplate.execute(status -> {
+                long first = reservationEventRepository.findMinPosition().orElse(1L);
+                long last = reservationEventRepository.findMaxPosition().orElse(0L);
+                if (after < first - 1 || after > last) {
+                    return Optional.empty();
+                }
+                List<ReservationEvent> events = reservationEventRepository.findStudioEventsBetween(
+                    studioId,
+                    after,
+                    last,
+                    EVENT_TYPES.keySet(),
+                    PageRequest.of(0, properties.getReplaySize() + 1)
+                );
+                if (events.size() > properties.getReplaySize()) {
+                    return Optional.empty();
+                }
+                Map<Long, Reservation> reservations = reservationRepository
+                    .findAllById(events.stream().map(ReservationEvent::getReservationId).distinct().toList())
+                    .stream()
+                    .collect(Collectors.toMap(Reservation::getId, Function.identity()));
+                List<Notification> missed = new ArrayList<>();
+                for (ReservationEvent event : events) {
+                    PendingReservationEvent.Type type = EVENT_TYPES.get(event.getEventType());
+                    Reservation reservation = reservations.get(event.getReservationId());
+                    if (reservation != null && isPendingDecision(type, event.getStatus())) {
+                        missed.add(toNotification(event.getPosition(), type, reservation));
+                    }
+                }
+                return Optional.of(new Replay(last, missed));
+            });
+        }
+
+        void unsubscribe(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+        }
+
+        void heartbeat() {
+            subscribers.forEach(subscriber -> subscriber.offer(null));
+        }
+    }
+
+    /**
+     * Conexão SSE com fila limitada; o envio ocorre no executor de tarefas, uma drenagem por vez.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final StudioChannel channel;
+
+        // Optional vazio na fila representa o heartbeat
+        private final ArrayBlockingQueue<Optional<Notification>> queue = new ArrayBlockingQueue<>(properties.getSubscriberQueueSize());
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean registered = new AtomicBoolean(true);
+
+        // Posição até a qual a conexão já recebeu (ou recebeu da retomada) os eventos
+        private volatile long skipUpTo = -1;
+
+        Subscriber(SseEmitter emitter, StudioChannel channel) {
+            this.emitter = emitter;
+            this.channel = channel;
+        }
+
+        void skipUpTo(long lastPosition) {
+            skipUpTo = lastPosition;
+        }
+
+        void offer(Notification notification) {
+            if (!registered.get() || isAlreadyReceived(notification)) {
+                return;
+            }
+            if (!queue.offer(Optional.ofNullable(notification))) {
+                LOG.debug("Closing a slow pending reservation event stream");
+                droppedCounter.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                taskExecutor.execute(this::drain);
+            }
+        }
+
+        private boolean isAlreadyReceived(Notification notification) {
+            return notification != null && notification.reservation() != null && notification.position() <= skipUpTo;
+        }
+
+        private void drain() {
+            do {
+                Optional<Notification> next;
+                while ((next = queue.poll()) != null) {
+                    if (!send(next)) {
+                        close();
+                        queue.clear();
+                        break;
+                    }
+                }
+                draining.set(false);
+                // Eventos enfileirados depois do último poll e antes de liberar a drenagem
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private boolean send(Optional<Notification> next) {
+            try {
+                if (next.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (next.get().reservation() == null) {
+                    emitter.send(SseEmitter.event().name(next.get().name()).data("{}", MediaType.APPLICATION_JSON));
+                } else {
+                    Notification notification = next.get();
+                    emitter.send(
+                        SseEmitter.event()
+                            .id(Long.toString(notification.position()))
+                            .name(notification.name())
+                            .data(notification.reservation(), MediaType.APPLICATION_JSON)
+                    );
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                LOG.debug("Pending reservation event stream closed: {}", e.getMessage());
+                return false;
+            }
+        }
+
+        void close() {
+            unregister();
+            emitter.complete();
+        }
+
+        void unregister() {
+            if (registered.compareAndSet(true, false)) {
+                channel.unsubscribe(this);
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.slapp.service.outbox;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.repository.ReservationEventRepository;
+import com.slapp.service.event.ReservationDomainEvent;
+import com.slapp.service.scheduler.ClusterJobCoordinator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Entrega, em ordem, os eventos do outbox de reservas gravados pelo
+ * {@link com.slapp.service.impl.ReservationServiceImpl} na transação de cada alteração.
+ * <p>
+ * A instância eleita sequenciadora atribui as posições aos eventos confirmados, em ordem de id; as
+ * alterações de uma mesma reserva são serializadas pelo lock da linha, então a ordem das posições
+ * respeita a ordem das alterações de cada reserva. Cada instância lê os eventos sequenciados a partir
+ * do seu cursor e os publica como {@link ReservationDomainEvent} para os ouvintes locais. O cursor
+ * começa na maior posição existente na inicialização e só avança depois que os ouvintes tratam o
+ * evento: um evento que falha é repetido na próxima rodada, sem que os seguintes passem à frente, e é
+ * descartado (com log de erro) depois de {@code max-dispatch-attempts} tentativas.
+ * <p>
+ * Consumidores externos leem o stream a partir de uma posição pelo endpoint {@code /management/events}.
+ * Os eventos entregues são mantidos por {@code retention-days} dias.
+ */
+@Service
+public class ReservationEventRelay {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReservationEventRelay.class);
+
+    public static final String DISPATCHED_METER_NAME = "reservation.outbox.dispatched";
+    public static final String DISCARDED_METER_NAME = "reservation.outbox.discarded";
+
+    static final String SEQUENCER_ROLE = "reservation-outbox-sequencer";
+
+    static final String RETENTION_JOB = "reservation-outbox-retention";
+
+    /**
+     * Maior quantidade de eventos de uma leitura do stream.
+     */
+    public static final int MAX_READ_SIZE = 1000;
+
+    private final ReservationEventRepository reservationEventRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ClusterJobCoordinator jobCoordinator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.ReservationOutbox properties;
+
+    private final Counter dispatchedCounter;
+
+    private final Counter discardedCounter;
+
+    // Posição do último evento entregue nesta instância; -1 até a inicialização
+    private volatile long dispatchedPosition = -1;
+
+    // Tentativas que falharam para o evento seguinte ao cursor
+    private int failedAttempts;
+
+    public ReservationEventRelay(
+        ReservationEventRepository reservationEventRepository,
+        ApplicationEventPublisher eventPublisher,
+        ClusterJobCoordinator jobCoordinator,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.reservationEventRepository = reservationEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.jobCoordinator = jobCoordinator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.properties = applicationProperties.getReservationOutbox();
+        this.dispatchedCounter = Counter.builder(DISPATCHED_METER_NAME)
+            .baseUnit("events")
+            .description("Reservation outbox events dispatched to the listeners of this instance")
+            .register(meterRegistry);
+        this.discardedCounter = Counter.builder(DISCARDED_METER_NAME)
+            .baseUnit("events")
+            .description("Reservation outbox events discarded after the maximum dispatch attempts")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Posiciona o cursor no fim do stream e candidata a instância a sequenciadora.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        dispatchedPosition = readOnlyTransactionTemplate.execute(status -> reservationEventRepository.findMaxPosition().orElse(0L));
+        LOG.debug("Dispatching reservation events after position {}", dispatchedPosition);
+        jobCoordinator.electLeader(SEQUENCER_ROLE, () -> LOG.info("Sequencing reservation outbox events"));
+    }
+
+    @Scheduled(
+        fixedDelayString = "${application.reservation-outbox.poll-interval-ms:1000}",
+        initialDelayString = "${application.reservation-outbox.poll-interval-ms:1000}"
+    )
+    public synchronized void relay() {
+        if (dispatchedPosition < 0) {
+            return;
+        }
+        if (jobCoordinator.isLeader(SEQUENCER_ROLE)) {
+            sequence();
+        }
+        dispatch();
+    }
+
+    /**
+     * Posição do último evento entregue aos ouvintes desta instância; -1 antes da inicialização.
+     */
+    public long getDispatchedPosition() {
+        return dispatchedPosition;
+    }
+
+    /**
+     * Eventos com posição maior que {@code position}, no máximo {@link #MAX_READ_SIZE}.
+     */
+    public List<ReservationDomainEvent> findEventsAfter(long position, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_READ_SIZE);
+        return readOnlyTransactionTemplate.execute(status ->
+            reservationEventRepository
+                .findSequencedAfter(position, PageRequest.of(0, limit))
+                .stream()
+                .map(ReservationDomainEvent::of)
+                .toList()
+        );
+    }
+
+    /**
+     * Remove os eventos entregues há mais de {@code retention-days} dias, a cada hora, em uma única
+     * instância do cluster.
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    public void removeExpiredEvents() {
+        jobCoordinator.runExclusively(RETENTION_JOB, () -> {
+            Instant cutoff = Instant.now().minus(Duration.ofDays(properties.getRetentionDays()));
+            Integer deleted = transactionTemplate.execute(status -> reservationEventRepository.deleteSequencedBefore(cutoff));
+            LOG.debug("Removed {} reservation events that occurred before {}", deleted, cutoff);
+        });
+    }
+
+    private void sequence() {
+        try {
+            Integer sequenced;
+            do {
+                sequenced = transactionTemplate.execute(status -> reservationEventRepository.assignPositions(properties.getBatchSize()));
+            } while (sequenced != null && sequenced == properties.getBatchSize());
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância sequenciou na mesma rodada (troca de liderança): a próxima rodada continua
+            LOG.debug("Reservation events sequenced concurrently: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch() {
+        List<ReservationDomainEvent> events;
+        do {
+            events = findEventsAfter(dispatchedPosition, properties.getBatchSize());
+            for (ReservationDomainEvent event : events) {
+                if (!deliver(event)) {
+                    return;
+                }
+                dispatchedPosition = event.position();
+            }
+        } while (events.size() == Math.min(properties.getBatchSize(), MAX_READ_SIZE));
+    }
+
+    /**
+     * @return se o cursor pode avançar além do evento.
+     */
+    private boolean deliver(ReservationDomainEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+            dispatchedCounter.increment();
+            failedAttempts = 0;
+            return true;
+        } catch (RuntimeException e) {
+            failedAttempts++;
+            if (failedAttempts < properties.getMaxDispatchAttempts()) {
+                LOG.warn("Could not dispatch reservation event {} (attempt {}): {}", event.position(), failedAttempts, e.getMessage());
+                return false;
+            }
+            LOG.error("Discarding reservation event {} after {} attempts", event.position(), failedAttempts, e);
+            discardedCounter.increment();
+            failedAttempts = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.slapp.service.pricing;
+
+import com.slapp.domain.SpecialPrice;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabela de preços de uma sala compilada em uma grade semanal imutável: o valor por hora, em centavos,
+ * de cada slot de {@value #SLOT_MINUTES} minutos da semana, de segunda-feira 00:00 a domingo 24:00 em UTC
+ * (o fuso dos slots do calendário de reservas).
+ * <p>
+ * Cada slot parte do valor por hora da sala; os preços especiais ativos substituem o valor nos slots
+ * cujo início está em [startTime, endTime): sem horário, o dia todo; sem dia da semana, todos os dias;
+ * com endTime não posterior ao startTime, até o horário no dia seguinte. Os preços de um dia da semana
+ * prevalecem sobre os de todos os dias e, entre preços do mesmo tipo, prevalece o de maior id.
+ */
+public final class PriceSchedule implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int SLOT_MINUTES = 15;
+
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;
+
+    private static final long SLOT_SECONDS = SLOT_MINUTES * 60L;
+
+    private static final long SECONDS_PER_HOUR = 3600L;
+
+    // O epoch (1970-01-01) é uma quinta-feira: slots entre a segunda-feira anterior e o epoch
+    private static final long EPOCH_SLOT_OFFSET = (long) (DayOfWeek.THURSDAY.getValue() - 1) * SLOTS_PER_DAY;
+
+    private final Long roomId;
+
+    private final int[] hourlyCents;
+
+    private PriceSchedule(Long roomId, int[] hourlyCents) {
+        this.roomId = roomId;
+        this.hourlyCents = hourlyCents;
+    }
+
+    /**
+     * Compila a tabela da sala a partir do valor por hora e dos preços especiais ativos, em ordem de id.
+     */
+    public static PriceSchedule compile(Long roomId, BigDecimal hourlyRate, List<SpecialPrice> specialPrices) {
+        int[] hourlyCents = new int[SLOTS_PER_WEEK];
+        Arrays.fill(hourlyCents, toCents(hourlyRate));
+        for (SpecialPrice specialPrice : specialPrices) {
+            if (Boolean.TRUE.equals(specialPrice.getActive()) && specialPrice.getDayOfWeek() == null) {
+                apply(hourlyCents, specialPrice);
+            }
+        }
+        for (SpecialPrice specialPrice : specialPrices) {
+            if (Boolean.TRUE.equals(specialPrice.getActive()) && specialPrice.getDayOfWeek() != null) {
+                apply(hourlyCents, specialPrice);
+            }
+        }
+        return new PriceSchedule(roomId, hourlyCents);
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Preço de [start, end) em centavos: soma, slot a slot, do valor por hora proporcional aos segundos
+     * do intervalo no slot, arredondada uma única vez no final. Frações de segundo são ignoradas.
+     */
+    public long quoteCents(Instant start, Instant end) {
+        long from = start.getEpochSecond();
+        long to = end.getEpochSecond();
+        // Centavos × segundos, dividido por 3600 no final
+        long total = 0;
+        while (from < to) {
+            long slot = Math.floorDiv(from, SLOT_SECONDS);
+            long slotEnd = Math.min((slot + 1) * SLOT_SECONDS, to);
+            total += hourlyCents[(int) Math.floorMod(slot + EPOCH_SLOT_OFFSET, SLOTS_PER_WEEK)] * (slotEnd - from);
+            from = slotEnd;
+        }
+        return (total + SECONDS_PER_HOUR / 2) / SECONDS_PER_HOUR;
+    }
+
+    /**
+     * Preço de [start, end) em reais, com duas casas decimais.
+     */
+    public BigDecimal quote(Instant start, Instant end) {
+        return BigDecimal.valueOf(quoteCents(start, end), 2);
+    }
+
+    private static void apply(int[] hourlyCents, SpecialPrice specialPrice) {
+        int cents = toCents(specialPrice.getPrice());
+        int startMinute = minuteOfDay(specialPrice.getStartTime(), 0);
+        int endMinute = minuteOfDay(specialPrice.getEndTime(), 24 * 60);
+        if (endMinute <= startMinute) {
+            endMinute += 24 * 60;
+        }
+        // Slots com início em [startMinute, endMinute)
+        int startSlot = (startMinute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        int endSlot = (endMinute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        int firstDay = specialPrice.getDayOfWeek() == null ? 0 : specialPrice.getDayOfWeek().getValue() - 1;
+        int lastDay = specialPrice.getDayOfWeek() == null ? 6 : firstDay;
+        for (int day = firstDay; day <= lastDay; day++) {
+            fill(hourlyCents, day * SLOTS_PER_DAY + startSlot, day * SLOTS_PER_DAY + endSlot, cents);
+        }
+    }
+
+    /**
+     * Preenche os slots [from, to) da semana; o domingo continua na segunda-feira seguinte.
+     */
+    private static void fill(int[] hourlyCents, int from, int to, int cents) {
+        for (int slot = from; slot < to; slot++) {
+            hourlyCents[slot % SLOTS_PER_WEEK] = cents;
+        }
+    }
+
+    /**
+     * Minuto do dia do horário, arredondado para cima; {@code defaultMinute} sem horário.
+     */
+    private static int minuteOfDay(LocalTime time, int defaultMinute) {
+        if (time == null) {
+            return defaultMinute;
+        }
+        return time.getHour() * 60 + time.getMinute() + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+    }
+
+    private static int toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+}
@@ -0,0 +1,124 @@
+package com.slapp.service.pricing;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.repository.RoomRepository;
+import com.slapp.repository.SpecialPriceRepository;
+import com.slapp.service.dto.PriceQuoteDTO;
+import com.slapp.service.event.RoomChangedEvent;
+import com.slapp.service.event.SpecialPriceChangedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Calcula o preço das reservas no servidor a partir da {@link PriceSchedule} de cada sala.
+ * <p>
+ * A tabela compilada fica na região {@link #CACHE_NAME} e é removida, após o commit, por qualquer
+ * alteração da sala ou dos seus preços especiais feita nesta instância; a próxima cotação a recompila com
+ * duas consultas. Alterações de outras instâncias só chegam pelo TTL da região, então quem rejeita um preço
+ * pela tabela em cache deve antes confirmá-lo com {@link #refreshSchedule}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PricingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PricingService.class);
+
+    public static final String CACHE_NAME = "roomPriceSchedule";
+
+    /**
+     * Maior duração de uma cotação (31 dias).
+     */
+    public static final Duration MAX_QUOTE_DURATION = Duration.ofDays(31);
+
+    private final RoomRepository roomRepository;
+
+    private final SpecialPriceRepository specialPriceRepository;
+
+    private final CacheManager cacheManager;
+
+    private final boolean enabled;
+
+    public PricingService(
+        RoomRepository roomRepository,
+        SpecialPriceRepository specialPriceRepository,
+        CacheManager cacheManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.roomRepository = roomRepository;
+        this.specialPriceRepository = specialPriceRepository;
+        this.cacheManager = cacheManager;
+        this.enabled = applicationProperties.getPriceScheduleCache().isEnabled();
+    }
+
+    /**
+     * Preço da sala para [start, end), com no máximo {@link #MAX_QUOTE_DURATION}.
+     *
+     * @return vazio quando a sala não existe.
+     */
+    public Optional<PriceQuoteDTO> quote(Long roomId, Instant start, Instant end) {
+        LOG.debug("Request to quote Room : {} from {} to {}", roomId, start, end);
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(MAX_QUOTE_DURATION) > 0) {
+            throw new IllegalArgumentException("Quote range must be positive and at most " + MAX_QUOTE_DURATION.toDays() + " days");
+        }
+        return findSchedule(roomId).map(schedule -> new PriceQuoteDTO(roomId, start, end, schedule.quote(start, end)));
+    }
+
+    /**
+     * Tabela de preços da sala, do cache ou compilada na hora.
+     *
+     * @return vazio quando a sala não existe.
+     */
+    public Optional<PriceSchedule> findSchedule(Long roomId) {
+        Cache<Object, Object> cache = cache();
+        if (cache != null && cache.get(roomId) instanceof PriceSchedule cached) {
+            return Optional.of(cached);
+        }
+        Optional<PriceSchedule> schedule = roomRepository
+            .findHourlyRateById(roomId)
+            .map(hourlyRate -> PriceSchedule.compile(roomId, hourlyRate, specialPriceRepository.findActiveByRoomId(roomId)));
+        if (cache != null) {
+            schedule.ifPresent(compiled -> cache.put(roomId, compiled));
+        }
+        return schedule;
+    }
+
+    /**
+     * Tabela de preços da sala recompilada do banco, substituindo a do cache. Usado para confirmar uma
+     * divergência de preço, que pode vir de uma tabela desatualizada por alteração em outra instância.
+     *
+     * @return vazio quando a sala não existe.
+     */
+    public Optional<PriceSchedule> refreshSchedule(Long roomId) {
+        evict(roomId);
+        return findSchedule(roomId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        evict(event.roomId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpecialPriceChanged(SpecialPriceChangedEvent event) {
+        evict(event.roomId());
+    }
+
+    private void evict(Long roomId) {
+        Cache<Object, Object> cache = cache();
+        if (cache != null && roomId != null && cache.remove(roomId)) {
+            LOG.debug("Evicted price schedule of room : {}", roomId);
+        }
+    }
+
+    private Cache<Object, Object> cache() {
+        return enabled ? cacheManager.getCache(CACHE_NAME) : null;
+    }
+}
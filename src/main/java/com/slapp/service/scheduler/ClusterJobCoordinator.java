@@ -0,0 +1,250 @@
+package com.slapp.service.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Coordena as tarefas agendadas entre as instâncias da aplicação com advisory locks do Postgres.
+ * <p>
+ * {@link #runExclusively} executa uma rodada de um job somente se nenhuma outra instância estiver
+ * executando o mesmo job; {@link #electLeader} elege uma instância para um papel de longa duração.
+ * Os locks são de sessão e ficam em conexões próprias, fora do pool: o job usa as conexões do pool
+ * normalmente, e a queda da instância (ou da conexão) libera o lock no banco, sem prazo a expirar.
+ * A liderança é renovada a cada {@link #LEASE_RENEWAL_MS} verificando a conexão do lock; uma
+ * instância sem liderança tenta adquiri-la na mesma rodada.
+ * <p>
+ * Métricas por job: {@value #JOB_RUN_METER_NAME} (duração e contagem por resultado),
+ * {@value #JOB_SKIPPED_METER_NAME} (rodadas puladas por o lock estar com outra instância) e
+ * {@value #JOB_LAST_SUCCESS_METER_NAME}; por papel: {@value #LEADER_METER_NAME}.
+ */
+@Service
+public class ClusterJobCoordinator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterJobCoordinator.class);
+
+    public static final String JOB_RUN_METER_NAME = "scheduled.job.run";
+    public static final String JOB_SKIPPED_METER_NAME = "scheduled.job.skipped";
+    public static final String JOB_LAST_SUCCESS_METER_NAME = "scheduled.job.last-success";
+    public static final String LEADER_METER_NAME = "cluster.leader";
+
+    static final long LEASE_RENEWAL_MS = 15_000;
+
+    // Segundos para considerar inválida a conexão de um lock de liderança
+    private static final int LEASE_VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSource lockDataSource;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicLong> lastSuccessByJob = new ConcurrentHashMap<>();
+
+    private final Map<String, Leadership> leaderships = new ConcurrentHashMap<>();
+
+    public ClusterJobCoordinator(DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+        this.lockDataSource = dataSourceProperties.initializeDataSourceBuilder().type(SimpleDriverDataSource.class).build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Executa uma rodada do job se o lock do job estiver livre no cluster.
+     *
+     * @return {@code false} quando outra instância está executando o job e a rodada foi pulada.
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        try (Connection connection = lockDataSource.getConnection()) {
+            long key = lockKey("job:" + jobName);
+            if (!tryLock(connection, key)) {
+                LOG.debug("Skipping job {}: running on another instance", jobName);
+                Counter.builder(JOB_SKIPPED_METER_NAME)
+                    .description("Scheduled job runs skipped because another instance held the job lock")
+                    .tag("job", jobName)
+                    .register(meterRegistry)
+                    .increment();
+                return false;
+            }
+            try {
+                run(jobName, job);
+            } finally {
+                unlock(connection, key);
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not acquire the lock of job " + jobName, e);
+        }
+    }
+
+    /**
+     * Candidata esta instância ao papel; {@code onElected} executa a cada vez que ela assume a liderança,
+     * inclusive agora, se o papel estiver livre.
+     */
+    public void electLeader(String role, Runnable onElected) {
+        Leadership leadership = leaderships.computeIfAbsent(role, name -> new Leadership(name, onElected));
+        leadership.renew();
+    }
+
+    public boolean isLeader(String role) {
+        Leadership leadership = leaderships.get(role);
+        return leadership != null && leadership.isLeader();
+    }
+
+    @Scheduled(fixedDelay = LEASE_RENEWAL_MS, initialDelay = LEASE_RENEWAL_MS)
+    public void renewLeaderships() {
+        leaderships.values().forEach(Leadership::renew);
+    }
+
+    @PreDestroy
+    public void releaseLeaderships() {
+        leaderships.values().forEach(Leadership::release);
+    }
+
+    private void run(String jobName, Runnable job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            job.run();
+            outcome = "success";
+            lastSuccess(jobName).set(System.currentTimeMillis() / 1000);
+        } finally {
+            sample.stop(
+                Timer.builder(JOB_RUN_METER_NAME)
+                    .description("Scheduled job runs executed by this instance")
+                    .tag("job", jobName)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+            );
+        }
+    }
+
+    private AtomicLong lastSuccess(String jobName) {
+        return lastSuccessByJob.computeIfAbsent(jobName, name -> {
+            AtomicLong epochSeconds = new AtomicLong();
+            Gauge.builder(JOB_LAST_SUCCESS_METER_NAME, epochSeconds, AtomicLong::get)
+                .description("Epoch second of the last successful run of the scheduled job on this instance")
+                .baseUnit("seconds")
+                .tag("job", name)
+                .register(meterRegistry);
+            return epochSeconds;
+        });
+    }
+
+    /**
+     * Chave estável de 64 bits do advisory lock de um nome.
+     */
+    static long lockKey(String name) {
+        return UUID.nameUUIDFromBytes(("slapp:" + name).getBytes(StandardCharsets.UTF_8)).getMostSignificantBits();
+    }
+
+    private static boolean tryLock(Connection connection, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, key);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, key);
+            statement.execute();
+        }
+    }
+
+    /**
+     * Liderança de um papel: a conexão que segura o lock fica aberta enquanto esta instância é a líder.
+     */
+    private final class Leadership {
+
+        private final String role;
+        private final long key;
+        private final Runnable onElected;
+
+        private Connection connection;
+
+        Leadership(String role, Runnable onElected) {
+            this.role = role;
+            this.key = lockKey("leader:" + role);
+            this.onElected = onElected;
+            Gauge.builder(LEADER_METER_NAME, this, leadership -> leadership.isLeader() ? 1 : 0)
+                .description("Whether this instance holds the leadership of the role")
+                .tag("role", role)
+                .register(meterRegistry);
+        }
+
+        synchronized boolean isLeader() {
+            return connection != null;
+        }
+
+        synchronized void renew() {
+            if (connection != null) {
+                if (isValid(connection)) {
+                    return;
+                }
+                LOG.warn("Lost the leadership of {}: lock connection is no longer valid", role);
+                release();
+            }
+            Connection candidate = null;
+            try {
+                candidate = lockDataSource.getConnection();
+                if (!tryLock(candidate, key)) {
+                    candidate.close();
+                    return;
+                }
+            } catch (SQLException e) {
+                LOG.warn("Could not try the leadership of {}: {}", role, e.getMessage());
+                closeQuietly(candidate);
+                return;
+            }
+            connection = candidate;
+            LOG.info("Elected leader of {}", role);
+            try {
+                onElected.run();
+            } catch (RuntimeException e) {
+                LOG.error("Error while taking the leadership of {}", role, e);
+            }
+        }
+
+        synchronized void release() {
+            closeQuietly(connection);
+            connection = null;
+        }
+
+        private static boolean isValid(Connection connection) {
+            try {
+                return connection.isValid(LEASE_VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private static void closeQuietly(Connection connection) {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOG.debug("Could not close a lock connection: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.slapp.service.scheduler;
+
+import com.slapp.domain.DelayedTask;
+import com.slapp.domain.enumeration.DelayedTaskType;
+import com.slapp.repository.DelayedTaskRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Executa tarefas no instante exato do seu vencimento, sem consultar o banco periodicamente.
+ * <p>
+ * As tarefas ficam em uma {@link TimingWheel} em memória (ticks de 1 segundo) e, para sobreviver a
+ * reinícios, na tabela delayed_task, gravada na mesma transação que agenda a tarefa. Cada instância executa
+ * as tarefas que agendou; a instância eleita para {@link #RECOVERY_ROLE} recarrega a tabela inteira ao
+ * assumir a liderança e, a cada {@code recovery-interval-ms}, coloca na sua roda as tarefas vencidas há
+ * mais de {@link #RECOVERY_GRACE}: são as de instâncias paradas depois da eleição, que nenhuma outra
+ * instância carregaria. A execução chama o tratador registrado para o tipo no executor de tarefas e, em
+ * caso de sucesso, remove a linha; em caso de falha, a linha e a tarefa são adiadas por {@link #RETRY_DELAY}.
+ * <p>
+ * Os tratadores devem ser idempotentes: uma tarefa pode executar de novo após uma falha entre o
+ * tratador e a remoção da linha, e em mais de uma instância da aplicação.
+ */
+@Service
+public class DelayedTaskScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DelayedTaskScheduler.class);
+
+    static final long TICK_MS = 1000;
+
+    static final int WHEEL_SIZE = 64;
+
+    static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    static final String RECOVERY_ROLE = "delayed-task-recovery";
+
+    /**
+     * Atraso a partir do qual uma tarefa vencida é considerada abandonada pela instância que a agendou.
+     */
+    static final Duration RECOVERY_GRACE = Duration.ofMinutes(2);
+
+    static final int RECOVERY_BATCH_SIZE = 1000;
+
+    private final DelayedTaskRepository delayedTaskRepository;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ClusterJobCoordinator jobCoordinator;
+
+    private final String recoveryRole;
+
+    private final Map<DelayedTaskType, Consumer<Long>> handlers = new ConcurrentHashMap<>();
+
+    private final DelayQueue<TimingWheel.Bucket<TaskKey>> queue = new DelayQueue<>();
+
+    // Roda e entradas pendentes, protegidas por this
+    private TimingWheel<TaskKey> wheel;
+
+    private final Map<TaskKey, TimingWheel.Entry<TaskKey>> entries = new HashMap<>();
+
+    private Thread timerThread;
+
+    @Autowired
+    public DelayedTaskScheduler(
+        DelayedTaskRepository delayedTaskRepository,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        PlatformTransactionManager transactionManager,
+        ClusterJobCoordinator jobCoordinator
+    ) {
+        this(delayedTaskRepository, taskExecutor, transactionManager, jobCoordinator, RECOVERY_ROLE);
+    }
+
+    DelayedTaskScheduler(
+        DelayedTaskRepository delayedTaskRepository,
+        Executor taskExecutor,
+        PlatformTransactionManager transactionManager,
+        ClusterJobCoordinator jobCoordinator,
+        String recoveryRole
+    ) {
+        this.delayedTaskRepository = delayedTaskRepository;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobCoordinator = jobCoordinator;
+        this.recoveryRole = recoveryRole;
+    }
+
+    /**
+     * Registra o tratador das tarefas de um tipo; recebe o id do alvo.
+     */
+    public void registerHandler(DelayedTaskType type, Consumer<Long> handler) {
+        handlers.put(type, handler);
+    }
+
+    /**
+     * Agenda (ou reagenda) a tarefa do alvo para {@code dueAt}. Deve ser chamado na transação que
+     * origina a tarefa: a linha é gravada nela e a tarefa entra na roda somente após o commit.
+     */
+    public void schedule(DelayedTaskType type, Long targetId, Instant dueAt) {
+        delayedTaskRepository.upsert(type.name(), targetId, dueAt, Instant.now());
+        enqueueAfterCommit(type, Map.of(targetId, dueAt));
+    }
+
+    /**
+     * Coloca na roda, após o commit da transação atual, tarefas cujas linhas o chamador já gravou nela
+     * (por exemplo, as de um lote de alvos, em uma única instrução).
+     */
+    public void enqueueAfterCommit(DelayedTaskType type, Map<Long, Instant> dueAtByTarget) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        dueAtByTarget.forEach((targetId, dueAt) -> enqueue(new TaskKey(type, targetId), dueAt));
+                    }
+                }
+            );
+        } else {
+            dueAtByTarget.forEach((targetId, dueAt) -> enqueue(new TaskKey(type, targetId), dueAt));
+        }
+    }
+
+    /**
+     * Inicia a thread da roda e candidata a instância à recuperação das tarefas gravadas. Executa depois
+     * dos demais ouvintes da inicialização, que podem criar tarefas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void start() {
+        synchronized (this) {
+            if (wheel != null) {
+                return;
+            }
+            // A roda é criada antes da leitura: tarefas agendadas durante a carga não se perdem
+            wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, System.currentTimeMillis(), queue);
+        }
+        timerThread = new Thread(this::runTimer, "delayed-task-timer");
+        timerThread.setDaemon(true);
+        timerThread.start();
+        jobCoordinator.electLeader(recoveryRole, this::loadTasks);
+    }
+
+    private void loadTasks() {
+        List<DelayedTask> tasks = delayedTaskRepository.findAllByOrderByDueAtAsc();
+        for (DelayedTask task : tasks) {
+            enqueue(new TaskKey(task.getTaskType(), task.getTargetId()), task.getDueAt());
+        }
+        LOG.info("Loaded {} delayed tasks", tasks.size());
+    }
+
+    /**
+     * Na instância líder, executa as tarefas vencidas há mais de {@link #RECOVERY_GRACE} que não estão na
+     * sua roda: as instâncias ativas adiam no banco as tarefas que falham, então essas linhas são de
+     * instâncias paradas (ou que ainda não voltaram) depois que a líder carregou a tabela.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.delayed-task.recovery-interval-ms:60000}",
+        initialDelayString = "${application.delayed-task.recovery-interval-ms:60000}"
+    )
+    public void recoverOverdueTasks() {
+        if (!jobCoordinator.isLeader(recoveryRole)) {
+            return;
+        }
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+        }
+        Instant overdueBefore = Instant.now().minus(RECOVERY_GRACE);
+        List<DelayedTask> tasks = delayedTaskRepository.findByDueAtBeforeOrderByDueAtAsc(
+            overdueBefore,
+            PageRequest.of(0, RECOVERY_BATCH_SIZE)
+        );
+        int recovered = 0;
+        for (DelayedTask task : tasks) {
+            TaskKey key = new TaskKey(task.getTaskType(), task.getTargetId());
+            synchronized (this) {
+                if (entries.containsKey(key)) {
+                    continue;
+                }
+            }
+            enqueue(key, task.getDueAt());
+            recovered++;
+        }
+        if (recovered > 0) {
+            LOG.info("Recovered {} overdue delayed tasks", recovered);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (timerThread != null) {
+            timerThread.interrupt();
+        }
+    }
+
+    private void enqueue(TaskKey key, Instant dueAt) {
+        TimingWheel.Entry<TaskKey> entry = new TimingWheel.Entry<>(key, dueAt.toEpochMilli());
+        synchronized (this) {
+            if (wheel == null) {
+                // Antes da inicialização: a linha gravada será carregada em start()
+                return;
+            }
+            TimingWheel.Entry<TaskKey> previous = entries.put(key, entry);
+            if (previous != null) {
+                previous.cancel();
+            }
+            if (wheel.add(entry)) {
+                return;
+            }
+            entries.remove(key);
+        }
+        execute(entry);
+    }
+
+    private void runTimer() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimingWheel.Bucket<TaskKey> bucket = queue.take();
+                List<TimingWheel.Entry<TaskKey>> due = new ArrayList<>();
+                synchronized (this) {
+                    wheel.advanceClock(bucket.getExpiration());
+                    for (TimingWheel.Entry<TaskKey> entry : bucket.flush()) {
+                        // Entradas de níveis superiores descem para um balde mais fino
+                        if (!wheel.add(entry)) {
+                            entries.remove(entry.task(), entry);
+                            due.add(entry);
+                        }
+                    }
+                }
+                due.forEach(this::execute);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void execute(TimingWheel.Entry<TaskKey> entry) {
+        TaskKey key = entry.task();
+        taskExecutor.execute(() -> {
+            // O vencimento da roda é truncado em milissegundos; o banco guarda microssegundos
+            Instant dueBefore = Instant.ofEpochMilli(entry.expirationMs() + 1);
+            Consumer<Long> handler = handlers.get(key.type());
+            if (handler == null) {
+                LOG.warn("No handler for delayed task {}, retrying in {}", key, RETRY_DELAY);
+                retry(key, dueBefore);
+                return;
+            }
+            try {
+                handler.accept(key.targetId());
+                transactionTemplate.executeWithoutResult(status -> delayedTaskRepository.deleteTask(key.type(), key.targetId(), dueBefore));
+            } catch (RuntimeException e) {
+                LOG.warn("Delayed task {} failed, retrying in {}: {}", key, RETRY_DELAY, e.getMessage());
+                retry(key, dueBefore);
+            }
+        });
+    }
+
+    /**
+     * Adia a tarefa na roda e na linha, que assim não parece abandonada para a varredura da líder.
+     */
+    private void retry(TaskKey key, Instant dueBefore) {
+        Instant retryAt = Instant.now().plus(RETRY_DELAY);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                delayedTaskRepository.postponeTask(key.type(), key.targetId(), dueBefore, retryAt)
+            );
+        } catch (RuntimeException e) {
+            LOG.warn("Could not postpone delayed task {}: {}", key, e.getMessage());
+        }
+        enqueue(key, retryAt);
+    }
+
+    record TaskKey(DelayedTaskType type, Long targetId) {}
+}
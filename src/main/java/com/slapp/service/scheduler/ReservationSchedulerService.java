@@ -1,39 +1,95 @@
 package com.slapp.service.scheduler;
 
+import com.slapp.config.ApplicationProperties;
+import com.slapp.domain.enumeration.DelayedTaskType;
 import com.slapp.service.ReservationService;
+import java.time.Duration;
+import java.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
  * Service for scheduled reservation tasks.
+ * <p>
+ * Cada reserva pendente é confirmada no fim do seu prazo por uma tarefa do {@link DelayedTaskScheduler},
+ * agendada na criação da reserva.
  */
 @Service
 public class ReservationSchedulerService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ReservationSchedulerService.class);
 
+    static final String CATCH_UP_JOB = "reservation-auto-confirm-catch-up";
+
+    static final String ARCHIVE_JOB = "reservation-archive";
+
     private final ReservationService reservationService;
 
-    public ReservationSchedulerService(ReservationService reservationService) {
+    private final ClusterJobCoordinator jobCoordinator;
+
+    private final ApplicationProperties.ReservationArchive archiveProperties;
+
+    public ReservationSchedulerService(
+        ReservationService reservationService,
+        DelayedTaskScheduler delayedTaskScheduler,
+        ClusterJobCoordinator jobCoordinator,
+        ApplicationProperties applicationProperties
+    ) {
         this.reservationService = reservationService;
+        this.jobCoordinator = jobCoordinator;
+        this.archiveProperties = applicationProperties.getReservationArchive();
+        delayedTaskScheduler.registerHandler(DelayedTaskType.CONFIRM_RESERVATION, reservationService::autoConfirmReservation);
     }
 
     /**
-     * Auto-confirm pending reservations after 30 minutes.
-     * Runs every 5 minutes.
+     * Na inicialização, antes do agendador carregar as tarefas: confirma de uma vez as reservas
+     * vencidas com a aplicação parada e agenda as pendentes que ainda não têm tarefa. Instâncias que
+     * sobem juntas não repetem o trabalho: a que não obtém o lock do job pula a rodada.
      */
-    @Scheduled(fixedRate = 5 * 60 * 1000) // 5 minutes in milliseconds
-    public void autoConfirmExpiredPendingReservations() {
-        LOG.debug("Running auto-confirmation task for expired pending reservations");
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void catchUpPendingReservations() {
+        LOG.debug("Catching up auto-confirmation of pending reservations");
         try {
-            int confirmedCount = reservationService.autoConfirmExpiredPendingReservations();
-            if (confirmedCount > 0) {
-                LOG.info("Auto-confirmed {} expired pending reservations", confirmedCount);
-            }
+            jobCoordinator.runExclusively(CATCH_UP_JOB, this::catchUp);
         } catch (Exception e) {
             LOG.error("Error during auto-confirmation of pending reservations", e);
         }
     }
+
+    /**
+     * Move para a partição de arquivo as reservas concluídas ou canceladas que terminaram há mais de
+     * {@code application.reservation-archive.after-days} dias, todo dia às 03:30, em uma única instância
+     * do cluster.
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void archiveClosedReservations() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        jobCoordinator.runExclusively(ARCHIVE_JOB, () -> {
+            Instant endedBefore = Instant.now().minus(Duration.ofDays(archiveProperties.getAfterDays()));
+            int archivedCount = reservationService.archiveClosedReservations(endedBefore);
+            if (archivedCount > 0) {
+                LOG.info("Archived {} reservations that ended before {}", archivedCount, endedBefore);
+            }
+        });
+    }
+
+    private void catchUp() {
+        int confirmedCount = reservationService.autoConfirmExpiredPendingReservations();
+        if (confirmedCount > 0) {
+            LOG.info("Auto-confirmed {} expired pending reservations", confirmedCount);
+        }
+        int scheduledCount = reservationService.scheduleMissingAutoConfirmations();
+        if (scheduledCount > 0) {
+            LOG.info("Scheduled auto-confirmation of {} pending reservations", scheduledCount);
+        }
+    }
 }
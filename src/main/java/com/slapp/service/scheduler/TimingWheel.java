@@ -0,0 +1,161 @@
+package com.slapp.service.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Roda de tempo hierárquica: cada nível tem {@code wheelSize} baldes de {@code tickMs}, e o nível seguinte
+ * usa como tick o intervalo inteiro do anterior. Uma entrada fica no nível mais fino que a comporta e desce
+ * de nível quando o seu balde vence, até vencer no primeiro.
+ * <p>
+ * Apenas baldes com entradas vão para a {@link DelayQueue} compartilhada pelos níveis, então quem consome a
+ * fila dorme até o próximo vencimento, sem varrer baldes vazios. Não é thread-safe: o
+ * {@link DelayedTaskScheduler} serializa o acesso.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long intervalMs;
+    private final Bucket<T>[] buckets;
+    private final DelayQueue<Bucket<T>> queue;
+
+    // Sempre múltiplo de tickMs
+    private long currentTimeMs;
+
+    private TimingWheel<T> overflowWheel;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<Bucket<T>> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.intervalMs = tickMs * wheelSize;
+        this.queue = queue;
+        this.currentTimeMs = startMs - (startMs % tickMs);
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket<>();
+        }
+    }
+
+    /**
+     * Coloca a entrada no balde do seu vencimento.
+     *
+     * @return {@code false} quando a entrada já venceu e deve ser executada pelo chamador.
+     */
+    boolean add(Entry<T> entry) {
+        long expirationMs = entry.expirationMs();
+        if (expirationMs < currentTimeMs + tickMs) {
+            return false;
+        }
+        if (expirationMs < currentTimeMs + intervalMs) {
+            long virtualId = expirationMs / tickMs;
+            Bucket<T> bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(intervalMs, wheelSize, currentTimeMs, queue);
+        }
+        return overflowWheel.add(entry);
+    }
+
+    /**
+     * Avança o relógio da roda (e dos níveis superiores) até {@code timeMs}.
+     */
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTimeMs + tickMs) {
+            currentTimeMs = timeMs - (timeMs % tickMs);
+            if (overflowWheel != null) {
+                overflowWheel.advanceClock(currentTimeMs);
+            }
+        }
+    }
+
+    /**
+     * Entrada da roda; entradas canceladas são descartadas quando o seu balde vence.
+     */
+    static final class Entry<T> {
+
+        private final T task;
+        private final long expirationMs;
+        private volatile boolean cancelled;
+
+        Entry(T task, long expirationMs) {
+            this.task = task;
+            this.expirationMs = expirationMs;
+        }
+
+        T task() {
+            return task;
+        }
+
+        long expirationMs() {
+            return expirationMs;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Balde de um tick; o vencimento é o início do tick ou -1 quando vazio.
+     */
+    static final class Bucket<T> implements Delayed {
+
+        private final AtomicLong expirationMs = new AtomicLong(-1);
+        private final List<Entry<T>> entries = new ArrayList<>();
+
+        void add(Entry<T> entry) {
+            entries.add(entry);
+        }
+
+        /**
+         * @return {@code true} quando o vencimento mudou, isto é, o balde precisa voltar para a fila.
+         */
+        boolean setExpiration(long expirationMs) {
+            return this.expirationMs.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long getExpiration() {
+            return expirationMs.get();
+        }
+
+        /**
+         * Esvazia o balde, devolvendo as entradas ainda não canceladas.
+         */
+        List<Entry<T>> flush() {
+            List<Entry<T>> flushed = new ArrayList<>(entries.size());
+            for (Entry<T> entry : entries) {
+                if (!entry.isCancelled()) {
+                    flushed.add(entry);
+                }
+            }
+            entries.clear();
+            expirationMs.set(-1);
+            return flushed;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(0, getExpiration() - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getExpiration(), ((Bucket<?>) other).getExpiration());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.slapp.service.search;
+
+import com.slapp.service.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor opaco do histórico de reservas de uma sala: hash da sala e da janela consultadas, início e id
+ * da última reserva entregue.
+ * <p>
+ * Formato (antes do Base64 URL-safe): {@code v1|hash|id|início}.
+ */
+public final class ReservationHistoryCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final Long id;
+    private final Instant startDateTime;
+
+    private ReservationHistoryCursor(Long id, Instant startDateTime) {
+        this.id = id;
+        this.startDateTime = startDateTime;
+    }
+
+    public static String encode(String filterHash, Long id, Instant startDateTime) {
+        String raw = String.join(SEPARATOR, VERSION, filterHash, String.valueOf(id), startDateTime.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica e valida o cursor contra a sala e a janela da requisição atual.
+     *
+     * @throws InvalidCursorException se o cursor estiver malformado ou pertencer a outra consulta.
+     */
+    public static ReservationHistoryCursor decode(String cursor, String expectedFilterHash) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+        if (parts.length != 4 || !VERSION.equals(parts[0]) || !expectedFilterHash.equals(parts[1])) {
+            throw new InvalidCursorException();
+        }
+        try {
+            return new ReservationHistoryCursor(Long.valueOf(parts[2]), Instant.parse(parts[3]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    /**
+     * Hash da sala e da janela do histórico, no mesmo formato dos cursores da busca de estúdios.
+     */
+    public static String filterHash(Long roomId, Instant from, Instant to) {
+        return StudioSearchCursor.filterHash(roomId, from, to);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getStartDateTime() {
+        return startDateTime;
+    }
+}
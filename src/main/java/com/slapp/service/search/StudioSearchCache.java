@@ -0,0 +1,242 @@
+package com.slapp.service.search;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.domain.enumeration.ReservationEventType;
+import com.slapp.repository.StudioRepository;
+import com.slapp.repository.projections.StudioListProjection;
+import com.slapp.service.event.ReservationChangedEvent;
+import com.slapp.service.event.ReservationDomainEvent;
+import com.slapp.service.event.RoomChangedEvent;
+import com.slapp.service.event.StudioChangedEvent;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache dos resultados da busca de estúdios, na região {@link #CACHE_NAME}.
+ * <p>
+ * O índice guarda os ids dos estúdios retornados em cada entrada. As entradas são removidas seletivamente pelos
+ * eventos de estúdio, sala e reserva, localizadas por índices em memória (sem percorrer a região):
+ * <ul>
+ *     <li>estúdio/sala: entradas que contêm o estúdio ou cujo filtro de cidade ele pode satisfazer;</li>
+ *     <li>reserva: entradas com janela de disponibilidade que intersecta o intervalo da reserva.</li>
+ * </ul>
+ * As alterações de reserva chegam a todas as instâncias pelo stream do outbox
+ * ({@link ReservationDomainEvent}); as de estúdio e sala são locais, e as demais instâncias dependem do TTL
+ * curto da região. Cada invalidação incrementa uma geração: uma busca que executou durante uma
+ * invalidação não é guardada, pois pode ter lido os dados anteriores a ela.
+ */
+@Service
+public class StudioSearchCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StudioSearchCache.class);
+
+    public static final String CACHE_NAME = "studioSearch";
+
+    private final CacheManager cacheManager;
+
+    private final StudioRepository studioRepository;
+
+    private final boolean enabled;
+
+    private final long maxEntries;
+
+    // Geração e índices das entradas, protegidos por index
+    private final Object index = new Object();
+
+    private long generation;
+
+    private final Map<StudioSearchKey, Set<Long>> studiosByKey = new HashMap<>();
+
+    private final Map<Long, Set<StudioSearchKey>> keysByStudio = new HashMap<>();
+
+    // Filtro de cidade normalizado (null quando ausente) -> chaves
+    private final Map<String, Set<StudioSearchKey>> keysByCity = new HashMap<>();
+
+    private final Set<StudioSearchKey> availabilityKeys = new HashSet<>();
+
+    public StudioSearchCache(CacheManager cacheManager, StudioRepository studioRepository, ApplicationProperties applicationProperties) {
+        this.cacheManager = cacheManager;
+        this.studioRepository = studioRepository;
+        this.enabled = applicationProperties.getStudioSearchCache().isEnabled();
+        this.maxEntries = applicationProperties.getStudioSearchCache().getMaxEntries();
+    }
+
+    /**
+     * Retorna o resultado em cache para a chave, ou executa a busca e o guarda.
+     *
+     * @param contentOf extrai os estúdios do resultado, usados na invalidação.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(StudioSearchKey key, Supplier<T> loader, Function<T, Collection<? extends StudioListProjection>> contentOf) {
+        Cache<Object, Object> cache = cache();
+        if (cache == null) {
+            return loader.get();
+        }
+        Object cached = cache.get(key);
+        if (cached instanceof Entry entry) {
+            return (T) entry.result();
+        }
+        long loadedGeneration;
+        synchronized (index) {
+            loadedGeneration = generation;
+        }
+        T result = loader.get();
+        Set<Long> studioIds = new HashSet<>();
+        contentOf.apply(result).forEach(studio -> studioIds.add(studio.getId()));
+        synchronized (index) {
+            if (generation != loadedGeneration) {
+                LOG.debug("Studio search invalidated while loading, not caching it");
+                return result;
+            }
+            if (studiosByKey.size() >= 2 * maxEntries) {
+                pruneIndex(cache);
+            }
+            cache.put(key, new Entry(result));
+            addToIndex(key, studioIds);
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudioChanged(StudioChangedEvent event) {
+        evictStudio(event.studioId(), Arrays.asList(event.previousCity(), event.city()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        // Preço, tipos e quantidade de salas mudam o estúdio em buscas da sua cidade
+        Optional<String> city = studioRepository.findCityById(event.studioId());
+        evictStudio(event.studioId(), city.map(List::of).orElse(List.of()));
+    }
+
+    /**
+     * Alterações de reserva feitas nesta instância, com o intervalo anterior de uma remarcação.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        evictAvailability(
+            key ->
+                key.overlapsAvailability(event.startDateTime(), event.endDateTime()) ||
+                key.overlapsAvailability(event.previousStartDateTime(), event.previousEndDateTime())
+        );
+    }
+
+    /**
+     * Alterações de reserva de todas as instâncias, pelo stream do outbox.
+     */
+    @EventListener
+    public void onReservationEvent(ReservationDomainEvent event) {
+        if (event.type() == ReservationEventType.UPDATED) {
+            // O evento não traz o intervalo anterior de uma remarcação: descarta todas as buscas por disponibilidade
+            evictAvailability(key -> true);
+        } else {
+            evictAvailability(key -> key.overlapsAvailability(event.startDateTime(), event.endDateTime()));
+        }
+    }
+
+    /**
+     * Remove as entradas que contêm o estúdio e as que têm filtro de cidade satisfeito por uma das cidades.
+     */
+    private void evictStudio(Long studioId, List<String> cities) {
+        Cache<Object, Object> cache = cache();
+        if (cache == null) {
+            return;
+        }
+        synchronized (index) {
+            generation++;
+            Set<StudioSearchKey> keys = new HashSet<>(keysByStudio.getOrDefault(studioId, Set.of()));
+            keysByCity.forEach((cityFilter, cityKeys) -> {
+                if (cities.stream().anyMatch(city -> StudioSearchKey.matchesCity(cityFilter, city))) {
+                    keys.addAll(cityKeys);
+                }
+            });
+            evict(cache, keys);
+        }
+    }
+
+    private void evictAvailability(Predicate<StudioSearchKey> predicate) {
+        Cache<Object, Object> cache = cache();
+        if (cache == null) {
+            return;
+        }
+        synchronized (index) {
+            generation++;
+            Set<StudioSearchKey> keys = new HashSet<>();
+            for (StudioSearchKey key : availabilityKeys) {
+                if (predicate.test(key)) {
+                    keys.add(key);
+                }
+            }
+            evict(cache, keys);
+        }
+    }
+
+    private void evict(Cache<Object, Object> cache, Set<StudioSearchKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        cache.removeAll(new HashSet<>(keys));
+        keys.forEach(this::removeFromIndex);
+        LOG.debug("Evicted {} studio search entries", keys.size());
+    }
+
+    private void addToIndex(StudioSearchKey key, Set<Long> studioIds) {
+        removeFromIndex(key);
+        studiosByKey.put(key, studioIds);
+        studioIds.forEach(studioId -> keysByStudio.computeIfAbsent(studioId, id -> new HashSet<>()).add(key));
+        keysByCity.computeIfAbsent(key.city(), city -> new HashSet<>()).add(key);
+        if (key.availabilityStart() != null && key.availabilityEnd() != null) {
+            availabilityKeys.add(key);
+        }
+    }
+
+    private void removeFromIndex(StudioSearchKey key) {
+        Set<Long> studioIds = studiosByKey.remove(key);
+        if (studioIds == null) {
+            return;
+        }
+        for (Long studioId : studioIds) {
+            Set<StudioSearchKey> studioKeys = keysByStudio.get(studioId);
+            if (studioKeys != null && studioKeys.remove(key) && studioKeys.isEmpty()) {
+                keysByStudio.remove(studioId);
+            }
+        }
+        Set<StudioSearchKey> cityKeys = keysByCity.get(key.city());
+        if (cityKeys != null && cityKeys.remove(key) && cityKeys.isEmpty()) {
+            keysByCity.remove(key.city());
+        }
+        availabilityKeys.remove(key);
+    }
+
+    /**
+     * Retira do índice as chaves que saíram da região por TTL ou capacidade.
+     */
+    private void pruneIndex(Cache<Object, Object> cache) {
+        List<StudioSearchKey> expired = studiosByKey.keySet().stream().filter(key -> !cache.containsKey(key)).toList();
+        expired.forEach(this::removeFromIndex);
+        LOG.debug("Pruned {} expired studio search keys", expired.size());
+    }
+
+    private Cache<Object, Object> cache() {
+        return enabled ? cacheManager.getCache(CACHE_NAME) : null;
+    }
+
+    private record Entry(Object result) implements Serializable {}
+}
@@ -0,0 +1,100 @@
+package com.slapp.service.search;
+
+import com.slapp.service.InvalidCursorException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Cursor opaco da paginação keyset: ordenação, hash dos filtros, valor da chave de ordenação e id
+ * do último item entregue. O hash impede que um cursor seja reaproveitado com outros filtros.
+ * <p>
+ * Formato (antes do Base64 URL-safe): {@code v1|SORT|hash|id|chave}. A chave fica por último,
+ * então pode conter o separador (nomes de estúdio).
+ */
+public final class StudioSearchCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final StudioSearchSort sort;
+    private final String filterHash;
+    private final Long id;
+    private final String key;
+
+    private StudioSearchCursor(StudioSearchSort sort, String filterHash, Long id, String key) {
+        this.sort = sort;
+        this.filterHash = filterHash;
+        this.id = id;
+        this.key = key;
+    }
+
+    public static String encode(StudioSearchSort sort, String filterHash, Long id, Object key) {
+        String raw = String.join(SEPARATOR, VERSION, sort.name(), filterHash, String.valueOf(id), key == null ? "" : key.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica e valida o cursor contra a ordenação e os filtros da requisição atual.
+     *
+     * @throws InvalidCursorException se o cursor estiver malformado ou pertencer a outra busca.
+     */
+    public static StudioSearchCursor decode(String cursor, StudioSearchSort expectedSort, String expectedFilterHash) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 5);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+        if (parts.length != 5 || !VERSION.equals(parts[0]) || !expectedSort.name().equals(parts[1]) || !expectedFilterHash.equals(parts[2])) {
+            throw new InvalidCursorException();
+        }
+        try {
+            return new StudioSearchCursor(expectedSort, parts[2], Long.valueOf(parts[3]), parts[4]);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    /**
+     * Hash estável (entre instâncias da aplicação) dos valores que definem uma busca.
+     */
+    public static String filterHash(Object... values) {
+        CRC32 crc = new CRC32();
+        for (Object value : values) {
+            crc.update(Objects.toString(value, "").getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    public StudioSearchSort getSort() {
+        return sort;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getKeyAsString() {
+        return key;
+    }
+
+    public BigDecimal getKeyAsDecimal() {
+        try {
+            return new BigDecimal(key);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public Double getKeyAsDouble() {
+        try {
+            return Double.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
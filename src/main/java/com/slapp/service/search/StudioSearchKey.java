@@ -0,0 +1,74 @@
+package com.slapp.service.search;
+
+import com.slapp.service.dto.StudioFilterDTO;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Chave do {@link StudioSearchCache}: filtros normalizados mais a página ou o cursor da requisição.
+ * A normalização preserva a semântica das queries: nome e cidade são comparados com UPPER, e texto
+ * vazio equivale a filtro ausente. A busca textual entra já convertida por {@link StudioTextQuery}.
+ */
+public record StudioSearchKey(
+    String query,
+    String name,
+    String city,
+    String roomType,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    Instant availabilityStart,
+    Instant availabilityEnd,
+    String text,
+    String page
+) {
+    public static StudioSearchKey of(String query, StudioFilterDTO filters, Instant availabilityStart, Instant availabilityEnd, String page) {
+        return new StudioSearchKey(
+            query,
+            normalize(filters.getName()),
+            normalize(filters.getCity()),
+            emptyToNull(filters.getRoomType()),
+            filters.getMinPrice() != null ? filters.getMinPrice().stripTrailingZeros() : null,
+            filters.getMaxPrice() != null ? filters.getMaxPrice().stripTrailingZeros() : null,
+            availabilityStart,
+            availabilityEnd,
+            StudioTextQuery.toTsQuery(filters.getQ()),
+            page
+        );
+    }
+
+    /**
+     * Indica se um estúdio nesta cidade pode satisfazer o filtro de cidade da busca.
+     */
+    boolean matchesCity(String studioCity) {
+        return matchesCity(city, studioCity);
+    }
+
+    /**
+     * Indica se um estúdio nesta cidade pode satisfazer o filtro de cidade normalizado (null quando ausente).
+     */
+    static boolean matchesCity(String cityFilter, String studioCity) {
+        if (cityFilter == null) {
+            return true;
+        }
+        return studioCity != null && studioCity.toUpperCase(Locale.ROOT).contains(cityFilter);
+    }
+
+    /**
+     * Indica se a janela de disponibilidade da busca intersecta [start, end).
+     */
+    boolean overlapsAvailability(Instant start, Instant end) {
+        if (availabilityStart == null || availabilityEnd == null || start == null || end == null) {
+            return false;
+        }
+        return start.isBefore(availabilityEnd) && availabilityStart.isBefore(end);
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? null : value.toUpperCase(Locale.ROOT);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
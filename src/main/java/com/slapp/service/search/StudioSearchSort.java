@@ -0,0 +1,39 @@
+package com.slapp.service.search;
+
+import java.util.Optional;
+
+/**
+ * Ordenações suportadas pela paginação keyset da busca de estúdios.
+ * Todas desempatam por id, de modo que a chave de ordenação é sempre única.
+ */
+public enum StudioSearchSort {
+    ID("id"),
+    MIN_PRICE("minPrice"),
+    NAME("name"),
+    DISTANCE("distance");
+
+    private final String param;
+
+    StudioSearchSort(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    /**
+     * Converte o parâmetro {@code sort} da requisição; {@code null} ou vazio equivale a {@link #ID}.
+     */
+    public static Optional<StudioSearchSort> fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return Optional.of(ID);
+        }
+        for (StudioSearchSort sort : values()) {
+            if (sort.param.equalsIgnoreCase(param.trim())) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+}
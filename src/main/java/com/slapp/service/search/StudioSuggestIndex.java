@@ -0,0 +1,317 @@
+package com.slapp.service.search;
+
+import com.slapp.repository.StudioRepository;
+import com.slapp.repository.projections.StudioSuggestSourceProjection;
+import com.slapp.service.dto.StudioSuggestionDTO;
+import com.slapp.service.event.StudioChangedEvent;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Índice em memória do typeahead da busca: trie de prefixos sobre nomes, cidades e estados dos estúdios ativos.
+ * <p>
+ * Os textos são normalizados sem acentos e em minúsculas, e cada palavra inicia uma chave ("Estúdio Rock"
+ * é encontrado por "est" e por "roc"). Cada nó guarda as {@link #MAX_SUGGESTIONS} sugestões mais populares
+ * da sua subárvore, então a consulta percorre apenas o prefixo digitado.
+ * <p>
+ * A popularidade de um estúdio é 1 mais favoritos e reservas efetivadas nos últimos 90 dias; cidades e
+ * estados somam a dos seus estúdios. O índice é construído na inicialização, reconstruído a cada hora
+ * (a popularidade muda com reservas) e atualizado pelos {@link StudioChangedEvent} após o commit.
+ */
+@Service
+public class StudioSuggestIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StudioSuggestIndex.class);
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    static final Duration POPULARITY_WINDOW = Duration.ofDays(90);
+
+    // Limita a profundidade da trie; prefixos maiores são truncados
+    static final int MAX_KEY_LENGTH = 64;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingLong(Suggestion::weight)
+        .reversed()
+        .thenComparing(Suggestion::value)
+        .thenComparing(Suggestion::type);
+
+    private final StudioRepository studioRepository;
+
+    private volatile Trie trie;
+
+    // Estúdios alterados durante uma reconstrução, recarregados sobre a nova trie
+    private Set<Long> changesDuringRebuild;
+
+    public StudioSuggestIndex(StudioRepository studioRepository) {
+        this.studioRepository = studioRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000, initialDelay = 60 * 60 * 1000)
+    public void rebuild() {
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                return;
+            }
+            changesDuringRebuild = new HashSet<>();
+        }
+        Set<Long> changed = Set.of();
+        try {
+            List<StudioSuggestSourceProjection> sources = studioRepository.findSuggestSources(null, popularitySince());
+            Trie next = new Trie();
+            sources.forEach(next::put);
+            synchronized (this) {
+                changed = changesDuringRebuild;
+                trie = next;
+            }
+            LOG.info("Studio suggest index built: {} studios", sources.size());
+        } catch (RuntimeException e) {
+            LOG.warn("Could not build studio suggest index, typeahead will return no suggestions: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+        }
+        changed.forEach(this::refresh);
+    }
+
+    /**
+     * Sugestões mais populares para o prefixo digitado (sem distinção de acentos e maiúsculas).
+     */
+    public List<StudioSuggestionDTO> suggest(String prefix, int limit) {
+        Trie current = trie;
+        String key = fold(prefix);
+        if (current == null || key.isEmpty()) {
+            return List.of();
+        }
+        Node node = current.root;
+        for (int i = 0; i < Math.min(key.length(), MAX_KEY_LENGTH) && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        Suggestion[] top = node.top;
+        List<StudioSuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, top.length));
+        for (int i = 0; i < top.length && suggestions.size() < limit; i++) {
+            suggestions.add(new StudioSuggestionDTO(top[i].type(), top[i].value(), top[i].studioId()));
+        }
+        return suggestions;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudioChanged(StudioChangedEvent event) {
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event.studioId());
+            }
+        }
+        refresh(event.studioId());
+    }
+
+    private void refresh(Long studioId) {
+        Trie current = trie;
+        if (current == null || studioId == null) {
+            return;
+        }
+        List<StudioSuggestSourceProjection> sources = studioRepository.findSuggestSources(studioId, popularitySince());
+        if (sources.isEmpty()) {
+            // Excluído ou inativo
+            current.remove(studioId);
+        } else {
+            current.put(sources.get(0));
+        }
+    }
+
+    private static Instant popularitySince() {
+        return Instant.now().minus(POPULARITY_WINDOW);
+    }
+
+    /**
+     * Normalização das chaves: sem acentos, minúsculas e espaços simples.
+     */
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Chaves de um texto normalizado: o texto inteiro e cada sufixo que começa em uma palavra.
+     */
+    static Set<String> keysOf(String folded) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < folded.length(); i++) {
+            if (i == 0 || folded.charAt(i - 1) == ' ') {
+                String key = folded.substring(i);
+                keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+            }
+        }
+        return keys;
+    }
+
+    private record Suggestion(StudioSuggestionDTO.Type type, String value, Long studioId, long weight) {}
+
+    /**
+     * Identidade de um termo: nomes são por estúdio ({@code studioId}); cidades e estados são compartilhados.
+     */
+    private record TermKey(StudioSuggestionDTO.Type type, Long studioId, String folded) {}
+
+    /**
+     * Termo indexado: um nome de estúdio, ou uma cidade/estado compartilhado por vários estúdios.
+     */
+    private static final class Term {
+
+        private Suggestion suggestion;
+        private int studios;
+    }
+
+    private record StudioTerms(List<TermKey> keys, long weight) {}
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        private final List<Suggestion> terminal = new ArrayList<>(1);
+        private volatile Suggestion[] top = new Suggestion[0];
+
+        boolean isEmpty() {
+            return terminal.isEmpty() && children.isEmpty();
+        }
+
+        void recomputeTop() {
+            List<Suggestion> candidates = new ArrayList<>(terminal);
+            children.values().forEach(child -> candidates.addAll(Arrays.asList(child.top)));
+            candidates.sort(RANKING);
+            // Uma sugestão pode chegar por mais de uma chave da mesma subárvore
+            top = new LinkedHashSet<>(candidates).stream().limit(MAX_SUGGESTIONS).toArray(Suggestion[]::new);
+        }
+    }
+
+    private static final class Trie {
+
+        private final Node root = new Node();
+        private final Map<Long, StudioTerms> studios = new HashMap<>();
+        private final Map<TermKey, Term> terms = new HashMap<>();
+
+        synchronized void put(StudioSuggestSourceProjection source) {
+            remove(source.getId());
+            long weight = 1 + (source.getPopularity() != null ? source.getPopularity() : 0);
+            List<TermKey> keys = new ArrayList<>(3);
+            addTerm(keys, StudioSuggestionDTO.Type.NAME, source.getName(), source.getId(), weight);
+            addTerm(keys, StudioSuggestionDTO.Type.CITY, source.getCity(), null, weight);
+            addTerm(keys, StudioSuggestionDTO.Type.STATE, source.getState(), null, weight);
+            studios.put(source.getId(), new StudioTerms(keys, weight));
+        }
+
+        synchronized void remove(Long studioId) {
+            StudioTerms previous = studios.remove(studioId);
+            if (previous == null) {
+                return;
+            }
+            for (TermKey termKey : previous.keys()) {
+                Term term = terms.get(termKey);
+                unindex(termKey.folded(), term.suggestion);
+                if (--term.studios == 0) {
+                    terms.remove(termKey);
+                } else {
+                    Suggestion current = term.suggestion;
+                    term.suggestion = new Suggestion(current.type(), current.value(), current.studioId(), current.weight() - previous.weight());
+                    index(termKey.folded(), term.suggestion);
+                }
+            }
+        }
+
+        private void addTerm(List<TermKey> keys, StudioSuggestionDTO.Type type, String value, Long studioId, long weight) {
+            String folded = fold(value);
+            if (folded.isEmpty()) {
+                return;
+            }
+            TermKey termKey = new TermKey(type, studioId, folded);
+            Term term = terms.computeIfAbsent(termKey, k -> new Term());
+            if (term.suggestion != null) {
+                unindex(folded, term.suggestion);
+                term.suggestion = new Suggestion(type, term.suggestion.value(), studioId, term.suggestion.weight() + weight);
+            } else {
+                term.suggestion = new Suggestion(type, value.trim(), studioId, weight);
+            }
+            term.studios++;
+            index(folded, term.suggestion);
+            keys.add(termKey);
+        }
+
+        private void index(String folded, Suggestion suggestion) {
+            for (String key : keysOf(folded)) {
+                List<Node> path = pathOf(key, true);
+                path.get(path.size() - 1).terminal.add(suggestion);
+                recompute(key, path);
+            }
+        }
+
+        private void unindex(String folded, Suggestion suggestion) {
+            for (String key : keysOf(folded)) {
+                List<Node> path = pathOf(key, false);
+                if (path.size() == key.length() + 1 && path.get(path.size() - 1).terminal.remove(suggestion)) {
+                    recompute(key, path);
+                }
+            }
+        }
+
+        /**
+         * Nós da raiz até o fim da chave (incompleto se a chave não existe e {@code create} é falso).
+         */
+        private List<Node> pathOf(String key, boolean create) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = create ? node.children.computeIfAbsent(key.charAt(i), c -> new Node()) : node.children.get(key.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                path.add(node);
+            }
+            return path;
+        }
+
+        private void recompute(String key, List<Node> path) {
+            for (int depth = path.size() - 1; depth >= 0; depth--) {
+                Node node = path.get(depth);
+                if (depth > 0 && node.isEmpty()) {
+                    path.get(depth - 1).children.remove(key.charAt(depth - 1));
+                } else {
+                    node.recomputeTop();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.slapp.service.search;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Conversão da busca textual digitada para a sintaxe de {@code to_tsquery('simple', ...)} do documento
+ * studio_search_document.
+ * <p>
+ * Os termos são normalizados como no índice (sem acentos, minúsculas), separados em letras e dígitos
+ * e combinados com AND, cada um como prefixo: "Marshall amp" vira {@code marshall:* & amp:*}.
+ * Operadores e demais caracteres digitados são descartados, então a entrada nunca gera uma tsquery inválida.
+ */
+public final class StudioTextQuery {
+
+    // Limita o custo da tsquery para entradas muito longas
+    static final int MAX_TERMS = 8;
+
+    private StudioTextQuery() {}
+
+    /**
+     * @return a tsquery, ou {@code null} quando a busca não tem nenhum termo.
+     */
+    public static String toTsQuery(String text) {
+        String folded = StudioSuggestIndex.fold(text);
+        String tsQuery = Arrays.stream(folded.split("[^\\p{L}\\p{N}]+"))
+            .filter(term -> !term.isEmpty())
+            .distinct()
+            .limit(MAX_TERMS)
+            .map(term -> term + ":*")
+            .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
+}
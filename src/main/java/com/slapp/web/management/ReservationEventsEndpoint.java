@@ -0,0 +1,38 @@
+package com.slapp.web.management;
+
+import com.slapp.service.dto.KeysetPageDTO;
+import com.slapp.service.event.ReservationDomainEvent;
+import com.slapp.service.outbox.ReservationEventRelay;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint {@code /management/events}: lê o stream de eventos de reservas a partir de uma posição,
+ * para consumidores que perderam eventos ou estão começando.
+ * <p>
+ * {@code nextCursor} é a posição do último evento quando a página está cheia; a leitura continua com
+ * {@code since=nextCursor}. Eventos mais antigos que a retenção do outbox não estão mais disponíveis.
+ */
+@Component
+@Endpoint(id = "events")
+public class ReservationEventsEndpoint {
+
+    static final int DEFAULT_SIZE = 100;
+
+    private final ReservationEventRelay reservationEventRelay;
+
+    public ReservationEventsEndpoint(ReservationEventRelay reservationEventRelay) {
+        this.reservationEventRelay = reservationEventRelay;
+    }
+
+    @ReadOperation
+    public KeysetPageDTO<ReservationDomainEvent> events(@Nullable Long since, @Nullable Integer size) {
+        int pageSize = size != null ? Math.min(Math.max(size, 1), ReservationEventRelay.MAX_READ_SIZE) : DEFAULT_SIZE;
+        List<ReservationDomainEvent> events = reservationEventRelay.findEventsAfter(since != null ? Math.max(since, 0) : 0, pageSize);
+        String nextCursor = events.size() == pageSize ? Long.toString(events.get(pageSize - 1).position()) : null;
+        return new KeysetPageDTO<>(events, nextCursor);
+    }
+}
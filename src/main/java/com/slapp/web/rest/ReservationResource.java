@@ -1,15 +1,23 @@
 package com.slapp.web.rest;
 
 import com.slapp.repository.ReservationRepository;
+import com.slapp.repository.projections.ReservationHistoryProjection;
 import com.slapp.service.ReservationQueryService;
 import com.slapp.service.ReservationService;
 import com.slapp.service.criteria.ReservationCriteria;
+import com.slapp.service.dto.KeysetPageDTO;
+import com.slapp.service.dto.ReservationBatchDTO;
+import com.slapp.service.dto.ReservationBatchResultDTO;
 import com.slapp.service.dto.ReservationDTO;
+import com.slapp.service.dto.ReservationRecurrenceDTO;
+import com.slapp.service.notification.PendingReservationEventHub;
 import com.slapp.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -19,8 +27,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -37,6 +49,13 @@ public class ReservationResource {
 
     private static final String ENTITY_NAME = "reservation";
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+
+    // Segundos para o cliente tentar de novo quando a instância não tem streams disponíveis
+    private static final String EVENT_STREAM_RETRY_AFTER = "30";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,14 +65,18 @@ public class ReservationResource {
 
     private final ReservationQueryService reservationQueryService;
 
+    private final PendingReservationEventHub pendingReservationEventHub;
+
     public ReservationResource(
         ReservationService reservationService,
         ReservationRepository reservationRepository,
-        ReservationQueryService reservationQueryService
+        ReservationQueryService reservationQueryService,
+        PendingReservationEventHub pendingReservationEventHub
     ) {
         this.reservationService = reservationService;
         this.reservationRepository = reservationRepository;
         this.reservationQueryService = reservationQueryService;
+        this.pendingReservationEventHub = pendingReservationEventHub;
     }
 
     /**
@@ -75,6 +98,41 @@ public class ReservationResource {
             .body(reservationDTO);
     }
 
+    /**
+     * {@code POST  /reservations/batch} : Create a batch of reservations, optionally repeated by a recurrence rule
+     * (for example weekly for 12 weeks). Occurrences that overlap an active reservation, or an earlier occurrence
+     * of the batch, are reported as conflicts and not created.
+     *
+     * @param batch the reservations and the recurrence rule.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the result of each occurrence in body,
+     * or with status {@code 400 (Bad Request)} if the batch is not valid.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReservationBatchResultDTO>> createReservationBatch(@Valid @RequestBody ReservationBatchDTO batch) {
+        LOG.debug("REST request to save a batch of Reservations : {}", batch);
+        if (batch.getReservations().stream().anyMatch(reservation -> reservation.getId() != null)) {
+            throw new BadRequestAlertException("A new reservation cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        if (
+            batch
+                .getReservations()
+                .stream()
+                .anyMatch(reservation -> !reservation.getStartDateTime().isBefore(reservation.getEndDateTime()))
+        ) {
+            throw new BadRequestAlertException("Invalid reservation interval", ENTITY_NAME, "invalidrange");
+        }
+        ReservationRecurrenceDTO recurrence = batch.getRecurrence();
+        if (recurrence != null) {
+            if ((long) batch.getReservations().size() * recurrence.getCount() > ReservationBatchDTO.MAX_OCCURRENCES) {
+                throw new BadRequestAlertException("Too many occurrences", ENTITY_NAME, "batchtoolarge");
+            }
+            if (recurrence.getZoneId() != null && !ZoneId.getAvailableZoneIds().contains(recurrence.getZoneId())) {
+                throw new BadRequestAlertException("Invalid time zone", ENTITY_NAME, "zoneinvalid");
+            }
+        }
+        return ResponseEntity.ok().body(reservationService.saveBatch(batch));
+    }
+
     /**
      * {@code PUT  /reservations/:id} : Updates an existing reservation.
      *
@@ -264,15 +322,91 @@ public class ReservationResource {
     }
 
     /**
-     * {@code GET  /reservations/room/{roomId}/all} : get all reservations for a room.
+     * {@code GET  /reservations/studio/{studioId}/pending/events} : stream the pending reservations of a studio
+     * as Server-Sent Events: {@code created}, {@code approved}, {@code rejected} and {@code auto-confirmed},
+     * each with the reservation as data. A client reconnecting with {@code Last-Event-ID} receives the events
+     * it missed, or a {@code resync} event when it must reload the pending reservations.
+     *
+     * @param studioId the id of the studio.
+     * @param lastEventId the id of the last event received.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the event stream,
+     * or with status {@code 503 (Service Unavailable)} if the instance has no stream left.
+     */
+    @GetMapping(value = "/studio/{studioId}/pending/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPendingReservationsForStudio(
+        @PathVariable("studioId") Long studioId,
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        LOG.debug("REST request to stream pending reservation events of studio {} after {}", studioId, lastEventId);
+        return pendingReservationEventHub
+            .subscribe(studioId, lastEventId)
+            .map(emitter -> ResponseEntity.ok().body(emitter))
+            .orElseGet(() ->
+                ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, EVENT_STREAM_RETRY_AFTER).build()
+            );
+    }
+
+    /**
+     * {@code GET  /reservations/room/{roomId}/all} : get a page of the reservation history of a room, ordered by start.
+     * The cursor of the next page is returned in the {@code X-Next-Cursor} header (absent on the last page).
+     *
+     * @param roomId the id of the room.
+     * @param from the lower bound (inclusive) of the reservation start.
+     * @param to the upper bound (exclusive) of the reservation start.
+     * @param cursor the cursor of the page.
+     * @param pageSize the size of the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the reservations in body,
+     * or with status {@code 400 (Bad Request)} if the window or the cursor are not valid.
+     */
+    @GetMapping(value = "/room/{roomId}/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ReservationHistoryProjection>> getReservationHistoryForRoom(
+        @PathVariable("roomId") Long roomId,
+        @RequestParam(required = false) Instant from,
+        @RequestParam(required = false) Instant to,
+        @RequestParam(required = false) String cursor, // cursor opaco
+        @RequestParam(defaultValue = "100") int pageSize
+    ) {
+        LOG.debug("REST request to get reservation history of room {} from {} to {}", roomId, from, to);
+        checkHistoryWindow(from, to);
+        KeysetPageDTO<ReservationHistoryProjection> page = reservationService.findReservationHistoryByRoom(
+            roomId,
+            from,
+            to,
+            cursor,
+            Math.max(1, Math.min(pageSize, MAX_HISTORY_PAGE_SIZE))
+        );
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /reservations/room/{roomId}/all} with {@code Accept: application/x-ndjson} : stream the
+     * reservation history of a room, ordered by start, one reservation per line.
      *
      * @param roomId the id of the room.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the list of all reservations.
+     * @param from the lower bound (inclusive) of the reservation start.
+     * @param to the upper bound (exclusive) of the reservation start.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the reservations in body,
+     * or with status {@code 400 (Bad Request)} if the window is not valid.
      */
-    @GetMapping("/room/{roomId}/all")
-    public ResponseEntity<List<ReservationDTO>> getAllReservationsForRoom(@PathVariable("roomId") Long roomId) {
-        LOG.debug("REST request to get all reservations for room: {}", roomId);
-        List<ReservationDTO> allReservations = reservationService.findAllReservationsByRoom(roomId);
-        return ResponseEntity.ok().body(allReservations);
+    @GetMapping(value = "/room/{roomId}/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportReservationHistoryForRoom(
+        @PathVariable("roomId") Long roomId,
+        @RequestParam(required = false) Instant from,
+        @RequestParam(required = false) Instant to
+    ) {
+        LOG.debug("REST request to export reservation history of room {} from {} to {}", roomId, from, to);
+        checkHistoryWindow(from, to);
+        StreamingResponseBody body = outputStream -> reservationService.exportReservationHistoryByRoom(roomId, from, to, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static void checkHistoryWindow(Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestAlertException("Invalid history window", ENTITY_NAME, "invalidrange");
+        }
     }
 }
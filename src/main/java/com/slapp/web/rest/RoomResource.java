@@ -4,14 +4,22 @@ import com.slapp.repository.RoomRepository;
 import com.slapp.service.RoomQueryService;
 import com.slapp.service.RoomService;
 import com.slapp.service.StudioOperatingHoursService;
+import com.slapp.service.availability.RoomCalendarService;
 import com.slapp.service.criteria.RoomCriteria;
+import com.slapp.service.dto.PriceQuoteDTO;
+import com.slapp.service.dto.RoomCalendarDTO;
 import com.slapp.service.dto.RoomDTO;
 import com.slapp.service.dto.StudioOperatingHoursDTO;
+import com.slapp.service.pricing.PricingService;
 import com.slapp.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -50,16 +58,24 @@ public class RoomResource {
 
     private final StudioOperatingHoursService studioOperatingHoursService;
 
+    private final RoomCalendarService roomCalendarService;
+
+    private final PricingService pricingService;
+
     public RoomResource(
         RoomService roomService,
         RoomRepository roomRepository,
         RoomQueryService roomQueryService,
-        StudioOperatingHoursService studioOperatingHoursService
+        StudioOperatingHoursService studioOperatingHoursService,
+        RoomCalendarService roomCalendarService,
+        PricingService pricingService
     ) {
         this.roomService = roomService;
         this.roomRepository = roomRepository;
         this.roomQueryService = roomQueryService;
         this.studioOperatingHoursService = studioOperatingHoursService;
+        this.roomCalendarService = roomCalendarService;
+        this.pricingService = pricingService;
     }
 
     /**
@@ -225,4 +241,48 @@ public class RoomResource {
         List<StudioOperatingHoursDTO> operatingHours = studioOperatingHoursService.findByStudioId(roomDTO.get().getStudio().getId());
         return ResponseEntity.ok().body(operatingHours);
     }
+
+    /**
+     * {@code GET  /rooms/:id/calendar} : get the occupancy calendar of a room, per UTC day.
+     *
+     * @param id the id of the room.
+     * @param from the first day (format: yyyy-mm-dd).
+     * @param to the last day, inclusive (format: yyyy-mm-dd); at most 8 weeks after {@code from}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the calendar, or with status {@code 400 (Bad Request)} if the range is invalid, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<RoomCalendarDTO> getRoomCalendar(
+        @PathVariable("id") Long id,
+        @RequestParam("from") LocalDate from,
+        @RequestParam("to") LocalDate to
+    ) {
+        LOG.debug("REST request to get calendar of Room : {} from {} to {}", id, from, to);
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1 || days > RoomCalendarService.MAX_DAYS) {
+            throw new BadRequestAlertException("Invalid calendar range", ENTITY_NAME, "invalidrange");
+        }
+        return ResponseUtil.wrapOrNotFound(roomCalendarService.findCalendar(id, from, to));
+    }
+
+    /**
+     * {@code GET  /rooms/:id/quote} : get the price of a room for an interval, computed by the room's price schedule
+     * (hourly rate and active special prices).
+     *
+     * @param id the id of the room.
+     * @param start the start of the interval.
+     * @param end the end of the interval, exclusive; at most 31 days after {@code start}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the quote, or with status {@code 400 (Bad Request)} if the interval is invalid, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/quote")
+    public ResponseEntity<PriceQuoteDTO> getRoomQuote(
+        @PathVariable("id") Long id,
+        @RequestParam("start") Instant start,
+        @RequestParam("end") Instant end
+    ) {
+        LOG.debug("REST request to get quote of Room : {} from {} to {}", id, start, end);
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(PricingService.MAX_QUOTE_DURATION) > 0) {
+            throw new BadRequestAlertException("Invalid quote range", ENTITY_NAME, "invalidrange");
+        }
+        return ResponseUtil.wrapOrNotFound(pricingService.quote(id, start, end));
+    }
 }
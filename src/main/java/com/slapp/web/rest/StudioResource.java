@@ -1,13 +1,19 @@
 package com.slapp.web.rest;
 
 import com.slapp.repository.StudioRepository;
-import com.slapp.repository.projections.StudioDetailProjection;
 import com.slapp.repository.projections.StudioListProjection;
+import com.slapp.repository.projections.StudioNearbyProjection;
 import com.slapp.service.StudioQueryService;
 import com.slapp.service.StudioService;
 import com.slapp.service.criteria.StudioCriteria;
+import com.slapp.service.detail.StudioDetailDocument;
+import com.slapp.service.dto.KeysetPageDTO;
 import com.slapp.service.dto.StudioDTO;
+import com.slapp.service.dto.StudioFacetsDTO;
 import com.slapp.service.dto.StudioFilterDTO;
+import com.slapp.service.dto.StudioSuggestionDTO;
+import com.slapp.service.search.StudioSearchSort;
+import com.slapp.service.search.StudioSuggestIndex;
 import com.slapp.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -15,6 +21,7 @@ import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,13 +31,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -46,6 +60,21 @@ public class StudioResource {
 
     private static final String ENTITY_NAME = "studio";
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String HAS_NEXT_PAGE_HEADER = "X-Has-Next-Page";
+
+    // Modos de total da paginação: exato (COUNT), em cache ou nenhum (Slice)
+    private static final String TOTAL_EXACT = "exact";
+
+    private static final String TOTAL_CACHED = "cached";
+
+    private static final String TOTAL_NONE = "none";
+
+    private static final double MAX_NEARBY_RADIUS_KM = 200;
+
+    private static final int MAX_NEARBY_PAGE_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -180,6 +209,33 @@ public class StudioResource {
         return ResponseEntity.ok().body(studioQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /studios/suggest} : get typeahead suggestions (studio names, cities and states) for a prefix.
+     *
+     * @param q the typed prefix; accents and case are ignored.
+     * @param limit the maximum number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the suggestions, most popular first, in body.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<StudioSuggestionDTO>> suggestStudios(
+        @RequestParam String q,
+        @RequestParam(defaultValue = "" + StudioSuggestIndex.MAX_SUGGESTIONS) int limit
+    ) {
+        return ResponseEntity.ok().body(studioService.suggestStudios(q, limit));
+    }
+
+    /**
+     * {@code GET  /studios/export} : stream the active studios, with their rooms, prices and images, as NDJSON.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and one studio per line in body.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportStudios() {
+        LOG.debug("REST request to export active Studios");
+        StreamingResponseBody body = outputStream -> studioService.exportActiveStudios(outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * {@code GET  /studios/:id} : get the "id" studio.
      *
@@ -194,14 +250,26 @@ public class StudioResource {
     // }
 
     /**
-     * GET /api/studios/{id}/detail
-     * Retorna os detalhes completos do studio com rooms e imagens
+     * GET /api/studios/{id}
+     * Retorna os detalhes completos do studio com rooms e imagens, já serializados e com ETag:
+     * requisições com If-None-Match igual ao ETag atual recebem 304 sem corpo.
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<StudioDetailProjection> getStudioDetail(@PathVariable Long id) {
-        Optional<StudioDetailProjection> studioDetail = studioService.getStudioDetail(id);
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getStudioDetail(@PathVariable Long id, WebRequest webRequest) {
+        Optional<StudioDetailDocument> studioDetail = studioService.getStudioDetailDocument(id);
+        if (studioDetail.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
 
-        return studioDetail.map(studio -> ResponseEntity.ok().body(studio)).orElse(ResponseEntity.notFound().build());
+        StudioDetailDocument document = studioDetail.get();
+        if (webRequest.checkNotModified(document.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(document.etag()).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(document.etag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(document.body());
     }
 
     /**
@@ -223,6 +291,9 @@ public class StudioResource {
      * {@code GET  } : get all the studios.
      *
      * @param pageable the pagination information.
+     * @param q full-text search over names, city, descriptions, rooms and equipment; results are ordered by relevance.
+     * @param total how the total is computed: {@code exact} (default, count query), {@code cached}
+     * (count kept in the search cache) or {@code none} (no count, {@code X-Has-Next-Page} header only).
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of studios in body.
      */
     @GetMapping("/pagination")
@@ -235,7 +306,9 @@ public class StudioResource {
         @RequestParam(required = false) BigDecimal maxPrice,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availabilityStartDateTime,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availabilityEndDateTime,
-        @RequestParam(required = false) Boolean onlyFavorites
+        @RequestParam(required = false) Boolean onlyFavorites,
+        @RequestParam(required = false) String q,
+        @RequestParam(defaultValue = TOTAL_EXACT) String total
     ) {
         StudioFilterDTO filters = StudioFilterDTO.builder()
             .name(name)
@@ -246,15 +319,100 @@ public class StudioResource {
             .availabilityStartDateTime(availabilityStartDateTime)
             .availabilityEndDateTime(availabilityEndDateTime)
             .onlyFavorites(onlyFavorites)
+            .q(q)
             .build();
 
+        // Busca textual: ordenada por relevância, sempre com total exato
+        switch (filters.hasQueryFilter() ? TOTAL_EXACT : total) {
+            case TOTAL_NONE -> {
+                // Modo "carregar mais": sem COUNT, apenas indica se há próxima página
+                Slice<StudioListProjection> slice = studioService.getStudioRoomSlice(pageable, filters);
+                HttpHeaders headers = generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+                return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+            }
+            case TOTAL_CACHED -> {
+                if (!filters.hasOnlyFavoritesFilter()) {
+                    Slice<StudioListProjection> slice = studioService.getStudioRoomSlice(pageable, filters);
+                    Page<StudioListProjection> page = new PageImpl<>(slice.getContent(), pageable, studioService.countStudioRooms(filters));
+                    HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+                    return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+                }
+                // Favoritos dependem do usuário: total exato
+            }
+            case TOTAL_EXACT -> {
+                // Total calculado abaixo
+            }
+            default -> throw new BadRequestAlertException("Invalid total mode", ENTITY_NAME, "totalinvalid");
+        }
+
         final var page = studioService.getStudioRoomPagination(pageable, filters);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET  /studios/facets} : get the facet counts (city, room type, price bucket and availability)
+     * of the studio search, with the same filters as {@code /studios/pagination}.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the facet counts in body.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<StudioFacetsDTO> getStudioFacets(
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) String city,
+        @RequestParam(required = false) String roomType,
+        @RequestParam(required = false) BigDecimal minPrice,
+        @RequestParam(required = false) BigDecimal maxPrice,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availabilityStartDateTime,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availabilityEndDateTime,
+        @RequestParam(required = false) Boolean onlyFavorites
+    ) {
+        StudioFilterDTO filters = StudioFilterDTO.builder()
+            .name(name)
+            .city(city)
+            .roomType(roomType)
+            .minPrice(minPrice)
+            .maxPrice(maxPrice)
+            .availabilityStartDateTime(availabilityStartDateTime)
+            .availabilityEndDateTime(availabilityEndDateTime)
+            .onlyFavorites(onlyFavorites)
+            .build();
+        return ResponseEntity.ok().body(studioService.getStudioFacets(filters));
+    }
+
+    /**
+     * Headers de paginação sem total: {@code X-Has-Next-Page} e links {@code next}/{@code prev}.
+     */
+    private static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HAS_NEXT_PAGE_HEADER, Boolean.toString(slice.hasNext()));
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(prepareLink(uriBuilder, slice.getNumber() + 1, slice.getSize(), "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(prepareLink(uriBuilder, slice.getNumber() - 1, slice.getSize(), "prev"));
+        }
+        if (!links.isEmpty()) {
+            headers.add(HttpHeaders.LINK, String.join(",", links));
+        }
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        String uri = uriBuilder
+            .replaceQueryParam("page", pageNumber)
+            .replaceQueryParam("size", pageSize)
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return "<" + uri + ">; rel=\"" + relType + "\"";
+    }
+
     /**
      * {@code GET  } : get studios with keyset pagination.
+     * Supported sorts: {@code id} (default), {@code minPrice} and {@code name}. The cursor of the next page
+     * is returned in the {@code X-Next-Cursor} header (absent on the last page).
      */
     @GetMapping("/keyset")
     public ResponseEntity<List<StudioListProjection>> getStudiosKeyset(
@@ -265,21 +423,82 @@ public class StudioResource {
         @RequestParam(required = false) BigDecimal maxPrice,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availabilityStartDateTime,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availabilityEndDateTime,
-        @RequestParam(required = false) Long lastId, // cursor
+        @RequestParam(required = false) String sort,
+        @RequestParam(required = false) String cursor, // cursor opaco
+        @RequestParam(required = false) Long lastId, // cursor legado (ordenação por id)
         @RequestParam(defaultValue = "6") int pageSize // limite
     ) {
-        List<StudioListProjection> studios = studioService.findStudiosKeyset(
-            name,
-            city,
-            roomType,
-            minPrice,
-            maxPrice,
-            availabilityStartDateTime,
-            availabilityEndDateTime,
+        StudioSearchSort searchSort = StudioSearchSort.fromParam(sort)
+            .filter(s -> s != StudioSearchSort.DISTANCE)
+            .orElseThrow(() -> new BadRequestAlertException("Invalid sort", ENTITY_NAME, "sortinvalid"));
+        StudioFilterDTO filters = StudioFilterDTO.builder()
+            .name(name)
+            .city(city)
+            .roomType(roomType)
+            .minPrice(minPrice)
+            .maxPrice(maxPrice)
+            .availabilityStartDateTime(availabilityStartDateTime)
+            .availabilityEndDateTime(availabilityEndDateTime)
+            .build();
+        KeysetPageDTO<StudioListProjection> page = studioService.findStudiosKeyset(
+            filters,
+            searchSort,
+            cursor,
             lastId,
+            Math.max(1, pageSize)
+        );
+        return ResponseEntity.ok().headers(nextCursorHeaders(page)).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /studios/nearby} : get the active studios nearest to a point, sorted by distance.
+     * The cursor of the next page is returned in the {@code X-Next-Cursor} header (absent on the last page).
+     *
+     * @param latitude the latitude of the reference point.
+     * @param longitude the longitude of the reference point.
+     * @param radiusKm the search radius in kilometers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of studios in body,
+     * or with status {@code 400 (Bad Request)} if the point, the radius, the page size or the cursor are not valid.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<StudioNearbyProjection>> getStudiosNearby(
+        @RequestParam double latitude,
+        @RequestParam double longitude,
+        @RequestParam(defaultValue = "10") double radiusKm,
+        @RequestParam(required = false) String roomType,
+        @RequestParam(required = false) BigDecimal minPrice,
+        @RequestParam(required = false) BigDecimal maxPrice,
+        @RequestParam(required = false) String cursor, // cursor opaco
+        @RequestParam(defaultValue = "6") int pageSize // limite
+    ) {
+        LOG.debug("REST request to get Studios near ({}, {}) within {} km", latitude, longitude, radiusKm);
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestAlertException("Invalid coordinates", ENTITY_NAME, "coordinatesinvalid");
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            throw new BadRequestAlertException("Invalid radius", ENTITY_NAME, "radiusinvalid");
+        }
+        if (pageSize < 1 || pageSize > MAX_NEARBY_PAGE_SIZE) {
+            throw new BadRequestAlertException("Invalid page size", ENTITY_NAME, "pagesizeinvalid");
+        }
+        StudioFilterDTO filters = StudioFilterDTO.builder().roomType(roomType).minPrice(minPrice).maxPrice(maxPrice).build();
+        KeysetPageDTO<StudioNearbyProjection> page = studioService.findStudiosNearby(
+            latitude,
+            longitude,
+            radiusKm,
+            filters,
+            cursor,
             pageSize
         );
-        return ResponseEntity.ok().body(studios);
+        return ResponseEntity.ok().headers(nextCursorHeaders(page)).body(page.getContent());
+    }
+
+    private static HttpHeaders nextCursorHeaders(KeysetPageDTO<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return headers;
     }
 
     /**
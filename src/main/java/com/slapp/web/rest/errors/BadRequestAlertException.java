@@ -20,10 +20,14 @@ public class BadRequestAlertException extends ErrorResponseException {
     }
 
     public BadRequestAlertException(URI type, String defaultMessage, String entityName, String errorKey) {
+        this(HttpStatus.BAD_REQUEST, type, defaultMessage, entityName, errorKey);
+    }
+
+    protected BadRequestAlertException(HttpStatus status, URI type, String defaultMessage, String entityName, String errorKey) {
         super(
-            HttpStatus.BAD_REQUEST,
+            status,
             ProblemDetailWithCauseBuilder.instance()
-                .withStatus(HttpStatus.BAD_REQUEST.value())
+                .withStatus(status.value())
                 .withType(type)
                 .withTitle(defaultMessage)
                 .withProperty("message", "error." + errorKey)
@@ -12,6 +12,10 @@ public final class ErrorConstants {
     public static final URI INVALID_PASSWORD_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-password");
     public static final URI EMAIL_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/email-already-used");
     public static final URI LOGIN_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/login-already-used");
+    public static final URI RESERVATION_CONFLICT_TYPE = URI.create(PROBLEM_BASE_URL + "/reservation-conflict");
+    public static final URI PRICE_MISMATCH_TYPE = URI.create(PROBLEM_BASE_URL + "/price-mismatch");
+    public static final URI INVALID_CURSOR_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-cursor");
+    public static final URI RESERVATION_ARCHIVED_TYPE = URI.create(PROBLEM_BASE_URL + "/reservation-archived");
 
     private ErrorConstants() {}
 }
@@ -92,6 +92,14 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
             .getBody();
         if (ex instanceof com.slapp.service.InvalidPasswordException) return (ProblemDetailWithCause) new InvalidPasswordException()
             .getBody();
+        if (ex instanceof com.slapp.service.ReservationConflictException) return (ProblemDetailWithCause) new ReservationConflictException()
+            .getBody();
+        if (ex instanceof com.slapp.service.ReservationPriceMismatchException) return (ProblemDetailWithCause) new ReservationPriceMismatchException()
+            .getBody();
+        if (ex instanceof com.slapp.service.InvalidCursorException) return (ProblemDetailWithCause) new InvalidCursorException()
+            .getBody();
+        if (ex instanceof com.slapp.service.ReservationArchivedException) return (ProblemDetailWithCause) new ReservationArchivedException()
+            .getBody();
 
         if (
             ex instanceof ErrorResponseException exp && exp.getBody() instanceof ProblemDetailWithCause problemDetailWithCause
@@ -0,0 +1,11 @@
+package com.slapp.web.rest.errors;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class ReservationArchivedException extends BadRequestAlertException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReservationArchivedException() {
+        super(ErrorConstants.RESERVATION_ARCHIVED_TYPE, "Archived reservations cannot be reviewed!", "review", "reservationarchived");
+    }
+}
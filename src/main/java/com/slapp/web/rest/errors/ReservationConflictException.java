@@ -0,0 +1,19 @@
+package com.slapp.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class ReservationConflictException extends BadRequestAlertException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReservationConflictException() {
+        super(
+            HttpStatus.CONFLICT,
+            ErrorConstants.RESERVATION_CONFLICT_TYPE,
+            "The room is already booked for this time slot!",
+            "reservation",
+            "reservationconflict"
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.slapp.web.rest.errors;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class ReservationPriceMismatchException extends BadRequestAlertException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReservationPriceMismatchException() {
+        super(ErrorConstants.PRICE_MISMATCH_TYPE, "The price does not match the room's price schedule!", "reservation", "pricemismatch");
+    }
+}
@@ -5,6 +5,7 @@ import { TextFormat } from 'react-jhipster';
 import axios from 'axios';
 import { toast } from 'react-toastify';
 import { APP_DATE_FORMAT } from 'app/config/constants';
+import { subscribeEventStream } from 'app/shared/util/event-stream';
 
 interface PendingReservationsProps {
   studioId: string;
@@ -46,9 +47,24 @@ export const PendingReservations: React.FC<PendingReservationsProps> = ({ studio
   const [rejectReason, setRejectReason] = useState('');
 
   useEffect(() => {
-    if (isOwner) {
-      loadPendingReservations();
+    if (!isOwner) {
+      return undefined;
     }
+    // O stream abre antes da carga da lista: eventos entre as duas não se perdem
+    const unsubscribe = subscribeEventStream(`/api/reservations/studio/${studioId}/pending/events`, ({ event, data }) => {
+      if (event === 'resync') {
+        loadPendingReservations();
+        return;
+      }
+      const reservation: PendingReservation = JSON.parse(data);
+      if (event === 'created') {
+        setPendingReservations(current => (current.some(r => r.id === reservation.id) ? current : [...current, reservation]));
+      } else {
+        setPendingReservations(current => current.filter(r => r.id !== reservation.id));
+      }
+    });
+    loadPendingReservations();
+    return unsubscribe;
   }, [studioId, isOwner]);
 
   const loadPendingReservations = async () => {
@@ -68,7 +84,7 @@ export const PendingReservations: React.FC<PendingReservationsProps> = ({ studio
     try {
       await axios.post(`/api/reservations/${reservationId}/approve`);
       toast.success('Reserva aprovada com sucesso!');
-      loadPendingReservations(); // Reload list
+      setPendingReservations(current => current.filter(r => r.id !== reservationId));
     } catch (error) {
       console.error('Error approving reservation:', error);
       toast.error('Erro ao aprovar reserva');
@@ -85,7 +101,7 @@ export const PendingReservations: React.FC<PendingReservationsProps> = ({ studio
       setRejectModalOpen(false);
       setSelectedReservationId(null);
       setRejectReason('');
-      loadPendingReservations(); // Reload list
+      setPendingReservations(current => current.filter(r => r.id !== selectedReservationId));
     } catch (error) {
       console.error('Error rejecting reservation:', error);
       toast.error('Erro ao rejeitar reserva');
@@ -9,17 +9,27 @@ import { isNull } from 'lodash';
 interface TimeSlot {
   hour: number;
   available: boolean;
-  reservation?: any;
 }
 
-interface OperatingHours {
-  id?: number;
-  dayOfWeek: string;
-  startTime?: string;
-  endTime?: string;
-  isOpen: boolean;
+// Dia do calendário da sala: um código por slot de 1 hora (UTC)
+interface CalendarDay {
+  date: string;
+  free: string;
+  codes: string;
 }
 
+const CLOSED_CODE = '-';
+const FREE_CODE = 'F';
+
+// Dias carregados por requisição ao calendário
+const CALENDAR_DAYS = 7;
+
+const addDays = (date: string, days: number) => {
+  const result = new Date(`${date}T00:00:00.000Z`);
+  result.setUTCDate(result.getUTCDate() + days);
+  return result.toISOString().split('T')[0];
+};
+
 interface ReservationCalendarProps {
   isOpen: boolean;
   toggle: () => void;
@@ -35,30 +45,19 @@ export const ReservationCalendar: React.FC<ReservationCalendarProps> = ({ isOpen
   const [error, setError] = useState<string>('');
   const [artistName, setArtistName] = useState<string>('');
   const [instruments, setInstruments] = useState<string>('');
-  const [operatingHours, setOperatingHours] = useState<OperatingHours[]>([]);
+  const [calendarDays, setCalendarDays] = useState<Record<string, CalendarDay>>({});
+  const [quotedPrice, setQuotedPrice] = useState<number | null>(null);
   const [currentDayHours, setCurrentDayHours] = useState<{ start: number; end: number; isOpen: boolean }>({
     start: 8,
     end: 22,
     isOpen: true,
   });
 
-  useEffect(() => {
-    if (isOpen && room) {
-      loadOperatingHours();
-    }
-  }, [isOpen, room]);
-
-  useEffect(() => {
-    if (isOpen && room && selectedDate && operatingHours.length > 0) {
-      updateCurrentDayHours();
-    }
-  }, [isOpen, room, selectedDate, operatingHours]);
-
   useEffect(() => {
     if (isOpen && room && selectedDate) {
       loadAvailability();
     }
-  }, [isOpen, room, selectedDate, currentDayHours]);
+  }, [isOpen, room, selectedDate]);
 
   useEffect(() => {
     if (!isOpen) {
@@ -67,97 +66,90 @@ export const ReservationCalendar: React.FC<ReservationCalendarProps> = ({ isOpen
       setArtistName('');
       setInstruments('');
       setError('');
+      setCalendarDays({});
     }
   }, [isOpen]);
 
-  const loadOperatingHours = async () => {
-    try {
-      const response = await axios.get(`/api/rooms/${room.id}/operating-hours`);
-      setOperatingHours(response.data);
-    } catch (err) {
-      console.error('Error loading operating hours:', err);
-      // Fallback to default hours if no operating hours configured
-      setOperatingHours([]);
-    }
+  // Intervalo reservado pelos horários selecionados, em UTC para evitar problemas de timezone
+  const selectedInterval = () => {
+    const startHour = Math.min(...selectedTimeSlots);
+    const endHour = Math.max(...selectedTimeSlots) + 1;
+    return {
+      startDateTime: new Date(`${selectedDate}T${startHour.toString().padStart(2, '0')}:00:00.000Z`).toISOString(),
+      endDateTime: new Date(`${selectedDate}T${endHour.toString().padStart(2, '0')}:00:00.000Z`).toISOString(),
+    };
   };
 
-  const updateCurrentDayHours = () => {
-    const selectedDateObj = new Date(selectedDate + 'T00:00:00');
-    const dayNames = ['SUNDAY', 'MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY'];
-    const dayOfWeek = dayNames[selectedDateObj.getDay()];
+  useEffect(() => {
+    setQuotedPrice(null);
+    if (!room || selectedTimeSlots.length === 0) {
+      return undefined;
+    }
+    let cancelled = false;
+    const { startDateTime, endDateTime } = selectedInterval();
+    // Valor calculado pelo servidor com a tabela de preços da sala (inclui os preços especiais)
+    axios
+      .get(`/api/rooms/${room.id}/quote`, { params: { start: startDateTime, end: endDateTime } })
+      .then(response => {
+        if (!cancelled) {
+          setQuotedPrice(response.data.totalPrice);
+        }
+      })
+      .catch(err => {
+        if (!cancelled) {
+          console.error('Error loading price quote:', err);
+        }
+      });
+    return () => {
+      cancelled = true;
+    };
+  }, [room, selectedDate, selectedTimeSlots]);
 
-    const dayHours = operatingHours.find(oh => oh.dayOfWeek === dayOfWeek);
-    if (!dayHours || !dayHours.isOpen) {
+  const applyCalendarDay = (day?: CalendarDay) => {
+    const openHours: number[] = [];
+    day?.codes.split('').forEach((code, hour) => {
+      if (code !== CLOSED_CODE) {
+        openHours.push(hour);
+      }
+    });
+    if (openHours.length === 0) {
       setCurrentDayHours({ start: 8, end: 22, isOpen: false });
+      setTimeSlots([]);
       return;
     }
 
-    const startHour = dayHours.startTime ? parseInt(dayHours.startTime.split(':')[0]) : 8;
-    let endHour = dayHours.endTime ? parseInt(dayHours.endTime.split(':')[0]) : 22;
-
-    // Se endTime for 00:00 (meia-noite), tratar como 24 para o loop funcionar
-    if (endHour === 0) {
-      endHour = 24;
+    const start = Math.min(...openHours);
+    const end = Math.max(...openHours) + 1;
+    const slots: TimeSlot[] = [];
+    for (let hour = start; hour < end; hour++) {
+      slots.push({ hour, available: day.codes[hour] === FREE_CODE });
     }
-
-    setCurrentDayHours({ start: startHour, end: endHour, isOpen: true });
+    setCurrentDayHours({ start, end, isOpen: true });
+    setTimeSlots(slots);
   };
 
   const loadAvailability = async () => {
-    setLoading(true);
     setError('');
+    setSelectedTimeSlots([]);
 
-    // Check if studio is closed on selected day
-    if (!currentDayHours.isOpen) {
-      setTimeSlots([]);
-      setLoading(false);
+    const cachedDay = calendarDays[selectedDate];
+    if (cachedDay) {
+      applyCalendarDay(cachedDay);
       return;
     }
 
+    setLoading(true);
     try {
-      // Get all reservations for the room and filter manually
-      // TODO: Fix backend query to properly filter by date
-      const allReservationsResponse = await axios.get(`/api/reservations/room/${room.id}/all`);
-
-      // Filter reservations for the selected date (usando UTC para consistência)
-      const selectedDateUTC = new Date(`${selectedDate}T00:00:00.000Z`);
-      const nextDayUTC = new Date(`${selectedDate}T23:59:59.999Z`);
-
-      const reservations = allReservationsResponse.data.filter((res: any) => {
-        const reservationStart = new Date(res.startDateTime);
-        const reservationEnd = new Date(res.endDateTime);
-
-        // Verifica se a reserva tem alguma sobreposição com o dia selecionado
-        const hasOverlap = reservationStart <= nextDayUTC && reservationEnd >= selectedDateUTC;
-
-        // Only include active reservations
-        const isActive = ['PENDING', 'CONFIRMED', 'IN_PROGRESS'].includes(res.status);
-
-        return hasOverlap && isActive;
+      // Uma requisição traz a ocupação da semana a partir do dia selecionado, já com horários e bloqueios
+      const response = await axios.get(`/api/rooms/${room.id}/calendar`, {
+        params: { from: selectedDate, to: addDays(selectedDate, CALENDAR_DAYS - 1) },
       });
-
-      const slots: TimeSlot[] = [];
-      for (let hour = currentDayHours.start; hour < currentDayHours.end; hour++) {
-        // Create start and end time for current slot in UTC
-        const slotStart = new Date(`${selectedDate}T${hour.toString().padStart(2, '0')}:00:00.000Z`);
-        const slotEnd = new Date(`${selectedDate}T${(hour + 1).toString().padStart(2, '0')}:00:00.000Z`);
-
-        // Check if there's a conflict with any reservation
-        const conflictingReservation = reservations.find((res: any) => {
-          const reservationStart = new Date(res.startDateTime);
-          const reservationEnd = new Date(res.endDateTime);
-
-          // Check overlap: (slotStart < reservationEnd) && (slotEnd > reservationStart)
-          return slotStart < reservationEnd && slotEnd > reservationStart;
-        });
-        slots.push({
-          hour,
-          available: !conflictingReservation,
-          reservation: conflictingReservation,
-        });
-      }
-
-      setTimeSlots(slots);
+      const loadedDays = { ...calendarDays };
+      response.data.days.forEach((day: CalendarDay) => {
+        loadedDays[day.date] = day;
+      });
+      setCalendarDays(loadedDays);
+      applyCalendarDay(loadedDays[selectedDate]);
     } catch (err) {
       setError('Erro ao carregar disponibilidade');
       console.error('Error loading availability:', err);
@@ -185,21 +177,19 @@ export const ReservationCalendar: React.FC<ReservationCalendarProps> = ({ isOpen
       return;
     }
 
-    const startHour = Math.min(...selectedTimeSlots);
-    const endHour = Math.max(...selectedTimeSlots) + 1;
-
-    // Criar datas em UTC para evitar problemas de timezone
-    const startDateTime = new Date(`${selectedDate}T${startHour.toString().padStart(2, '0')}:00:00.000Z`);
-    const endDateTime = new Date(`${selectedDate}T${endHour.toString().padStart(2, '0')}:00:00.000Z`);
+    if (quotedPrice === null) {
+      setError('Aguarde o cálculo do valor da reserva');
+      return;
+    }
 
+    const { startDateTime, endDateTime } = selectedInterval();
     const duration = selectedTimeSlots.length;
-    const totalPrice = room.hourlyRate * duration;
 
     const reservationData = {
       roomId: room.id,
-      startDateTime: startDateTime.toISOString(),
-      endDateTime: endDateTime.toISOString(),
-      totalPrice,
+      startDateTime,
+      endDateTime,
+      totalPrice: quotedPrice,
       notes: `Reserva para ${duration} hora(s)`,
       artistName: artistName.trim() || undefined,
       instruments: instruments.trim() || undefined,
@@ -301,7 +291,7 @@ export const ReservationCalendar: React.FC<ReservationCalendarProps> = ({ isOpen
                       <br />
                       Duração: {selectedTimeSlots.length} hora(s)
                       <br />
-                      Valor total: R$ {(room?.hourlyRate * selectedTimeSlots.length)?.toFixed(2)}
+                      Valor total: {quotedPrice === null ? 'calculando...' : `R$ ${quotedPrice.toFixed(2)}`}
                     </Alert>
 
                     <div className="mt-4 p-3 border rounded">
@@ -0,0 +1,99 @@
+import { Storage } from 'react-jhipster';
+
+export interface ServerSentEvent {
+  id?: string;
+  event: string;
+  data: string;
+}
+
+const RETRY_MS = 5000;
+
+const parseEvent = (block: string): ServerSentEvent | null => {
+  const event: ServerSentEvent = { event: 'message', data: '' };
+  const data: string[] = [];
+  block.split('\n').forEach(line => {
+    // Linhas iniciadas por ':' são comentários (heartbeat)
+    if (!line || line.startsWith(':')) {
+      return;
+    }
+    const separator = line.indexOf(':');
+    const field = separator >= 0 ? line.slice(0, separator) : line;
+    const value = separator >= 0 ? line.slice(separator + 1).replace(/^ /, '') : '';
+    if (field === 'data') {
+      data.push(value);
+    } else if (field === 'event') {
+      event.event = value;
+    } else if (field === 'id') {
+      event.id = value;
+    }
+  });
+  if (data.length === 0) {
+    return null;
+  }
+  event.data = data.join('\n');
+  return event;
+};
+
+/**
+ * Lê um stream text/event-stream da API. Usa fetch em vez de EventSource, que não envia o header
+ * Authorization, e reconecta com Last-Event-ID. Retorna a função que encerra o stream.
+ */
+export const subscribeEventStream = (url: string, onEvent: (event: ServerSentEvent) => void): (() => void) => {
+  const controller = new AbortController();
+  let lastEventId: string | undefined;
+
+  const readStream = async (body: ReadableStream<Uint8Array>) => {
+    const reader = body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) {
+        return;
+      }
+      buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n');
+      let boundary = buffer.indexOf('\n\n');
+      while (boundary >= 0) {
+        const event = parseEvent(buffer.slice(0, boundary));
+        buffer = buffer.slice(boundary + 2);
+        if (event) {
+          if (event.id) {
+            lastEventId = event.id;
+          }
+          onEvent(event);
+        }
+        boundary = buffer.indexOf('\n\n');
+      }
+    }
+  };
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const token = Storage.local.get('jhi-authenticationToken') || Storage.session.get('jhi-authenticationToken');
+        const headers: Record<string, string> = { Accept: 'text/event-stream' };
+        if (token) {
+          headers.Authorization = `Bearer ${token}`;
+        }
+        if (lastEventId) {
+          headers['Last-Event-ID'] = lastEventId;
+        }
+        const response = await fetch(`${SERVER_API_URL}${url}`, { headers, signal: controller.signal });
+        if (response.status === 401 || response.status === 403) {
+          return;
+        }
+        if (response.ok && response.body) {
+          await readStream(response.body);
+        }
+      } catch (error) {
+        if (controller.signal.aborted) {
+          return;
+        }
+      }
+      await new Promise(resolve => setTimeout(resolve, RETRY_MS));
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+};
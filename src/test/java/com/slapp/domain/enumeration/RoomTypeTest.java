@@ -0,0 +1,64 @@
+package com.slapp.domain.enumeration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.slapp.repository.StudioRoomSummaryRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Checks that the room type bits written by SQL agree with {@link RoomType#getMask()}.
+ */
+class RoomTypeTest {
+
+    private static final Pattern CASE_BRANCH = Pattern.compile("WHEN '(\\w+)' THEN (\\d+)");
+
+    private static final String BACKFILL_CHANGELOG = "config/liquibase/changelog/20261018000001_added_table_StudioRoomSummary.xml";
+
+    @Test
+    void masksShouldBeDistinctSingleBits() {
+        assertThat(Arrays.stream(RoomType.values()).map(RoomType::getMask))
+            .doesNotHaveDuplicates()
+            .allMatch(mask -> Integer.bitCount(mask) == 1);
+    }
+
+    @Test
+    void summaryRefreshShouldUseTheMasks() throws NoSuchMethodException {
+        String sql = StudioRoomSummaryRepository.class.getMethod("refreshByStudioId", Long.class).getAnnotation(Query.class).value();
+
+        assertThat(caseBranches(sql)).isEqualTo(masksByName());
+    }
+
+    @Test
+    void summaryBackfillShouldUseTheMasks() throws IOException {
+        String changelog;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(BACKFILL_CHANGELOG)) {
+            assertThat(in).isNotNull();
+            changelog = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        assertThat(caseBranches(changelog)).isEqualTo(masksByName());
+    }
+
+    private static Map<String, Integer> caseBranches(String sql) {
+        Map<String, Integer> branches = new LinkedHashMap<>();
+        Matcher matcher = CASE_BRANCH.matcher(sql);
+        while (matcher.find()) {
+            branches.put(matcher.group(1), Integer.valueOf(matcher.group(2)));
+        }
+        return branches;
+    }
+
+    private static Map<String, Integer> masksByName() {
+        return Arrays.stream(RoomType.values()).collect(Collectors.toMap(RoomType::name, RoomType::getMask));
+    }
+}
@@ -0,0 +1,202 @@
+package com.slapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.slapp.IntegrationTest;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for the access paths of the hot repository queries: with a seeded volume, the
+ * plan of each query must not fall back to a sequential scan of the table it reads.
+ * <p>
+ * The queries are the SQL of the repository methods named in {@link #queries()}, with literal values.
+ */
+@IntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AccessPathIndexIT {
+
+    private static final long SEED_ID = 1_000_000L;
+    private static final int USERS = 1_000;
+    private static final int STUDIOS = 2_000;
+    private static final int ROOMS_PER_STUDIO = 5;
+    private static final int RESERVATIONS_PER_ROOM = 6;
+    private static final int FAVORITES_PER_USER = 10;
+    private static final int SPECIAL_PRICES_PER_ROOM = 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update(
+            "INSERT INTO jhi_user (id, login, activated, created_by) " +
+            "SELECT ?::bigint + n, 'access-path-' || n, true, 'system' FROM generate_series(1, ?) n",
+            SEED_ID,
+            USERS
+        );
+        jdbcTemplate.update(
+            "INSERT INTO user_profile (id, user_type, user_id) " +
+            "SELECT ?::bigint + n, 'CUSTOMER', ?::bigint + n FROM generate_series(1, ?) n",
+            SEED_ID,
+            SEED_ID,
+            USERS
+        );
+        jdbcTemplate.update(
+            "INSERT INTO studio (id, name, address, city, state, active, owner_id) " +
+            "SELECT ?::bigint + n, 'Studio ' || n, 'Rua ' || n, 'City ' || (n % 200), 'SP', n % 10 <> 0, ?::bigint + 1 + n % ? " +
+            "FROM generate_series(1, ?) n",
+            SEED_ID,
+            SEED_ID,
+            USERS,
+            STUDIOS
+        );
+        jdbcTemplate.update(
+            "INSERT INTO room (id, name, hourly_rate, room_type, active, studio_id) " +
+            "SELECT ?::bigint + n, 'Room ' || n, 50 + n % 150, (ARRAY['RECORDING', 'REHEARSAL', 'LIVE', 'MIXING'])[1 + n % 4], " +
+            "n % 7 <> 0, ?::bigint + 1 + (n - 1) / ? FROM generate_series(1, ?) n",
+            SEED_ID,
+            SEED_ID,
+            ROOMS_PER_STUDIO,
+            STUDIOS * ROOMS_PER_STUDIO
+        );
+        // Sequential 2h reservations per room (no overlap); ~2% pending
+        jdbcTemplate.update(
+            "INSERT INTO reservation (id, start_date_time, end_date_time, total_price, status, created_at, customer_id, room_id) " +
+            "SELECT ?::bigint + n, " +
+            "TIMESTAMP '2026-01-01 08:00' + ((n - 1) % ?) * INTERVAL '3 hours', " +
+            "TIMESTAMP '2026-01-01 10:00' + ((n - 1) % ?) * INTERVAL '3 hours', " +
+            "100, CASE WHEN n % 50 = 0 THEN 'PENDING' WHEN n % 5 = 0 THEN 'CANCELLED' ELSE 'CONFIRMED' END, " +
+            "TIMESTAMP '2025-12-01 00:00' + n * INTERVAL '1 minute', ?::bigint + 1 + n % ?, ?::bigint + 1 + (n - 1) / ? " +
+            "FROM generate_series(1, ?) n",
+            SEED_ID,
+            RESERVATIONS_PER_ROOM,
+            RESERVATIONS_PER_ROOM,
+            SEED_ID,
+            USERS,
+            SEED_ID,
+            RESERVATIONS_PER_ROOM,
+            STUDIOS * ROOMS_PER_STUDIO * RESERVATIONS_PER_ROOM
+        );
+        jdbcTemplate.update(
+            "INSERT INTO favorite (id, created_date, user_id, studio_id) " +
+            "SELECT ?::bigint + n, now(), ?::bigint + 1 + (n - 1) / ?, ?::bigint + 1 + (n * 37) % ? FROM generate_series(1, ?) n",
+            SEED_ID,
+            SEED_ID,
+            FAVORITES_PER_USER,
+            SEED_ID,
+            STUDIOS,
+            USERS * FAVORITES_PER_USER
+        );
+        // Evening price on a weekday per room; one in three inactive
+        jdbcTemplate.update(
+            "INSERT INTO special_price (id, day_of_week, start_time, end_time, price, active, room_id) " +
+            "SELECT ?::bigint + n, (ARRAY['MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY'])[1 + n % 5], " +
+            "TIME '18:00', TIME '23:00', 80 + n % 100, n % 3 <> 0, ?::bigint + 1 + (n - 1) / ? FROM generate_series(1, ?) n",
+            SEED_ID,
+            SEED_ID,
+            SPECIAL_PRICES_PER_ROOM,
+            STUDIOS * ROOMS_PER_STUDIO * SPECIAL_PRICES_PER_ROOM
+        );
+        jdbcTemplate.execute("ANALYZE jhi_user, user_profile, studio, room, reservation, favorite, special_price");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS reservation_archive_2025_11, reservation_archive_2025_12");
+        jdbcTemplate.update("DELETE FROM favorite WHERE id > ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM reservation WHERE id > ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM special_price WHERE id > ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM room WHERE id > ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM studio WHERE id > ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM user_profile WHERE id > ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM jhi_user WHERE id > ?", SEED_ID);
+    }
+
+    List<Arguments> queries() {
+        long roomId = SEED_ID + 42;
+        long userId = SEED_ID + 42;
+        return List.of(
+            Arguments.of(
+                "ReservationRepository.findOverlappingByRoom",
+                "reservation",
+                "SELECT r.* FROM reservation r WHERE r.archived = false AND r.room_id = " +
+                roomId +
+                " AND r.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')" +
+                " AND r.booked_range && tsrange(TIMESTAMP '2026-01-01 09:00', TIMESTAMP '2026-01-01 12:00', '[)')" +
+                " ORDER BY r.start_date_time"
+            ),
+            Arguments.of(
+                "ReservationRepository.findHistoryByRoomAfter",
+                "reservation",
+                "SELECT r.id, r.start_date_time FROM reservation r WHERE r.room_id = " +
+                roomId +
+                " AND r.start_date_time >= TIMESTAMP '2026-01-01 09:00' AND r.start_date_time < TIMESTAMP '9999-12-31 00:00'" +
+                " AND (r.start_date_time > TIMESTAMP '2026-01-01 09:00' OR r.id > " +
+                roomId +
+                ") ORDER BY r.start_date_time, r.id LIMIT 101"
+            ),
+            Arguments.of(
+                "ReservationRepository.confirmExpiredPendingReservations (chunk selection)",
+                "reservation",
+                "SELECT id FROM reservation WHERE archived = false AND status = 'PENDING' AND created_at <= TIMESTAMP '2025-12-02 00:00'" +
+                " ORDER BY created_at LIMIT 500 FOR UPDATE SKIP LOCKED"
+            ),
+            Arguments.of(
+                "StudioRepository.findActiveByCityOrderByName",
+                "studio",
+                "SELECT s.* FROM studio s WHERE s.city = 'City 42' AND s.active = true ORDER BY s.name"
+            ),
+            Arguments.of(
+                "SpecialPriceRepository.findActiveByRoomId",
+                "special_price",
+                "SELECT sp.* FROM special_price sp WHERE sp.room_id = " + roomId + " AND sp.active = true ORDER BY sp.id"
+            ),
+            Arguments.of(
+                "FavoriteRepository.findStudioIdsByUserId",
+                "favorite",
+                "SELECT f.studio_id FROM favorite f WHERE f.user_id = " + userId
+            )
+        );
+    }
+
+    @Test
+    void monthQueryShouldOnlyScanTheArchivePartitionOfTheMonth() {
+        jdbcTemplate.queryForObject("SELECT create_reservation_archive_partition(TIMESTAMP '2025-11-01')", Boolean.class);
+        jdbcTemplate.queryForObject("SELECT create_reservation_archive_partition(TIMESTAMP '2025-12-15')", Boolean.class);
+
+        // ReservationRepository.countReservationsByOwnerAndCurrentMonth
+        List<String> plan = jdbcTemplate.queryForList(
+            "EXPLAIN SELECT COUNT(r.id) FROM reservation r JOIN room rm ON rm.id = r.room_id JOIN studio s ON s.id = rm.studio_id " +
+            "WHERE s.owner_id = " +
+            (SEED_ID + 42) +
+            " AND r.status IN ('CONFIRMED', 'IN_PROGRESS', 'COMPLETED')" +
+            " AND r.start_date_time >= TIMESTAMP '2025-12-01 00:00' AND r.start_date_time < TIMESTAMP '2026-01-01 00:00'",
+            String.class
+        );
+
+        assertThat(plan)
+            .as("plan:%n%s", String.join("\n", plan))
+            .anyMatch(line -> line.contains("reservation_archive_2025_12"))
+            .noneMatch(line -> line.contains("reservation_archive_2025_11"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryShouldNotScanTheWholeTable(String repositoryMethod, String table, String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+
+        assertThat(plan)
+            .as("plan of %s:%n%s", repositoryMethod, String.join("\n", plan))
+            .noneMatch(line -> line.contains("Seq Scan on " + table));
+    }
+}
@@ -0,0 +1,392 @@
+package com.slapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.slapp.IntegrationTest;
+import com.slapp.repository.projections.StudioFacetRowProjection;
+import com.slapp.repository.projections.StudioListProjection;
+import com.slapp.repository.projections.StudioNearbyProjection;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the studio search built by {@link StudioSearchSql} ({@link StudioSearchRepositoryImpl}).
+ * <p>
+ * Every search is restricted to the seeded cities, so the rows of other tests do not change the results.
+ */
+@IntegrationTest
+@Transactional
+class StudioSearchRepositoryIT {
+
+    private static final long SEED_ID = 2_400_000L;
+    private static final String CITY = "Zyxcity";
+
+    private static final long ALPHA = SEED_ID + 1;
+    private static final long BETA = SEED_ID + 2;
+    private static final long GAMMA = SEED_ID + 3;
+    private static final long INACTIVE = SEED_ID + 4;
+    private static final long WITHOUT_ROOMS = SEED_ID + 5;
+
+    private static final long ALPHA_RECORDING = SEED_ID + 11;
+    private static final long ALPHA_REHEARSAL = SEED_ID + 12;
+
+    private static final Instant BUSY_FROM = Instant.parse("2030-01-07T11:00:00Z");
+    private static final Instant BUSY_TO = Instant.parse("2030-01-07T13:00:00Z");
+
+    @Autowired
+    private StudioRepository studioRepository;
+
+    @Autowired
+    private StudioRoomSummaryRepository studioRoomSummaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update(
+            "INSERT INTO jhi_user (id, login, activated, created_by) VALUES (?, 'studio-search', true, 'system')",
+            SEED_ID
+        );
+        jdbcTemplate.update("INSERT INTO user_profile (id, user_type, user_id) VALUES (?, 'CUSTOMER', ?)", SEED_ID, SEED_ID);
+        insertStudio(ALPHA, "Alpha Sound", CITY + " Norte", true);
+        insertStudio(BETA, "Beta Studio", CITY + " Sul", true);
+        insertStudio(GAMMA, "Gamma Sound", CITY + " Norte", true);
+        insertStudio(INACTIVE, "Delta Sound", CITY + " Sul", false);
+        insertStudio(WITHOUT_ROOMS, "Epsilon Sound", CITY + " Sul", true);
+        // Alpha: 80 to 150; Beta: 40; Gamma: 300 (its live room is inactive)
+        insertRoom(ALPHA_RECORDING, ALPHA, "RECORDING", 80, true);
+        insertRoom(ALPHA_REHEARSAL, ALPHA, "REHEARSAL", 150, true);
+        insertRoom(SEED_ID + 21, BETA, "MIXING", 40, true);
+        insertRoom(SEED_ID + 31, GAMMA, "MASTERING", 300, true);
+        insertRoom(SEED_ID + 32, GAMMA, "LIVE", 120, false);
+        insertRoom(SEED_ID + 41, INACTIVE, "RECORDING", 100, true);
+        insertRoom(SEED_ID + 51, WITHOUT_ROOMS, "RECORDING", 100, false);
+        jdbcTemplate.update(
+            "INSERT INTO reservation (id, start_date_time, end_date_time, total_price, status, customer_id, room_id) " +
+            "VALUES (?, TIMESTAMP '2030-01-07 10:00', TIMESTAMP '2030-01-07 12:00', 160, 'CONFIRMED', ?, ?)",
+            SEED_ID + 1,
+            SEED_ID,
+            ALPHA_RECORDING
+        );
+        for (long studioId = ALPHA; studioId <= WITHOUT_ROOMS; studioId++) {
+            studioRoomSummaryRepository.refreshByStudioId(studioId);
+        }
+    }
+
+    @Test
+    void searchShouldOnlyReturnActiveStudiosWithActiveRooms() {
+        assertThat(ids(criteria().build())).containsExactly(ALPHA, BETA, GAMMA);
+        assertThat(studioRepository.countStudios(criteria().build())).isEqualTo(3);
+    }
+
+    @Test
+    void nameAndCityShouldMatchIgnoringCase() {
+        assertThat(ids(criteria().name("sOUND").build())).containsExactly(ALPHA, GAMMA);
+        assertThat(ids(criteria().city("zyxcity sul").build())).containsExactly(BETA);
+    }
+
+    @Test
+    void roomTypeShouldMatchAnActiveRoomOfThatType() {
+        assertThat(ids(criteria().roomType("RECORDING").build())).containsExactly(ALPHA);
+        assertThat(ids(criteria().roomType("MASTERING").build())).containsExactly(GAMMA);
+        assertThat(ids(criteria().roomType("LIVE").build())).isEmpty();
+        assertThat(studioRepository.countStudios(criteria().roomType("MIXING").build())).isEqualTo(1);
+    }
+
+    @Test
+    void bothRoomTypeShouldMatchRecordingRehearsalLiveAndMixing() {
+        assertThat(ids(criteria().roomType("BOTH").build())).containsExactly(ALPHA, BETA);
+    }
+
+    @Test
+    void invalidRoomTypeShouldMatchNothing() {
+        StudioSearchCriteria criteria = criteria().roomType("BOGUS").build();
+
+        assertThat(studioRepository.searchStudioPage(criteria, PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(studioRepository.searchStudioSlice(criteria, PageRequest.of(0, 10)).hasContent()).isFalse();
+        assertThat(studioRepository.countStudios(criteria)).isZero();
+        assertThat(studioRepository.searchStudiosAfter(criteria, "id", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void priceBoundsShouldMatchASingleRoomInRange() {
+        assertThat(ids(criteria().minPrice(new BigDecimal("100")).build())).containsExactly(ALPHA, GAMMA);
+        assertThat(ids(criteria().maxPrice(new BigDecimal("50")).build())).containsExactly(BETA);
+        assertThat(ids(criteria().minPrice(new BigDecimal("100")).maxPrice(new BigDecimal("200")).build())).containsExactly(ALPHA);
+        // Alpha's price range covers [90, 100], but none of its rooms costs that much
+        assertThat(ids(criteria().minPrice(new BigDecimal("90")).maxPrice(new BigDecimal("100")).build())).isEmpty();
+    }
+
+    @Test
+    void availabilityWindowShouldExcludeBusyRooms() {
+        assertThat(ids(criteria().availability(BUSY_FROM, BUSY_TO).build())).containsExactly(ALPHA, BETA, GAMMA);
+        assertThat(ids(criteria().availability(BUSY_FROM, BUSY_TO).roomType("RECORDING").build())).isEmpty();
+        // Ends when the reservation starts
+        Instant reservationStart = BUSY_FROM.minusSeconds(3600);
+        assertThat(ids(criteria().availability(reservationStart.minusSeconds(7200), reservationStart).roomType("RECORDING").build()))
+            .containsExactly(ALPHA);
+    }
+
+    @Test
+    void busyRoomListShouldExcludeTheListedRooms() {
+        assertThat(ids(criteria().busyRoomIds(Set.of(ALPHA_RECORDING)).roomType("RECORDING").build())).isEmpty();
+        assertThat(ids(criteria().busyRoomIds(Set.of(ALPHA_RECORDING)).build())).containsExactly(ALPHA, BETA, GAMMA);
+        assertThat(ids(criteria().busyRoomIds(Set.of(ALPHA_RECORDING, ALPHA_REHEARSAL)).build())).containsExactly(BETA, GAMMA);
+    }
+
+    @Test
+    void searchShouldSortByEachColumn() {
+        assertThat(ids(criteria().build(), Sort.by("name"))).containsExactly(ALPHA, BETA, GAMMA);
+        assertThat(ids(criteria().build(), Sort.by(Sort.Direction.DESC, "id"))).containsExactly(GAMMA, BETA, ALPHA);
+        assertThat(ids(criteria().build(), Sort.by("city"))).containsExactly(ALPHA, GAMMA, BETA);
+        // Ties are broken by id
+        assertThat(ids(criteria().build(), Sort.by(Sort.Direction.DESC, "state"))).containsExactly(ALPHA, BETA, GAMMA);
+        assertThat(ids(criteria().build(), Sort.by(Sort.Direction.DESC, "minPrice"))).containsExactly(GAMMA, ALPHA, BETA);
+        assertThat(ids(criteria().build(), Sort.by("maxPrice"))).containsExactly(BETA, ALPHA, GAMMA);
+        assertThat(ids(criteria().build(), Sort.by(Sort.Direction.DESC, "roomCount"))).containsExactly(ALPHA, BETA, GAMMA);
+        // Unknown properties are ignored
+        assertThat(ids(criteria().build(), Sort.by(Sort.Direction.DESC, "owner"))).containsExactly(ALPHA, BETA, GAMMA);
+    }
+
+    @Test
+    void searchResultShouldCarryTheRoomSummary() {
+        assertThat(studioRepository.searchStudioSlice(criteria().name("Alpha").build(), PageRequest.of(0, 10)))
+            .singleElement()
+            .satisfies(studio -> {
+                assertThat(studio.getName()).isEqualTo("Alpha Sound");
+                assertThat(studio.getCity()).isEqualTo(CITY + " Norte");
+                assertThat(studio.getRoomCount()).isEqualTo(2);
+                assertThat(studio.getMinPrice()).isEqualByComparingTo("80");
+                assertThat(studio.getMaxPrice()).isEqualByComparingTo("150");
+            });
+    }
+
+    @Test
+    void pageShouldApplyTheOffsetAndCount() {
+        Page<StudioListProjection> page = studioRepository.searchStudioPage(criteria().build(), PageRequest.of(1, 2, Sort.by("name")));
+
+        assertThat(page.getContent()).extracting(StudioListProjection::getId).containsExactly(GAMMA);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+    }
+
+    @Test
+    void sliceShouldTellWhetherThereIsANextPage() {
+        Slice<StudioListProjection> first = studioRepository.searchStudioSlice(criteria().build(), PageRequest.of(0, 2, Sort.by("name")));
+        Slice<StudioListProjection> last = studioRepository.searchStudioSlice(criteria().build(), PageRequest.of(1, 2, Sort.by("name")));
+
+        assertThat(first.getContent()).extracting(StudioListProjection::getId).containsExactly(ALPHA, BETA);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(StudioListProjection::getId).containsExactly(GAMMA);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void keysetShouldContinueAfterTheLastItemOfEachSort() {
+        StudioSearchCriteria criteria = criteria().build();
+
+        List<StudioListProjection> byName = studioRepository.searchStudiosAfter(criteria, "name", null, null, 2);
+        assertThat(byName).extracting(StudioListProjection::getId).containsExactly(ALPHA, BETA);
+        assertThat(studioRepository.searchStudiosAfter(criteria, "name", "Beta Studio", BETA, 2))
+            .extracting(StudioListProjection::getId)
+            .containsExactly(GAMMA);
+
+        List<StudioListProjection> byMinPrice = studioRepository.searchStudiosAfter(criteria, "minPrice", null, null, 2);
+        assertThat(byMinPrice).extracting(StudioListProjection::getId).containsExactly(BETA, ALPHA);
+        assertThat(studioRepository.searchStudiosAfter(criteria, "minPrice", byMinPrice.get(1).getMinPrice(), ALPHA, 2))
+            .extracting(StudioListProjection::getId)
+            .containsExactly(GAMMA);
+
+        assertThat(studioRepository.searchStudiosAfter(criteria, "id", null, ALPHA, 2))
+            .extracting(StudioListProjection::getId)
+            .containsExactly(BETA, GAMMA);
+        assertThat(studioRepository.searchStudiosAfter(criteria, "id", null, GAMMA, 2)).isEmpty();
+    }
+
+    @Test
+    void facetsShouldIgnoreTheirOwnFilter() {
+        List<StudioFacetRowProjection> rows = studioRepository.searchStudioFacets(criteria().roomType("RECORDING").build());
+
+        // Grouped by room type, the type filter is not applied
+        assertThat(rows)
+            .filteredOn(row -> row.getGrp() == 0b101 && row.getRoomType() != null && row.getRoomTypeCount() > 0)
+            .extracting(StudioFacetRowProjection::getRoomType)
+            .containsExactlyInAnyOrder("RECORDING", "REHEARSAL", "MIXING", "MASTERING");
+        // Grouped by city, the city filter is not applied but the type filter is
+        assertThat(rows)
+            .filteredOn(row -> row.getGrp() == 0b011 && row.getCity() != null && row.getCity().startsWith(CITY))
+            .extracting(StudioFacetRowProjection::getCity, StudioFacetRowProjection::getCityCount)
+            .containsExactlyInAnyOrder(tuple(CITY + " Norte", 1L), tuple(CITY + " Sul", 0L));
+        // Alpha's recording room costs 80: second bucket
+        assertThat(rows)
+            .filteredOn(row -> row.getGrp() == 0b110 && row.getPriceBucket() != null && row.getPriceCount() > 0)
+            .extracting(StudioFacetRowProjection::getPriceBucket, StudioFacetRowProjection::getPriceCount)
+            .containsExactly(tuple(1, 1L));
+    }
+
+    @Test
+    void facetTotalsShouldSeparateAvailableStudios() {
+        StudioSearchCriteria byWindow = criteria().roomType("RECORDING").availability(BUSY_FROM, BUSY_TO).build();
+        StudioSearchCriteria byBusyRooms = criteria().roomType("RECORDING").busyRoomIds(Set.of(ALPHA_RECORDING)).build();
+
+        for (StudioSearchCriteria criteria : List.of(byWindow, byBusyRooms)) {
+            assertThat(studioRepository.searchStudioFacets(criteria))
+                .filteredOn(row -> row.getGrp() == 0b111)
+                .singleElement()
+                .satisfies(total -> {
+                    assertThat(total.getAnyTimeCount()).isEqualTo(1);
+                    assertThat(total.getTotalCount()).isZero();
+                });
+        }
+    }
+
+    @Test
+    void nearbyShouldOrderByDistanceWithinTheRadius() {
+        // About 1.1 km and 5.6 km south of Alpha
+        setPosition(ALPHA, -23.55);
+        setPosition(BETA, -23.56);
+        setPosition(GAMMA, -23.60);
+
+        List<StudioNearbyProjection> all = studioRepository.searchStudiosNearby(criteria().build(), -23.55, -46.63, 10_000, null, null, 10);
+        assertThat(all).extracting(StudioNearbyProjection::getId).containsExactly(ALPHA, BETA, GAMMA);
+        assertThat(all.get(0).getDistance()).isLessThan(1);
+        assertThat(all.get(1).getDistance()).isBetween(1_000d, 1_200d);
+
+        assertThat(studioRepository.searchStudiosNearby(criteria().build(), -23.55, -46.63, 2_000, null, null, 10))
+            .extracting(StudioNearbyProjection::getId)
+            .containsExactly(ALPHA, BETA);
+        assertThat(studioRepository.searchStudiosNearby(criteria().roomType("MIXING").build(), -23.55, -46.63, 10_000, null, null, 10))
+            .extracting(StudioNearbyProjection::getId)
+            .containsExactly(BETA);
+        assertThat(studioRepository.searchStudiosNearby(criteria().roomType("BOGUS").build(), -23.55, -46.63, 10_000, null, null, 10))
+            .isEmpty();
+
+        StudioNearbyProjection second = all.get(1);
+        assertThat(studioRepository.searchStudiosNearby(criteria().build(), -23.55, -46.63, 10_000, second.getDistance(), BETA, 10))
+            .extracting(StudioNearbyProjection::getId)
+            .containsExactly(GAMMA);
+    }
+
+    @Test
+    void textSearchShouldRankNameAboveRoomAndEquipmentText() {
+        // Alpha matches in its name (weight A), Gamma in an equipment brand (B) and Beta in a room description (C)
+        jdbcTemplate.update("UPDATE studio SET name = 'Marshall Sound' WHERE id = ?", ALPHA);
+        insertEquipment(SEED_ID + 71, SEED_ID + 31, "Cabeçote", "Marshall");
+        jdbcTemplate.update("UPDATE room SET description = 'Amplificadores Marshall' WHERE id = ?", SEED_ID + 21);
+        refreshSearchDocuments();
+
+        assertThat(textIds(text("marshall:*").build())).containsExactly(ALPHA, GAMMA, BETA);
+        assertThat(textIds(text("marsh:* & cabecote:*").build())).containsExactly(GAMMA);
+        assertThat(studioRepository.countStudios(text("marshall:*").build())).isEqualTo(3);
+    }
+
+    @Test
+    void textSearchShouldIgnoreInactiveRoomsAndKeepTheOtherFilters() {
+        // Gamma's live room is inactive, and so is the studio of room 41
+        insertEquipment(SEED_ID + 71, SEED_ID + 32, "Pedal", "Fuzzbox");
+        insertEquipment(SEED_ID + 72, SEED_ID + 41, "Pedal", "Fuzzbox");
+        insertEquipment(SEED_ID + 73, SEED_ID + 21, "Pedal", "Fuzzbox");
+        insertEquipment(SEED_ID + 74, ALPHA_RECORDING, "Pedal", "Fuzzbox");
+        refreshSearchDocuments();
+
+        assertThat(textIds(text("fuzzbox:*").build())).containsExactly(ALPHA, BETA);
+        assertThat(textIds(text("fuzzbox:*").maxPrice(new BigDecimal("50")).build())).containsExactly(BETA);
+        assertThat(textIds(text("fuzzbox:*").roomType("MASTERING").build())).isEmpty();
+    }
+
+    @Test
+    void searchDocumentShouldFollowAnEditOnceRefreshed() {
+        jdbcTemplate.update("UPDATE room SET name = 'Sala Hammond' WHERE id = ?", SEED_ID + 21);
+        refreshSearchDocuments();
+        assertThat(textIds(text("hammond:*").build())).containsExactly(BETA);
+
+        jdbcTemplate.update("UPDATE room SET name = 'Sala Rhodes' WHERE id = ?", SEED_ID + 21);
+        assertThat(textIds(text("rhodes:*").build())).isEmpty();
+
+        studioRepository.refreshSearchDocument(BETA);
+
+        assertThat(textIds(text("hammond:*").build())).isEmpty();
+        assertThat(textIds(text("rhodes:*").build())).containsExactly(BETA);
+    }
+
+    private void setPosition(long studioId, double latitude) {
+        jdbcTemplate.update("UPDATE studio SET latitude = ?, longitude = -46.63 WHERE id = ?", latitude, studioId);
+    }
+
+    private StudioSearchCriteria.Builder criteria() {
+        return StudioSearchCriteria.builder().city(CITY);
+    }
+
+    private StudioSearchCriteria.Builder text(String tsQuery) {
+        return criteria().tsQuery(tsQuery);
+    }
+
+    private List<Long> ids(StudioSearchCriteria criteria) {
+        return ids(criteria, Sort.by("id"));
+    }
+
+    private List<Long> ids(StudioSearchCriteria criteria, Sort sort) {
+        Pageable pageable = PageRequest.of(0, 10, sort);
+        return studioRepository.searchStudioPage(criteria, pageable).map(StudioListProjection::getId).getContent();
+    }
+
+    /**
+     * Ids of a text search, in relevance order.
+     */
+    private List<Long> textIds(StudioSearchCriteria criteria) {
+        return ids(criteria, Sort.unsorted());
+    }
+
+    private void refreshSearchDocuments() {
+        for (long studioId = ALPHA; studioId <= WITHOUT_ROOMS; studioId++) {
+            studioRepository.refreshSearchDocument(studioId);
+        }
+    }
+
+    private void insertStudio(long id, String name, String city, boolean active) {
+        jdbcTemplate.update(
+            "INSERT INTO studio (id, name, address, city, state, active, owner_id) VALUES (?, ?, 'Rua 1', ?, 'SP', ?, ?)",
+            id,
+            name,
+            city,
+            active,
+            SEED_ID
+        );
+    }
+
+    private void insertRoom(long id, long studioId, String roomType, int hourlyRate, boolean active) {
+        jdbcTemplate.update(
+            "INSERT INTO room (id, name, hourly_rate, room_type, active, studio_id) VALUES (?, ?, ?, ?, ?, ?)",
+            id,
+            "Room " + id,
+            hourlyRate,
+            roomType,
+            active,
+            studioId
+        );
+    }
+
+    private void insertEquipment(long id, long roomId, String name, String brand) {
+        jdbcTemplate.update(
+            "INSERT INTO equipment (id, name, brand, available, equipment_type, room_id) VALUES (?, ?, ?, true, 'OTHER', ?)",
+            id,
+            name,
+            brand,
+            roomId
+        );
+    }
+}
@@ -0,0 +1,171 @@
+package com.slapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.slapp.IntegrationTest;
+import com.slapp.repository.ReservationRepository;
+import com.slapp.service.dto.ReservationDTO;
+import com.slapp.service.dto.ReviewDTO;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for {@link ReservationService#archiveClosedReservations(Instant)}.
+ * <p>
+ * The archive job commits its own transactions, so the data is seeded and removed with {@link JdbcTemplate}.
+ */
+@IntegrationTest
+class ReservationArchiveIT {
+
+    private static final long SEED_ID = 2_000_000L;
+    private static final Instant ENDED_BEFORE = Instant.parse("2020-06-01T00:00:00Z");
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update(
+            "INSERT INTO jhi_user (id, login, activated, created_by) VALUES (?, 'reservation-archive', true, 'system')",
+            SEED_ID
+        );
+        jdbcTemplate.update("INSERT INTO user_profile (id, user_type, user_id) VALUES (?, 'CUSTOMER', ?)", SEED_ID, SEED_ID);
+        jdbcTemplate.update(
+            "INSERT INTO studio (id, name, address, city, state, active, owner_id) VALUES (?, 'Archive', 'Rua 1', 'City', 'SP', true, ?)",
+            SEED_ID,
+            SEED_ID
+        );
+        jdbcTemplate.update(
+            "INSERT INTO room (id, name, hourly_rate, room_type, active, studio_id) VALUES (?, 'Archive', 100, 'RECORDING', true, ?)",
+            SEED_ID,
+            SEED_ID
+        );
+        insertReservation(1, "2020-01-10 10:00", "COMPLETED");
+        insertReservation(2, "2020-02-10 10:00", "CANCELLED");
+        // Ended after the horizon
+        insertReservation(3, "2020-06-10 10:00", "COMPLETED");
+        // Still active
+        insertReservation(4, "2020-01-11 10:00", "CONFIRMED");
+        // Reviewed: referenced by fk_review__reservation_id
+        insertReservation(5, "2020-01-12 10:00", "COMPLETED");
+        jdbcTemplate.update(
+            "INSERT INTO review (id, rating, customer_id, studio_id, reservation_id) VALUES (?, 5, ?, ?, ?)",
+            SEED_ID,
+            SEED_ID,
+            SEED_ID,
+            SEED_ID + 5
+        );
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM review WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM reservation WHERE id > ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM room WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM studio WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM user_profile WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM jhi_user WHERE id >= ?", SEED_ID);
+        jdbcTemplate.execute(
+            "DROP TABLE IF EXISTS reservation_archive_2020_01, reservation_archive_2020_02, " +
+            "reservation_archive_2020_06, reservation_archive_2020_07, reservation_archive_2020_08"
+        );
+    }
+
+    @Test
+    void shouldMoveClosedReservationsToTheArchivePartitionOfTheirMonth() {
+        int archivedCount = reservationService.archiveClosedReservations(ENDED_BEFORE);
+
+        assertThat(archivedCount).isEqualTo(2);
+        assertThat(partitionOf(1)).isEqualTo("reservation_archive_2020_01");
+        assertThat(partitionOf(2)).isEqualTo("reservation_archive_2020_02");
+        assertThat(partitionOf(3)).isEqualTo("reservation_live");
+        assertThat(partitionOf(4)).isEqualTo("reservation_live");
+        assertThat(partitionOf(5)).isEqualTo("reservation_live");
+
+        // Archived reservations are still read through the reservation table
+        assertThat(reservationRepository.findById(SEED_ID + 1)).hasValueSatisfying(reservation ->
+            assertThat(reservation.getArchived()).isTrue()
+        );
+        assertThat(reservationService.archiveClosedReservations(ENDED_BEFORE)).isZero();
+    }
+
+    @Test
+    void shouldCreateThePartitionsOfTheNextMonthsAhead() {
+        reservationService.archiveClosedReservations(ENDED_BEFORE);
+
+        assertThat(
+            jdbcTemplate.queryForList(
+                "SELECT relname FROM pg_class WHERE relname BETWEEN 'reservation_archive_2020_03' AND 'reservation_archive_2020_12' " +
+                "ORDER BY relname",
+                String.class
+            )
+        ).containsExactly("reservation_archive_2020_06", "reservation_archive_2020_07", "reservation_archive_2020_08");
+    }
+
+    @Test
+    void archivePartitionsShouldHaveAPrimaryKey() {
+        reservationService.archiveClosedReservations(ENDED_BEFORE);
+
+        assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_index WHERE indrelid = 'reservation_archive_2020_01'::regclass AND indisprimary",
+                Integer.class
+            )
+        ).isEqualTo(1);
+        assertThatThrownBy(() ->
+            jdbcTemplate.update("INSERT INTO reservation SELECT * FROM reservation WHERE id = ?", SEED_ID + 1)
+        ).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void archivedReservationShouldNotBeReviewed() {
+        reservationService.archiveClosedReservations(ENDED_BEFORE);
+
+        assertThatThrownBy(() -> reviewService.save(review(SEED_ID + 1))).isInstanceOf(ReservationArchivedException.class);
+        assertThat(
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM review WHERE reservation_id = ?", Integer.class, SEED_ID + 1)
+        ).isZero();
+    }
+
+    private static ReviewDTO review(long reservationId) {
+        ReservationDTO reservation = new ReservationDTO();
+        reservation.setId(reservationId);
+        ReviewDTO review = new ReviewDTO();
+        review.setRating(5);
+        review.setReservation(reservation);
+        return review;
+    }
+
+    private void insertReservation(long n, String start, String status) {
+        jdbcTemplate.update(
+            "INSERT INTO reservation (id, start_date_time, end_date_time, total_price, status, customer_id, room_id) " +
+            "VALUES (?, CAST(? AS timestamp), CAST(? AS timestamp) + INTERVAL '2 hours', 200, ?, ?, ?)",
+            SEED_ID + n,
+            start,
+            start,
+            status,
+            SEED_ID,
+            SEED_ID
+        );
+    }
+
+    private String partitionOf(long n) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM reservation WHERE id = ?", String.class, SEED_ID + n);
+    }
+}
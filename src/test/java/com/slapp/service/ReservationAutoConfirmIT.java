@@ -0,0 +1,106 @@
+package com.slapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.slapp.IntegrationTest;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.service.event.PendingReservationEvent;
+import com.slapp.service.event.ReservationChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+/**
+ * Integration tests for {@link ReservationService#autoConfirmExpiredPendingReservations()}.
+ * <p>
+ * The job commits its own transactions, so the data is seeded and removed with {@link JdbcTemplate}.
+ */
+@IntegrationTest
+@RecordApplicationEvents
+class ReservationAutoConfirmIT {
+
+    private static final long SEED_ID = 2_200_000L;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update(
+            "INSERT INTO jhi_user (id, login, activated, created_by) VALUES (?, 'reservation-auto-confirm', true, 'system')",
+            SEED_ID
+        );
+        jdbcTemplate.update("INSERT INTO user_profile (id, user_type, user_id) VALUES (?, 'CUSTOMER', ?)", SEED_ID, SEED_ID);
+        jdbcTemplate.update(
+            "INSERT INTO studio (id, name, address, city, state, active, owner_id) VALUES (?, 'Confirm', 'Rua 1', 'City', 'SP', true, ?)",
+            SEED_ID,
+            SEED_ID
+        );
+        jdbcTemplate.update(
+            "INSERT INTO room (id, name, hourly_rate, room_type, active, studio_id) VALUES (?, 'Confirm', 100, 'RECORDING', true, ?)",
+            SEED_ID,
+            SEED_ID
+        );
+        // Pending for longer than the confirmation window
+        insertReservation(1, "2000-01-03 10:00", "2000-01-01 10:00");
+        // Created now: still inside the window
+        insertReservation(2, "2000-01-03 14:00", null);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM reservation_event WHERE reservation_id > ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM reservation WHERE room_id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM room WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM studio WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM user_profile WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM jhi_user WHERE id >= ?", SEED_ID);
+    }
+
+    @Test
+    void shouldPublishTheChangeOfEveryAutoConfirmedReservation() {
+        reservationService.autoConfirmExpiredPendingReservations();
+
+        assertThat(statusOf(1)).isEqualTo("CONFIRMED");
+        assertThat(statusOf(2)).isEqualTo("PENDING");
+        assertThat(applicationEvents.stream(ReservationChangedEvent.class).filter(event -> event.reservationId() > SEED_ID))
+            .singleElement()
+            .satisfies(event -> {
+                assertThat(event.reservationId()).isEqualTo(SEED_ID + 1);
+                assertThat(event.roomId()).isEqualTo(SEED_ID);
+                assertThat(event.status()).isEqualTo(ReservationStatus.CONFIRMED);
+                assertThat(event.startDateTime()).isEqualTo(event.previousStartDateTime());
+            });
+        assertThat(applicationEvents.stream(PendingReservationEvent.class).filter(event -> event.reservationId() > SEED_ID))
+            .containsExactly(new PendingReservationEvent(PendingReservationEvent.Type.AUTO_CONFIRMED, SEED_ID + 1));
+    }
+
+    private void insertReservation(long n, String start, String createdAt) {
+        jdbcTemplate.update(
+            "INSERT INTO reservation (id, start_date_time, end_date_time, total_price, status, created_at, customer_id, room_id) " +
+            "VALUES (?, CAST(? AS timestamp), CAST(? AS timestamp) + INTERVAL '2 hours', 200, 'PENDING', " +
+            "COALESCE(CAST(? AS timestamp), now()), ?, ?)",
+            SEED_ID + n,
+            start,
+            start,
+            createdAt,
+            SEED_ID,
+            SEED_ID
+        );
+    }
+
+    private String statusOf(long n) {
+        return jdbcTemplate.queryForObject("SELECT status FROM reservation WHERE id = ?", String.class, SEED_ID + n);
+    }
+}
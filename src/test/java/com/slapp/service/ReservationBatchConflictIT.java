@@ -0,0 +1,147 @@
+package com.slapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.slapp.IntegrationTest;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.service.dto.ReservationBatchDTO;
+import com.slapp.service.dto.ReservationDTO;
+import com.slapp.service.dto.RoomDTO;
+import com.slapp.service.dto.UserProfileDTO;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for the reservations created concurrently with {@link ReservationService#saveBatch(ReservationBatchDTO)}.
+ * <p>
+ * The overlapping reservation is inserted by another connection that commits only once the batch insert waits for
+ * its lock, so the batch passes the overlap check and is rejected by the exclusion constraint on flush.
+ */
+@IntegrationTest
+class ReservationBatchConflictIT {
+
+    private static final long SEED_ID = 2_100_000L;
+    private static final Instant START = Instant.parse("2000-01-03T19:00:00Z");
+    private static final Duration LOCK_WAIT_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update(
+            "INSERT INTO jhi_user (id, login, activated, created_by) VALUES (?, 'reservation-batch-conflict', true, 'system')",
+            SEED_ID
+        );
+        jdbcTemplate.update("INSERT INTO user_profile (id, user_type, user_id) VALUES (?, 'CUSTOMER', ?)", SEED_ID, SEED_ID);
+        jdbcTemplate.update(
+            "INSERT INTO studio (id, name, address, city, state, active, owner_id) VALUES (?, 'Batch', 'Rua 1', 'City', 'SP', true, ?)",
+            SEED_ID,
+            SEED_ID
+        );
+        jdbcTemplate.update(
+            "INSERT INTO room (id, name, hourly_rate, room_type, active, studio_id) VALUES (?, 'Batch', 100, 'RECORDING', true, ?)",
+            SEED_ID,
+            SEED_ID
+        );
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM reservation WHERE room_id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM room WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM studio WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM user_profile WHERE id >= ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM jhi_user WHERE id >= ?", SEED_ID);
+    }
+
+    @Test
+    void batchOverlappingAReservationCommittedDuringItsFlushShouldBeAConflict() throws Exception {
+        ReservationBatchDTO batch = new ReservationBatchDTO();
+        batch.setReservations(List.of(reservation(START.plusSeconds(3600), START.plusSeconds(3 * 3600))));
+
+        try (Connection holder = dataSource.getConnection()) {
+            holder.setAutoCommit(false);
+            try (
+                PreparedStatement insert = holder.prepareStatement(
+                    "INSERT INTO reservation (id, start_date_time, end_date_time, total_price, status, customer_id, room_id) " +
+                    "VALUES (?, ?, ?, 200, 'CONFIRMED', ?, ?)"
+                )
+            ) {
+                insert.setLong(1, SEED_ID + 1);
+                insert.setTimestamp(2, Timestamp.from(START));
+                insert.setTimestamp(3, Timestamp.from(START.plusSeconds(2 * 3600)));
+                insert.setLong(4, SEED_ID);
+                insert.setLong(5, SEED_ID);
+                insert.executeUpdate();
+            }
+            CompletableFuture<Void> commit = CompletableFuture.runAsync(() -> commitOnceTheBatchWaits(holder));
+
+            assertThatThrownBy(() -> reservationService.saveBatch(batch)).isInstanceOf(ReservationConflictException.class);
+            commit.get();
+        }
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM reservation WHERE room_id = ?", Long.class, SEED_ID)).containsExactly(
+            SEED_ID + 1
+        );
+    }
+
+    private void commitOnceTheBatchWaits(Connection holder) {
+        Instant deadline = Instant.now().plus(LOCK_WAIT_TIMEOUT);
+        try {
+            while (Instant.now().isBefore(deadline) && !batchInsertWaitsForALock()) {
+                Thread.sleep(20);
+            }
+            holder.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean batchInsertWaitsForALock() {
+        Integer waiting = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_stat_activity WHERE datname = current_database() AND wait_event_type = 'Lock' " +
+            "AND query ILIKE 'insert into reservation%'",
+            Integer.class
+        );
+        return waiting != null && waiting > 0;
+    }
+
+    private static ReservationDTO reservation(Instant start, Instant end) {
+        UserProfileDTO customer = new UserProfileDTO();
+        customer.setId(SEED_ID);
+        RoomDTO room = new RoomDTO();
+        room.setId(SEED_ID);
+        ReservationDTO reservation = new ReservationDTO();
+        reservation.setStartDateTime(start);
+        reservation.setEndDateTime(end);
+        reservation.setTotalPrice(BigDecimal.valueOf(200));
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        reservation.setCustomer(customer);
+        reservation.setRoom(room);
+        return reservation;
+    }
+}
@@ -0,0 +1,178 @@
+package com.slapp.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.ReservationRepository;
+import com.slapp.repository.projections.ReservationSlotProjection;
+import com.slapp.service.availability.RoomAvailabilityIndex.RoomSlots;
+import com.slapp.service.event.ReservationChangedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RoomAvailabilityIndexTest {
+
+    private static final Long ROOM = 1L;
+    private static final Long OTHER_ROOM = 2L;
+    private static final Instant DAY = LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+    private ReservationRepository reservationRepository;
+
+    private RoomAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.findSlotsBetween(any(), any(), anyCollection())).thenReturn(List.of());
+        index = new RoomAvailabilityIndex(reservationRepository, new ApplicationProperties());
+    }
+
+    @Test
+    void slotsShouldIntersectAcrossTheWordBoundary() {
+        RoomSlots slots = new RoomSlots(256);
+        slots.put(1L, 63, 65);
+
+        assertThat(slots.intersects(63, 64)).isTrue();
+        assertThat(slots.intersects(64, 65)).isTrue();
+        assertThat(slots.intersects(0, 63)).isFalse();
+        assertThat(slots.intersects(65, 256)).isFalse();
+        assertThat(slots.intersects(62, 63)).isFalse();
+        assertThat(slots.intersects(64, 64)).isFalse();
+    }
+
+    @Test
+    void slotsShouldIntersectARangeSpanningSeveralWords() {
+        RoomSlots slots = new RoomSlots(256);
+        slots.put(1L, 10, 200);
+
+        assertThat(slots.intersects(100, 101)).isTrue();
+        assertThat(slots.intersects(0, 11)).isTrue();
+        assertThat(slots.intersects(199, 256)).isTrue();
+        assertThat(slots.intersects(0, 10)).isFalse();
+        assertThat(slots.intersects(200, 256)).isFalse();
+
+        // Last word of the bitset, partially used
+        slots.put(2L, 250, 256);
+        assertThat(slots.intersects(255, 256)).isTrue();
+    }
+
+    @Test
+    void slotsShouldBeClearedWhenAReservationIsReplacedOrRemoved() {
+        RoomSlots slots = new RoomSlots(256);
+        slots.put(1L, 60, 70);
+        slots.put(2L, 68, 72);
+
+        slots.put(1L, 100, 110);
+        assertThat(slots.intersects(60, 68)).isFalse();
+        assertThat(slots.intersects(68, 72)).isTrue();
+        assertThat(slots.intersects(100, 110)).isTrue();
+
+        slots.remove(2L);
+        assertThat(slots.intersects(0, 100)).isFalse();
+    }
+
+    @Test
+    void windowsOffSlotBoundariesShouldBeConservative() {
+        index.ensureCurrent();
+        // Occupies the slots 10:00 and 10:15
+        index.put(10L, ROOM, at(10, 5), at(10, 20));
+
+        assertThat(busyRooms(at(10, 20), at(10, 25))).containsExactly(ROOM);
+        assertThat(busyRooms(at(9, 0), at(10, 0).plusNanos(1))).containsExactly(ROOM);
+        assertThat(busyRooms(at(10, 29).plusSeconds(59), at(11, 0))).containsExactly(ROOM);
+        assertThat(busyRooms(at(9, 0), at(10, 0))).isEmpty();
+        assertThat(busyRooms(at(10, 30), at(11, 0))).isEmpty();
+    }
+
+    @Test
+    void windowsOutsideTheHorizonShouldNotBeCovered() {
+        index.ensureCurrent();
+        int horizonDays = new ApplicationProperties().getAvailabilityIndex().getHorizonDays();
+        Instant horizonEnd = DAY.minus(Duration.ofDays(1)).plus(Duration.ofDays(horizonDays));
+
+        assertThat(index.covers(at(10, 0), at(11, 0))).isTrue();
+        assertThat(index.covers(horizonEnd.minus(Duration.ofHours(1)), horizonEnd)).isTrue();
+        assertThat(index.covers(horizonEnd.minus(Duration.ofHours(1)), horizonEnd.plusNanos(1))).isFalse();
+        assertThat(index.covers(DAY.minus(Duration.ofDays(2)), at(10, 0))).isFalse();
+        assertThat(index.covers(at(11, 0), at(10, 0))).isFalse();
+    }
+
+    @Test
+    void replacedReservationShouldFreeItsPreviousSlots() {
+        index.ensureCurrent();
+        index.put(10L, ROOM, at(10, 0), at(12, 0));
+
+        index.put(10L, ROOM, at(14, 0), at(15, 0));
+
+        assertThat(busyRooms(at(10, 0), at(12, 0))).isEmpty();
+        assertThat(busyRooms(at(14, 0), at(15, 0))).containsExactly(ROOM);
+    }
+
+    @Test
+    void reservationMovedToAnotherRoomShouldFreeThePreviousRoom() {
+        index.ensureCurrent();
+        index.put(10L, ROOM, at(10, 0), at(12, 0));
+
+        index.onReservationChanged(
+            new ReservationChangedEvent(10L, OTHER_ROOM, ReservationStatus.CONFIRMED, at(10, 0), at(12, 0), at(10, 0), at(12, 0))
+        );
+
+        assertThat(busyRooms(at(10, 0), at(12, 0))).containsExactly(OTHER_ROOM);
+
+        index.onReservationChanged(
+            new ReservationChangedEvent(10L, OTHER_ROOM, ReservationStatus.CANCELLED, at(10, 0), at(12, 0), at(10, 0), at(12, 0))
+        );
+
+        assertThat(busyRooms(at(10, 0), at(12, 0))).isEmpty();
+    }
+
+    @Test
+    void changesReceivedDuringTheRebuildShouldBeApplied() {
+        when(reservationRepository.findSlotsBetween(any(), any(), anyCollection())).thenAnswer(invocation -> {
+            // Committed after the rebuild query read the reservations
+            index.remove(10L);
+            index.put(11L, OTHER_ROOM, at(10, 0), at(11, 0));
+            return List.of(slot(10L, ROOM, at(10, 0), at(12, 0)), slot(12L, ROOM, at(14, 0), at(15, 0)));
+        });
+
+        index.ensureCurrent();
+
+        assertThat(busyRooms(at(10, 0), at(12, 0))).containsExactly(OTHER_ROOM);
+        assertThat(busyRooms(at(14, 0), at(15, 0))).containsExactly(ROOM);
+    }
+
+    @Test
+    void tooManyBusyRoomsShouldFallBackToTheDatabase() {
+        index.ensureCurrent();
+        index.put(10L, ROOM, at(10, 0), at(12, 0));
+        index.put(11L, OTHER_ROOM, at(10, 0), at(12, 0));
+
+        assertThat(index.findBusyRoomIds(at(10, 0), at(12, 0), 1)).isEmpty();
+    }
+
+    private Set<Long> busyRooms(Instant start, Instant end) {
+        assertThat(index.covers(start, end)).isTrue();
+        return index.findBusyRoomIds(start, end, 100).orElseThrow();
+    }
+
+    private static Instant at(int hour, int minute) {
+        return DAY.plus(Duration.ofHours(hour)).plus(Duration.ofMinutes(minute));
+    }
+
+    private static ReservationSlotProjection slot(Long id, Long roomId, Instant start, Instant end) {
+        return new SlotRow(id, roomId, start, end);
+    }
+
+    private record SlotRow(Long getId, Long getRoomId, Instant getStartDateTime, Instant getEndDateTime)
+        implements ReservationSlotProjection {}
+}
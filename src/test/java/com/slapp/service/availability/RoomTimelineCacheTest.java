@@ -0,0 +1,192 @@
+package com.slapp.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.domain.enumeration.ReservationEventType;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.ReservationRepository;
+import com.slapp.repository.projections.ReservationIntervalProjection;
+import com.slapp.service.availability.RoomTimelineCache.Interval;
+import com.slapp.service.availability.RoomTimelineCache.Slot;
+import com.slapp.service.event.ReservationChangedEvent;
+import com.slapp.service.event.ReservationDomainEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RoomTimelineCacheTest {
+
+    private static final Long ROOM = 1L;
+    private static final Long OTHER_ROOM = 2L;
+    private static final Instant DAY = Instant.now().truncatedTo(ChronoUnit.DAYS).plus(Duration.ofDays(2));
+
+    private final AtomicLong position = new AtomicLong();
+
+    private ReservationRepository reservationRepository;
+
+    private RoomTimelineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.findIntervalsByRoomEndingAfter(any(), any(), anyCollection())).thenReturn(List.of());
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getRoomTimelineCache().setMaxRooms(2);
+        cache = new RoomTimelineCache(reservationRepository, applicationProperties);
+    }
+
+    @Test
+    void timelineShouldBeLoadedOnFirstAccessOnly() {
+        stubRoom(ROOM, interval(10L, 10, 12));
+
+        assertThat(cache.findOverlapping(ROOM, at(9), at(11))).hasValueSatisfying(slots ->
+            assertThat(slots).extracting(Slot::reservationId).containsExactly(10L)
+        );
+        assertThat(cache.findOverlapping(ROOM, at(12), at(13))).hasValueSatisfying(slots -> assertThat(slots).isEmpty());
+
+        verify(reservationRepository, times(1)).findIntervalsByRoomEndingAfter(eq(ROOM), any(), anyCollection());
+    }
+
+    @Test
+    void windowBeforeTheLoadedHistoryShouldNotBeAnswered() {
+        Instant longAgo = DAY.minus(Duration.ofDays(30));
+
+        assertThat(cache.findOverlapping(ROOM, longAgo, longAgo.plus(Duration.ofHours(1)))).isEmpty();
+    }
+
+    @Test
+    void leastRecentlyUsedRoomShouldBeEvicted() {
+        cache.findOverlapping(1L, at(9), at(10));
+        cache.findOverlapping(2L, at(9), at(10));
+        cache.findOverlapping(1L, at(9), at(10));
+        cache.findOverlapping(3L, at(9), at(10));
+
+        cache.findOverlapping(1L, at(9), at(10));
+        cache.findOverlapping(2L, at(9), at(10));
+
+        verify(reservationRepository, times(1)).findIntervalsByRoomEndingAfter(eq(1L), any(), anyCollection());
+        verify(reservationRepository, times(2)).findIntervalsByRoomEndingAfter(eq(2L), any(), anyCollection());
+    }
+
+    @Test
+    void changesReceivedDuringTheLoadShouldBeApplied() {
+        when(reservationRepository.findIntervalsByRoomEndingAfter(eq(ROOM), any(), anyCollection())).thenAnswer(invocation -> {
+            // Committed after the load query read the room
+            cache.onReservationEvent(event(ReservationEventType.UPDATED, 10L, ROOM, ReservationStatus.CONFIRMED, 13, 14));
+            cache.onReservationEvent(event(ReservationEventType.CREATED, 11L, ROOM, ReservationStatus.PENDING, 15, 16));
+            return List.of(interval(10L, 10, 12));
+        });
+
+        assertThat(cache.findOverlapping(ROOM, at(0), at(24))).hasValueSatisfying(slots ->
+            assertThat(slots)
+                .containsExactly(
+                    new Slot(10L, at(13), at(14), ReservationStatus.CONFIRMED),
+                    new Slot(11L, at(15), at(16), ReservationStatus.PENDING)
+                )
+        );
+    }
+
+    @Test
+    void reservationMovedToAnotherRoomShouldLeaveThePreviousRoom() {
+        stubRoom(ROOM, interval(10L, 10, 12));
+        cache.findOverlapping(ROOM, at(0), at(24));
+        cache.findOverlapping(OTHER_ROOM, at(0), at(24));
+
+        cache.onReservationEvent(event(ReservationEventType.UPDATED, 10L, OTHER_ROOM, ReservationStatus.CONFIRMED, 10, 12));
+
+        assertThat(cache.findConflict(ROOM, at(10), at(12), null)).isEmpty();
+        assertThat(cache.findConflict(OTHER_ROOM, at(10), at(12), null)).map(Slot::reservationId).contains(10L);
+    }
+
+    @Test
+    void reservationMovedWhileThePreviousRoomLoadsShouldLeaveIt() {
+        when(reservationRepository.findIntervalsByRoomEndingAfter(eq(ROOM), any(), anyCollection())).thenAnswer(invocation -> {
+            cache.onReservationEvent(event(ReservationEventType.UPDATED, 10L, OTHER_ROOM, ReservationStatus.CONFIRMED, 10, 12));
+            return List.of(interval(10L, 10, 12));
+        });
+
+        assertThat(cache.findConflict(ROOM, at(10), at(12), null)).isEmpty();
+    }
+
+    @Test
+    void cancelledOrDeletedReservationShouldBeRemoved() {
+        stubRoom(ROOM, interval(10L, 10, 12), interval(11L, 13, 14));
+        cache.findOverlapping(ROOM, at(0), at(24));
+
+        cache.onReservationChanged(new ReservationChangedEvent(10L, ROOM, ReservationStatus.CANCELLED, at(10), at(12), at(10), at(12)));
+        cache.onReservationEvent(event(ReservationEventType.DELETED, 11L, ROOM, ReservationStatus.CONFIRMED, 13, 14));
+
+        assertThat(cache.findOverlapping(ROOM, at(0), at(24))).hasValueSatisfying(slots -> assertThat(slots).isEmpty());
+    }
+
+    @Test
+    void reservationFromAnotherInstanceShouldBeAdded() {
+        cache.findOverlapping(ROOM, at(0), at(24));
+
+        cache.onReservationEvent(event(ReservationEventType.CREATED, 12L, ROOM, ReservationStatus.PENDING, 10, 11));
+        // The same event delivered again
+        cache.onReservationEvent(event(ReservationEventType.CREATED, 12L, ROOM, ReservationStatus.PENDING, 10, 11));
+
+        assertThat(cache.findOverlapping(ROOM, at(0), at(24))).hasValueSatisfying(slots ->
+            assertThat(slots).extracting(Slot::reservationId).containsExactly(12L)
+        );
+        verify(reservationRepository, times(1)).findIntervalsByRoomEndingAfter(eq(ROOM), any(), anyCollection());
+    }
+
+    @Test
+    void freeIntervalsShouldBeTheGapsBetweenReservations() {
+        stubRoom(ROOM, interval(10L, 10, 12), interval(11L, 13, 14));
+
+        assertThat(cache.findFreeIntervals(ROOM, at(9), at(15))).hasValueSatisfying(free ->
+            assertThat(free).containsExactly(new Interval(at(9), at(10)), new Interval(at(12), at(13)), new Interval(at(14), at(15)))
+        );
+        // A reservation started before the window
+        assertThat(cache.findFreeIntervals(ROOM, at(11), at(13))).hasValueSatisfying(free ->
+            assertThat(free).containsExactly(new Interval(at(12), at(13)))
+        );
+    }
+
+    private void stubRoom(Long roomId, ReservationIntervalProjection... intervals) {
+        when(reservationRepository.findIntervalsByRoomEndingAfter(eq(roomId), any(), anyCollection())).thenReturn(List.of(intervals));
+    }
+
+    private ReservationDomainEvent event(
+        ReservationEventType type,
+        Long reservationId,
+        Long roomId,
+        ReservationStatus status,
+        int startHour,
+        int endHour
+    ) {
+        return new ReservationDomainEvent(
+            position.incrementAndGet(),
+            type,
+            reservationId,
+            roomId,
+            status,
+            at(startHour),
+            at(endHour),
+            Instant.now()
+        );
+    }
+
+    private static ReservationIntervalProjection interval(Long id, int startHour, int endHour) {
+        return new IntervalRow(id, at(startHour), at(endHour), ReservationStatus.CONFIRMED);
+    }
+
+    private static Instant at(int hour) {
+        return DAY.plus(Duration.ofHours(hour));
+    }
+
+    private record IntervalRow(Long getId, Instant getStartDateTime, Instant getEndDateTime, ReservationStatus getStatus)
+        implements ReservationIntervalProjection {}
+}
@@ -0,0 +1,266 @@
+package com.slapp.service.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.slapp.IntegrationTest;
+import com.slapp.config.ApplicationProperties;
+import com.slapp.repository.ReservationEventRepository;
+import com.slapp.security.AuthoritiesConstants;
+import com.slapp.service.event.ReservationDomainEvent;
+import com.slapp.service.scheduler.ClusterJobCoordinator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the sequencing, dispatch and retention of the reservation outbox by {@link ReservationEventRelay}.
+ * <p>
+ * The outbox only sees committed rows: the tests are not transactional and seed the events with {@link JdbcTemplate}.
+ * Each test builds its own relay, as the sequencer, with a publisher that records the events of the seeded reservations.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class ReservationEventRelayIT {
+
+    private static final long SEED_ID = 2_500_000L;
+    private static final long ROOM_ID = SEED_ID;
+
+    @Autowired
+    private ReservationEventRepository reservationEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private final List<ReservationDomainEvent> delivered = new CopyOnWriteArrayList<>();
+
+    // Remaining listener failures for each reservation
+    private final Map<Long, Integer> failures = new HashMap<>();
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReservationEventRelay relay;
+
+    private long initialPosition;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        ClusterJobCoordinator jobCoordinator = mock(ClusterJobCoordinator.class);
+        when(jobCoordinator.isLeader(ReservationEventRelay.SEQUENCER_ROLE)).thenReturn(true);
+        when(jobCoordinator.runExclusively(eq(ReservationEventRelay.RETENTION_JOB), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        applicationProperties = new ApplicationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new ReservationEventRelay(
+            reservationEventRepository,
+            this::publish,
+            jobCoordinator,
+            transactionManager,
+            applicationProperties,
+            meterRegistry
+        );
+        relay.start();
+        initialPosition = relay.getDispatchedPosition();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // The newest event stays: the sequencer continues from it and positions are never reused
+        jdbcTemplate.update(
+            "DELETE FROM reservation_event WHERE room_id = ? " +
+            "AND (stream_position IS NULL OR stream_position < (SELECT MAX(stream_position) FROM reservation_event))",
+            ROOM_ID
+        );
+    }
+
+    @Test
+    void eventsShouldBeSequencedWithoutGapsInIdOrder() {
+        long first = insertEvent(SEED_ID + 1, Instant.now());
+        long second = insertEvent(SEED_ID + 2, Instant.now());
+        long third = insertEvent(SEED_ID + 3, Instant.now());
+
+        relay.relay();
+
+        List<Long> positions = List.of(positionOf(first), positionOf(second), positionOf(third));
+        assertThat(positions.get(0)).isGreaterThan(initialPosition);
+        assertThat(positions).containsExactly(positions.get(0), positions.get(0) + 1, positions.get(0) + 2);
+        Long sequenced = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM reservation_event WHERE stream_position > ? AND stream_position <= ?",
+            Long.class,
+            initialPosition,
+            positions.get(2)
+        );
+        assertThat(sequenced).isEqualTo(positions.get(2) - initialPosition);
+        assertThat(delivered).extracting(ReservationDomainEvent::reservationId).containsExactly(SEED_ID + 1, SEED_ID + 2, SEED_ID + 3);
+        assertThat(delivered).extracting(ReservationDomainEvent::position).isEqualTo(positions);
+    }
+
+    @Test
+    void cursorShouldNotPassAnEventThatFailed() {
+        long failing = insertEvent(SEED_ID + 1, Instant.now());
+        insertEvent(SEED_ID + 2, Instant.now());
+        failures.put(SEED_ID + 1, 1);
+        sequence();
+
+        relay.relay();
+
+        assertThat(delivered).isEmpty();
+        assertThat(relay.getDispatchedPosition()).isEqualTo(positionOf(failing) - 1);
+
+        relay.relay();
+
+        assertThat(delivered).extracting(ReservationDomainEvent::reservationId).containsExactly(SEED_ID + 1, SEED_ID + 2);
+        assertThat(meterRegistry.get(ReservationEventRelay.DISCARDED_METER_NAME).counter().count()).isZero();
+    }
+
+    @Test
+    void eventShouldBeDiscardedAfterTheMaximumAttempts() {
+        applicationProperties.getReservationOutbox().setMaxDispatchAttempts(3);
+        long failing = insertEvent(SEED_ID + 1, Instant.now());
+        insertEvent(SEED_ID + 2, Instant.now());
+        failures.put(SEED_ID + 1, Integer.MAX_VALUE);
+        sequence();
+
+        relay.relay();
+        relay.relay();
+
+        assertThat(relay.getDispatchedPosition()).isEqualTo(positionOf(failing) - 1);
+        assertThat(meterRegistry.get(ReservationEventRelay.DISCARDED_METER_NAME).counter().count()).isZero();
+
+        relay.relay();
+
+        assertThat(delivered).extracting(ReservationDomainEvent::reservationId).containsExactly(SEED_ID + 2);
+        assertThat(relay.getDispatchedPosition()).isGreaterThan(positionOf(failing));
+        assertThat(meterRegistry.get(ReservationEventRelay.DISCARDED_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void retentionShouldKeepTheNewestEvent() {
+        Instant expired = Instant.now().minus(Duration.ofDays(applicationProperties.getReservationOutbox().getRetentionDays() + 1));
+        long older = insertEvent(SEED_ID + 1, expired);
+        long newest = insertEvent(SEED_ID + 2, expired);
+        sequence();
+        long newestPosition = positionOf(newest);
+
+        relay.removeExpiredEvents();
+
+        assertThat(reservationEventRepository.existsById(older)).isFalse();
+        assertThat(reservationEventRepository.existsById(newest)).isTrue();
+
+        // The next event continues the stream after the newest one
+        long next = insertEvent(SEED_ID + 3, Instant.now());
+        sequence();
+        assertThat(positionOf(next)).isEqualTo(newestPosition + 1);
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void eventsEndpointShouldPageFromAPosition() throws Exception {
+        long first = insertEvent(SEED_ID + 1, Instant.now());
+        long second = insertEvent(SEED_ID + 2, Instant.now());
+        long third = insertEvent(SEED_ID + 3, Instant.now());
+        sequence();
+        long since = positionOf(first) - 1;
+
+        restMockMvc
+            .perform(get("/management/events").param("since", Long.toString(since)).param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.content[0].position").value(positionOf(first)))
+            .andExpect(jsonPath("$.content[0].reservationId").value(SEED_ID + 1))
+            .andExpect(jsonPath("$.content[1].position").value(positionOf(second)))
+            .andExpect(jsonPath("$.nextCursor").value(Long.toString(positionOf(second))));
+
+        restMockMvc
+            .perform(get("/management/events").param("since", Long.toString(positionOf(second))).param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].position").value(positionOf(third)))
+            .andExpect(jsonPath("$.content[0].reservationId").value(SEED_ID + 3))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void eventsEndpointShouldBeRestrictedToAdmins() throws Exception {
+        restMockMvc.perform(get("/management/events")).andExpect(status().isForbidden());
+    }
+
+    private void publish(Object event) {
+        if (event instanceof ReservationDomainEvent domainEvent && domainEvent.roomId() != null && domainEvent.roomId() == ROOM_ID) {
+            if (failures.merge(domainEvent.reservationId(), -1, Integer::sum) >= 0) {
+                throw new IllegalStateException("Listener failed for reservation " + domainEvent.reservationId());
+            }
+            delivered.add(domainEvent);
+        }
+    }
+
+    /**
+     * Sequences the pending events without dispatching them, retrying if the application relay sequences concurrently.
+     */
+    private void sequence() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long pending;
+        do {
+            try {
+                transactionTemplate.execute(status -> reservationEventRepository.assignPositions(1000));
+            } catch (DataIntegrityViolationException e) {
+                // Sequenced by the application relay in the meantime
+            }
+            pending = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservation_event WHERE room_id = ? AND stream_position IS NULL",
+                Long.class,
+                ROOM_ID
+            );
+        } while (pending > 0);
+    }
+
+    private long insertEvent(long reservationId, Instant occurredAt) {
+        Instant start = Instant.parse("2030-01-07T10:00:00Z");
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO reservation_event (event_type, reservation_id, room_id, status, start_date_time, end_date_time, occurred_at) " +
+            "VALUES ('CREATED', ?, ?, 'PENDING', ?, ?, ?) RETURNING id",
+            Long.class,
+            reservationId,
+            ROOM_ID,
+            Timestamp.from(start),
+            Timestamp.from(start.plus(Duration.ofHours(2))),
+            Timestamp.from(occurredAt)
+        );
+    }
+
+    private long positionOf(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT stream_position FROM reservation_event WHERE id = ?", Long.class, eventId);
+    }
+}
@@ -0,0 +1,57 @@
+package com.slapp.service.pricing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.slapp.domain.SpecialPrice;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PriceScheduleTest {
+
+    // 2030-01-06 is a Sunday, 2030-01-07 a Monday
+    private static final Instant SUNDAY = Instant.parse("2030-01-06T00:00:00Z");
+    private static final Instant MONDAY = Instant.parse("2030-01-07T00:00:00Z");
+
+    @Test
+    void quoteUsesHourlyRateWithoutSpecialPrices() {
+        PriceSchedule schedule = PriceSchedule.compile(1L, new BigDecimal("80.00"), List.of());
+
+        assertThat(schedule.quoteCents(MONDAY.plusSeconds(10 * 3600), MONDAY.plusSeconds(13 * 3600))).isEqualTo(24000);
+        assertThat(schedule.quoteCents(MONDAY, MONDAY)).isZero();
+    }
+
+    @Test
+    void overnightSpecialPriceContinuesOnTheNextDay() {
+        SpecialPrice lateNight = new SpecialPrice()
+            .dayOfWeek(DayOfWeek.SUNDAY)
+            .startTime(LocalTime.of(22, 0))
+            .endTime(LocalTime.of(2, 0))
+            .price(new BigDecimal("50.00"))
+            .active(true);
+        PriceSchedule schedule = PriceSchedule.compile(1L, new BigDecimal("100.00"), List.of(lateNight));
+
+        // Sunday 21:00 to Monday 03:00: 1h at 100, 4h at 50, 1h at 100
+        assertThat(schedule.quoteCents(SUNDAY.plusSeconds(21 * 3600), MONDAY.plusSeconds(3 * 3600))).isEqualTo(40000);
+    }
+
+    @Test
+    void dayOfWeekSpecialPriceOverridesEveryDaySpecialPrice() {
+        SpecialPrice mondayEvening = new SpecialPrice()
+            .dayOfWeek(DayOfWeek.MONDAY)
+            .startTime(LocalTime.of(18, 0))
+            .price(new BigDecimal("150.00"))
+            .active(true);
+        SpecialPrice everyDay = new SpecialPrice().price(new BigDecimal("90.00")).active(true);
+        SpecialPrice inactive = new SpecialPrice().dayOfWeek(DayOfWeek.MONDAY).price(new BigDecimal("1.00")).active(false);
+        PriceSchedule schedule = PriceSchedule.compile(1L, new BigDecimal("100.00"), List.of(mondayEvening, everyDay, inactive));
+
+        // Monday 17:30 to 18:30: 30min at 90, 30min at 150
+        assertThat(schedule.quote(MONDAY.plusSeconds(17 * 3600 + 1800), MONDAY.plusSeconds(18 * 3600 + 1800))).isEqualByComparingTo(
+            "120.00"
+        );
+    }
+}
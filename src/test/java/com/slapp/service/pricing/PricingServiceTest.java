@@ -0,0 +1,63 @@
+package com.slapp.service.pricing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.repository.RoomRepository;
+import com.slapp.repository.SpecialPriceRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PricingServiceTest {
+
+    private static final Long ROOM = 1L;
+    private static final Instant START = Instant.parse("2030-01-07T10:00:00Z");
+    private static final Instant END = START.plusSeconds(2 * 3600);
+
+    private RoomRepository roomRepository;
+
+    private Cache<Object, Object> cache;
+
+    private PricingService pricingService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        SpecialPriceRepository specialPriceRepository = mock(SpecialPriceRepository.class);
+        when(specialPriceRepository.findActiveByRoomId(ROOM)).thenReturn(List.of());
+        cache = mock(Cache.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        doReturn(cache).when(cacheManager).getCache(PricingService.CACHE_NAME);
+        pricingService = new PricingService(roomRepository, specialPriceRepository, cacheManager, new ApplicationProperties());
+    }
+
+    @Test
+    void refreshShouldReplaceAScheduleChangedOnAnotherInstance() {
+        // Compiled before the hourly rate changed on another instance
+        when(cache.get(ROOM)).thenReturn(PriceSchedule.compile(ROOM, new BigDecimal("80.00"), List.of()));
+        when(roomRepository.findHourlyRateById(ROOM)).thenReturn(Optional.of(new BigDecimal("100.00")));
+
+        assertThat(pricingService.findSchedule(ROOM)).map(schedule -> schedule.quote(START, END)).contains(new BigDecimal("160.00"));
+
+        when(cache.get(ROOM)).thenReturn(null);
+        assertThat(pricingService.refreshSchedule(ROOM)).map(schedule -> schedule.quote(START, END)).contains(new BigDecimal("200.00"));
+        verify(cache).remove(ROOM);
+        verify(cache).put(eq(ROOM), any(PriceSchedule.class));
+    }
+
+    @Test
+    void refreshShouldBeEmptyForAMissingRoom() {
+        when(roomRepository.findHourlyRateById(ROOM)).thenReturn(Optional.empty());
+
+        assertThat(pricingService.refreshSchedule(ROOM)).isEmpty();
+        verify(cache, never()).put(any(), any());
+    }
+}
@@ -0,0 +1,123 @@
+package com.slapp.service.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.slapp.IntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+/**
+ * Integration tests for {@link ClusterJobCoordinator}.
+ * <p>
+ * Each coordinator holds its locks on its own database sessions, so two coordinators over the Testcontainers
+ * Postgres behave as two instances of the application.
+ */
+@IntegrationTest
+class ClusterJobCoordinatorIT {
+
+    private static final String JOB = "cluster-job-coordinator-it";
+    private static final String ROLE = "cluster-job-coordinator-it";
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    private SimpleMeterRegistry meterRegistryA;
+    private SimpleMeterRegistry meterRegistryB;
+    private ClusterJobCoordinator nodeA;
+    private ClusterJobCoordinator nodeB;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistryA = new SimpleMeterRegistry();
+        meterRegistryB = new SimpleMeterRegistry();
+        nodeA = new ClusterJobCoordinator(dataSourceProperties, meterRegistryA);
+        nodeB = new ClusterJobCoordinator(dataSourceProperties, meterRegistryB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.releaseLeaderships();
+        nodeB.releaseLeaderships();
+    }
+
+    @Test
+    void runShouldBeSkippedWhileAnotherInstanceRunsTheJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> runA = CompletableFuture.supplyAsync(() ->
+            nodeA.runExclusively(JOB, () -> {
+                started.countDown();
+                await(release);
+            })
+        );
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        AtomicInteger runsB = new AtomicInteger();
+        assertThat(nodeB.runExclusively(JOB, runsB::incrementAndGet)).isFalse();
+
+        release.countDown();
+        assertThat(runA.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(nodeB.runExclusively(JOB, runsB::incrementAndGet)).isTrue();
+        assertThat(runsB).hasValue(1);
+        assertThat(meterRegistryB.get(ClusterJobCoordinator.JOB_SKIPPED_METER_NAME).tag("job", JOB).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void runShouldRecordTheRunHistory() {
+        nodeA.runExclusively(JOB, () -> {});
+        assertThatThrownBy(() ->
+            nodeA.runExclusively(JOB, () -> {
+                throw new IllegalStateException("failed run");
+            })
+        ).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistryA.get(ClusterJobCoordinator.JOB_RUN_METER_NAME).tags("job", JOB, "outcome", "success").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistryA.get(ClusterJobCoordinator.JOB_RUN_METER_NAME).tags("job", JOB, "outcome", "failure").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistryA.get(ClusterJobCoordinator.JOB_LAST_SUCCESS_METER_NAME).tag("job", JOB).gauge().value()).isPositive();
+        // A failed run releases the lock
+        assertThat(nodeB.runExclusively(JOB, () -> {})).isTrue();
+    }
+
+    @Test
+    void leadershipShouldMoveToAnotherInstanceWhenTheLeaderStops() {
+        AtomicInteger electionsA = new AtomicInteger();
+        AtomicInteger electionsB = new AtomicInteger();
+
+        nodeA.electLeader(ROLE, electionsA::incrementAndGet);
+        nodeB.electLeader(ROLE, electionsB::incrementAndGet);
+        assertThat(nodeA.isLeader(ROLE)).isTrue();
+        assertThat(nodeB.isLeader(ROLE)).isFalse();
+
+        nodeA.renewLeaderships();
+        nodeB.renewLeaderships();
+        assertThat(nodeA.isLeader(ROLE)).isTrue();
+        assertThat(nodeB.isLeader(ROLE)).isFalse();
+        assertThat(electionsA).hasValue(1);
+
+        nodeA.releaseLeaderships();
+        nodeB.renewLeaderships();
+        assertThat(nodeA.isLeader(ROLE)).isFalse();
+        assertThat(nodeB.isLeader(ROLE)).isTrue();
+        assertThat(electionsB).hasValue(1);
+        assertThat(meterRegistryB.get(ClusterJobCoordinator.LEADER_METER_NAME).tag("role", ROLE).gauge().value()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
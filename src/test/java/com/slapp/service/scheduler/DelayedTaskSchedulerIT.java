@@ -0,0 +1,150 @@
+package com.slapp.service.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.slapp.IntegrationTest;
+import com.slapp.domain.enumeration.DelayedTaskType;
+import com.slapp.repository.DelayedTaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the recovery of the delayed tasks of stopped instances by {@link DelayedTaskScheduler}.
+ * <p>
+ * Each scheduler has its own {@link ClusterJobCoordinator}, so two schedulers over the Testcontainers Postgres
+ * behave as two instances of the application. They run the tasks on the calling thread.
+ */
+@IntegrationTest
+class DelayedTaskSchedulerIT {
+
+    private static final String ROLE = "delayed-task-scheduler-it";
+    private static final long TARGET_ID = 3_000_000L;
+
+    @Autowired
+    private DelayedTaskRepository delayedTaskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ClusterJobCoordinator coordinatorA;
+    private ClusterJobCoordinator coordinatorB;
+    private DelayedTaskScheduler schedulerA;
+    private DelayedTaskScheduler schedulerB;
+
+    private final List<Long> executedByA = new CopyOnWriteArrayList<>();
+    private final List<Long> executedByB = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        coordinatorA = new ClusterJobCoordinator(dataSourceProperties, new SimpleMeterRegistry());
+        coordinatorB = new ClusterJobCoordinator(dataSourceProperties, new SimpleMeterRegistry());
+        schedulerA = new DelayedTaskScheduler(delayedTaskRepository, Runnable::run, transactionManager, coordinatorA, ROLE);
+        schedulerA.registerHandler(DelayedTaskType.CONFIRM_RESERVATION, targetId -> record(executedByA, targetId));
+        schedulerA.start();
+        schedulerB = startInstanceB(coordinatorB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        schedulerA.stop();
+        schedulerB.stop();
+        coordinatorA.releaseLeaderships();
+        coordinatorB.releaseLeaderships();
+        cleanUp();
+    }
+
+    @Test
+    void leaderShouldRunTheOverdueTasksOfARestartedInstance() {
+        assertThat(coordinatorA.isLeader(ROLE)).isTrue();
+        Instant now = Instant.now();
+        // Tasks written by instance B, which stopped before running them
+        persistTask(TARGET_ID + 1, now.minus(Duration.ofMinutes(10)));
+        persistTask(TARGET_ID + 2, now.minus(DelayedTaskScheduler.RECOVERY_GRACE).plus(Duration.ofMinutes(1)));
+        persistTask(TARGET_ID + 3, now.plus(Duration.ofHours(1)));
+        schedulerB.stop();
+        coordinatorB.releaseLeaderships();
+
+        // B restarts while A keeps the leadership: B does not load the table
+        coordinatorB = new ClusterJobCoordinator(dataSourceProperties, new SimpleMeterRegistry());
+        schedulerB = startInstanceB(coordinatorB);
+        assertThat(coordinatorB.isLeader(ROLE)).isFalse();
+        schedulerB.recoverOverdueTasks();
+        assertThat(executedByB).isEmpty();
+
+        schedulerA.recoverOverdueTasks();
+
+        assertThat(executedByA).containsExactly(TARGET_ID + 1);
+        assertThat(taskTargetIds()).containsExactly(TARGET_ID + 2, TARGET_ID + 3);
+    }
+
+    @Test
+    void failedTaskShouldBePostponedSoThatItIsNotRecoveredAgain() {
+        schedulerA.registerHandler(DelayedTaskType.CONFIRM_RESERVATION, targetId -> {
+            throw new IllegalStateException("handler failure");
+        });
+        persistTask(TARGET_ID + 1, Instant.now().minus(Duration.ofMinutes(10)));
+
+        schedulerA.recoverOverdueTasks();
+
+        assertThat(delayedTaskRepository.findAll())
+            .filteredOn(task -> task.getTargetId() == TARGET_ID + 1)
+            .singleElement()
+            .satisfies(task -> assertThat(task.getDueAt()).isAfter(Instant.now()));
+    }
+
+    private DelayedTaskScheduler startInstanceB(ClusterJobCoordinator coordinator) {
+        DelayedTaskScheduler scheduler = new DelayedTaskScheduler(
+            delayedTaskRepository,
+            Runnable::run,
+            transactionManager,
+            coordinator,
+            ROLE
+        );
+        scheduler.registerHandler(DelayedTaskType.CONFIRM_RESERVATION, targetId -> record(executedByB, targetId));
+        scheduler.start();
+        return scheduler;
+    }
+
+    private static void record(List<Long> executed, Long targetId) {
+        // Ignores the tasks of other tests
+        if (targetId > TARGET_ID) {
+            executed.add(targetId);
+        }
+    }
+
+    private void persistTask(long targetId, Instant dueAt) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            delayedTaskRepository.upsert(DelayedTaskType.CONFIRM_RESERVATION.name(), targetId, dueAt, Instant.now())
+        );
+    }
+
+    private List<Long> taskTargetIds() {
+        return jdbcTemplate.queryForList(
+            "SELECT target_id FROM delayed_task WHERE target_id > ? ORDER BY target_id",
+            Long.class,
+            TARGET_ID
+        );
+    }
+
+    private void cleanUp() {
+        jdbcTemplate.update("DELETE FROM delayed_task WHERE target_id > ?", TARGET_ID);
+    }
+}
@@ -0,0 +1,187 @@
+package com.slapp.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+import com.slapp.config.ApplicationProperties;
+import com.slapp.domain.enumeration.ReservationEventType;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.StudioRepository;
+import com.slapp.repository.projections.StudioListProjection;
+import com.slapp.service.event.ReservationChangedEvent;
+import com.slapp.service.event.ReservationDomainEvent;
+import com.slapp.service.event.RoomChangedEvent;
+import com.slapp.service.event.StudioChangedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StudioSearchCacheTest {
+
+    private static final Instant DAY = Instant.parse("2030-01-07T00:00:00Z");
+
+    private static final StudioSearchKey RIO = key("RIO", null, null);
+    private static final StudioSearchKey SAO_PAULO = key("SAO PAULO", null, null);
+    private static final StudioSearchKey ANY_CITY = key(null, null, null);
+    private static final StudioSearchKey MORNING = key("SAO PAULO", at(10), at(12));
+    private static final StudioSearchKey AFTERNOON = key("SAO PAULO", at(14), at(16));
+
+    // Contents of the mocked cache region
+    private final Map<Object, Object> entries = new HashMap<>();
+
+    private StudioRepository studioRepository;
+
+    private StudioSearchCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Cache<Object, Object> region = mock(Cache.class);
+        when(region.get(any())).thenAnswer(invocation -> entries.get(invocation.getArgument(0)));
+        when(region.containsKey(any())).thenAnswer(invocation -> entries.containsKey(invocation.getArgument(0)));
+        doAnswer(invocation -> entries.put(invocation.getArgument(0), invocation.getArgument(1))).when(region).put(any(), any());
+        doAnswer(invocation -> entries.keySet().removeAll(invocation.getArgument(0))).when(region).removeAll(anySet());
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(StudioSearchCache.CACHE_NAME)).thenReturn(region);
+        studioRepository = mock(StudioRepository.class);
+        cache = new StudioSearchCache(cacheManager, studioRepository, new ApplicationProperties());
+    }
+
+    @Test
+    void secondSearchShouldBeServedFromTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        load(RIO, loads, 1L);
+        load(RIO, loads, 1L);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void roomChangeShouldEvictTheEntriesOfTheStudioAndItsCity() {
+        when(studioRepository.findCityById(1L)).thenReturn(Optional.of("Rio de Janeiro"));
+        load(RIO, 1L);
+        load(SAO_PAULO, 2L);
+        load(ANY_CITY, 2L);
+        // Studio 1 appears in a search of another city only if it moved: the entry is still evicted
+        StudioSearchKey otherPage = key("SAO", null, null);
+        load(otherPage, 1L, 2L);
+
+        cache.onRoomChanged(new RoomChangedEvent(10L, 1L));
+
+        assertThat(entries).containsOnlyKeys(SAO_PAULO);
+    }
+
+    @Test
+    void studioMoveShouldEvictTheSearchesOfBothCities() {
+        load(RIO, 1L);
+        load(SAO_PAULO, 2L);
+        load(key("BELO HORIZONTE", null, null), 3L);
+
+        cache.onStudioChanged(new StudioChangedEvent(4L, "Rio de Janeiro", "Sao Paulo"));
+
+        assertThat(entries).containsOnlyKeys(key("BELO HORIZONTE", null, null));
+    }
+
+    @Test
+    void reservationChangeShouldEvictOnlyTheOverlappingWindows() {
+        load(SAO_PAULO, 1L);
+        load(MORNING, 1L);
+        load(AFTERNOON, 1L);
+
+        cache.onReservationChanged(new ReservationChangedEvent(7L, 10L, ReservationStatus.CONFIRMED, at(11), at(13), null, null));
+
+        assertThat(entries).containsOnlyKeys(SAO_PAULO, AFTERNOON);
+
+        load(MORNING, 1L);
+        // Rescheduled from the afternoon to the evening: the previous interval frees the afternoon
+        cache.onReservationChanged(new ReservationChangedEvent(7L, 10L, ReservationStatus.CONFIRMED, at(18), at(19), at(15), at(16)));
+
+        assertThat(entries).containsOnlyKeys(SAO_PAULO, MORNING);
+    }
+
+    @Test
+    void reservationEventFromTheOutboxShouldEvictTheOverlappingWindows() {
+        load(SAO_PAULO, 1L);
+        load(MORNING, 1L);
+        load(AFTERNOON, 1L);
+
+        cache.onReservationEvent(event(ReservationEventType.CREATED, at(15), at(17)));
+
+        assertThat(entries).containsOnlyKeys(SAO_PAULO, MORNING);
+
+        load(AFTERNOON, 1L);
+        // Without the previous interval, an update evicts every availability search
+        cache.onReservationEvent(event(ReservationEventType.UPDATED, at(20), at(21)));
+
+        assertThat(entries).containsOnlyKeys(SAO_PAULO);
+    }
+
+    @Test
+    void searchLoadedDuringAnEvictionShouldNotBeCached() {
+        AtomicInteger loads = new AtomicInteger();
+        List<StudioListProjection> result = List.of(studio(1L));
+
+        List<StudioListProjection> loaded = cache.get(
+            MORNING,
+            () -> {
+                loads.incrementAndGet();
+                // Committed while the search was reading the previous data
+                cache.onReservationEvent(event(ReservationEventType.CREATED, at(20), at(21)));
+                return result;
+            },
+            content -> content
+        );
+
+        assertThat(loaded).isSameAs(result);
+        assertThat(entries).isEmpty();
+        load(MORNING, loads, 1L);
+        assertThat(loads).hasValue(2);
+        assertThat(entries).containsOnlyKeys(MORNING);
+    }
+
+    private void load(StudioSearchKey key, Long... studioIds) {
+        load(key, new AtomicInteger(), studioIds);
+    }
+
+    private void load(StudioSearchKey key, AtomicInteger loads, Long... studioIds) {
+        cache.get(
+            key,
+            () -> {
+                loads.incrementAndGet();
+                return Arrays.stream(studioIds).map(StudioSearchCacheTest::studio).toList();
+            },
+            content -> content
+        );
+    }
+
+    private static StudioListProjection studio(Long id) {
+        StudioListProjection studio = mock(StudioListProjection.class);
+        when(studio.getId()).thenReturn(id);
+        return studio;
+    }
+
+    private static ReservationDomainEvent event(ReservationEventType type, Instant start, Instant end) {
+        return new ReservationDomainEvent(1L, type, 7L, 10L, ReservationStatus.CONFIRMED, start, end, Instant.now());
+    }
+
+    private static StudioSearchKey key(String city, Instant availabilityStart, Instant availabilityEnd) {
+        return new StudioSearchKey("rows", null, city, null, null, null, availabilityStart, availabilityEnd, null, "0:20");
+    }
+
+    private static Instant at(int hour) {
+        return DAY.plus(Duration.ofHours(hour));
+    }
+}
@@ -0,0 +1,86 @@
+package com.slapp.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.slapp.service.InvalidCursorException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class StudioSearchCursorTest {
+
+    private static final String HASH = StudioSearchCursor.filterHash(StudioSearchSort.NAME, "Alpha", null);
+
+    @Test
+    void cursorShouldRoundTripEachSortKey() {
+        assertThat(decode(StudioSearchCursor.encode(StudioSearchSort.NAME, HASH, 7L, "Rock | Roll"), StudioSearchSort.NAME))
+            .satisfies(cursor -> {
+                assertThat(cursor.getId()).isEqualTo(7L);
+                assertThat(cursor.getKeyAsString()).isEqualTo("Rock | Roll");
+            });
+        assertThat(
+            decode(StudioSearchCursor.encode(StudioSearchSort.MIN_PRICE, HASH, 8L, new BigDecimal("80.50")), StudioSearchSort.MIN_PRICE)
+                .getKeyAsDecimal()
+        ).isEqualByComparingTo("80.50");
+        assertThat(
+            decode(StudioSearchCursor.encode(StudioSearchSort.DISTANCE, HASH, 9L, 1234.5678), StudioSearchSort.DISTANCE).getKeyAsDouble()
+        ).isEqualTo(1234.5678);
+    }
+
+    @Test
+    void cursorWithoutSortKeyShouldKeepTheId() {
+        StudioSearchCursor cursor = decode(StudioSearchCursor.encode(StudioSearchSort.ID, HASH, 7L, null), StudioSearchSort.ID);
+
+        assertThat(cursor.getId()).isEqualTo(7L);
+        assertThat(cursor.getKeyAsString()).isEmpty();
+        // A numeric sort never has a null key: an empty one is rejected instead of read as null
+        String withoutPrice = StudioSearchCursor.encode(StudioSearchSort.MIN_PRICE, HASH, 7L, null);
+        assertThatThrownBy(() -> decode(withoutPrice, StudioSearchSort.MIN_PRICE).getKeyAsDecimal()).isInstanceOf(
+            InvalidCursorException.class
+        );
+    }
+
+    @Test
+    void cursorOfAnotherSearchShouldBeRejected() {
+        String cursor = StudioSearchCursor.encode(StudioSearchSort.NAME, HASH, 7L, "Alpha");
+
+        assertThatThrownBy(() -> decode(cursor, StudioSearchSort.MIN_PRICE)).isInstanceOf(InvalidCursorException.class);
+        String otherHash = StudioSearchCursor.filterHash(StudioSearchSort.NAME, "Beta", null);
+        assertThatThrownBy(() -> StudioSearchCursor.decode(cursor, StudioSearchSort.NAME, otherHash)).isInstanceOf(
+            InvalidCursorException.class
+        );
+    }
+
+    @Test
+    void tamperedCursorShouldBeRejected() {
+        assertThatThrownBy(() -> decode("not a cursor!", StudioSearchSort.NAME)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> decode(raw("v1|NAME|" + HASH + "|7"), StudioSearchSort.NAME)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> decode(raw("v0|NAME|" + HASH + "|7|Alpha"), StudioSearchSort.NAME)).isInstanceOf(
+            InvalidCursorException.class
+        );
+        assertThatThrownBy(() -> decode(raw("v1|NAME|" + HASH + "|seven|Alpha"), StudioSearchSort.NAME)).isInstanceOf(
+            InvalidCursorException.class
+        );
+        String nonNumericKey = raw("v1|MIN_PRICE|" + HASH + "|7|cheap");
+        assertThatThrownBy(() -> decode(nonNumericKey, StudioSearchSort.MIN_PRICE).getKeyAsDecimal()).isInstanceOf(
+            InvalidCursorException.class
+        );
+    }
+
+    @Test
+    void filterHashShouldDependOnEveryValueAndItsPosition() {
+        assertThat(StudioSearchCursor.filterHash("a", null, "b")).isEqualTo(StudioSearchCursor.filterHash("a", null, "b"));
+        assertThat(StudioSearchCursor.filterHash("a", null, "b")).isNotEqualTo(StudioSearchCursor.filterHash("a", "b", null));
+        assertThat(StudioSearchCursor.filterHash("ab", "c")).isNotEqualTo(StudioSearchCursor.filterHash("a", "bc"));
+    }
+
+    private static StudioSearchCursor decode(String cursor, StudioSearchSort sort) {
+        return StudioSearchCursor.decode(cursor, sort, HASH);
+    }
+
+    private static String raw(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,146 @@
+package com.slapp.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import com.slapp.repository.StudioRepository;
+import com.slapp.repository.projections.StudioSuggestSourceProjection;
+import com.slapp.service.dto.StudioSuggestionDTO;
+import com.slapp.service.event.StudioChangedEvent;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StudioSuggestIndexTest {
+
+    private static final Source ROCK = new Source(1L, "Estúdio Rock", "São Paulo", "SP", 5L);
+    private static final Source GARAGE = new Source(2L, "Rock Garage", "Rio de Janeiro", "RJ", 2L);
+    private static final Source AZUL = new Source(3L, "Sala Azul", "São Paulo", "SP", null);
+
+    private StudioRepository studioRepository;
+
+    private StudioSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        studioRepository = mock(StudioRepository.class);
+        index = new StudioSuggestIndex(studioRepository);
+    }
+
+    @Test
+    void prefixShouldMatchTheStartOfAnyWord() {
+        build(ROCK, GARAGE, AZUL);
+
+        assertThat(values("roc")).containsExactly("Estúdio Rock", "Rock Garage");
+        assertThat(values("estudio r")).containsExactly("Estúdio Rock");
+        assertThat(values("janeiro")).containsExactly("Rio de Janeiro");
+        assertThat(values("ock")).isEmpty();
+        assertThat(values("rock jazz")).isEmpty();
+        assertThat(values("  ")).isEmpty();
+    }
+
+    @Test
+    void prefixShouldIgnoreAccentsCaseAndExtraSpaces() {
+        build(ROCK, GARAGE, AZUL);
+
+        assertThat(values("ESTÚDIO")).containsExactly("Estúdio Rock");
+        assertThat(values("estudio")).containsExactly("Estúdio Rock");
+        assertThat(values("  rock   GARAGE ")).containsExactly("Rock Garage");
+        assertThat(index.suggest("são p", 10)).singleElement().satisfies(suggestion -> {
+            assertThat(suggestion.getType()).isEqualTo(StudioSuggestionDTO.Type.CITY);
+            assertThat(suggestion.getValue()).isEqualTo("São Paulo");
+            assertThat(suggestion.getStudioId()).isNull();
+        });
+    }
+
+    @Test
+    void sharedCitiesAndStatesShouldRankByTheirStudiosPopularity() {
+        build(ROCK, GARAGE, AZUL);
+
+        // São Paulo and SP weigh 6 + 1; Sala Azul weighs 1
+        assertThat(index.suggest("s", 10))
+            .extracting(StudioSuggestionDTO::getType, StudioSuggestionDTO::getValue)
+            .containsExactly(
+                tuple(StudioSuggestionDTO.Type.STATE, "SP"),
+                tuple(StudioSuggestionDTO.Type.CITY, "São Paulo"),
+                tuple(StudioSuggestionDTO.Type.NAME, "Sala Azul")
+            );
+    }
+
+    @Test
+    void suggestionsShouldBeLimitedToTheMostPopular() {
+        build(
+            LongStream.rangeClosed(1, 12)
+                .mapToObj(id -> new Source(id, String.format("Banda %02d", id), null, null, id))
+                .toArray(Source[]::new)
+        );
+
+        assertThat(values("banda", 3)).containsExactly("Banda 12", "Banda 11", "Banda 10");
+        assertThat(values("banda", 50)).hasSize(StudioSuggestIndex.MAX_SUGGESTIONS).doesNotContain("Banda 01", "Banda 02");
+        assertThat(values("banda 0", 2)).containsExactly("Banda 09", "Banda 08");
+    }
+
+    @Test
+    void renamedStudioShouldBeFoundByItsNewNameOnly() {
+        build(ROCK, GARAGE, AZUL);
+
+        stub(new Source(1L, "Estúdio Jazz", "Curitiba", "PR", 5L));
+        index.onStudioChanged(new StudioChangedEvent(1L, "São Paulo", "Curitiba"));
+
+        assertThat(values("rock")).containsExactly("Rock Garage");
+        assertThat(values("jazz")).containsExactly("Estúdio Jazz");
+        assertThat(values("curi")).containsExactly("Curitiba");
+        // Still the city of Sala Azul
+        assertThat(values("sao")).containsExactly("São Paulo");
+    }
+
+    @Test
+    void deactivatedStudioShouldBeRemovedWithTheCitiesOnlyItHad() {
+        build(ROCK, GARAGE, AZUL);
+
+        deactivate(AZUL);
+
+        assertThat(values("sala")).isEmpty();
+        assertThat(values("sao")).containsExactly("São Paulo");
+
+        deactivate(ROCK);
+
+        assertThat(values("estudio")).isEmpty();
+        assertThat(values("sao")).isEmpty();
+        assertThat(values("s")).isEmpty();
+        assertThat(values("r")).containsExactly("RJ", "Rio de Janeiro", "Rock Garage");
+    }
+
+    private void build(Source... sources) {
+        when(studioRepository.findSuggestSources(isNull(), any())).thenReturn(List.of(sources));
+        for (Source source : sources) {
+            stub(source);
+        }
+        index.rebuild();
+    }
+
+    private void stub(Source source) {
+        when(studioRepository.findSuggestSources(eq(source.getId()), any())).thenReturn(List.of(source));
+    }
+
+    private void deactivate(Source source) {
+        when(studioRepository.findSuggestSources(eq(source.getId()), any())).thenReturn(List.of());
+        index.onStudioChanged(new StudioChangedEvent(source.getId(), source.getCity(), source.getCity()));
+    }
+
+    private List<String> values(String prefix) {
+        return values(prefix, StudioSuggestIndex.MAX_SUGGESTIONS);
+    }
+
+    private List<String> values(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(StudioSuggestionDTO::getValue).toList();
+    }
+
+    private record Source(Long getId, String getName, String getCity, String getState, Long getPopularity)
+        implements StudioSuggestSourceProjection {}
+}
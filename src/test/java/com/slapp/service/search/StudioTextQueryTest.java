@@ -0,0 +1,39 @@
+package com.slapp.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class StudioTextQueryTest {
+
+    @Test
+    void termsShouldBeFoldedAndMatchedAsPrefixes() {
+        assertThat(StudioTextQuery.toTsQuery("Marshall amp")).isEqualTo("marshall:* & amp:*");
+        assertThat(StudioTextQuery.toTsQuery("  CABEÇOTE   Válvula ")).isEqualTo("cabecote:* & valvula:*");
+        assertThat(StudioTextQuery.toTsQuery("JCM800")).isEqualTo("jcm800:*");
+    }
+
+    @Test
+    void operatorsShouldBeDiscarded() {
+        assertThat(StudioTextQuery.toTsQuery("rock & (roll | !jazz):*")).isEqualTo("rock:* & roll:* & jazz:*");
+        assertThat(StudioTextQuery.toTsQuery("d'addario")).isEqualTo("d:* & addario:*");
+    }
+
+    @Test
+    void queryWithoutTermsShouldBeNull() {
+        assertThat(StudioTextQuery.toTsQuery(null)).isNull();
+        assertThat(StudioTextQuery.toTsQuery("   ")).isNull();
+        assertThat(StudioTextQuery.toTsQuery("&|!():*")).isNull();
+    }
+
+    @Test
+    void repeatedTermsShouldCountOnceUpToTheLimit() {
+        assertThat(StudioTextQuery.toTsQuery("rock Rock RÓCK")).isEqualTo("rock:*");
+        String terms = IntStream.rangeClosed(1, StudioTextQuery.MAX_TERMS + 2).mapToObj(i -> "t" + i).collect(Collectors.joining(" "));
+        assertThat(StudioTextQuery.toTsQuery(terms).split(" & "))
+            .hasSize(StudioTextQuery.MAX_TERMS)
+            .endsWith("t" + StudioTextQuery.MAX_TERMS + ":*");
+    }
+}
@@ -0,0 +1,270 @@
+package com.slapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slapp.IntegrationTest;
+import com.slapp.config.ApplicationProperties;
+import com.slapp.domain.enumeration.ReservationStatus;
+import com.slapp.repository.ReservationEventRepository;
+import com.slapp.repository.ReservationRepository;
+import com.slapp.service.dto.ReservationDTO;
+import com.slapp.service.dto.RoomDTO;
+import com.slapp.service.dto.UserProfileDTO;
+import com.slapp.service.mapper.ReservationMapper;
+import com.slapp.service.notification.PendingReservationEventHub;
+import com.slapp.service.outbox.ReservationEventRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Integration tests for the pending reservation event stream of {@link ReservationResource}.
+ * <p>
+ * The events come from the reservation outbox, which only sees committed changes: the tests are not
+ * transactional, seed their studio with {@link JdbcTemplate} and run the relay directly.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PendingReservationEventStreamIT {
+
+    private static final long SEED_ID = 2_300_000L;
+    private static final String EVENTS_URL = "/api/reservations/studio/{studioId}/pending/events";
+    private static final Instant START = Instant.parse("2000-01-03T10:00:00Z");
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc restReservationMockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReservationEventRelay reservationEventRelay;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationEventRepository reservationEventRepository;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private final ApplicationProperties.PendingReservationEvents defaults = new ApplicationProperties.PendingReservationEvents();
+
+    private int createdCount;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update(
+            "INSERT INTO jhi_user (id, login, activated, created_by) VALUES (?, 'pending-event-stream', true, 'system')",
+            SEED_ID
+        );
+        jdbcTemplate.update("INSERT INTO user_profile (id, user_type, user_id) VALUES (?, 'CUSTOMER', ?)", SEED_ID, SEED_ID);
+        jdbcTemplate.update(
+            "INSERT INTO studio (id, name, address, city, state, active, owner_id) VALUES (?, 'Stream', 'Rua 1', 'City', 'SP', true, ?)",
+            SEED_ID,
+            SEED_ID
+        );
+        jdbcTemplate.update(
+            "INSERT INTO room (id, name, hourly_rate, room_type, active, studio_id) VALUES (?, 'Stream', 100, 'RECORDING', true, ?)",
+            SEED_ID,
+            SEED_ID
+        );
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ApplicationProperties.PendingReservationEvents properties = applicationProperties.getPendingReservationEvents();
+        properties.setMaxSubscribers(defaults.getMaxSubscribers());
+        properties.setReplaySize(defaults.getReplaySize());
+        properties.setSubscriberQueueSize(defaults.getSubscriberQueueSize());
+        String seededReservations = "SELECT id FROM reservation WHERE room_id = " + SEED_ID;
+        jdbcTemplate.update("DELETE FROM delayed_task WHERE target_id IN (" + seededReservations + ")");
+        jdbcTemplate.update("DELETE FROM reservation_event WHERE room_id = ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM reservation WHERE room_id = ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM room WHERE id = ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM studio WHERE id = ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM user_profile WHERE id = ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM jhi_user WHERE id = ?", SEED_ID);
+    }
+
+    @Test
+    void streamShouldSendTheCreationAndDecisionOfAPendingReservation() throws Exception {
+        MvcResult stream = openStream(null);
+
+        Long reservationId = createPendingReservation();
+        long createdPosition = awaitPosition(reservationId, "CREATED");
+        String content = awaitContent(stream, "id:" + createdPosition + "\n");
+        assertThat(content).contains("id:" + createdPosition + "\nevent:created\ndata:{\"id\":" + reservationId + ",");
+
+        restReservationMockMvc.perform(post("/api/reservations/{id}/approve", reservationId)).andExpect(status().isOk());
+        long approvedPosition = awaitPosition(reservationId, "APPROVED");
+        content = awaitContent(stream, "id:" + approvedPosition + "\n");
+        assertThat(content)
+            .contains("id:" + approvedPosition + "\nevent:approved\ndata:{\"id\":" + reservationId + ",")
+            .contains("\"status\":\"CONFIRMED\"");
+    }
+
+    @Test
+    void streamShouldResumeAfterTheLastEventId() throws Exception {
+        Long first = createPendingReservation();
+        Long second = createPendingReservation();
+        long firstPosition = awaitPosition(first, "CREATED");
+        long secondPosition = awaitPosition(second, "CREATED");
+
+        // The missed events are read from the outbox, whichever instance sent the last event
+        String content = awaitContent(openStream(Long.toString(firstPosition)), "id:" + secondPosition + "\n");
+
+        assertThat(content)
+            .contains("event:created\ndata:{\"id\":" + second + ",")
+            .doesNotContain("id:" + firstPosition + "\n")
+            .doesNotContain("event:resync");
+    }
+
+    @Test
+    void streamShouldAskForAResyncWhenTooManyEventsWereMissed() throws Exception {
+        long lastPosition = reservationEventRepository.findMaxPosition().orElse(0L);
+        awaitPosition(createPendingReservation(), "CREATED");
+        awaitPosition(createPendingReservation(), "CREATED");
+        applicationProperties.getPendingReservationEvents().setReplaySize(1);
+
+        String content = awaitContent(openStream(Long.toString(lastPosition)), "event:resync");
+
+        assertThat(content).doesNotContain("event:created");
+    }
+
+    @Test
+    void streamShouldAskForAResyncForAnIdOutsideTheStream() throws Exception {
+        awaitContent(openStream("1a2b-3"), "event:resync");
+        awaitContent(openStream(Long.toString(Long.MAX_VALUE)), "event:resync");
+    }
+
+    @Test
+    void streamShouldBeRefusedWhenTheSubscriberLimitIsReached() throws Exception {
+        applicationProperties.getPendingReservationEvents().setMaxSubscribers(0);
+
+        restReservationMockMvc
+            .perform(get(EVENTS_URL, SEED_ID).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void slowSubscriberShouldBeDropped() {
+        applicationProperties.getPendingReservationEvents().setSubscriberQueueSize(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // The executor never drains the queues
+        PendingReservationEventHub hub = new PendingReservationEventHub(
+            reservationRepository,
+            reservationEventRepository,
+            reservationMapper,
+            task -> {},
+            transactionManager,
+            applicationProperties,
+            meterRegistry
+        );
+        Optional<SseEmitter> emitter = hub.subscribe(SEED_ID, null);
+        assertThat(emitter).isPresent();
+        assertThat(meterRegistry.get(PendingReservationEventHub.SUBSCRIBERS_METER_NAME).gauge().value()).isEqualTo(1);
+
+        hub.sendHeartbeats();
+        hub.sendHeartbeats();
+
+        assertThat(meterRegistry.get(PendingReservationEventHub.DROPPED_METER_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PendingReservationEventHub.SUBSCRIBERS_METER_NAME).gauge().value()).isZero();
+    }
+
+    private MvcResult openStream(String lastEventId) throws Exception {
+        var builder = get(EVENTS_URL, SEED_ID).accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return restReservationMockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private Long createPendingReservation() throws Exception {
+        UserProfileDTO customer = new UserProfileDTO();
+        customer.setId(SEED_ID);
+        RoomDTO room = new RoomDTO();
+        room.setId(SEED_ID);
+        ReservationDTO reservationDTO = new ReservationDTO();
+        Instant start = START.plus(Duration.ofDays(createdCount++));
+        reservationDTO.setStartDateTime(start);
+        reservationDTO.setEndDateTime(start.plus(Duration.ofHours(2)));
+        reservationDTO.setTotalPrice(BigDecimal.valueOf(200));
+        reservationDTO.setStatus(ReservationStatus.PENDING);
+        reservationDTO.setCustomer(customer);
+        reservationDTO.setRoom(room);
+        String body = restReservationMockMvc
+            .perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(reservationDTO)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return om.readValue(body, ReservationDTO.class).getId();
+    }
+
+    /**
+     * Runs the relay until the event of the reservation is sequenced and dispatched, and returns its position.
+     */
+    private long awaitPosition(Long reservationId, String eventType) throws InterruptedException {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        while (true) {
+            reservationEventRelay.relay();
+            List<Long> positions = jdbcTemplate.queryForList(
+                "SELECT stream_position FROM reservation_event WHERE reservation_id = ? AND event_type = ? AND stream_position IS NOT NULL",
+                Long.class,
+                reservationId,
+                eventType
+            );
+            if (!positions.isEmpty() && reservationEventRelay.getDispatchedPosition() >= positions.get(0)) {
+                return positions.get(0);
+            }
+            assertThat(Instant.now()).as("event %s of reservation %s dispatched", eventType, reservationId).isBefore(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private String awaitContent(MvcResult stream, String expected) throws Exception {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && Instant.now().isBefore(deadline)) {
+            reservationEventRelay.relay();
+            Thread.sleep(50);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
@@ -11,16 +11,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.slapp.IntegrationTest;
 import com.slapp.domain.Reservation;
+import com.slapp.domain.ReservationEvent;
 import com.slapp.domain.Room;
 import com.slapp.domain.UserProfile;
+import com.slapp.domain.enumeration.ReservationEventType;
 import com.slapp.domain.enumeration.ReservationStatus;
 import com.slapp.repository.ReservationRepository;
+import com.slapp.service.dto.ReservationBatchDTO;
 import com.slapp.service.dto.ReservationDTO;
+import com.slapp.service.dto.ReservationRecurrenceDTO;
 import com.slapp.service.mapper.ReservationMapper;
 import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -784,6 +789,192 @@ class ReservationResourceIT {
         restReservationMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getReservationHistoryForRoomWithKeysetCursor() throws Exception {
+        // Initialize the database
+        Instant from = Instant.parse("2000-01-01T00:00:00Z");
+        Reservation first = reservation.startDateTime(from.plus(10, ChronoUnit.HOURS)).endDateTime(from.plus(11, ChronoUnit.HOURS));
+        insertedReservation = reservationRepository.saveAndFlush(first);
+        Reservation second = createEntity(em).startDateTime(from.plus(11, ChronoUnit.HOURS)).endDateTime(from.plus(12, ChronoUnit.HOURS));
+        reservationRepository.saveAndFlush(second);
+        String historyUrl = ENTITY_API_URL + "/room/{roomId}/all?from=" + from + "&to=" + from.plus(1, ChronoUnit.DAYS) + "&pageSize=1";
+
+        // Get the first page of the history
+        String nextCursor = restReservationMockMvc
+            .perform(get(historyUrl, first.getRoom().getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(jsonPath("$.[0].customerId").value(first.getCustomer().getId().intValue()))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andReturn()
+            .getResponse()
+            .getHeader("X-Next-Cursor");
+
+        // Get the last page of the history
+        restReservationMockMvc
+            .perform(get(historyUrl + "&cursor=" + nextCursor, first.getRoom().getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(second.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        reservationRepository.delete(second);
+    }
+
+    @Test
+    @Transactional
+    void getReservationHistoryForRoomWithInvalidCursor() throws Exception {
+        restReservationMockMvc
+            .perform(get(ENTITY_API_URL + "/room/{roomId}/all?cursor=invalid", Long.MAX_VALUE))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getReservationHistoryForRoomWithInvalidWindow() throws Exception {
+        restReservationMockMvc
+            .perform(get(ENTITY_API_URL + "/room/{roomId}/all?from=2000-01-02T00:00:00Z&to=2000-01-01T00:00:00Z", Long.MAX_VALUE))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamPendingReservationsForStudio() throws Exception {
+        restReservationMockMvc
+            .perform(get(ENTITY_API_URL + "/studio/{studioId}/pending/events", Long.MAX_VALUE).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void createWeeklyReservationBatchWithConflict() throws Exception {
+        // Initialize the database with a reservation on the second week
+        Instant start = Instant.parse("2000-01-03T19:00:00Z");
+        Reservation existing = createEntity(em)
+            .status(ReservationStatus.CONFIRMED)
+            .startDateTime(start.plus(7, ChronoUnit.DAYS).plus(1, ChronoUnit.HOURS))
+            .endDateTime(start.plus(7, ChronoUnit.DAYS).plus(3, ChronoUnit.HOURS));
+        insertedReservation = reservationRepository.saveAndFlush(existing);
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        ReservationDTO reservationDTO = reservationMapper.toDto(
+            reservation.startDateTime(start).endDateTime(start.plus(2, ChronoUnit.HOURS))
+        );
+        ReservationRecurrenceDTO recurrence = new ReservationRecurrenceDTO();
+        recurrence.setFrequency(ReservationRecurrenceDTO.Frequency.WEEKLY);
+        recurrence.setCount(3);
+        ReservationBatchDTO batch = new ReservationBatchDTO();
+        batch.setReservations(List.of(reservationDTO));
+        batch.setRecurrence(recurrence);
+
+        restReservationMockMvc
+            .perform(post(ENTITY_API_URL + "/batch").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(batch)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$.[0].outcome").value("CREATED"))
+            .andExpect(jsonPath("$.[1].outcome").value("CONFLICT"))
+            .andExpect(jsonPath("$.[1].conflictingReservationId").value(existing.getId().intValue()))
+            .andExpect(jsonPath("$.[2].outcome").value("CREATED"))
+            .andExpect(jsonPath("$.[2].startDateTime").value(start.plus(14, ChronoUnit.DAYS).toString()));
+
+        assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    @Transactional
+    void createReservationBatchWithTooManyOccurrences() throws Exception {
+        ReservationRecurrenceDTO recurrence = new ReservationRecurrenceDTO();
+        recurrence.setFrequency(ReservationRecurrenceDTO.Frequency.DAILY);
+        recurrence.setCount(ReservationBatchDTO.MAX_OCCURRENCES);
+        ReservationBatchDTO batch = new ReservationBatchDTO();
+        Instant start = Instant.parse("2000-01-03T19:00:00Z");
+        batch.setReservations(
+            List.of(
+                reservationMapper.toDto(reservation.startDateTime(start).endDateTime(start.plus(1, ChronoUnit.HOURS))),
+                reservationMapper.toDto(reservation.startDateTime(start).endDateTime(start.plus(2, ChronoUnit.HOURS)))
+            )
+        );
+        batch.setRecurrence(recurrence);
+
+        restReservationMockMvc
+            .perform(post(ENTITY_API_URL + "/batch").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(batch)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void createOverlappingReservationIsConflict() throws Exception {
+        Instant start = Instant.parse("2000-01-03T19:00:00Z");
+        Reservation existing = createEntity(em)
+            .status(ReservationStatus.CONFIRMED)
+            .startDateTime(start)
+            .endDateTime(start.plus(2, ChronoUnit.HOURS));
+        existing.setRoom(reservation.getRoom());
+        em.persist(existing);
+        em.flush();
+
+        ReservationDTO reservationDTO = reservationMapper.toDto(
+            reservation
+                .status(ReservationStatus.CONFIRMED)
+                .startDateTime(start.plus(1, ChronoUnit.HOURS))
+                .endDateTime(start.plus(3, ChronoUnit.HOURS))
+        );
+        reservationDTO.setTotalPrice(null);
+
+        // The exclusion constraint rejects the insert: the test transaction can no longer be queried afterwards
+        restReservationMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(reservationDTO)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.reservationconflict"));
+    }
+
+    @Test
+    @Transactional
+    void createReservationWithPriceMismatch() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        // The room has no special prices: two hours cost twice its hourly rate
+        Instant start = Instant.parse("2000-01-03T19:00:00Z");
+        ReservationDTO reservationDTO = reservationMapper.toDto(reservation.startDateTime(start).endDateTime(start.plus(2, ChronoUnit.HOURS)));
+        reservationDTO.setTotalPrice(reservation.getRoom().getHourlyRate().multiply(BigDecimal.valueOf(2)).add(BigDecimal.ONE));
+
+        restReservationMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(reservationDTO)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.pricemismatch"));
+
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void createReservationRecordsOutboxEvent() throws Exception {
+        ReservationDTO reservationDTO = reservationMapper.toDto(reservation);
+        var returnedReservationDTO = om.readValue(
+            restReservationMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(reservationDTO)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            ReservationDTO.class
+        );
+        insertedReservation = reservationMapper.toEntity(returnedReservationDTO);
+
+        // The event is written in the same transaction and is sequenced by the relay only after the commit
+        List<ReservationEvent> events = em
+            .createQuery("SELECT e FROM ReservationEvent e WHERE e.reservationId = :id", ReservationEvent.class)
+            .setParameter("id", returnedReservationDTO.getId())
+            .getResultList();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getEventType()).isEqualTo(ReservationEventType.CREATED);
+        assertThat(events.get(0).getStatus()).isEqualTo(returnedReservationDTO.getStatus());
+        assertThat(events.get(0).getRoomId()).isEqualTo(returnedReservationDTO.getRoom().getId());
+        assertThat(events.get(0).getPosition()).isNull();
+    }
+
     @Test
     @Transactional
     void putExistingReservation() throws Exception {
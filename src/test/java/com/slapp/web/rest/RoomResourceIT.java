@@ -10,15 +10,22 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.slapp.IntegrationTest;
+import com.slapp.domain.Availability;
+import com.slapp.domain.Reservation;
 import com.slapp.domain.Room;
+import com.slapp.domain.SpecialPrice;
 import com.slapp.domain.Studio;
+import com.slapp.domain.StudioOperatingHours;
+import com.slapp.domain.enumeration.ReservationStatus;
 import com.slapp.domain.enumeration.RoomType;
 import com.slapp.repository.RoomRepository;
 import com.slapp.service.dto.RoomDTO;
 import com.slapp.service.mapper.RoomMapper;
 import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.Instant;
+import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -1040,6 +1047,125 @@ class RoomResourceIT {
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
     }
 
+    @Test
+    @Transactional
+    void getRoomCalendar() throws Exception {
+        // Initialize the database
+        insertedRoom = roomRepository.saveAndFlush(room);
+        em.persist(
+            new StudioOperatingHours()
+                .dayOfWeek(DayOfWeek.MONDAY)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(18, 0))
+                .isOpen(true)
+                .studio(room.getStudio())
+        );
+        Reservation reservation = ReservationResourceIT.createEntity(em)
+            .startDateTime(Instant.parse("2030-01-07T10:00:00Z"))
+            .endDateTime(Instant.parse("2030-01-07T12:00:00Z"))
+            .status(ReservationStatus.PENDING);
+        reservation.setRoom(room);
+        em.persist(reservation);
+        Availability block = AvailabilityResourceIT.createEntity(em)
+            .startDateTime(Instant.parse("2030-01-07T14:00:00Z"))
+            .endDateTime(Instant.parse("2030-01-07T15:30:00Z"))
+            .available(false);
+        block.setRoom(room);
+        em.persist(block);
+        Availability release = AvailabilityResourceIT.createEntity(em)
+            .startDateTime(Instant.parse("2030-01-07T20:00:00Z"))
+            .endDateTime(Instant.parse("2030-01-07T21:00:00Z"))
+            .available(true);
+        release.setRoom(room);
+        em.persist(release);
+        em.flush();
+
+        // Monday 2030-01-07 opens 09:00-18:00; Tuesday has no operating hours
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/calendar?from=2030-01-07&to=2030-01-08", room.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.roomId").value(room.getId().intValue()))
+            .andExpect(jsonPath("$.slotMinutes").value(60))
+            .andExpect(jsonPath("$.days.length()").value(2))
+            .andExpect(jsonPath("$.days[0].date").value("2030-01-07"))
+            .andExpect(jsonPath("$.days[0].codes").value("---------FPPFFBBFF--F---"))
+            .andExpect(jsonPath("$.days[0].free").value("ADIT"))
+            .andExpect(jsonPath("$.days[1].date").value("2030-01-08"))
+            .andExpect(jsonPath("$.days[1].codes").value("------------------------"))
+            .andExpect(jsonPath("$.days[1].free").value("AAAA"));
+    }
+
+    @Test
+    @Transactional
+    void getRoomCalendarWithInvalidRange() throws Exception {
+        // Initialize the database
+        insertedRoom = roomRepository.saveAndFlush(room);
+
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/calendar?from=2030-01-08&to=2030-01-07", room.getId()))
+            .andExpect(status().isBadRequest());
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/calendar?from=2030-01-01&to=2030-02-26", room.getId()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingRoomCalendar() throws Exception {
+        restRoomMockMvc.perform(get(ENTITY_API_URL_ID + "/calendar?from=2030-01-07&to=2030-01-13", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getRoomQuoteWithSpecialPrices() throws Exception {
+        // Initialize the database
+        room.setHourlyRate(new BigDecimal("100.00"));
+        insertedRoom = roomRepository.saveAndFlush(room);
+        em.persist(
+            new SpecialPrice()
+                .dayOfWeek(DayOfWeek.MONDAY)
+                .startTime(LocalTime.of(18, 0))
+                .endTime(LocalTime.of(22, 0))
+                .price(new BigDecimal("150.00"))
+                .active(true)
+                .room(room)
+        );
+        em.persist(new SpecialPrice().price(new BigDecimal("999.00")).active(false).room(room));
+        em.flush();
+
+        // Monday 2030-01-07: 17:00-18:00 at the hourly rate, 18:00-19:00 at the special price
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/quote?start=2030-01-07T17:00:00Z&end=2030-01-07T19:00:00Z", room.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.roomId").value(room.getId().intValue()))
+            .andExpect(jsonPath("$.totalPrice").value(sameNumber(new BigDecimal("250.00"))));
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/quote?start=2030-01-07T17:30:00Z&end=2030-01-07T18:30:00Z", room.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalPrice").value(sameNumber(new BigDecimal("125.00"))));
+        // Tuesday has no special price
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/quote?start=2030-01-08T18:00:00Z&end=2030-01-08T20:00:00Z", room.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalPrice").value(sameNumber(new BigDecimal("200.00"))));
+    }
+
+    @Test
+    @Transactional
+    void getRoomQuoteWithInvalidRange() throws Exception {
+        // Initialize the database
+        insertedRoom = roomRepository.saveAndFlush(room);
+
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/quote?start=2030-01-07T19:00:00Z&end=2030-01-07T17:00:00Z", room.getId()))
+            .andExpect(status().isBadRequest());
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/quote?start=2030-01-01T00:00:00Z&end=2030-03-01T00:00:00Z", room.getId()))
+            .andExpect(status().isBadRequest());
+    }
+
     protected long getRepositoryCount() {
         return roomRepository.count();
     }
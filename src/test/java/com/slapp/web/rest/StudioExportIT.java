@@ -0,0 +1,120 @@
+package com.slapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slapp.IntegrationTest;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the NDJSON export of {@link StudioResource}.
+ * <p>
+ * The export is written after the request thread returns, in its own transaction: the tests are not transactional
+ * and seed their studios with {@link JdbcTemplate}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class StudioExportIT {
+
+    private static final long SEED_ID = 2_700_000L;
+
+    private static final long ACTIVE = SEED_ID + 1;
+    private static final long INACTIVE = SEED_ID + 2;
+    private static final long WITHOUT_ROOMS = SEED_ID + 3;
+
+    @Autowired
+    private MockMvc restStudioMockMvc;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update("INSERT INTO jhi_user (id, login, activated, created_by) VALUES (?, 'studio-export', true, 'system')", SEED_ID);
+        jdbcTemplate.update("INSERT INTO user_profile (id, user_type, user_id) VALUES (?, 'CUSTOMER', ?)", SEED_ID, SEED_ID);
+        insertStudio(ACTIVE, "Export Sound", true);
+        insertStudio(INACTIVE, "Export Closed", false);
+        insertStudio(WITHOUT_ROOMS, "Export Empty", true);
+        insertRoom(SEED_ID + 11, ACTIVE, "B Room", true);
+        insertRoom(SEED_ID + 12, ACTIVE, "A Room", true);
+        insertRoom(SEED_ID + 13, ACTIVE, "C Room", false);
+        insertRoom(SEED_ID + 21, INACTIVE, "Closed Room", true);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM room WHERE studio_id BETWEEN ? AND ?", SEED_ID, SEED_ID + 9);
+        jdbcTemplate.update("DELETE FROM studio WHERE id BETWEEN ? AND ?", SEED_ID, SEED_ID + 9);
+        jdbcTemplate.update("DELETE FROM user_profile WHERE id = ?", SEED_ID);
+        jdbcTemplate.update("DELETE FROM jhi_user WHERE id = ?", SEED_ID);
+    }
+
+    @Test
+    void exportShouldWriteOneActiveStudioPerLine() throws Exception {
+        MvcResult result = restStudioMockMvc.perform(get("/api/studios/export")).andExpect(request().asyncStarted()).andReturn();
+        restStudioMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).endsWith("\n");
+        List<JsonNode> seeded = new ArrayList<>();
+        long previousId = 0;
+        for (String line : body.split("\n")) {
+            // Each line is a whole JSON object
+            JsonNode studio = om.readTree(line);
+            assertThat(studio.isObject()).as("line %s", line).isTrue();
+            assertThat(studio.get("active").asBoolean()).isTrue();
+            assertThat(studio.get("id").asLong()).isGreaterThan(previousId);
+            previousId = studio.get("id").asLong();
+            if (previousId >= SEED_ID && previousId <= SEED_ID + 9) {
+                seeded.add(studio);
+            }
+        }
+
+        assertThat(seeded).extracting(studio -> studio.get("id").asLong()).containsExactly(ACTIVE, WITHOUT_ROOMS);
+        assertThat(seeded.get(0).get("rooms")).extracting(room -> room.get("name").asText()).containsExactly("A Room", "B Room");
+        assertThat(seeded.get(1).get("rooms")).isEmpty();
+    }
+
+    private void insertStudio(long id, String name, boolean active) {
+        jdbcTemplate.update(
+            "INSERT INTO studio (id, name, address, city, state, active, owner_id) VALUES (?, ?, 'Rua 1', 'City', 'SP', ?, ?)",
+            id,
+            name,
+            active,
+            SEED_ID
+        );
+    }
+
+    private void insertRoom(long id, long studioId, String name, boolean active) {
+        jdbcTemplate.update(
+            "INSERT INTO room (id, name, hourly_rate, room_type, active, studio_id) VALUES (?, ?, 100, 'RECORDING', ?, ?)",
+            id,
+            name,
+            active,
+            studioId
+        );
+    }
+}
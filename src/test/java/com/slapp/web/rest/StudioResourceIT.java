@@ -4,20 +4,26 @@ import static com.slapp.domain.StudioAsserts.*;
 import static com.slapp.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.slapp.IntegrationTest;
 import com.slapp.domain.CancellationPolicy;
+import com.slapp.domain.Room;
+import com.slapp.domain.RoomImage;
 import com.slapp.domain.Studio;
 import com.slapp.domain.UserProfile;
+import com.slapp.domain.enumeration.RoomType;
 import com.slapp.repository.StudioRepository;
 import com.slapp.service.dto.StudioDTO;
 import com.slapp.service.mapper.StudioMapper;
 import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -25,6 +31,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -380,6 +387,133 @@ class StudioResourceIT {
             .andExpect(jsonPath("$.updatedAt").value(DEFAULT_UPDATED_AT.toString()));
     }
 
+    @Test
+    @Transactional
+    void getStudioDetailShouldReturnTheActiveRoomsAndImagesInOrder() throws Exception {
+        studioRepository.saveAndFlush(studio.active(true));
+        Room roomA = persistRoom("A room", true);
+        persistRoom("B room", true);
+        persistRoom("Inactive room", false);
+        persistImage(roomA, 2, true);
+        RoomImage firstImage = persistImage(roomA, 1, true);
+        persistImage(roomA, 0, false);
+
+        restStudioMockMvc
+            .perform(get(ENTITY_API_URL_ID, studio.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andExpect(jsonPath("$.id").value(studio.getId().intValue()))
+            .andExpect(jsonPath("$.owner.id").value(studio.getOwner().getId().intValue()))
+            .andExpect(jsonPath("$.rooms.length()").value(2))
+            .andExpect(jsonPath("$.rooms[0].id").value(roomA.getId().intValue()))
+            .andExpect(jsonPath("$.rooms[0].roomType").value(RoomType.RECORDING.name()))
+            .andExpect(jsonPath("$.rooms[0].hourlyRate").value(100))
+            .andExpect(jsonPath("$.rooms[1].name").value("B room"))
+            .andExpect(jsonPath("$.rooms[1].roomImages.length()").value(0))
+            .andExpect(jsonPath("$.rooms[0].roomImages.length()").value(2))
+            .andExpect(jsonPath("$.rooms[0].roomImages[0].id").value(firstImage.getId().intValue()))
+            .andExpect(jsonPath("$.rooms[0].roomImages[0].roomId").value(roomA.getId().intValue()))
+            .andExpect(jsonPath("$.rooms[0].roomImages[1].displayOrder").value(2));
+    }
+
+    @Test
+    @Transactional
+    void getInactiveStudioDetailShouldBeNotFound() throws Exception {
+        studioRepository.saveAndFlush(studio.active(false));
+
+        restStudioMockMvc.perform(get(ENTITY_API_URL_ID, studio.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getStudioDetailShouldBeNotModifiedForTheCurrentETag() throws Exception {
+        studioRepository.saveAndFlush(studio.active(true));
+        persistRoom("A room", true);
+        String etag = getStudioDetailETag();
+
+        restStudioMockMvc
+            .perform(get(ENTITY_API_URL_ID, studio.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().bytes(new byte[0]));
+
+        restStudioMockMvc
+            .perform(get(ENTITY_API_URL_ID, studio.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0stale\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    @Transactional
+    void studioDetailETagShouldChangeAfterARoomUpdate() throws Exception {
+        studioRepository.saveAndFlush(studio.active(true));
+        Room room = persistRoom("A room", true);
+        String etag = getStudioDetailETag();
+
+        restStudioMockMvc
+            .perform(
+                patch("/api/rooms/{id}", room.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(Map.of("id", room.getId(), "name", "Renamed room")))
+            )
+            .andExpect(status().isOk());
+        em.flush();
+
+        restStudioMockMvc
+            .perform(get(ENTITY_API_URL_ID, studio.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.rooms[0].name").value("Renamed room"));
+    }
+
+    @Test
+    @Transactional
+    void studioDetailETagShouldChangeAfterAnImageUpdate() throws Exception {
+        studioRepository.saveAndFlush(studio.active(true));
+        RoomImage image = persistImage(persistRoom("A room", true), 1, true);
+        String etag = getStudioDetailETag();
+
+        restStudioMockMvc
+            .perform(
+                patch("/api/room-images/{id}", image.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(Map.of("id", image.getId(), "altText", "Updated")))
+            )
+            .andExpect(status().isOk());
+        em.flush();
+
+        restStudioMockMvc
+            .perform(get(ENTITY_API_URL_ID, studio.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.rooms[0].roomImages[0].altText").value("Updated"));
+    }
+
+    private String getStudioDetailETag() throws Exception {
+        return restStudioMockMvc
+            .perform(get(ENTITY_API_URL_ID, studio.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    }
+
+    private Room persistRoom(String name, boolean active) {
+        Room room = new Room().name(name).hourlyRate(BigDecimal.valueOf(100)).roomType(RoomType.RECORDING).active(active).studio(studio);
+        em.persist(room);
+        em.flush();
+        return room;
+    }
+
+    private RoomImage persistImage(Room room, int displayOrder, boolean active) {
+        RoomImage image = new RoomImage().url("http://images/" + displayOrder).displayOrder(displayOrder).active(active).room(room);
+        em.persist(image);
+        em.flush();
+        return image;
+    }
+
     @Test
     @Transactional
     void getStudiosByIdFiltering() throws Exception {
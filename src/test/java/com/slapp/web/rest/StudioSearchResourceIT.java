@@ -0,0 +1,434 @@
+package com.slapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slapp.IntegrationTest;
+import com.slapp.repository.StudioRoomSummaryRepository;
+import com.slapp.service.EquipmentService;
+import com.slapp.service.RoomService;
+import com.slapp.service.dto.EquipmentDTO;
+import com.slapp.service.dto.RoomDTO;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the studio search endpoints of the {@link StudioResource} REST controller.
+ * <p>
+ * The studios are seeded with {@link JdbcTemplate} in cities of their own, and every search is restricted to
+ * them, so the rows of other tests do not change the results.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class StudioSearchResourceIT {
+
+    private static final long SEED_ID = 2_600_000L;
+    private static final String CITY = "Qwxcity";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String HAS_NEXT_PAGE_HEADER = "X-Has-Next-Page";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final double LATITUDE = -45.0;
+    private static final double LONGITUDE = -25.0;
+
+    private static final long ALPHA = SEED_ID + 1;
+    private static final long BETA = SEED_ID + 2;
+    private static final long GAMMA = SEED_ID + 3;
+    private static final long DELTA = SEED_ID + 4;
+    private static final long INACTIVE = SEED_ID + 5;
+
+    @Autowired
+    private MockMvc restStudioMockMvc;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudioRoomSummaryRepository studioRoomSummaryRepository;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private EquipmentService equipmentService;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update(
+            "INSERT INTO jhi_user (id, login, activated, created_by) VALUES (?, 'studio-search-resource', true, 'system')",
+            SEED_ID
+        );
+        jdbcTemplate.update("INSERT INTO user_profile (id, user_type, user_id) VALUES (?, 'CUSTOMER', ?)", SEED_ID, SEED_ID);
+        insertStudio(ALPHA, "Alpha Sound", CITY + " Norte", true);
+        insertStudio(BETA, "Beta Studio", CITY + " Sul", true);
+        insertStudio(GAMMA, "Gamma Sound", CITY + " Norte", true);
+        insertStudio(DELTA, "Delta Sound", CITY + " Sul", true);
+        insertStudio(INACTIVE, "Epsilon Sound", CITY + " Sul", false);
+        // Alpha: 80 to 150; Beta: 40; Gamma: 300; Delta: 80, the same minimum price as Alpha
+        insertRoom(SEED_ID + 11, ALPHA, "RECORDING", 80);
+        insertRoom(SEED_ID + 12, ALPHA, "REHEARSAL", 150);
+        insertRoom(SEED_ID + 21, BETA, "MIXING", 40);
+        insertRoom(SEED_ID + 31, GAMMA, "MASTERING", 300);
+        insertRoom(SEED_ID + 41, DELTA, "RECORDING", 80);
+        insertRoom(SEED_ID + 51, INACTIVE, "RECORDING", 100);
+        for (long studioId = ALPHA; studioId <= INACTIVE; studioId++) {
+            studioRoomSummaryRepository.refreshByStudioId(studioId);
+        }
+    }
+
+    @Test
+    void keysetShouldWalkEverySortToTheEnd() throws Exception {
+        assertThat(walkKeyset("id", 1)).containsExactly(ALPHA, BETA, GAMMA, DELTA);
+        assertThat(walkKeyset(null, 3)).containsExactly(ALPHA, BETA, GAMMA, DELTA);
+        // Alpha and Delta share the minimum price: ties continue by id
+        assertThat(walkKeyset("minPrice", 1)).containsExactly(BETA, ALPHA, DELTA, GAMMA);
+        assertThat(walkKeyset("name", 1)).containsExactly(ALPHA, BETA, DELTA, GAMMA);
+    }
+
+    @Test
+    void keysetShouldContinueAfterTheLegacyLastId() throws Exception {
+        MvcResult result = restStudioMockMvc
+            .perform(keyset("id").param("lastId", Long.toString(BETA)).param("pageSize", "10"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+            .andReturn();
+
+        assertThat(ids(result)).containsExactly(GAMMA, DELTA);
+    }
+
+    @Test
+    void keysetCursorReusedWithOtherFiltersShouldBeRejected() throws Exception {
+        String cursor = nextCursor(restStudioMockMvc.perform(keyset("name").param("pageSize", "1")).andReturn());
+
+        restStudioMockMvc.perform(keyset("name").param("cursor", cursor).param("roomType", "RECORDING")).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(keyset("minPrice").param("cursor", cursor)).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(keyset("name").param("cursor", cursor)).andExpect(status().isOk());
+    }
+
+    @Test
+    void tamperedKeysetCursorShouldBeRejected() throws Exception {
+        String cursor = nextCursor(restStudioMockMvc.perform(keyset("minPrice").param("pageSize", "1")).andReturn());
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 5);
+        String otherHash = String.join("|", parts[0], parts[1], "0", parts[3], parts[4]);
+        String otherKey = String.join("|", parts[0], parts[1], parts[2], parts[3], "cheap");
+
+        restStudioMockMvc.perform(keyset("minPrice").param("cursor", encode(otherHash))).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(keyset("minPrice").param("cursor", encode(otherKey))).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(keyset("minPrice").param("cursor", "%%%")).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(keyset("distance")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void paginationWithExactTotalShouldCountEveryStudio() throws Exception {
+        MvcResult result = restStudioMockMvc
+            .perform(pagination("exact").param("page", "0").param("size", "3"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(TOTAL_COUNT_HEADER, "4"))
+            .andExpect(header().doesNotExist(HAS_NEXT_PAGE_HEADER))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+
+        assertThat(ids(result)).containsExactly(ALPHA, BETA, GAMMA);
+        // exact is the default
+        restStudioMockMvc.perform(pagination(null).param("size", "3")).andExpect(header().string(TOTAL_COUNT_HEADER, "4"));
+    }
+
+    @Test
+    void paginationWithCachedTotalShouldCountEveryStudio() throws Exception {
+        MvcResult result = restStudioMockMvc
+            .perform(pagination("cached").param("page", "1").param("size", "3"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(TOTAL_COUNT_HEADER, "4"))
+            .andExpect(header().doesNotExist(HAS_NEXT_PAGE_HEADER))
+            .andReturn();
+
+        assertThat(ids(result)).containsExactly(DELTA);
+    }
+
+    @Test
+    void paginationWithoutTotalShouldOnlyTellIfThereIsANextPage() throws Exception {
+        MvcResult first = restStudioMockMvc
+            .perform(pagination("none").param("page", "0").param("size", "3"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(TOTAL_COUNT_HEADER))
+            .andExpect(header().string(HAS_NEXT_PAGE_HEADER, "true"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("page=1")))
+            .andReturn();
+        MvcResult last = restStudioMockMvc
+            .perform(pagination("none").param("page", "1").param("size", "3"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(TOTAL_COUNT_HEADER))
+            .andExpect(header().string(HAS_NEXT_PAGE_HEADER, "false"))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))))
+            .andReturn();
+
+        assertThat(ids(first)).containsExactly(ALPHA, BETA, GAMMA);
+        assertThat(ids(last)).containsExactly(DELTA);
+        // An exactly full last page: the extra row tells there is nothing after it
+        restStudioMockMvc.perform(pagination("none").param("size", "4")).andExpect(header().string(HAS_NEXT_PAGE_HEADER, "false"));
+    }
+
+    @Test
+    void paginationShouldRejectAnUnknownTotalMode() throws Exception {
+        restStudioMockMvc.perform(pagination("approximate")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void paginationWithTextShouldRankByRelevanceAfterRoomAndEquipmentEdits() throws Exception {
+        jdbcTemplate.update(
+            "INSERT INTO equipment (id, name, available, equipment_type, room_id) VALUES (?, 'Órgão', true, 'KEYBOARD', ?)",
+            SEED_ID + 71,
+            SEED_ID + 31
+        );
+        // Gamma matches in an equipment brand (weight B), Beta in a room description (C)
+        EquipmentDTO equipment = new EquipmentDTO();
+        equipment.setId(SEED_ID + 71);
+        equipment.setBrand("Hammond");
+        equipmentService.partialUpdate(equipment);
+        RoomDTO room = new RoomDTO();
+        room.setId(SEED_ID + 21);
+        room.setDescription("Órgão Hammond B3");
+        roomService.partialUpdate(room);
+
+        // The relevance order replaces the requested sort by id
+        MvcResult result = restStudioMockMvc
+            .perform(pagination(null).param("q", "HAMMOND"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(TOTAL_COUNT_HEADER, "2"))
+            .andReturn();
+        assertThat(ids(result)).containsExactly(GAMMA, BETA);
+        assertThat(ids(restStudioMockMvc.perform(pagination(null).param("q", "orgao b3")).andReturn())).containsExactly(BETA);
+
+        room.setDescription("Piano");
+        roomService.partialUpdate(room);
+
+        assertThat(ids(restStudioMockMvc.perform(pagination(null).param("q", "hammond")).andReturn())).containsExactly(GAMMA);
+    }
+
+    @Test
+    void facetsShouldCountTheStudiosOfEachCityRoomTypeAndPriceBucket() throws Exception {
+        restStudioMockMvc
+            .perform(facets())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(4))
+            .andExpect(jsonPath("$.available").doesNotExist())
+            // Other cities may be listed too: the city facet ignores the city filter
+            .andExpect(jsonPath("$.cities[?(@.value == '" + CITY + " Norte')].count").value(contains(2)))
+            .andExpect(jsonPath("$.cities[?(@.value == '" + CITY + " Sul')].count").value(contains(2)))
+            .andExpect(jsonPath("$.roomTypes[*].value").value(contains("RECORDING", "MASTERING", "MIXING", "REHEARSAL")))
+            .andExpect(jsonPath("$.roomTypes[*].count").value(contains(2, 1, 1, 1)))
+            // Below 50, 50 to 100, 100 to 200 and from 200; Alpha has rooms at 80 and 150
+            .andExpect(jsonPath("$.priceBuckets.length()").value(4))
+            .andExpect(jsonPath("$.priceBuckets[1].minPrice").value(50))
+            .andExpect(jsonPath("$.priceBuckets[1].maxPrice").value(100))
+            .andExpect(jsonPath("$.priceBuckets[*].count").value(contains(1, 2, 1, 1)));
+    }
+
+    @Test
+    void facetsShouldApplyEveryFilterButTheirOwn() throws Exception {
+        restStudioMockMvc
+            .perform(facets().param("roomType", "RECORDING"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(2))
+            .andExpect(jsonPath("$.cities[?(@.value == '" + CITY + " Norte')].count").value(contains(1)))
+            .andExpect(jsonPath("$.cities[?(@.value == '" + CITY + " Sul')].count").value(contains(1)))
+            .andExpect(jsonPath("$.roomTypes[*].value").value(contains("RECORDING", "MASTERING", "MIXING", "REHEARSAL")))
+            // Only the recording rooms of Alpha and Delta, both at 80
+            .andExpect(jsonPath("$.priceBuckets[*].count").value(contains(0, 2, 0, 0)));
+    }
+
+    @Test
+    void facetsShouldCountTheAvailableStudiosApart() throws Exception {
+        jdbcTemplate.update(
+            "INSERT INTO reservation (id, start_date_time, end_date_time, total_price, status, customer_id, room_id) " +
+            "VALUES (?, TIMESTAMP '2030-01-07 10:00', TIMESTAMP '2030-01-07 12:00', 160, 'CONFIRMED', ?, ?)",
+            SEED_ID + 61,
+            SEED_ID,
+            SEED_ID + 11
+        );
+
+        restStudioMockMvc
+            .perform(
+                facets()
+                    .param("roomType", "RECORDING")
+                    .param("availabilityStartDateTime", "2030-01-07T11:00:00")
+                    .param("availabilityEndDateTime", "2030-01-07T13:00:00")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(2))
+            .andExpect(jsonPath("$.available").value(1))
+            .andExpect(jsonPath("$.cities[?(@.value == '" + CITY + " Norte')].count").doesNotExist())
+            .andExpect(jsonPath("$.cities[?(@.value == '" + CITY + " Sul')].count").value(contains(1)));
+    }
+
+    @Test
+    void nearbyShouldOrderByDistanceWithinTheRadius() throws Exception {
+        placeStudios();
+
+        MvcResult result = restStudioMockMvc
+            .perform(nearby(10).param("pageSize", "10"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+            .andReturn();
+
+        assertThat(ids(result)).containsExactly(ALPHA, BETA, DELTA, GAMMA);
+        List<Double> distances = new ArrayList<>();
+        om.readTree(result.getResponse().getContentAsString()).forEach(studio -> distances.add(studio.get("distance").asDouble()));
+        assertThat(distances).isSorted();
+        assertThat(distances.get(1)).isBetween(1_000d, 1_200d);
+
+        assertThat(ids(restStudioMockMvc.perform(nearby(2).param("pageSize", "10")).andReturn())).containsExactly(ALPHA, BETA);
+        assertThat(ids(restStudioMockMvc.perform(nearby(10).param("roomType", "RECORDING")).andReturn())).containsExactly(ALPHA, DELTA);
+        assertThat(ids(restStudioMockMvc.perform(nearby(10).param("maxPrice", "50")).andReturn())).containsExactly(BETA);
+    }
+
+    @Test
+    void nearbyShouldContinueAfterTheCursor() throws Exception {
+        placeStudios();
+
+        assertThat(walk(() -> nearby(10).param("pageSize", "1"))).containsExactly(ALPHA, BETA, DELTA, GAMMA);
+        assertThat(walk(() -> nearby(10).param("pageSize", "3"))).containsExactly(ALPHA, BETA, DELTA, GAMMA);
+
+        // The cursor belongs to the point, the radius and the filters of its search
+        String cursor = nextCursor(restStudioMockMvc.perform(nearby(10).param("pageSize", "1")).andReturn());
+        restStudioMockMvc.perform(nearby(20).param("cursor", cursor)).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(nearby(10).param("cursor", cursor).param("roomType", "MIXING")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void nearbyShouldRejectAnInvalidRadiusPointOrPageSize() throws Exception {
+        restStudioMockMvc.perform(nearby(0)).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(nearby(201)).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(nearby(200)).andExpect(status().isOk());
+        restStudioMockMvc.perform(nearby(10).param("pageSize", "0")).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(nearby(10).param("pageSize", "101")).andExpect(status().isBadRequest());
+        restStudioMockMvc.perform(nearby(10).param("pageSize", "100")).andExpect(status().isOk());
+        restStudioMockMvc
+            .perform(get("/api/studios/nearby").param("latitude", "91").param("longitude", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Follows the {@code X-Next-Cursor} of the keyset search until the last page.
+     */
+    private List<Long> walkKeyset(String sort, int pageSize) throws Exception {
+        return walk(() -> keyset(sort).param("pageSize", Integer.toString(pageSize)));
+    }
+
+    /**
+     * Follows the {@code X-Next-Cursor} header from the first page until the last one.
+     */
+    private List<Long> walk(Supplier<MockHttpServletRequestBuilder> firstPage) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = firstPage.get();
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = restStudioMockMvc.perform(request).andExpect(status().isOk()).andReturn();
+            ids.addAll(ids(result));
+            cursor = nextCursor(result);
+            assertThat(ids.size()).as("walked studios").isLessThanOrEqualTo(4);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private MockHttpServletRequestBuilder keyset(String sort) {
+        MockHttpServletRequestBuilder request = get("/api/studios/keyset").param("city", CITY);
+        return sort != null ? request.param("sort", sort) : request;
+    }
+
+    private MockHttpServletRequestBuilder pagination(String total) {
+        MockHttpServletRequestBuilder request = get("/api/studios/pagination").param("city", CITY).param("sort", "id");
+        return total != null ? request.param("total", total) : request;
+    }
+
+    private MockHttpServletRequestBuilder facets() {
+        return get("/api/studios/facets").param("city", CITY);
+    }
+
+    private MockHttpServletRequestBuilder nearby(double radiusKm) {
+        return get("/api/studios/nearby")
+            .param("latitude", Double.toString(LATITUDE))
+            .param("longitude", Double.toString(LONGITUDE))
+            .param("radiusKm", Double.toString(radiusKm));
+    }
+
+    /**
+     * Places the studios south of an empty point in the ocean: Beta at about 1.1 km, Delta 2.2 km and Gamma 5.6 km.
+     */
+    private void placeStudios() {
+        setPosition(ALPHA, LATITUDE);
+        setPosition(BETA, LATITUDE - 0.01);
+        setPosition(DELTA, LATITUDE - 0.02);
+        setPosition(GAMMA, LATITUDE - 0.05);
+        setPosition(INACTIVE, LATITUDE);
+    }
+
+    private void setPosition(long studioId, double latitude) {
+        jdbcTemplate.update("UPDATE studio SET latitude = ?, longitude = ? WHERE id = ?", latitude, LONGITUDE, studioId);
+    }
+
+    private List<Long> ids(MvcResult result) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode studio : om.readTree(result.getResponse().getContentAsString())) {
+            ids.add(studio.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String nextCursor(MvcResult result) {
+        return result.getResponse().getHeader(NEXT_CURSOR_HEADER);
+    }
+
+    private void insertStudio(long id, String name, String city, boolean active) {
+        jdbcTemplate.update(
+            "INSERT INTO studio (id, name, address, city, state, active, owner_id) VALUES (?, ?, 'Rua 1', ?, 'SP', ?, ?)",
+            id,
+            name,
+            city,
+            active,
+            SEED_ID
+        );
+    }
+
+    private void insertRoom(long id, long studioId, String roomType, int hourlyRate) {
+        jdbcTemplate.update(
+            "INSERT INTO room (id, name, hourly_rate, room_type, active, studio_id) VALUES (?, ?, ?, ?, true, ?)",
+            id,
+            "Room " + id,
+            hourlyRate,
+            roomType,
+            studioId
+        );
+    }
+}